@@ -67,6 +67,30 @@ public abstract class LongRunningProcessRepositoryTestBase extends OpenLumifyInM
         lrpr.reportProgress(new JSONObject(), 1.0, "test");
     }
 
+    @Test
+    public void testCheckpoint() {
+        LongRunningProcessQueueItem item = new LongRunningProcessQueueItem();
+        String id = lrpr.enqueue(item, user, getGraphAuthorizations(user));
+        JSONObject itemJson = lrpr.findById(id, user);
+        itemJson.put("id", id);
+
+        JSONObject checkpoint = new JSONObject();
+        checkpoint.put("lastIndexedId", "v1");
+        lrpr.checkpoint(itemJson, checkpoint);
+        lrpr.reportProgress(itemJson, 0.5, "test");
+
+        JSONObject storedCheckpoint = lrpr.findById(id, user).optJSONObject(LongRunningProcessRepository.CHECKPOINT);
+        assertNotNull("checkpoint should be stored", storedCheckpoint);
+        assertEquals("v1", storedCheckpoint.getString("lastIndexedId"));
+    }
+
+    @Test
+    public void testSystemUserCheckpoint() {
+        JSONObject itemJson = new JSONObject();
+        lrpr.checkpoint(itemJson, new JSONObject());
+        assertNotNull(itemJson.optJSONObject(LongRunningProcessRepository.CHECKPOINT));
+    }
+
     @Test
     public void testSystemUserCancel() {
         lrpr.cancel(null, systemUser);
@@ -599,7 +599,8 @@ public abstract class OpenLumifyInMemoryTestBase {
                 getUserRepository(),
                 getWorkQueueRepository(),
                 getGraph(),
-                getAuthorizationRepository()
+                getAuthorizationRepository(),
+                getConfiguration()
         );
         return longRunningProcessRepository;
     }
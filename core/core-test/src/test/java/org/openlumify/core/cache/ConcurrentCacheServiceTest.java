@@ -0,0 +1,54 @@
+package org.openlumify.core.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openlumify.core.status.JmxMetricsManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ConcurrentCacheServiceTest {
+    private ConcurrentCacheService cacheService;
+
+    @Before
+    public void before() {
+        cacheService = new ConcurrentCacheService(new JmxMetricsManager());
+    }
+
+    @Test
+    public void testPutGetAndInvalidate() {
+        CacheOptions cacheOptions = new CacheOptions().setMaximumSize(10L);
+        cacheService.put("test", "k1", "v1", cacheOptions);
+        cacheService.put("test", "k2", "v2", cacheOptions);
+
+        assertEquals("v1", cacheService.getIfPresent("test", "k1"));
+        assertNull(cacheService.getIfPresent("other", "k1"));
+
+        cacheService.invalidate("test", "k1");
+        assertNull(cacheService.getIfPresent("test", "k1"));
+        assertEquals("v2", cacheService.getIfPresent("test", "k2"));
+
+        cacheService.invalidate("test");
+        assertNull(cacheService.getIfPresent("test", "k2"));
+    }
+
+    @Test
+    public void testMaximumWeight() {
+        CacheOptions cacheOptions = new CacheOptions()
+                .setMaximumWeight(5L, (String key, String value) -> value.length())
+                .setConcurrencyLevel(1);
+        cacheService.put("weighted", "k1", "abc", cacheOptions);
+        cacheService.put("weighted", "k2", "def", cacheOptions);
+
+        assertNull(cacheService.getIfPresent("weighted", "k1"));
+        assertEquals("def", cacheService.getIfPresent("weighted", "k2"));
+    }
+
+    @Test
+    public void testExpireAfterWrite() throws InterruptedException {
+        CacheOptions cacheOptions = new CacheOptions().setExpireAfterWriteMillis(10L);
+        cacheService.put("expiring", "k1", "v1", cacheOptions);
+        Thread.sleep(50);
+        assertNull(cacheService.getIfPresent("expiring", "k1"));
+    }
+}
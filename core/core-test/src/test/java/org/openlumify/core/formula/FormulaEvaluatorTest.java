@@ -15,7 +15,10 @@ import org.openlumify.core.config.HashMapConfigurationLoader;
 import org.openlumify.core.model.ontology.OntologyRepository;
 import org.openlumify.core.model.properties.OpenLumifyProperties;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
@@ -98,6 +101,53 @@ public class FormulaEvaluatorTest {
         assertEquals("2014-11-20", evaluator.evaluateTimeFormula(null, userContext, authorizations));
     }
 
+    @Test
+    public void testEvaluateBatch() {
+        List<FormulaEvaluator.FormulaResults> results = evaluator.evaluateBatch(Arrays.asList(null, null), userContext, authorizations);
+
+        assertEquals(2, results.size());
+        for (FormulaEvaluator.FormulaResults result : results) {
+            assertEquals("Prop A Value, Prop B Value", result.getTitle());
+            assertEquals("Prop C Value", result.getSubtitle());
+            assertEquals("2014-11-20", result.getTime());
+        }
+    }
+
+    @Test
+    public void testEvaluateBatchMatchesPerObjectEvaluation() {
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ElementBuilder<Vertex> m = graph.prepareVertex("v" + i, new Visibility(""))
+                    .setProperty("http://openlumify.org/dev#titleFormulaEntityPropA", "A" + i, new Visibility(""))
+                    .setProperty("http://openlumify.org/dev#titleFormulaEntityPropC", "C" + i, new Visibility(""));
+            if (i % 2 == 0) {
+                m.setProperty("http://openlumify.org/dev#titleFormulaEntityPropB", "B" + i, new Visibility(""));
+            }
+            OpenLumifyProperties.CONCEPT_TYPE.setProperty(m, "http://openlumify.org/dev#titleFormulaEntity", new Visibility(""));
+            vertices.add(m.save(authorizations));
+        }
+        ElementBuilder<Vertex> m = graph.prepareVertex("vDuration", new Visibility(""))
+                .setProperty("http://openlumify.org/dev#duration", 5000, new Visibility(""));
+        OpenLumifyProperties.CONCEPT_TYPE.setProperty(m, "http://openlumify.org/dev#entityWithFormatterCall", new Visibility(""));
+        vertices.add(m.save(authorizations));
+        graph.flush();
+
+        List<FormulaEvaluator.FormulaResults> results = evaluator.evaluateBatch(vertices, userContext, authorizations);
+
+        assertEquals(vertices.size(), results.size());
+        for (int i = 0; i < vertices.size(); i++) {
+            Vertex vertex = vertices.get(i);
+            FormulaEvaluator.FormulaResults result = results.get(i);
+            assertEquals(evaluator.evaluateTitleFormula(vertex, userContext, authorizations), result.getTitle());
+            assertEquals(evaluator.evaluateSubtitleFormula(vertex, userContext, authorizations), result.getSubtitle());
+            assertEquals(evaluator.evaluateTimeFormula(vertex, userContext, authorizations), result.getTime());
+        }
+        assertEquals("A0, B0", results.get(0).getTitle());
+        assertEquals("A1, ", results.get(1).getTitle());
+        assertEquals("C1", results.get(1).getSubtitle());
+        assertEquals("Duration: 1h 23m 20s", results.get(5).getTitle());
+    }
+
     @Test
     public void testEvaluateFormatterCall() {
         ElementBuilder<Vertex> m = graph.prepareVertex("v1", new Visibility(""))
@@ -0,0 +1,111 @@
+package org.openlumify.core.ingest.graphProperty;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openlumify.core.model.workQueue.Priority;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JSON and binary formats of {@link GraphPropertyMessage}. Run the main method from the test
+ * classpath, the encoded size of each format is printed before the benchmarks start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphPropertyMessageBenchmark {
+    @Param({"single", "properties", "multipleElements"})
+    public String messageType;
+
+    private GraphPropertyMessage message;
+    private byte[] jsonData;
+    private byte[] binaryData;
+
+    @Setup
+    public void setup() {
+        message = createMessage(messageType);
+        jsonData = message.toBytes();
+        binaryData = message.toBinaryBytes();
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return message.toBytes();
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return message.toBinaryBytes();
+    }
+
+    @Benchmark
+    public GraphPropertyMessage decodeJson() {
+        return GraphPropertyMessage.create(jsonData);
+    }
+
+    @Benchmark
+    public GraphPropertyMessage decodeBinary() {
+        return GraphPropertyMessage.create(binaryData);
+    }
+
+    static GraphPropertyMessage createMessage(String messageType) {
+        GraphPropertyMessage message = new GraphPropertyMessage()
+                .setPriority(Priority.NORMAL)
+                .setWorkspaceId("WORKSPACE_6a1d4f0c8b0e4d7e9b2f3a4c5d6e7f80")
+                .setVisibilitySource("");
+        switch (messageType) {
+            case "single":
+                return message
+                        .setGraphVertexId(new String[]{"a1b2c3d4e5f60718293a4b5c6d7e8f90"})
+                        .setPropertyKey("")
+                        .setPropertyName("http://openlumify.org#raw")
+                        .setStatus(ElementOrPropertyStatus.UPDATE);
+            case "properties":
+                GraphPropertyMessage.Property[] properties = new GraphPropertyMessage.Property[10];
+                for (int i = 0; i < properties.length; i++) {
+                    properties[i] = new GraphPropertyMessage.Property()
+                            .setPropertyKey("key" + i)
+                            .setPropertyName("http://openlumify.org/test#property" + i)
+                            .setStatus(i % 2 == 0 ? ElementOrPropertyStatus.UPDATE : ElementOrPropertyStatus.DELETION)
+                            .setBeforeActionTimestamp(i % 2 == 0 ? null : 1500000000000L + i);
+                }
+                return message
+                        .setGraphVertexId(new String[]{"a1b2c3d4e5f60718293a4b5c6d7e8f90"})
+                        .setProperties(properties);
+            case "multipleElements":
+                String[] vertexIds = new String[200];
+                for (int i = 0; i < vertexIds.length; i++) {
+                    vertexIds[i] = String.format("%032x", i);
+                }
+                return message
+                        .setGraphVertexId(vertexIds)
+                        .setPropertyKey("")
+                        .setPropertyName("http://openlumify.org#title")
+                        .setStatus(ElementOrPropertyStatus.UPDATE);
+            default:
+                throw new IllegalArgumentException("Unknown message type: " + messageType);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (String messageType : new String[]{"single", "properties", "multipleElements"}) {
+            GraphPropertyMessage message = createMessage(messageType);
+            System.out.println(String.format(
+                    "%s: json %d bytes, binary %d bytes",
+                    messageType,
+                    message.toBytes().length,
+                    message.toBinaryBytes().length
+            ));
+        }
+        Options options = new OptionsBuilder()
+                .include(GraphPropertyMessageBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
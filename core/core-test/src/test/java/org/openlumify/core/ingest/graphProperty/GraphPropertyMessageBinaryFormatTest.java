@@ -0,0 +1,57 @@
+package org.openlumify.core.ingest.graphProperty;
+
+import org.junit.Test;
+import org.openlumify.core.exception.OpenLumifyException;
+import org.openlumify.core.model.workQueue.Priority;
+
+import static org.junit.Assert.*;
+
+public class GraphPropertyMessageBinaryFormatTest {
+    @Test
+    public void testRoundTrip() {
+        GraphPropertyMessage message = new GraphPropertyMessage()
+                .setPriority(Priority.HIGH)
+                .setWorkspaceId("ws1")
+                .setVisibilitySource("a&b")
+                .setGraphVertexId(new String[]{"v1", "vé2"})
+                .setGraphEdgeId(new String[0])
+                .setPropertyKey("k1")
+                .setPropertyName("http://openlumify.org#title")
+                .setStatus(ElementOrPropertyStatus.DELETION)
+                .setBeforeActionTimestamp(1500000000000L)
+                .setProperties(new GraphPropertyMessage.Property[]{
+                        new GraphPropertyMessage.Property()
+                                .setPropertyKey("k2")
+                                .setPropertyName("p2")
+                                .setStatus(ElementOrPropertyStatus.HIDDEN)
+                                .setBeforeActionTimestamp(-1L),
+                        new GraphPropertyMessage.Property()
+                });
+        message.setTraceEnabled(true);
+
+        byte[] data = message.toBinaryBytes();
+        assertTrue(GraphPropertyMessageBinaryFormat.isBinary(data));
+        assertTrue(data.length < message.toBytes().length);
+
+        GraphPropertyMessage result = GraphPropertyMessage.create(data);
+        assertEquals(message.toJsonString(), result.toJsonString());
+    }
+
+    @Test
+    public void testJsonIsStillAccepted() {
+        GraphPropertyMessage message = GraphPropertyMessage.create("{\"priority\":\"LOW\",\"graphVertexId\":\"v1\"}".getBytes());
+        assertEquals(Priority.LOW, message.getPriority());
+        assertArrayEquals(new String[]{"v1"}, message.getGraphVertexId());
+    }
+
+    @Test(expected = OpenLumifyException.class)
+    public void testTruncatedData() {
+        byte[] data = new GraphPropertyMessage()
+                .setPriority(Priority.NORMAL)
+                .setPropertyKey("k1")
+                .toBinaryBytes();
+        byte[] truncated = new byte[data.length - 1];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        GraphPropertyMessage.create(truncated);
+    }
+}
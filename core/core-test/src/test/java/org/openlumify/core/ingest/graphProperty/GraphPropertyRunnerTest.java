@@ -16,9 +16,7 @@ import org.openlumify.core.status.JmxMetricsManager;
 import org.openlumify.core.status.MetricsManager;
 
 import java.io.InputStream;
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -38,6 +36,8 @@ public class GraphPropertyRunnerTest {
     private GraphPropertyRunner testSubject;
     private Graph graph;
     private MetricsManager metricsManager = new JmxMetricsManager();
+    private Map<String, Vertex> vertices = new HashMap<>();
+    private Map<String, Edge> edges = new HashMap<>();
 
     @Mock
     private WorkQueueRepository workQueueRepository;
@@ -57,9 +57,23 @@ public class GraphPropertyRunnerTest {
                 authorizationRepository
         );
         graph = mock(Graph.class);
+        when(graph.getVertices(any(Iterable.class), any(EnumSet.class), any(Long.class), any(Authorizations.class)))
+                .thenAnswer(invocation -> getByIds(vertices, (Iterable<String>) invocation.getArguments()[0]));
+        when(graph.getEdges(any(Iterable.class), any(EnumSet.class), any(Long.class), any(Authorizations.class)))
+                .thenAnswer(invocation -> getByIds(edges, (Iterable<String>) invocation.getArguments()[0]));
         testSubject.setGraph(graph);
     }
 
+    private static <T> List<T> getByIds(Map<String, T> elements, Iterable<String> ids) {
+        List<T> results = new ArrayList<>();
+        for (String id : ids) {
+            if (elements.containsKey(id)) {
+                results.add(elements.get(id));
+            }
+        }
+        return results;
+    }
+
     @Test
     public void testHandlePropertyOnVertexIsHandledByGPWS() throws Exception {
         TestCountingGPWStub countingGPWStub = new TestCountingGPWStub();
@@ -72,6 +86,56 @@ public class GraphPropertyRunnerTest {
         assertThat(countingGPWStub.isHandledCount.get(), is(1L));
     }
 
+    @Test
+    public void testWorkersWithInterestAreRoutedWithoutCallingIsHandled() throws Exception {
+        TestCountingGPWStub countingGPWStub = new TestCountingGPWStub() {
+            @Override
+            public GraphPropertyWorkerInterest getInterest() {
+                return GraphPropertyWorkerInterest.forProperties(PROP_NAME + "1");
+            }
+        };
+
+        inflateVertexAndAddToGraph(VERTEX_ID, 3L);
+        runTests(countingGPWStub, createVertexIdJSONGPWMessage(VERTEX_ID));
+
+        assertThat(countingGPWStub.isExecutingCount.get(), is(1L));
+        assertThat(countingGPWStub.isHandledCount.get(), is(0L));
+    }
+
+    @Test
+    public void testWorkersWithAllPropertiesInterestAreRoutedForEachProperty() throws Exception {
+        TestCountingGPWStub countingGPWStub = new TestCountingGPWStub() {
+            @Override
+            public GraphPropertyWorkerInterest getInterest() {
+                return GraphPropertyWorkerInterest.forAllProperties()
+                        .setExcludedPropertyNames(PROP_NAME + "0");
+            }
+        };
+
+        inflateVertexAndAddToGraph(VERTEX_ID, 3L);
+        runTests(countingGPWStub, createVertexIdJSONGPWMessage(VERTEX_ID));
+
+        assertThat(countingGPWStub.isExecutingCount.get(), is(2L));
+        assertThat(countingGPWStub.isHandledCount.get(), is(0L));
+    }
+
+    @Test
+    public void testWorkersWithHandledCheckedInterestAreAskedForMatchingProperties() throws Exception {
+        TestCountingGPWStub countingGPWStub = new TestCountingGPWStub() {
+            @Override
+            public GraphPropertyWorkerInterest getInterest() {
+                return GraphPropertyWorkerInterest.forProperties(PROP_NAME + "1")
+                        .setHandledChecked(true);
+            }
+        };
+
+        inflateVertexAndAddToGraph(VERTEX_ID, 3L);
+        runTests(countingGPWStub, createVertexIdJSONGPWMessage(VERTEX_ID));
+
+        assertThat(countingGPWStub.isExecutingCount.get(), is(1L));
+        assertThat(countingGPWStub.isHandledCount.get(), is(1L));
+    }
+
     @Test
     public void testAllPropertiesOnVertexAreProcessedByGraphPropertyWorkers() throws Exception {
         TestCountingGPWStub countingGPWStub = new TestCountingGPWStub();
@@ -138,6 +202,62 @@ public class GraphPropertyRunnerTest {
         testMultiElementMessage(numMessages, numProperties, createMultiVertexIdJSONGPWMessage(ids));
     }
 
+    @Test
+    public void testMultipleVerticesAreFetchedInOneCallInMessageOrder() throws Exception {
+        String[] ids = {VERTEX_ID + "_2", "missing", VERTEX_ID + "_1"};
+        inflateVertexAndAddToGraph(ids[0], 1L);
+        inflateVertexAndAddToGraph(ids[2], 1L);
+
+        GraphPropertyWorkerItem workerItem = testSubject.tupleDataToWorkerItem(createMultiVertexIdJSONGPWMessage(ids).toBytes());
+
+        assertThat(workerItem.getElements().size(), is(2));
+        assertThat(workerItem.getElements().get(0).getId(), is(ids[0]));
+        assertThat(workerItem.getElements().get(1).getId(), is(ids[2]));
+        verify(graph, times(1)).getVertices(any(Iterable.class), any(EnumSet.class), any(Long.class), any(Authorizations.class));
+        verify(graph, never()).getVertex(anyString(), any(Authorizations.class));
+    }
+
+    @Test
+    public void testCachedElementIsNotUsedForLaterUpdate() throws Exception {
+        when(configuration.getLong(eq(GraphPropertyRunner.CONFIG_ELEMENT_CACHE_EXPIRE_MILLIS), anyLong())).thenReturn(60000L);
+        when(configuration.getInt(eq(GraphPropertyRunner.CONFIG_ELEMENT_CACHE_MAXIMUM_SIZE), anyInt())).thenReturn(100);
+        testSubject.initializeElementCache();
+        List<Object> executedValues = Collections.synchronizedList(new ArrayList<>());
+        TestCountingGPWStub countingGPWStub = new TestCountingGPWStub() {
+            @Override
+            public void execute(InputStream in, GraphPropertyWorkData data) throws Exception {
+                executedValues.add(data.getProperty().getValue());
+            }
+        };
+        GraphPropertyThreadedWrapper graphPropertyThreadedWrapper = startInThread(countingGPWStub);
+        testSubject.addGraphPropertyThreadedWrappers(graphPropertyThreadedWrapper);
+        GraphPropertyMessage message = createVertexPropertyGPWMessage(VERTEX_ID, PROP_NAME, PROP_KEY);
+
+        inflateVertexAndAddToGraph(VERTEX_ID, createProperty(PROP_NAME, PROP_KEY, "first"));
+        testSubject.process(testSubject.tupleDataToWorkerItem(message.toBytes()));
+        inflateVertexAndAddToGraph(VERTEX_ID, createProperty(PROP_NAME, PROP_KEY, "second"));
+        testSubject.process(testSubject.tupleDataToWorkerItem(message.toBytes()));
+        stopInThread(graphPropertyThreadedWrapper);
+
+        assertThat(executedValues, is(Arrays.<Object>asList("first", "second")));
+        verify(graph, times(2)).getVertices(any(Iterable.class), any(EnumSet.class), any(Long.class), any(Authorizations.class));
+    }
+
+    @Test
+    public void testCachedElementIsUsedForMessagesReceivedBeforeTheFetch() throws Exception {
+        when(configuration.getLong(eq(GraphPropertyRunner.CONFIG_ELEMENT_CACHE_EXPIRE_MILLIS), anyLong())).thenReturn(60000L);
+        when(configuration.getInt(eq(GraphPropertyRunner.CONFIG_ELEMENT_CACHE_MAXIMUM_SIZE), anyInt())).thenReturn(100);
+        testSubject.initializeElementCache();
+        inflateVertexAndAddToGraph(VERTEX_ID, createProperty(PROP_NAME, PROP_KEY, PROP_VALUE));
+        byte[] data = createVertexPropertyGPWMessage(VERTEX_ID, PROP_NAME, PROP_KEY).toBytes();
+
+        long receivedNanos = System.nanoTime();
+        testSubject.tupleDataToWorkerItem(data, receivedNanos);
+        testSubject.tupleDataToWorkerItem(data, receivedNanos);
+
+        verify(graph, times(1)).getVertices(any(Iterable.class), any(EnumSet.class), any(Long.class), any(Authorizations.class));
+    }
+
     @Test
     public void testMultipleElementsOnSinglePropertyRunsOnPropertyOnAllElements() throws Exception {
         int numElements = 5;
@@ -289,11 +409,11 @@ public class GraphPropertyRunnerTest {
     }
 
     private void registerVertexWithGraph(String id, Vertex v) {
-        when(graph.getVertex(eq(id), any(Authorizations.class))).thenReturn(v);
+        vertices.put(id, v);
     }
 
     private void registerEdgeWithGraph(String edgeId, Edge e) {
-        when(graph.getEdge(eq(edgeId), any(Authorizations.class))).thenReturn(e);
+        edges.put(edgeId, e);
     }
 
     private static GraphPropertyMessage createMultiEdgeIdJSONGPWMessage(String... edgeIds) {
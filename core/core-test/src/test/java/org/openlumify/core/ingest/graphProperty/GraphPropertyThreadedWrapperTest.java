@@ -0,0 +1,137 @@
+package org.openlumify.core.ingest.graphProperty;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlumify.core.model.workQueue.Priority;
+import org.openlumify.core.status.JmxMetricsManager;
+import org.vertexium.Element;
+import org.vertexium.Property;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GraphPropertyThreadedWrapperTest {
+    private ExecutorService executorService;
+
+    @Before
+    public void before() {
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void after() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrencyIsLimitedPerWorkerOnASharedExecutor() {
+        ConcurrencyCountingWorker worker = new ConcurrencyCountingWorker();
+        GraphPropertyThreadedWrapper wrapper = createWrapper(worker);
+        wrapper.start(executorService, 2);
+
+        List<GraphPropertyThreadedWrapper.Work> works = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            works.add(wrapper.enqueueWork(null, createWorkData()));
+        }
+        for (GraphPropertyThreadedWrapper.Work work : works) {
+            assertNull(wrapper.dequeueResult(work, false).getError());
+        }
+
+        assertEquals(8, worker.executedCount.get());
+        assertEquals(2, worker.maximumRunningCount.get());
+    }
+
+    @Test
+    public void testStopBeforeRunIsKept() throws Exception {
+        GraphPropertyThreadedWrapper wrapper = createWrapper(new ConcurrencyCountingWorker());
+        wrapper.stop();
+
+        Thread thread = new Thread(wrapper);
+        thread.start();
+        thread.join(5000);
+
+        assertFalse("run should return once stopped", thread.isAlive());
+    }
+
+    @Test
+    public void testCloseFailureAfterSuccessIsNotASecondResult() {
+        GraphPropertyThreadedWrapper wrapper = createWrapper(new ConcurrencyCountingWorker());
+        wrapper.start(Runnable::run, 1);
+
+        GraphPropertyThreadedWrapper.Work work = wrapper.enqueueWork(new CloseFailingInputStream(), createWorkData());
+
+        assertNull(wrapper.dequeueResult(work, false).getError());
+        assertTrue("the close failure should only be logged", work.getResults().isEmpty());
+    }
+
+    @Test
+    public void testCloseFailureAfterWorkerFailureKeepsTheWorkerError() {
+        IllegalStateException workerError = new IllegalStateException("worker failed");
+        GraphPropertyThreadedWrapper wrapper = createWrapper(new ConcurrencyCountingWorker() {
+            @Override
+            public void execute(InputStream in, GraphPropertyWorkData data) throws Exception {
+                throw workerError;
+            }
+        });
+        wrapper.start(Runnable::run, 1);
+
+        GraphPropertyThreadedWrapper.Work work = wrapper.enqueueWork(new CloseFailingInputStream(), createWorkData());
+
+        assertSame(workerError, wrapper.dequeueResult(work, false).getError());
+        assertTrue("the close failure should only be logged", work.getResults().isEmpty());
+    }
+
+    private GraphPropertyThreadedWrapper createWrapper(GraphPropertyWorker worker) {
+        GraphPropertyThreadedWrapper wrapper = new GraphPropertyThreadedWrapper(worker);
+        wrapper.setMetricsManager(new JmxMetricsManager());
+        return wrapper;
+    }
+
+    private GraphPropertyWorkData createWorkData() {
+        return new GraphPropertyWorkData(null, null, null, null, null, Priority.NORMAL, false);
+    }
+
+    private static class CloseFailingInputStream extends ByteArrayInputStream {
+        CloseFailingInputStream() {
+            super(new byte[0]);
+        }
+
+        @Override
+        public void close() throws IOException {
+            throw new IOException("close failed");
+        }
+    }
+
+    private static class ConcurrencyCountingWorker extends GraphPropertyWorker {
+        private final AtomicInteger runningCount = new AtomicInteger();
+        private final AtomicInteger maximumRunningCount = new AtomicInteger();
+        private final AtomicInteger executedCount = new AtomicInteger();
+
+        @Override
+        public void execute(InputStream in, GraphPropertyWorkData data) throws Exception {
+            int running = runningCount.incrementAndGet();
+            maximumRunningCount.accumulateAndGet(running, Math::max);
+            Thread.sleep(50);
+            runningCount.decrementAndGet();
+            executedCount.incrementAndGet();
+        }
+
+        @Override
+        public boolean isHandled(Element element, Property property) {
+            return true;
+        }
+    }
+}
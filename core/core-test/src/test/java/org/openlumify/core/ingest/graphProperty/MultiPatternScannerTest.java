@@ -0,0 +1,55 @@
+package org.openlumify.core.ingest.graphProperty;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class MultiPatternScannerTest {
+    private static final List<Pattern> PATTERNS = Arrays.asList(
+            Pattern.compile("\\b[a-z]+@[a-z]+\\.com\\b", Pattern.MULTILINE),
+            Pattern.compile("\\d{3,6}"),
+            Pattern.compile("^x+", Pattern.MULTILINE)
+    );
+
+    @Test
+    public void testMatchesAcrossChunks() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("mail ab@cd.com or 12345\nxx ").append(i).append(" zz@q.com\n");
+        }
+
+        for (int chunkSize : new int[]{1, 7, 64, 100000}) {
+            List<String> matches = new ArrayList<>();
+            new MultiPatternScanner(PATTERNS, chunkSize, 20).scan(
+                    new StringReader(text.toString()),
+                    (patternIndex, start, end, match) -> matches.add(patternIndex + ":" + start + "-" + end + ":" + match)
+            );
+            // each pattern reports its matches in order, the patterns are interleaved chunk by chunk
+            Collections.sort(matches);
+            assertEquals("chunkSize " + chunkSize, findAll(text.toString()), matches);
+        }
+    }
+
+    private List<String> findAll(String text) {
+        List<String> matches = new ArrayList<>();
+        for (int i = 0; i < PATTERNS.size(); i++) {
+            Matcher matcher = PATTERNS.get(i).matcher(text);
+            while (matcher.find()) {
+                matches.add(i + ":" + matcher.start() + "-" + matcher.end() + ":" + matcher.group());
+            }
+        }
+        Collections.sort(matches);
+        return matches;
+    }
+}
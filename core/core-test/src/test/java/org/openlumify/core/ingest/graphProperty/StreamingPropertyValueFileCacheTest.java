@@ -0,0 +1,102 @@
+package org.openlumify.core.ingest.graphProperty;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.vertexium.Element;
+import org.vertexium.Property;
+import org.vertexium.property.StreamingPropertyValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StreamingPropertyValueFileCacheTest {
+    private File baseDir;
+    private StreamingPropertyValueFileCache cache;
+
+    @Mock
+    private Element element;
+
+    @Before
+    public void before() throws Exception {
+        baseDir = Files.createTempDirectory("spvFileCacheTest").toFile();
+        cache = new StreamingPropertyValueFileCache(baseDir, 10);
+        when(element.getId()).thenReturn("v1");
+        when(element.getPropertyValues(anyString())).thenReturn(Collections.<Object>emptyList());
+    }
+
+    @After
+    public void after() {
+        cache.shutdown();
+        FileUtils.deleteQuietly(baseDir);
+    }
+
+    @Test
+    public void testValueIsCopiedOnce() throws Exception {
+        StreamingPropertyValue value = createValue("abcdef");
+        Property property = createProperty("k1", 1L, value);
+
+        try (StreamingPropertyValueFileCache.CachedFile first = cache.acquire(element, property);
+             StreamingPropertyValueFileCache.CachedFile second = cache.acquire(element, property)) {
+            assertSame(first, second);
+            try (InputStream in = first.newInputStream()) {
+                assertEquals("abcdef", IOUtils.toString(in));
+            }
+        }
+        verify(value, times(1)).getInputStream();
+        assertEquals(6, cache.getTotalSizeBytes());
+
+        try (StreamingPropertyValueFileCache.CachedFile cachedFile = cache.acquireIfPresent(element, property)) {
+            assertNotNull(cachedFile);
+        }
+        assertNull(cache.acquireIfPresent(element, createProperty("k1", 2L, value)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedFilesAreEvicted() throws Exception {
+        Property property1 = createProperty("k1", 1L, createValue("123456"));
+        Property property2 = createProperty("k2", 1L, createValue("7890"));
+        Property property3 = createProperty("k3", 1L, createValue("ab"));
+
+        File file1;
+        try (StreamingPropertyValueFileCache.CachedFile cachedFile = cache.acquire(element, property1)) {
+            file1 = cachedFile.getFile();
+        }
+        cache.acquire(element, property2).close();
+        try (StreamingPropertyValueFileCache.CachedFile cachedFile = cache.acquire(element, property3)) {
+            assertTrue(cachedFile.getFile().exists());
+        }
+
+        assertFalse(file1.exists());
+        assertNull(cache.acquireIfPresent(element, property1));
+        assertEquals(6, cache.getTotalSizeBytes());
+    }
+
+    private Property createProperty(String key, long timestamp, StreamingPropertyValue value) {
+        Property property = mock(Property.class);
+        when(property.getKey()).thenReturn(key);
+        when(property.getName()).thenReturn("http://openlumify.org#raw");
+        when(property.getTimestamp()).thenReturn(timestamp);
+        when(property.getValue()).thenReturn(value);
+        return property;
+    }
+
+    private StreamingPropertyValue createValue(String data) {
+        StreamingPropertyValue value = mock(StreamingPropertyValue.class);
+        when(value.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(data.getBytes()));
+        return value;
+    }
+}
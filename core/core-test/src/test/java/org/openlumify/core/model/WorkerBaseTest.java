@@ -8,15 +8,28 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.openlumify.core.config.Configuration;
 import org.openlumify.core.exception.OpenLumifyException;
 import org.openlumify.core.ingest.WorkerSpout;
+import org.openlumify.core.ingest.WorkerTuple;
 import org.openlumify.core.ingest.graphProperty.WorkerItem;
 import org.openlumify.core.model.workQueue.WorkQueueRepository;
 import org.openlumify.core.status.JmxMetricsManager;
 import org.openlumify.core.util.OpenLumifyLogger;
 
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 import static junit.framework.TestCase.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -41,7 +54,7 @@ public class WorkerBaseTest {
         stopOnNextTupleException = false;
         when(configuration.getBoolean(eq(TestWorker.class.getName() + ".exitOnNextTupleFailure"), anyBoolean())).thenReturn(true);
         when(workQueueRepository.createWorkerSpout(eq("test"))).thenReturn(workerSpout);
-        when(workerSpout.nextTuple()).thenThrow(new OpenLumifyException("could not get nextTuple"));
+        when(workerSpout.nextTuples(anyInt(), anyLong())).thenThrow(new OpenLumifyException("could not get nextTuple"));
 
         TestWorker testWorker = new TestWorker(workQueueRepository, configuration);
         try {
@@ -57,13 +70,139 @@ public class WorkerBaseTest {
         stopOnNextTupleException = true;
         when(configuration.getBoolean(eq(TestWorker.class.getName() + ".exitOnNextTupleFailure"), anyBoolean())).thenReturn(false);
         when(workQueueRepository.createWorkerSpout(eq("test"))).thenReturn(workerSpout);
-        when(workerSpout.nextTuple()).thenThrow(new OpenLumifyException("could not get nextTuple"));
+        when(workerSpout.nextTuples(anyInt(), anyLong())).thenThrow(new OpenLumifyException("could not get nextTuple"));
 
         TestWorker testWorker = new TestWorker(workQueueRepository, configuration);
         testWorker.run();
         assertEquals(1, nextTupleExceptionCount);
     }
 
+    @Test
+    public void testProcessThreadsPreserveOrderPerOrderingKey() throws Exception {
+        when(configuration.getInt(eq(OrderedTestWorker.class.getName() + ".processThreadCount"), anyInt())).thenReturn(4);
+        when(workQueueRepository.createWorkerSpout(eq("test"))).thenReturn(workerSpout);
+        when(workerSpout.nextTuples(anyInt(), anyLong())).thenReturn(
+                Arrays.asList(
+                        new WorkerTuple(1, "a1".getBytes()),
+                        new WorkerTuple(2, "b1".getBytes()),
+                        new WorkerTuple(3, "a2".getBytes())
+                ),
+                Arrays.asList(
+                        new WorkerTuple(4, "b2".getBytes()),
+                        new WorkerTuple(5, "a3".getBytes())
+                ),
+                Collections.<WorkerTuple>emptyList()
+        );
+        CountDownLatch ackLatch = new CountDownLatch(5);
+        doAnswer(invocation -> {
+            for (Object tuple : (List<?>) invocation.getArguments()[0]) {
+                ackLatch.countDown();
+            }
+            return null;
+        }).when(workerSpout).ack(anyListOf(WorkerTuple.class));
+
+        OrderedTestWorker testWorker = new OrderedTestWorker(workQueueRepository, configuration);
+        Thread runThread = new Thread(() -> {
+            try {
+                testWorker.run();
+            } catch (Exception ex) {
+                throw new OpenLumifyException("run failed", ex);
+            }
+        });
+        runThread.start();
+        assertTrue(ackLatch.await(10, TimeUnit.SECONDS));
+        testWorker.stop();
+        runThread.join(10000);
+
+        assertEquals(4, testWorker.getProcessThreadCount());
+        assertEquals(Arrays.asList("a1", "a2", "a3"), testWorker.processed.get("a"));
+        assertEquals(Arrays.asList("b1", "b2"), testWorker.processed.get("b"));
+        assertEquals(false, testWorker.concurrentSameKey);
+        verify(workerSpout, never()).ack(any(WorkerTuple.class));
+    }
+
+    @Test
+    public void testCompletedTuplesAreAcknowledgedInBatches() throws Exception {
+        when(configuration.getInt(eq(OrderedTestWorker.class.getName() + ".ackBatchSize"), anyInt())).thenReturn(3);
+        when(workQueueRepository.createWorkerSpout(eq("test"))).thenReturn(workerSpout);
+        when(workerSpout.nextTuples(anyInt(), anyLong())).thenReturn(
+                Arrays.asList(
+                        new WorkerTuple(1, "a1".getBytes()),
+                        new WorkerTuple(2, "a2".getBytes()),
+                        new WorkerTuple(3, "a3".getBytes()),
+                        new WorkerTuple(4, "a4".getBytes())
+                ),
+                Collections.<WorkerTuple>emptyList()
+        );
+        List<Integer> ackBatchSizes = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch ackLatch = new CountDownLatch(4);
+        doAnswer(invocation -> {
+            List<?> tuples = (List<?>) invocation.getArguments()[0];
+            ackBatchSizes.add(tuples.size());
+            for (Object tuple : tuples) {
+                ackLatch.countDown();
+            }
+            return null;
+        }).when(workerSpout).ack(anyListOf(WorkerTuple.class));
+
+        OrderedTestWorker testWorker = new OrderedTestWorker(workQueueRepository, configuration);
+        Thread runThread = new Thread(() -> {
+            try {
+                testWorker.run();
+            } catch (Exception ex) {
+                throw new OpenLumifyException("run failed", ex);
+            }
+        });
+        runThread.start();
+        assertTrue(ackLatch.await(10, TimeUnit.SECONDS));
+        testWorker.stop();
+        runThread.join(10000);
+
+        // three tuples fill a batch, the last one is flushed once the queue is empty
+        assertEquals(Arrays.asList(3, 1), ackBatchSizes);
+        verify(workerSpout, never()).ack(any(WorkerTuple.class));
+    }
+
+    private class OrderedTestWorker extends WorkerBase<TestWorkerItem> {
+        private final Map<String, List<String>> processed = new HashMap<>();
+        private final Set<String> inProgress = new HashSet<>();
+        private volatile boolean concurrentSameKey;
+
+        protected OrderedTestWorker(WorkQueueRepository workQueueRepository, Configuration configuration) {
+            super(workQueueRepository, configuration, new JmxMetricsManager());
+        }
+
+        @Override
+        public TestWorkerItem tupleDataToWorkerItem(byte[] data) {
+            return new TestWorkerItem(data);
+        }
+
+        @Override
+        protected Collection<?> getOrderingKeys(TestWorkerItem workerItem) {
+            return Collections.singletonList(workerItem.getKey());
+        }
+
+        @Override
+        protected void process(TestWorkerItem workerItem) throws Exception {
+            String key = workerItem.getKey();
+            synchronized (this) {
+                if (!inProgress.add(key)) {
+                    concurrentSameKey = true;
+                }
+            }
+            Thread.sleep(20);
+            synchronized (this) {
+                inProgress.remove(key);
+                processed.computeIfAbsent(key, k -> new ArrayList<>()).add(new String(workerItem.data));
+            }
+        }
+
+        @Override
+        protected String getQueueName() {
+            return "test";
+        }
+    }
+
     private class TestWorker extends WorkerBase<TestWorkerItem> {
         protected TestWorker(WorkQueueRepository workQueueRepository, Configuration configuration) {
             super(workQueueRepository, configuration, new JmxMetricsManager());
@@ -101,5 +240,9 @@ public class WorkerBaseTest {
         public TestWorkerItem(byte[] data) {
             this.data = data;
         }
+
+        public String getKey() {
+            return new String(data, 0, 1);
+        }
     }
 }
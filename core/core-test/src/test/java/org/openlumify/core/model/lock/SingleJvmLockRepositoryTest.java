@@ -1,10 +1,17 @@
 package org.openlumify.core.model.lock;
 
+import com.google.common.base.Throwables;
 import org.junit.Test;
+import org.openlumify.core.exception.OpenLumifyException;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
 
 public class SingleJvmLockRepositoryTest extends LockRepositoryTestBase {
     @Test
@@ -12,6 +19,82 @@ public class SingleJvmLockRepositoryTest extends LockRepositoryTestBase {
         super.testCreateLock(lockRepository);
     }
 
+    @Test
+    public void testSharedLocksRunTogether() throws Exception {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        AtomicBoolean exclusiveRan = new AtomicBoolean();
+        Thread writer = new Thread(() -> lockRepository.lock("lockOne", () -> exclusiveRan.set(true)));
+        writer.setDaemon(true);
+        Thread otherReader = new Thread(() -> lockRepository.lockShared("lockOne", () -> {
+            bothRunning.countDown();
+            awaitQuietly(bothRunning);
+        }));
+        otherReader.setDaemon(true);
+        otherReader.start();
+
+        lockRepository.lockShared("lockOne", () -> {
+            bothRunning.countDown();
+            assertTrue("readers should not wait for each other", awaitQuietly(bothRunning));
+
+            writer.start();
+            try {
+                writer.join(200);
+            } catch (InterruptedException ex) {
+                throw new RuntimeException(ex);
+            }
+            assertFalse("writer should wait for readers", exclusiveRan.get());
+        });
+
+        otherReader.join();
+        writer.join(10000);
+        assertTrue("writer should run once the readers are done", exclusiveRan.get());
+    }
+
+    @Test
+    public void testIdleLocksAreRemoved() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            lockRepository.lock("WORKSPACE_" + i, () -> assertEquals(1, lockRepository.getReadWriteLockCount()));
+            lockRepository.lockShared("WORKSPACE_" + i, () -> {
+            });
+        }
+        lockRepository.lock("lockOne", () -> lockRepository.lockShared("lockOne", () -> {
+            assertEquals(1, lockRepository.getReadWriteLockCount());
+        }));
+        assertEquals(0, lockRepository.getReadWriteLockCount());
+    }
+
+    @Test
+    public void testUpgradingASharedLockFails() {
+        AtomicBoolean exclusiveRan = new AtomicBoolean();
+        try {
+            lockRepository.lockShared("lockOne", () -> lockRepository.lock("lockOne", () -> exclusiveRan.set(true)));
+            fail("expected the upgrade to fail");
+        } catch (OpenLumifyException ex) {
+            assertTrue(Throwables.getRootCause(ex).getMessage().contains("Cannot upgrade"));
+        }
+        assertFalse(exclusiveRan.get());
+        assertEquals(0, lockRepository.getReadWriteLockCount());
+
+        lockRepository.lock("lockOne", () -> exclusiveRan.set(true));
+        assertTrue("the lock should still be usable", exclusiveRan.get());
+    }
+
+    @Test
+    public void testMetricsCategories() {
+        assertEquals("WORKSPACE", lockRepository.getMetricsCategory("WORKSPACE_abc123"));
+        assertEquals("USER", lockRepository.getMetricsCategory("USER_abc|My Workspace"));
+        assertEquals("ontology", lockRepository.getMetricsCategory("ontology"));
+        assertEquals("other", lockRepository.getMetricsCategory("123"));
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
     @Test
     public void testLeaderElection() throws Exception {
         List<String> messages = Collections.synchronizedList(new ArrayList<>());
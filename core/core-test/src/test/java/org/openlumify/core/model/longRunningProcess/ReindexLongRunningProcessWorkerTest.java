@@ -0,0 +1,113 @@
+package org.openlumify.core.model.longRunningProcess;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.vertexium.*;
+import org.vertexium.search.SearchIndex;
+import org.openlumify.core.exception.OpenLumifyException;
+import org.openlumify.core.status.JmxMetricsManager;
+import org.openlumify.core.user.User;
+import org.openlumify.core.util.OpenLumifyInMemoryTestBase;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReindexLongRunningProcessWorkerTest extends OpenLumifyInMemoryTestBase {
+    private final List<String> indexedIds = new ArrayList<>();
+    private String failOnId;
+    private ReindexLongRunningProcessWorker worker;
+    private User systemUser;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void before() throws Exception {
+        super.before();
+        systemUser = getUserRepository().getSystemUser();
+
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            Vertex vertex = mock(Vertex.class);
+            when(vertex.getId()).thenReturn("v" + i);
+            vertices.add(vertex);
+        }
+        SearchIndex searchIndex = mock(SearchIndex.class);
+        doAnswer(invocation -> {
+            for (Element element : (Iterable<Element>) invocation.getArguments()[1]) {
+                if (element.getId().equals(failOnId)) {
+                    throw new OpenLumifyException("index failed");
+                }
+                indexedIds.add(element.getId());
+            }
+            return null;
+        }).when(searchIndex).addElements(any(Graph.class), any(Iterable.class), any(Authorizations.class));
+        GraphWithSearchIndex graph = mock(GraphWithSearchIndex.class);
+        when(graph.getSearchIndex()).thenReturn(searchIndex);
+        when(graph.getVerticesInRange(any(Range.class), any(EnumSet.class), any(Authorizations.class))).thenAnswer(invocation -> {
+            Range range = (Range) invocation.getArguments()[0];
+            return vertices.stream().filter(v -> range.isInRange(v.getId())).collect(Collectors.toList());
+        });
+
+        worker = new ReindexLongRunningProcessWorker(
+                graph,
+                getUserRepository(),
+                getAuthorizationRepository(),
+                getLongRunningProcessRepository(),
+                getConfiguration()
+        );
+        worker.setMetricsManager(new JmxMetricsManager());
+        worker.prepare(new LongRunningWorkerPrepareData(getConfigurationMap(), systemUser, null));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Map getConfigurationMap() {
+        Map config = super.getConfigurationMap();
+        config.put(ReindexLongRunningProcessWorker.CONFIG_CHECKPOINT_INTERVAL_MILLIS, "0");
+        config.put(ReindexLongRunningProcessWorker.CONFIG_PIPELINE_DEPTH, "1");
+        return config;
+    }
+
+    @Test
+    public void testResumesFromCheckpointAfterNak() {
+        LongRunningProcessRepository longRunningProcessRepository = getLongRunningProcessRepository();
+        String id = longRunningProcessRepository.enqueue(
+                new ReindexLongRunningProcessQueueItem(ElementType.VERTEX, 2, null, null),
+                systemUser,
+                getGraphAuthorizations(systemUser)
+        );
+        assertNotNull("reindex ranges of the system user should be stored", id);
+        JSONObject queueItem = longRunningProcessRepository.findById(id, systemUser);
+        queueItem.put("id", id);
+        JSONObject redeliveredQueueItem = new JSONObject(queueItem.toString());
+
+        failOnId = "v5";
+        try {
+            worker.process(queueItem);
+            fail("reindex should fail");
+        } catch (OpenLumifyException ex) {
+            longRunningProcessRepository.nak(queueItem, ex);
+        }
+        assertEquals("v4", longRunningProcessRepository.findById(id, systemUser)
+                .getJSONObject(LongRunningProcessRepository.CHECKPOINT)
+                .getString("lastIndexedId"));
+
+        failOnId = null;
+        indexedIds.clear();
+        worker.process(redeliveredQueueItem);
+        assertEquals("v5,v6,v7,v8", String.join(",", indexedIds));
+
+        longRunningProcessRepository.ack(redeliveredQueueItem);
+        assertNull("completed process should be deleted", longRunningProcessRepository.findById(id, systemUser));
+    }
+}
@@ -0,0 +1,98 @@
+package org.openlumify.core.model.thumbnails;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.vertexium.*;
+import org.vertexium.inmemory.InMemoryGraph;
+import org.vertexium.property.StreamingPropertyValue;
+import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkData;
+import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkerPrepareData;
+import org.openlumify.core.model.properties.OpenLumifyProperties;
+import org.openlumify.core.model.workQueue.Priority;
+import org.openlumify.core.user.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.aryEq;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ThumbnailGraphPropertyWorkerTest {
+    private ThumbnailGraphPropertyWorker worker;
+    private Vertex vertex;
+    private Edge edge;
+
+    @Mock
+    private ThumbnailService thumbnailService;
+
+    @Mock
+    private User user;
+
+    @Before
+    public void before() throws Exception {
+        worker = new ThumbnailGraphPropertyWorker(thumbnailService);
+        worker.prepare(new GraphPropertyWorkerPrepareData(new HashMap(), new ArrayList<>(), user, null, null));
+
+        InMemoryGraph graph = InMemoryGraph.create();
+        Authorizations authorizations = graph.createAuthorizations();
+        Visibility visibility = new Visibility("");
+        VertexBuilder vertexBuilder = graph.prepareVertex("v1", visibility);
+        OpenLumifyProperties.RAW.setProperty(vertexBuilder, createRaw(), createImageMetadata(), visibility);
+        vertex = vertexBuilder.save(authorizations);
+        Vertex other = graph.addVertex("v2", visibility, authorizations);
+        EdgeBuilder edgeBuilder = graph.prepareEdge("e1", vertex, other, "label", visibility);
+        OpenLumifyProperties.RAW.setProperty(edgeBuilder, createRaw(), createImageMetadata(), visibility);
+        edge = edgeBuilder.save(authorizations);
+    }
+
+    @Test
+    public void testInterestLeavesElementTypeToIsHandled() {
+        assertTrue(worker.getInterest().isHandledChecked());
+    }
+
+    @Test
+    public void testImageOnVertexIsHandled() {
+        assertTrue(worker.isHandled(vertex, OpenLumifyProperties.RAW.getProperty(vertex)));
+    }
+
+    @Test
+    public void testImageOnEdgeIsNotHandled() {
+        assertFalse(worker.isHandled(edge, OpenLumifyProperties.RAW.getProperty(edge)));
+    }
+
+    @Test
+    public void testExecuteCreatesThumbnailOfVertex() throws Exception {
+        Property raw = OpenLumifyProperties.RAW.getProperty(vertex);
+        InputStream in = new ByteArrayInputStream(new byte[]{1, 2, 3});
+        worker.execute(in, new GraphPropertyWorkData(null, vertex, raw, null, null, Priority.NORMAL, false));
+
+        verify(thumbnailService).createThumbnail(
+                same(vertex),
+                eq(raw.getKey()),
+                eq(ThumbnailService.THUMBNAIL_TYPE_RAW),
+                same(in),
+                aryEq(new int[]{ThumbnailService.DEFAULT_THUMBNAIL_SIZE, ThumbnailService.DEFAULT_THUMBNAIL_SIZE}),
+                same(user)
+        );
+    }
+
+    private static StreamingPropertyValue createRaw() {
+        return StreamingPropertyValue.create(new ByteArrayInputStream(new byte[]{1, 2, 3}), byte[].class);
+    }
+
+    private static Metadata createImageMetadata() {
+        Metadata metadata = new Metadata();
+        OpenLumifyProperties.MIME_TYPE_METADATA.setMetadata(metadata, "image/png", new Visibility(""));
+        return metadata;
+    }
+}
@@ -0,0 +1,113 @@
+package org.openlumify.core.model.thumbnails;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.vertexium.Authorizations;
+import org.vertexium.Metadata;
+import org.vertexium.Vertex;
+import org.vertexium.VertexBuilder;
+import org.vertexium.Visibility;
+import org.vertexium.inmemory.InMemoryGraph;
+import org.vertexium.property.StreamingPropertyValue;
+import org.openlumify.core.cache.InMemoryCacheService;
+import org.openlumify.core.config.Configuration;
+import org.openlumify.core.config.HashMapConfigurationLoader;
+import org.openlumify.core.model.properties.OpenLumifyProperties;
+import org.openlumify.core.user.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ThumbnailServiceTest {
+    private static final int[] BOUNDARY_DIMS = new int[]{200, 200};
+    private ThumbnailService thumbnailService;
+    private Vertex vertex;
+
+    @Mock
+    private ThumbnailRepository thumbnailRepository;
+
+    @Mock
+    private User user;
+
+    @Before
+    public void before() {
+        thumbnailService = new ThumbnailService(
+                thumbnailRepository,
+                new InMemoryCacheService(),
+                new Configuration(new HashMapConfigurationLoader(new HashMap()), new HashMap<>())
+        );
+
+        InMemoryGraph graph = InMemoryGraph.create();
+        Authorizations authorizations = graph.createAuthorizations();
+        VertexBuilder vertexBuilder = graph.prepareVertex("v1", new Visibility(""));
+        StreamingPropertyValue raw = StreamingPropertyValue.create(new ByteArrayInputStream(new byte[]{1, 2, 3}), byte[].class);
+        OpenLumifyProperties.RAW.setProperty(vertexBuilder, raw, new Metadata(), new Visibility(""));
+        vertex = vertexBuilder.save(authorizations);
+    }
+
+    @Test
+    public void testCacheHit() {
+        Thumbnail thumbnail = createThumbnail();
+        when(thumbnailRepository.getThumbnail(eq("v1"), eq("raw"), eq(200), eq(200), anyString(), eq(user))).thenReturn(thumbnail);
+
+        assertSame(thumbnail, thumbnailService.getThumbnail(vertex, "raw", BOUNDARY_DIMS, "ws1", user));
+        assertSame(thumbnail, thumbnailService.getThumbnail(vertex, "raw", BOUNDARY_DIMS, "ws1", user));
+
+        verify(thumbnailRepository, times(1)).getThumbnail(eq("v1"), eq("raw"), eq(200), eq(200), anyString(), eq(user));
+        verify(thumbnailRepository, never()).createThumbnail(any(Vertex.class), anyString(), anyString(), any(InputStream.class), any(int[].class), any(User.class));
+    }
+
+    @Test
+    public void testConcurrentRequestsWaitForOneGeneration() throws Exception {
+        Thumbnail thumbnail = createThumbnail();
+        CountDownLatch generationStarted = new CountDownLatch(1);
+        CountDownLatch finishGeneration = new CountDownLatch(1);
+        when(thumbnailRepository.createThumbnail(eq(vertex), anyString(), eq("raw"), any(InputStream.class), eq(BOUNDARY_DIMS), eq(user)))
+                .thenAnswer(invocation -> {
+                    generationStarted.countDown();
+                    finishGeneration.await();
+                    return thumbnail;
+                });
+
+        AtomicReference<Thumbnail> firstResult = new AtomicReference<>();
+        AtomicReference<Thumbnail> secondResult = new AtomicReference<>();
+        Thread first = new Thread(() -> firstResult.set(thumbnailService.getThumbnail(vertex, "raw", BOUNDARY_DIMS, "ws1", user)));
+        first.start();
+        assertTrue(generationStarted.await(10, TimeUnit.SECONDS));
+
+        Thread second = new Thread(() -> secondResult.set(thumbnailService.getThumbnail(vertex, "raw", BOUNDARY_DIMS, "ws1", user)));
+        second.start();
+        waitUntilWaiting(second);
+
+        finishGeneration.countDown();
+        first.join(10000);
+        second.join(10000);
+
+        assertSame(thumbnail, firstResult.get());
+        assertSame(thumbnail, secondResult.get());
+        verify(thumbnailRepository, times(1)).createThumbnail(eq(vertex), anyString(), eq("raw"), any(InputStream.class), eq(BOUNDARY_DIMS), eq(user));
+    }
+
+    private void waitUntilWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Thread.State.WAITING, thread.getState());
+    }
+
+    private Thumbnail createThumbnail() {
+        return new Thumbnail("v1", "raw", new byte[]{4, 5, 6}, "png", 200, 200);
+    }
+}
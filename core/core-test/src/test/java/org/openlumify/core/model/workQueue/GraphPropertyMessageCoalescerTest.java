@@ -0,0 +1,185 @@
+package org.openlumify.core.model.workQueue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlumify.core.ingest.graphProperty.ElementOrPropertyStatus;
+import org.openlumify.core.ingest.graphProperty.GraphPropertyMessage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class GraphPropertyMessageCoalescerTest {
+    private List<GraphPropertyMessage> pushed;
+    private GraphPropertyMessageCoalescer coalescer;
+
+    @Before
+    public void before() {
+        pushed = new ArrayList<>();
+        coalescer = new GraphPropertyMessageCoalescer(60 * 1000, message -> pushed.add(message));
+    }
+
+    @After
+    public void after() {
+        coalescer.close();
+    }
+
+    @Test
+    public void testDuplicateMessagesAreMerged() {
+        coalescer.push(createMessage("v1", "k1", "p1", ElementOrPropertyStatus.UPDATE, Priority.LOW));
+        coalescer.push(createMessage("v1", "k1", "p1", ElementOrPropertyStatus.UPDATE, Priority.HIGH));
+        coalescer.push(createMessage("v1", "k1", "p1", null, Priority.NORMAL));
+        assertEquals(0, pushed.size());
+
+        coalescer.flush();
+
+        assertEquals(1, pushed.size());
+        GraphPropertyMessage message = pushed.get(0);
+        assertEquals(Priority.HIGH, message.getPriority());
+        assertArrayEquals(new String[]{"v1"}, message.getGraphVertexId());
+        assertEquals("k1", message.getPropertyKey());
+        assertEquals("p1", message.getPropertyName());
+    }
+
+    @Test
+    public void testDistinctStatusesAreKept() {
+        coalescer.push(createMessage("v1", "k1", "p1", ElementOrPropertyStatus.UPDATE, Priority.NORMAL));
+        coalescer.push(createMessage("v1", "k2", "p1", ElementOrPropertyStatus.UPDATE, Priority.NORMAL));
+        coalescer.push(createMessage("v1", "k1", "p1", ElementOrPropertyStatus.DELETION, Priority.HIGH).setBeforeActionTimestamp(20L));
+        coalescer.push(createMessage("v1", "k1", "p1", ElementOrPropertyStatus.DELETION, Priority.NORMAL).setBeforeActionTimestamp(10L));
+        coalescer.push(createMessage("v2", "k1", "p1", ElementOrPropertyStatus.UPDATE, Priority.NORMAL));
+        coalescer.flush();
+
+        assertEquals(3, pushed.size());
+        GraphPropertyMessage updates = pushed.get(0);
+        assertEquals(2, updates.getProperties().length);
+        assertEquals(Priority.NORMAL, updates.getPriority());
+        GraphPropertyMessage deletion = pushed.get(1);
+        assertEquals(ElementOrPropertyStatus.DELETION, deletion.getStatus());
+        assertEquals(Priority.HIGH, deletion.getPriority());
+        assertEquals(10L, (long) deletion.getBeforeActionTimestamp());
+        assertArrayEquals(new String[]{"v2"}, pushed.get(2).getGraphVertexId());
+    }
+
+    @Test
+    public void testUpdateAndUnhideOfOnePropertyAreBothKept() {
+        coalescer.push(createMessage("v1", "k1", "p1", ElementOrPropertyStatus.UPDATE, Priority.NORMAL));
+        coalescer.push(createMessage("v1", "k1", "p1", ElementOrPropertyStatus.UNHIDDEN, Priority.NORMAL));
+        coalescer.push(createMessage("v1", "k1", "p1", ElementOrPropertyStatus.UPDATE, Priority.NORMAL));
+        coalescer.flush();
+
+        assertEquals(1, pushed.size());
+        GraphPropertyMessage.Property[] properties = pushed.get(0).getProperties();
+        assertEquals(2, properties.length);
+        assertEquals(ElementOrPropertyStatus.UPDATE, properties[0].getStatus());
+        assertEquals(ElementOrPropertyStatus.UNHIDDEN, properties[1].getStatus());
+    }
+
+    @Test
+    public void testHideAndUnhideOfOnePropertyAreBothKept() {
+        coalescer.push(createMessage("v1", "k1", "p1", ElementOrPropertyStatus.HIDDEN, Priority.NORMAL));
+        coalescer.push(createMessage("v1", "k1", "p1", ElementOrPropertyStatus.UNHIDDEN, Priority.NORMAL));
+        coalescer.flush();
+
+        assertEquals(2, pushed.size());
+        assertEquals(ElementOrPropertyStatus.HIDDEN, pushed.get(0).getStatus());
+        assertEquals(ElementOrPropertyStatus.UNHIDDEN, pushed.get(1).getStatus());
+    }
+
+    @Test
+    public void testSinkIsCalledOutsideTheCoalescingLock() throws Exception {
+        CountDownLatch sinkEntered = new CountDownLatch(1);
+        CountDownLatch releaseSink = new CountDownLatch(1);
+        List<GraphPropertyMessage> slowPushed = Collections.synchronizedList(new ArrayList<>());
+        GraphPropertyMessageCoalescer slowCoalescer = new GraphPropertyMessageCoalescer(60 * 1000, message -> {
+            sinkEntered.countDown();
+            try {
+                releaseSink.await();
+            } catch (InterruptedException ex) {
+                throw new RuntimeException(ex);
+            }
+            slowPushed.add(message);
+        });
+        try {
+            Thread slowProducer = new Thread(() -> slowCoalescer.push(new GraphPropertyMessage()
+                    .setGraphVertexId(new String[]{"v1"})
+                    .setPriority(Priority.NORMAL)));
+            slowProducer.start();
+            assertTrue(sinkEntered.await(10, TimeUnit.SECONDS));
+
+            // returns while the sink is still busy with the first message
+            slowCoalescer.push(new GraphPropertyMessage()
+                    .setGraphVertexId(new String[]{"v2"})
+                    .setPriority(Priority.NORMAL));
+
+            releaseSink.countDown();
+            slowProducer.join(10000);
+            assertEquals(2, slowPushed.size());
+            assertArrayEquals(new String[]{"v1"}, slowPushed.get(0).getGraphVertexId());
+            assertArrayEquals(new String[]{"v2"}, slowPushed.get(1).getGraphVertexId());
+        } finally {
+            releaseSink.countDown();
+            slowCoalescer.close();
+        }
+    }
+
+    @Test
+    public void testWholeElementMessagesAreNotHeld() {
+        GraphPropertyMessage message = new GraphPropertyMessage()
+                .setGraphVertexId(new String[]{"v1"})
+                .setPriority(Priority.NORMAL);
+        coalescer.push(message);
+        assertEquals(1, pushed.size());
+        assertSame(message, pushed.get(0));
+    }
+
+    @Test
+    public void testArrivalOrderIsKept() {
+        coalescer.push(createMessage("v1", "k1", "p1", ElementOrPropertyStatus.DELETION, Priority.NORMAL));
+        coalescer.push(createMessage("v1", "k1", "p1", ElementOrPropertyStatus.UPDATE, Priority.NORMAL));
+        coalescer.push(createMessage("v1", "k2", "p1", ElementOrPropertyStatus.UPDATE, Priority.NORMAL));
+        coalescer.flush();
+
+        assertEquals(2, pushed.size());
+        assertEquals(ElementOrPropertyStatus.DELETION, pushed.get(0).getStatus());
+        assertEquals(2, pushed.get(1).getProperties().length);
+    }
+
+    @Test
+    public void testPassedThroughMessagesFollowHeldMessages() {
+        coalescer.push(createMessage("v1", "k1", "p1", ElementOrPropertyStatus.UPDATE, Priority.NORMAL));
+        coalescer.push(createMessage("v2", "k1", "p1", ElementOrPropertyStatus.UPDATE, Priority.NORMAL));
+        GraphPropertyMessage message = new GraphPropertyMessage()
+                .setGraphVertexId(new String[]{"v1"})
+                .setPriority(Priority.NORMAL);
+        coalescer.push(message);
+
+        assertEquals(2, pushed.size());
+        assertEquals("k1", pushed.get(0).getPropertyKey());
+        assertSame(message, pushed.get(1));
+
+        coalescer.flush();
+        assertEquals(3, pushed.size());
+        assertArrayEquals(new String[]{"v2"}, pushed.get(2).getGraphVertexId());
+    }
+
+    private GraphPropertyMessage createMessage(
+            String vertexId,
+            String propertyKey,
+            String propertyName,
+            ElementOrPropertyStatus status,
+            Priority priority
+    ) {
+        return new GraphPropertyMessage()
+                .setGraphVertexId(new String[]{vertexId})
+                .setPropertyKey(propertyKey)
+                .setPropertyName(propertyName)
+                .setStatus(status)
+                .setPriority(priority);
+    }
+}
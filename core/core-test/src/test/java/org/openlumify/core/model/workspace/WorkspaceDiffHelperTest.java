@@ -0,0 +1,139 @@
+package org.openlumify.core.model.workspace;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.vertexium.Authorizations;
+import org.vertexium.Edge;
+import org.vertexium.Graph;
+import org.vertexium.Vertex;
+import org.vertexium.Visibility;
+import org.vertexium.inmemory.InMemoryGraph;
+import org.openlumify.core.formula.FormulaEvaluator;
+import org.openlumify.core.model.user.AuthorizationRepository;
+import org.openlumify.core.model.user.UserRepository;
+import org.openlumify.core.user.User;
+import org.openlumify.web.clientapi.model.ClientApiWorkspaceDiff;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WorkspaceDiffHelperTest {
+    private static final String WORKSPACE_ID = "WORKSPACE_1";
+    private Graph graph;
+    private Authorizations authorizations;
+    private WorkspaceDiffHelper workspaceDiffHelper;
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private AuthorizationRepository authorizationRepository;
+    @Mock
+    private FormulaEvaluator formulaEvaluator;
+    @Mock
+    private FormulaEvaluator.UserContext userContext;
+    @Mock
+    private Workspace workspace;
+    @Mock
+    private User user;
+
+    @Before
+    public void before() {
+        graph = InMemoryGraph.create();
+        authorizations = graph.createAuthorizations(WorkspaceRepository.VISIBILITY_STRING, WORKSPACE_ID);
+        when(workspace.getWorkspaceId()).thenReturn(WORKSPACE_ID);
+        when(authorizationRepository.getGraphAuthorizations(eq(user), eq(WorkspaceRepository.VISIBILITY_STRING), eq(WORKSPACE_ID)))
+                .thenReturn(authorizations);
+        when(formulaEvaluator.evaluateBatch(anyListOf(Vertex.class), eq(userContext), any(Authorizations.class)))
+                .thenAnswer(invocation -> {
+                    List<?> vertices = (List<?>) invocation.getArguments()[0];
+                    return vertices.stream()
+                            .map(vertex -> new FormulaEvaluator.FormulaResults("title of " + ((Vertex) vertex).getId(), "", ""))
+                            .collect(Collectors.toList());
+                });
+        workspaceDiffHelper = new WorkspaceDiffHelper(graph, userRepository, authorizationRepository, formulaEvaluator);
+    }
+
+    @Test
+    public void testDeletedVertexTitlesAreEvaluatedInOneBatch() {
+        for (String vertexId : Arrays.asList("v1", "v2", "v3")) {
+            graph.addVertex(vertexId, new Visibility(""), authorizations);
+        }
+        graph.flush();
+        for (String vertexId : Arrays.asList("v2", "v3")) {
+            graph.markVertexHidden(graph.getVertex(vertexId, authorizations), new Visibility(""), authorizations);
+        }
+        graph.flush();
+        List<WorkspaceEntity> workspaceEntities = Arrays.asList(
+                new WorkspaceEntity("v1", null),
+                new WorkspaceEntity("v2", null),
+                new WorkspaceEntity("v3", null)
+        );
+
+        ClientApiWorkspaceDiff diff = workspaceDiffHelper.diff(
+                workspace,
+                workspaceEntities,
+                Collections.<Edge>emptyList(),
+                userContext,
+                user
+        );
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Vertex>> batch = (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+        verify(formulaEvaluator, times(1)).evaluateBatch(batch.capture(), eq(userContext), any(Authorizations.class));
+        verify(formulaEvaluator, never()).evaluateTitleFormula(any(), any(), any());
+        assertEquals(
+                Arrays.asList("v2", "v3"),
+                batch.getValue().stream().map(Vertex::getId).collect(Collectors.toList())
+        );
+
+        Map<String, String> titles = new HashMap<>();
+        for (ClientApiWorkspaceDiff.Item item : diff.getDiffs()) {
+            ClientApiWorkspaceDiff.VertexItem vertexItem = (ClientApiWorkspaceDiff.VertexItem) item;
+            titles.put(vertexItem.getVertexId(), vertexItem.getTitle());
+        }
+        assertEquals(2, titles.size());
+        assertEquals("title of v2", titles.get("v2"));
+        assertEquals("title of v3", titles.get("v3"));
+    }
+
+    @Test
+    public void testDiffWorkspaceEntityEvaluatesTheTitleOfADeletedVertex() {
+        graph.addVertex("v1", new Visibility(""), authorizations);
+        graph.flush();
+        graph.markVertexHidden(graph.getVertex("v1", authorizations), new Visibility(""), authorizations);
+        graph.flush();
+
+        List<ClientApiWorkspaceDiff.Item> items = workspaceDiffHelper.diffWorkspaceEntity(
+                workspace,
+                new WorkspaceEntity("v1", null),
+                userContext,
+                authorizations
+        );
+
+        assertEquals(1, items.size());
+        assertEquals("title of v1", ((ClientApiWorkspaceDiff.VertexItem) items.get(0)).getTitle());
+    }
+
+    @Test
+    public void testDiffWorkspaceEntityOfAnInaccessibleVertex() {
+        assertNull(workspaceDiffHelper.diffWorkspaceEntity(
+                workspace,
+                new WorkspaceEntity("missing", null),
+                userContext,
+                authorizations
+        ));
+        verifyZeroInteractions(formulaEvaluator);
+    }
+}
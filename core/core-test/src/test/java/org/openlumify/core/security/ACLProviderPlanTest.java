@@ -0,0 +1,239 @@
+package org.openlumify.core.security;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.vertexium.Element;
+import org.vertexium.Graph;
+import org.vertexium.mutation.ElementMutation;
+import org.openlumify.core.model.ontology.*;
+import org.openlumify.core.model.properties.OpenLumifyProperties;
+import org.openlumify.core.model.user.PrivilegeRepository;
+import org.openlumify.core.model.user.UserRepository;
+import org.openlumify.core.user.User;
+import org.openlumify.web.clientapi.model.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ACLProviderPlanTest {
+    private static final String WORKSPACE_ID = "ws1";
+    private static final String CONCEPT_IRI = "concept";
+    private static final String READ_ONLY_PROP_NAME = "readOnlyProp";
+    private static final String EDITABLE_PROP_NAME = "editableProp";
+    private static final String ELEMENT_DEPENDENT_PROP_NAME = "elementDependentProp";
+    private static final String COMMENT_PROP_NAME = OpenLumifyProperties.COMMENT.getPropertyName();
+    private static final int VERTEX_COUNT = 50;
+
+    @Mock
+    private Graph graph;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private OntologyRepository ontologyRepository;
+    @Mock
+    private PrivilegeRepository privilegeRepository;
+    @Mock
+    private Ontology ontology;
+    @Mock
+    private Concept concept;
+    @Mock
+    private User user;
+
+    @Before
+    public void before() {
+        when(user.getUserId()).thenReturn("USER_1");
+        when(privilegeRepository.getPrivileges(user)).thenReturn(Sets.newHashSet(Privilege.EDIT, Privilege.COMMENT));
+        when(ontologyRepository.getOntology(WORKSPACE_ID)).thenReturn(ontology);
+        when(ontology.getConceptByIri(CONCEPT_IRI)).thenReturn(concept);
+        when(concept.getIRI()).thenReturn(CONCEPT_IRI);
+        when(concept.getParentConceptIRI()).thenReturn(null);
+        List<OntologyProperty> ontologyProperties = ImmutableList.of(
+                ontologyProperty(READ_ONLY_PROP_NAME),
+                ontologyProperty(EDITABLE_PROP_NAME),
+                ontologyProperty(ELEMENT_DEPENDENT_PROP_NAME),
+                ontologyProperty(COMMENT_PROP_NAME)
+        );
+        when(concept.getProperties()).thenReturn(ontologyProperties);
+    }
+
+    @Test
+    public void testPlannedAclMatchesPerElementAcl() {
+        TestAclProvider plannedAclProvider = new TestAclProvider(true);
+        TestAclProvider perElementAclProvider = new TestAclProvider(false);
+
+        ClientApiVertexMultipleResponse planned = createResponse();
+        ClientApiVertexMultipleResponse perElement = createResponse();
+        plannedAclProvider.appendACL(planned, user, WORKSPACE_ID);
+        perElementAclProvider.appendACL(perElement, user, WORKSPACE_ID);
+
+        assertEquals(perElement.toString(), planned.toString());
+    }
+
+    @Test
+    public void testPlannedAclMatchesPerElementAclWhenAppendedOneElementAtATime() {
+        TestAclProvider perElementAclProvider = new TestAclProvider(false);
+        ClientApiVertexMultipleResponse perElement = createResponse();
+        perElementAclProvider.appendACL(perElement, user, WORKSPACE_ID);
+
+        ClientApiVertexMultipleResponse planned = createResponse();
+        TestAclProvider plannedAclProvider = new TestAclProvider(true);
+        planned.getVertices().forEach(plannedAclProvider.createACLAppender(user, WORKSPACE_ID));
+
+        assertEquals(perElement.toString(), planned.toString());
+    }
+
+    @Test
+    public void testElementIndependentPropertiesAreEvaluatedOncePerResponse() {
+        TestAclProvider plannedAclProvider = new TestAclProvider(true);
+        plannedAclProvider.appendACL(createResponse(), user, WORKSPACE_ID);
+
+        assertEquals(1, plannedAclProvider.getUpdateCalls(READ_ONLY_PROP_NAME));
+        assertEquals(1, plannedAclProvider.getUpdateCalls(EDITABLE_PROP_NAME));
+        assertTrue(plannedAclProvider.getUpdateCalls(ELEMENT_DEPENDENT_PROP_NAME) >= VERTEX_COUNT);
+        assertTrue(plannedAclProvider.getUpdateCalls(COMMENT_PROP_NAME) >= VERTEX_COUNT);
+
+        TestAclProvider perElementAclProvider = new TestAclProvider(false);
+        perElementAclProvider.appendACL(createResponse(), user, WORKSPACE_ID);
+        assertTrue(perElementAclProvider.getUpdateCalls(READ_ONLY_PROP_NAME) >= VERTEX_COUNT);
+    }
+
+    private ClientApiVertexMultipleResponse createResponse() {
+        ClientApiVertexMultipleResponse response = new ClientApiVertexMultipleResponse();
+        for (int i = 0; i < VERTEX_COUNT; i++) {
+            ClientApiVertex vertex = new ClientApiVertex();
+            vertex.setId("v" + i);
+            addProperty(vertex, ElementMutation.DEFAULT_KEY, OpenLumifyProperties.CONCEPT_TYPE.getPropertyName(), CONCEPT_IRI, null);
+            addProperty(vertex, "k1", READ_ONLY_PROP_NAME, "value" + i, null);
+            if (i % 3 != 0) {
+                addProperty(vertex, "k1", EDITABLE_PROP_NAME, "value" + i, null);
+                addProperty(vertex, "k2", EDITABLE_PROP_NAME, "value" + i, null);
+            }
+            if (i % 4 != 0) {
+                addProperty(vertex, "k" + (i % 2), ELEMENT_DEPENDENT_PROP_NAME, "value" + i, null);
+            }
+            if (i % 5 == 0) {
+                addProperty(vertex, "c1", COMMENT_PROP_NAME, "comment" + i, i % 10 == 0 ? "USER_1" : "USER_2");
+            }
+            response.getVertices().add(vertex);
+        }
+        return response;
+    }
+
+    private static void addProperty(ClientApiVertex vertex, String key, String name, Object value, String modifiedBy) {
+        ClientApiProperty property = new ClientApiProperty();
+        property.setKey(key);
+        property.setName(name);
+        property.setValue(value);
+        if (modifiedBy != null) {
+            property.getMetadata().put(OpenLumifyProperties.MODIFIED_BY_METADATA.getMetadataKey(), modifiedBy);
+        }
+        vertex.getProperties().add(property);
+    }
+
+    private static OntologyProperty ontologyProperty(String title) {
+        OntologyProperty ontologyProperty = mock(OntologyProperty.class);
+        when(ontologyProperty.getTitle()).thenReturn(title);
+        return ontologyProperty;
+    }
+
+    /**
+     * Only {@link #ELEMENT_DEPENDENT_PROP_NAME} depends on the element and key, so every other property can be
+     * planned once per response.
+     */
+    private class TestAclProvider extends ACLProvider {
+        private final boolean planned;
+        private final Map<String, Integer> updateCalls = new HashMap<>();
+
+        TestAclProvider(boolean planned) {
+            super(graph, userRepository, ontologyRepository, privilegeRepository);
+            this.planned = planned;
+        }
+
+        int getUpdateCalls(String propertyName) {
+            return updateCalls.getOrDefault(propertyName, 0);
+        }
+
+        @Override
+        protected boolean isPropertyAclElementIndependent(OntologyElement ontologyElement, String propertyName) {
+            return planned && !ELEMENT_DEPENDENT_PROP_NAME.equals(propertyName);
+        }
+
+        private boolean can(String elementId, String propertyKey, String propertyName, boolean defaultValue) {
+            if (ELEMENT_DEPENDENT_PROP_NAME.equals(propertyName)) {
+                return elementId != null && (elementId.hashCode() + (propertyKey == null ? 0 : propertyKey.hashCode())) % 3 == 0;
+            }
+            return !READ_ONLY_PROP_NAME.equals(propertyName) && defaultValue;
+        }
+
+        private String getId(ClientApiElement clientApiElement) {
+            return clientApiElement == null ? null : clientApiElement.getId();
+        }
+
+        private String getId(Element element) {
+            return element == null ? null : element.getId();
+        }
+
+        @Override
+        protected boolean canDeleteElement(Element element, OntologyElement ontologyElement, Ontology ontology, User user, String workspaceId) {
+            return true;
+        }
+
+        @Override
+        protected boolean canDeleteElement(ClientApiElement clientApiElement, OntologyElement ontologyElement, Ontology ontology, User user, String workspaceId) {
+            return true;
+        }
+
+        @Override
+        protected boolean canDeleteProperty(Element element, OntologyElement ontologyElement, String propertyKey, String propertyName, Ontology ontology, User user, String workspaceId) {
+            return can(getId(element), propertyKey, propertyName, false);
+        }
+
+        @Override
+        protected boolean canDeleteProperty(ClientApiElement clientApiElement, OntologyElement ontologyElement, String propertyKey, String propertyName, Ontology ontology, User user, String workspaceId) {
+            return can(getId(clientApiElement), propertyKey, propertyName, false);
+        }
+
+        @Override
+        protected boolean canUpdateElement(Element element, OntologyElement ontologyElement, Ontology ontology, User user, String workspaceId) {
+            return true;
+        }
+
+        @Override
+        protected boolean canUpdateElement(ClientApiElement clientApiElement, OntologyElement ontologyElement, Ontology ontology, User user, String workspaceId) {
+            return true;
+        }
+
+        @Override
+        protected boolean canUpdateProperty(Element element, OntologyElement ontologyElement, String propertyKey, String propertyName, Ontology ontology, User user, String workspaceId) {
+            return can(getId(element), propertyKey, propertyName, true);
+        }
+
+        @Override
+        protected boolean canUpdateProperty(ClientApiElement clientApiElement, OntologyElement ontologyElement, String propertyKey, String propertyName, Ontology ontology, User user, String workspaceId) {
+            updateCalls.merge(propertyName, 1, Integer::sum);
+            return can(getId(clientApiElement), propertyKey, propertyName, true);
+        }
+
+        @Override
+        protected boolean canAddProperty(Element element, OntologyElement ontologyElement, String propertyKey, String propertyName, Ontology ontology, User user, String workspaceId) {
+            return can(getId(element), propertyKey, propertyName, true);
+        }
+
+        @Override
+        protected boolean canAddProperty(ClientApiElement clientApiElement, OntologyElement ontologyElement, String propertyKey, String propertyName, Ontology ontology, User user, String workspaceId) {
+            return can(getId(clientApiElement), propertyKey, propertyName, true);
+        }
+    }
+}
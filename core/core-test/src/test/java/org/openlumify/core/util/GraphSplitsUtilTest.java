@@ -0,0 +1,107 @@
+package org.openlumify.core.util;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vertexium.*;
+import org.vertexium.inmemory.InMemoryGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.vertexium.util.IterableUtils.toList;
+
+public class GraphSplitsUtilTest {
+    private Graph graph;
+    private Authorizations authorizations;
+
+    @Before
+    public void before() {
+        graph = InMemoryGraph.create();
+        authorizations = graph.createAuthorizations();
+    }
+
+    @Test
+    public void testRangesOfANonAccumuloGraphAreSplitOnPrintableAscii() {
+        List<Range> ranges = GraphSplitsUtil.getRanges(graph, ElementType.VERTEX);
+        List<String> splits = GraphSplitsUtil.getSplits(graph, ElementType.VERTEX);
+
+        assertEquals(splits.size() + 1, ranges.size());
+        assertEquals(" ", splits.get(0));
+        assertEquals("}", splits.get(splits.size() - 1));
+
+        Range first = ranges.get(0);
+        assertNull(first.getInclusiveStart());
+        assertEquals(" ", first.getExclusiveEnd());
+
+        Range last = ranges.get(ranges.size() - 1);
+        assertEquals("}", last.getInclusiveStart());
+        assertNull(last.getExclusiveEnd());
+
+        for (int i = 1; i < ranges.size(); i++) {
+            assertEquals("ranges must be contiguous", ranges.get(i - 1).getExclusiveEnd(), ranges.get(i).getInclusiveStart());
+        }
+    }
+
+    @Test
+    public void testEveryElementIsInExactlyOneRange() {
+        List<String> ids = Arrays.asList("\u0001", " ", " a", "A", "a", "a\u0000", "}", "}z", "~", "~~", "\u00e9", "\uffff");
+        for (String id : ids) {
+            graph.addVertex(id, new Visibility(""), authorizations);
+        }
+        for (int i = 0; i + 1 < ids.size(); i++) {
+            graph.addEdge("e" + ids.get(i), ids.get(i), ids.get(i + 1), "label", new Visibility(""), authorizations);
+        }
+        graph.flush();
+
+        assertEquals(ids, getIdsInRanges(ElementType.VERTEX));
+        List<String> edgeIds = new ArrayList<>();
+        for (int i = 0; i + 1 < ids.size(); i++) {
+            edgeIds.add("e" + ids.get(i));
+        }
+        List<String> edgeIdsInRanges = getIdsInRanges(ElementType.EDGE);
+        edgeIdsInRanges.sort(null);
+        edgeIds.sort(null);
+        assertEquals(edgeIds, edgeIdsInRanges);
+    }
+
+    @Test
+    public void testRangeBoundaries() {
+        List<Range> ranges = GraphSplitsUtil.getRanges(graph, ElementType.VERTEX);
+        Range aRange = findRange(ranges, "a");
+
+        assertTrue(aRange.isInRange("a"));
+        assertTrue(aRange.isInRange("azzz"));
+        assertFalse("the end is exclusive", aRange.isInRange("b"));
+        assertTrue(findRange(ranges, "b").isInRange("b"));
+        assertTrue(ranges.get(0).isInRange("\u0000"));
+        assertTrue(ranges.get(ranges.size() - 1).isInRange("\uffff"));
+    }
+
+    private List<String> getIdsInRanges(ElementType elementType) {
+        List<String> ids = new ArrayList<>();
+        for (Range range : GraphSplitsUtil.getRanges(graph, elementType)) {
+            Iterable<? extends Element> elements = elementType == ElementType.VERTEX
+                    ? graph.getVerticesInRange(range, FetchHint.ALL, authorizations)
+                    : graph.getEdgesInRange(range, FetchHint.ALL, authorizations);
+            List<String> rangeIds = new ArrayList<>();
+            for (Element element : toList(elements)) {
+                rangeIds.add(element.getId());
+            }
+            rangeIds.sort(null);
+            ids.addAll(rangeIds);
+        }
+        return ids;
+    }
+
+    private static Range findRange(List<Range> ranges, String inclusiveStart) {
+        for (Range range : ranges) {
+            if (inclusiveStart.equals(range.getInclusiveStart())) {
+                return range;
+            }
+        }
+        fail("no range starts at " + inclusiveStart);
+        return null;
+    }
+}
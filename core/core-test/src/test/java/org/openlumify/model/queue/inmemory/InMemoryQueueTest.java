@@ -0,0 +1,153 @@
+package org.openlumify.model.queue.inmemory;
+
+import org.junit.Test;
+import org.openlumify.core.model.workQueue.Priority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class InMemoryQueueTest {
+    @Test
+    public void testPollReturnsHigherPrioritiesFirst() throws InterruptedException {
+        InMemoryQueue queue = new InMemoryQueue("test", 0, 0);
+        queue.push(bytes("low"), Priority.LOW);
+        queue.push(bytes("normal1"), Priority.NORMAL);
+        queue.push(bytes("high"), Priority.HIGH);
+        queue.push(bytes("normal2"), null);
+
+        assertEquals("high", string(queue.poll(100)));
+        assertEquals("normal1", string(queue.poll(100)));
+        assertEquals("normal2", string(queue.poll(100)));
+        assertEquals("low", string(queue.poll(100)));
+        assertNull(queue.poll(10));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testBatchPollReturnsHigherPrioritiesFirst() throws InterruptedException {
+        InMemoryQueue queue = new InMemoryQueue("test", 0, 0);
+        queue.push(bytes("low"), Priority.LOW);
+        queue.push(bytes("normal"), Priority.NORMAL);
+        queue.push(bytes("high"), Priority.HIGH);
+
+        List<byte[]> results = queue.poll(2, 100);
+        assertEquals(2, results.size());
+        assertEquals("high", string(results.get(0)));
+        assertEquals("normal", string(results.get(1)));
+        assertEquals(1, queue.size());
+
+        assertEquals(1, queue.poll(10, 10).size());
+        assertTrue(queue.poll(10, 10).isEmpty());
+    }
+
+    @Test
+    public void testPushWaitsForSpaceWhenFull() throws Exception {
+        InMemoryQueue queue = new InMemoryQueue("test", 1, TimeUnit.MINUTES.toMillis(1));
+        queue.push(bytes("first"), Priority.NORMAL);
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread producer = new Thread(() -> {
+            try {
+                queue.push(bytes("second"), Priority.NORMAL);
+            } catch (Throwable ex) {
+                error.set(ex);
+            }
+        });
+        producer.start();
+        waitForState(producer, Thread.State.TIMED_WAITING);
+        assertEquals(1, queue.size());
+
+        assertEquals("first", string(queue.poll(100)));
+        producer.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(producer.isAlive());
+        assertNull(error.get());
+        assertEquals("second", string(queue.poll(100)));
+    }
+
+    @Test
+    public void testPushQueuesAnywayAfterTheTimeout() throws InterruptedException {
+        InMemoryQueue queue = new InMemoryQueue("test", 1, 50);
+        queue.push(bytes("first"), Priority.NORMAL);
+
+        long startTime = System.nanoTime();
+        queue.push(bytes("second"), Priority.HIGH);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        assertTrue("pushed after " + elapsedMillis + "ms", elapsedMillis >= 50);
+        assertEquals(2, queue.size());
+        assertEquals("second", string(queue.poll(100)));
+        assertEquals("first", string(queue.poll(100)));
+    }
+
+    @Test
+    public void testConcurrentConsumersReceiveEveryItemOnce() throws InterruptedException {
+        InMemoryQueue queue = new InMemoryQueue("test", 16, TimeUnit.MINUTES.toMillis(1));
+        int producerCount = 4;
+        int itemsPerProducer = 2000;
+        Set<String> received = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        List<String> duplicates = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(producerCount * itemsPerProducer);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            int producer = p;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < itemsPerProducer; i++) {
+                        queue.push(bytes(producer + "-" + i), Priority.values()[i % Priority.values().length]);
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (int c = 0; c < 4; c++) {
+            Thread consumer = new Thread(() -> {
+                try {
+                    while (done.getCount() > 0) {
+                        for (byte[] data : queue.poll(3, 10)) {
+                            if (!received.add(string(data))) {
+                                duplicates.add(string(data));
+                            }
+                            done.countDown();
+                        }
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            consumer.setDaemon(true);
+            threads.add(consumer);
+        }
+        threads.forEach(Thread::start);
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(producerCount * itemsPerProducer, received.size());
+        assertTrue(duplicates.toString(), duplicates.isEmpty());
+        assertEquals(0, queue.size());
+    }
+
+    private static void waitForState(Thread thread, Thread.State state) throws InterruptedException {
+        long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (thread.getState() != state) {
+            assertTrue("thread did not reach " + state, System.currentTimeMillis() < endTime);
+            Thread.sleep(10);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes();
+    }
+
+    private static String string(byte[] data) {
+        return data == null ? null : new String(data);
+    }
+}
@@ -0,0 +1,104 @@
+package org.openlumify.model.queue.inmemory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.vertexium.Graph;
+import org.openlumify.core.config.Configuration;
+import org.openlumify.core.config.HashMapConfigurationLoader;
+import org.openlumify.core.ingest.WorkerSpout;
+import org.openlumify.core.ingest.WorkerTuple;
+import org.openlumify.core.model.WorkQueueNames;
+import org.openlumify.core.model.workQueue.Priority;
+import org.openlumify.core.status.JmxMetricsManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class InMemoryWorkQueueRepositoryTest {
+    private static final String QUEUE_NAME = "testQueue";
+
+    @Before
+    public void before() {
+        InMemoryWorkQueueRepository.clearQueue();
+    }
+
+    @After
+    public void after() {
+        InMemoryWorkQueueRepository.clearQueue();
+    }
+
+    @Test
+    public void testWorkerSpoutReturnsHigherPrioritiesFirst() throws Exception {
+        InMemoryWorkQueueRepository workQueueRepository = createWorkQueueRepository(0, 0);
+        workQueueRepository.pushOnQueue(QUEUE_NAME, "low".getBytes(), Priority.LOW);
+        workQueueRepository.pushOnQueue(QUEUE_NAME, "normal".getBytes(), Priority.NORMAL);
+        workQueueRepository.pushOnQueue(QUEUE_NAME, "high".getBytes(), Priority.HIGH);
+        assertEquals(3, InMemoryWorkQueueRepository.getQueueSize(QUEUE_NAME));
+
+        WorkerSpout spout = workQueueRepository.createWorkerSpout(QUEUE_NAME);
+        assertEquals("high", new String(spout.nextTuple().getData()));
+        List<WorkerTuple> tuples = spout.nextTuples(10, 100);
+        assertEquals(2, tuples.size());
+        assertEquals("normal", new String(tuples.get(0).getData()));
+        assertEquals("low", new String(tuples.get(1).getData()));
+        assertNull(spout.nextTuple());
+        assertEquals(0, InMemoryWorkQueueRepository.getQueueSize(QUEUE_NAME));
+    }
+
+    @Test
+    public void testPushWaitsForTheConfiguredTimeoutWhenTheQueueIsFull() {
+        InMemoryWorkQueueRepository workQueueRepository = createWorkQueueRepository(2, 100);
+        workQueueRepository.pushOnQueue(QUEUE_NAME, "1".getBytes(), Priority.NORMAL);
+        workQueueRepository.pushOnQueue(QUEUE_NAME, "2".getBytes(), Priority.NORMAL);
+
+        long startTime = System.nanoTime();
+        workQueueRepository.pushOnQueue(QUEUE_NAME, "3".getBytes(), Priority.NORMAL);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        assertTrue("pushed after " + elapsedMillis + "ms", elapsedMillis >= 100);
+        assertEquals(3, InMemoryWorkQueueRepository.getQueueSize(QUEUE_NAME));
+    }
+
+    @Test
+    public void testPushResumesWhenAWorkerMakesSpace() throws Exception {
+        InMemoryWorkQueueRepository workQueueRepository = createWorkQueueRepository(1, TimeUnit.MINUTES.toMillis(1));
+        workQueueRepository.pushOnQueue(QUEUE_NAME, "1".getBytes(), Priority.NORMAL);
+
+        Thread producer = new Thread(() -> workQueueRepository.pushOnQueue(QUEUE_NAME, "2".getBytes(), Priority.NORMAL));
+        producer.start();
+        long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (producer.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue("producer did not wait for space", System.currentTimeMillis() < endTime);
+            Thread.sleep(10);
+        }
+        assertEquals(1, InMemoryWorkQueueRepository.getQueueSize(QUEUE_NAME));
+
+        WorkerSpout spout = workQueueRepository.createWorkerSpout(QUEUE_NAME);
+        assertEquals("1", new String(spout.nextTuple().getData()));
+        producer.join(TimeUnit.SECONDS.toMillis(10));
+        assertEquals(Thread.State.TERMINATED, producer.getState());
+        assertEquals("2", new String(spout.nextTuple().getData()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private InMemoryWorkQueueRepository createWorkQueueRepository(int queueCapacity, long pushTimeoutMillis) {
+        Map config = new HashMap();
+        config.put(InMemoryWorkQueueRepository.CONFIG_QUEUE_CAPACITY, Integer.toString(queueCapacity));
+        config.put(InMemoryWorkQueueRepository.CONFIG_PUSH_TIMEOUT_MILLIS, Long.toString(pushTimeoutMillis));
+        Configuration configuration = new HashMapConfigurationLoader(config).createConfiguration();
+        return new InMemoryWorkQueueRepository(
+                mock(Graph.class),
+                new WorkQueueNames(configuration),
+                configuration,
+                new JmxMetricsManager()
+        );
+    }
+}
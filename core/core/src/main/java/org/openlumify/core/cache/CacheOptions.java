@@ -1,7 +1,18 @@
 package org.openlumify.core.cache;
 
+import com.google.common.cache.CacheBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
 public class CacheOptions {
     private Long maximumSize;
+    private Long maximumWeight;
+    private Weigher<?> weigher;
+    private Long expireAfterWriteMillis;
+    private Long expireAfterAccessMillis;
+    private Integer concurrencyLevel;
 
     public Long getMaximumSize() {
         return maximumSize;
@@ -11,4 +22,80 @@ public class CacheOptions {
         this.maximumSize = maximumSize;
         return this;
     }
+
+    public Long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Limits the cache by the total weight of its values instead of their count. Requires a weigher and takes
+     * precedence over the maximum size.
+     */
+    public <T> CacheOptions setMaximumWeight(Long maximumWeight, Weigher<T> weigher) {
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        return this;
+    }
+
+    public Weigher<?> getWeigher() {
+        return weigher;
+    }
+
+    public Long getExpireAfterWriteMillis() {
+        return expireAfterWriteMillis;
+    }
+
+    public CacheOptions setExpireAfterWriteMillis(Long expireAfterWriteMillis) {
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+        return this;
+    }
+
+    public Long getExpireAfterAccessMillis() {
+        return expireAfterAccessMillis;
+    }
+
+    public CacheOptions setExpireAfterAccessMillis(Long expireAfterAccessMillis) {
+        this.expireAfterAccessMillis = expireAfterAccessMillis;
+        return this;
+    }
+
+    public Integer getConcurrencyLevel() {
+        return concurrencyLevel;
+    }
+
+    /**
+     * The number of independently locked segments in the cache.
+     */
+    public CacheOptions setConcurrencyLevel(Integer concurrencyLevel) {
+        this.concurrencyLevel = concurrencyLevel;
+        return this;
+    }
+
+    CacheBuilder<Object, Object> toCacheBuilder() {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+        if (maximumWeight != null) {
+            @SuppressWarnings("unchecked")
+            Weigher<Object> valueWeigher = (Weigher<Object>) weigher;
+            checkNotNull(valueWeigher, "maximumWeight requires a weigher");
+            builder = builder
+                    .maximumWeight(maximumWeight)
+                    .weigher((Object key, Object value) -> valueWeigher.weigh((String) key, value));
+        } else if (maximumSize != null) {
+            builder.maximumSize(maximumSize);
+        }
+        if (expireAfterWriteMillis != null) {
+            builder.expireAfterWrite(expireAfterWriteMillis, TimeUnit.MILLISECONDS);
+        }
+        if (expireAfterAccessMillis != null) {
+            builder.expireAfterAccess(expireAfterAccessMillis, TimeUnit.MILLISECONDS);
+        }
+        if (concurrencyLevel != null) {
+            builder.concurrencyLevel(concurrencyLevel);
+        }
+        return builder;
+    }
+
+    public interface Weigher<T> {
+        int weigh(String key, T value);
+    }
 }
@@ -0,0 +1,78 @@
+package org.openlumify.core.cache;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.cache.Cache;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.openlumify.core.status.MetricsManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link CacheService} without a global lock. Each named cache is created once and is itself split into
+ * independently locked segments (see {@link CacheOptions#setConcurrencyLevel(Integer)}), so gets and puts on
+ * different keys or caches do not contend. Hits, misses, evictions and the size of each cache are exported
+ * through the {@link MetricsManager}.
+ */
+@Singleton
+public class ConcurrentCacheService implements CacheService {
+    private final Map<String, Cache<String, Object>> caches = new ConcurrentHashMap<>();
+    private final MetricsManager metricsManager;
+
+    @Inject
+    public ConcurrentCacheService(MetricsManager metricsManager) {
+        this.metricsManager = metricsManager;
+    }
+
+    @Override
+    public <T> T put(String cacheName, String key, T t, CacheOptions cacheOptions) {
+        getOrCreateCache(cacheName, cacheOptions).put(key, t);
+        return t;
+    }
+
+    @Override
+    public <T> T getIfPresent(String cacheName, String key) {
+        Cache<String, Object> cache = caches.get(cacheName);
+        if (cache == null) {
+            return null;
+        }
+        //noinspection unchecked
+        return (T) cache.getIfPresent(key);
+    }
+
+    @Override
+    public void invalidate(String cacheName) {
+        Cache<String, Object> cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void invalidate(String cacheName, String key) {
+        Cache<String, Object> cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    private Cache<String, Object> getOrCreateCache(String cacheName, CacheOptions cacheOptions) {
+        Cache<String, Object> cache = caches.get(cacheName);
+        if (cache != null) {
+            return cache;
+        }
+        return caches.computeIfAbsent(cacheName, k -> {
+            Cache<String, Object> newCache = cacheOptions.toCacheBuilder().recordStats().build();
+            registerMetrics(cacheName, newCache);
+            return newCache;
+        });
+    }
+
+    private void registerMetrics(String cacheName, Cache<String, Object> cache) {
+        metricsManager.gauge(this, cacheName + "-hits", (Gauge<Long>) () -> cache.stats().hitCount());
+        metricsManager.gauge(this, cacheName + "-misses", (Gauge<Long>) () -> cache.stats().missCount());
+        metricsManager.gauge(this, cacheName + "-evictions", (Gauge<Long>) () -> cache.stats().evictionCount());
+        metricsManager.gauge(this, cacheName + "-size", (Gauge<Long>) cache::size);
+    }
+}
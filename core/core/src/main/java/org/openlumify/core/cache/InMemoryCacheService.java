@@ -1,7 +1,6 @@
 package org.openlumify.core.cache;
 
 import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
 
@@ -69,11 +68,7 @@ public class InMemoryCacheService implements CacheService {
         if (cache != null) {
             return cache;
         }
-        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
-        if (cacheOptions.getMaximumSize() != null) {
-            builder.maximumSize(cacheOptions.getMaximumSize());
-        }
-        cache = builder.build();
+        cache = cacheOptions.toCacheBuilder().build();
         caches.put(cacheName, cache);
         return cache;
     }
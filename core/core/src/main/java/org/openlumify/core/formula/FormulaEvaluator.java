@@ -1,14 +1,16 @@
 package org.openlumify.core.formula;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import org.apache.commons.io.IOUtils;
 import org.mozilla.javascript.*;
 import org.vertexium.Authorizations;
 import org.vertexium.VertexiumObject;
 import org.openlumify.core.config.Configuration;
 import org.openlumify.core.exception.OpenLumifyException;
+import org.openlumify.core.model.ontology.Ontology;
 import org.openlumify.core.model.ontology.OntologyRepository;
 import org.openlumify.core.util.ClientApiConverter;
 import org.openlumify.core.util.OpenLumifyLogger;
@@ -17,9 +19,10 @@ import org.openlumify.web.clientapi.model.ClientApiOntology;
 import org.openlumify.web.clientapi.model.ClientApiVertexiumObject;
 import org.openlumify.web.clientapi.util.ObjectMapperFactory;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
@@ -36,11 +39,18 @@ public class FormulaEvaluator {
     private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(FormulaEvaluator.class);
     private static final String CONFIGURATION_PARAMETER_MAX_THREADS = FormulaEvaluator.class.getName() + ".max.threads";
     private static final int CONFIGURATION_DEFAULT_MAX_THREADS = 1;
+    private static final String CONFIGURATION_PARAMETER_OPTIMIZATION_LEVEL = FormulaEvaluator.class.getName() + ".optimizationLevel";
+    private static final int CONFIGURATION_DEFAULT_OPTIMIZATION_LEVEL = -1;
+    private static final String CONFIGURATION_PARAMETER_ONTOLOGY_JSON_CACHE_SIZE = FormulaEvaluator.class.getName() + ".ontologyJsonCacheSize";
+    private static final int CONFIGURATION_DEFAULT_ONTOLOGY_JSON_CACHE_SIZE = 100;
+    private static final String PUBLIC_ONTOLOGY_CACHE_KEY = "";
     private Configuration configuration;
     private OntologyRepository ontologyRepository;
     private ExecutorService executorService;
+    private final int optimizationLevel;
+    private final Cache<String, OntologyJson> ontologyJsonCache;
 
-    private static final ThreadLocal<Map<String, Scriptable>> threadLocalScope = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, FormulaScope>> threadLocalScope = ThreadLocal.withInitial(HashMap::new);
 
     @Inject
     public FormulaEvaluator(Configuration configuration, OntologyRepository ontologyRepository) {
@@ -51,6 +61,16 @@ public class FormulaEvaluator {
                 CONFIGURATION_PARAMETER_MAX_THREADS,
                 CONFIGURATION_DEFAULT_MAX_THREADS
         ));
+        optimizationLevel = configuration.getInt(
+                CONFIGURATION_PARAMETER_OPTIMIZATION_LEVEL,
+                CONFIGURATION_DEFAULT_OPTIMIZATION_LEVEL
+        );
+        ontologyJsonCache = CacheBuilder.newBuilder()
+                .maximumSize(configuration.getInt(
+                        CONFIGURATION_PARAMETER_ONTOLOGY_JSON_CACHE_SIZE,
+                        CONFIGURATION_DEFAULT_ONTOLOGY_JSON_CACHE_SIZE
+                ))
+                .build();
     }
 
     public void close() {
@@ -79,6 +99,45 @@ public class FormulaEvaluator {
         return evaluateFormula("Property", vertexiumObject, propertyKey, propertyName, userContext, authorizations);
     }
 
+    /**
+     * Evaluates the title, subtitle and time formulas of each object with a single hop to the evaluation thread,
+     * converting each object to JSON only once.
+     *
+     * @return The results in the same order as the objects
+     */
+    public List<FormulaResults> evaluateBatch(
+            List<? extends VertexiumObject> vertexiumObjects,
+            UserContext userContext,
+            Authorizations authorizations
+    ) {
+        if (vertexiumObjects.isEmpty()) {
+            return new ArrayList<>();
+        }
+        FormulaEvaluatorBatchCallable evaluationCallable = new FormulaEvaluatorBatchCallable(
+                vertexiumObjects,
+                userContext,
+                authorizations
+        );
+
+        try {
+            return executorService.submit(evaluationCallable).get();
+        } catch (InterruptedException e) {
+            LOGGER.error("Batch evaluation interrupted", e);
+        } catch (ExecutionException e) {
+            LOGGER.error("Error encountered during batch evaluation", e);
+        }
+
+        List<FormulaResults> results = new ArrayList<>();
+        for (int i = 0; i < vertexiumObjects.size(); i++) {
+            results.add(new FormulaResults(
+                    getUnableToEvaluateMessage("Title"),
+                    getUnableToEvaluateMessage("Subtitle"),
+                    getUnableToEvaluateMessage("Time")
+            ));
+        }
+        return results;
+    }
+
     private String evaluateFormula(
             String type,
             VertexiumObject vertexiumObject,
@@ -104,27 +163,36 @@ public class FormulaEvaluator {
             LOGGER.error("Error encountered during " + type + " evaluation", e);
         }
 
+        return getUnableToEvaluateMessage(type);
+    }
+
+    private static String getUnableToEvaluateMessage(String type) {
         return "Unable to Evaluate " + type;
     }
 
     public Scriptable getScriptable(UserContext userContext) {
-        Map<String, Scriptable> scopes = threadLocalScope.get();
+        Map<String, FormulaScope> scopes = threadLocalScope.get();
 
         String mapKey = userContext.locale.toString() + userContext.timeZone;
-        Scriptable scope = scopes.get(mapKey);
-        if (scope == null) {
-            scope = setupContext(getOntologyJson(userContext.getWorkspaceId()), getConfigurationJson(userContext.locale, userContext.getWorkspaceId()), userContext.timeZone);
-            scopes.put(mapKey, scope);
-        } else {
-            scope.put("ONTOLOGY_JSON", scope, Context.toObject(getOntologyJson(userContext.getWorkspaceId()), scope));
+        String ontologyJson = getOntologyJson(userContext.getWorkspaceId());
+        FormulaScope formulaScope = scopes.get(mapKey);
+        if (formulaScope == null) {
+            Scriptable scope = setupContext(ontologyJson, getConfigurationJson(userContext.locale, userContext.getWorkspaceId()), userContext.timeZone);
+            formulaScope = new FormulaScope(scope, ontologyJson);
+            scopes.put(mapKey, formulaScope);
+        } else if (formulaScope.ontologyJson != ontologyJson) {
+            // the cached ontology json is the same instance until the ontology changes
+            Scriptable scope = formulaScope.scope;
+            scope.put("ONTOLOGY_JSON", scope, Context.toObject(ontologyJson, scope));
+            formulaScope.ontologyJson = ontologyJson;
         }
-        return scope;
+        return formulaScope.scope;
     }
 
     private Scriptable setupContext(String ontologyJson, String configurationJson, String timeZone) {
         Context context = Context.enter();
         context.setLanguageVersion(Context.VERSION_1_8);
-        context.setOptimizationLevel(-1);
+        context.setOptimizationLevel(optimizationLevel);
 
         RequireJsSupport browserSupport = new RequireJsSupport();
 
@@ -156,13 +224,29 @@ public class FormulaEvaluator {
         evaluateFile(scope, "loader.js");
     }
 
+    /**
+     * The json is cached for as long as the ontology repository returns the same ontology, which it does until
+     * {@link OntologyRepository#clearCache()} is called for the workspace.
+     */
     protected String getOntologyJson(String workspaceId) {
+        String cacheKey = workspaceId == null ? PUBLIC_ONTOLOGY_CACHE_KEY : workspaceId;
+        Ontology ontology = ontologyRepository.getOntology(workspaceId);
+        OntologyJson ontologyJson = ontologyJsonCache.getIfPresent(cacheKey);
+        if (ontology != null && ontologyJson != null && ontologyJson.ontology.get() == ontology) {
+            return ontologyJson.json;
+        }
+
         ClientApiOntology result = ontologyRepository.getClientApiObject(workspaceId);
+        String json;
         try {
-            return ObjectMapperFactory.getInstance().writeValueAsString(result);
+            json = ObjectMapperFactory.getInstance().writeValueAsString(result);
         } catch (JsonProcessingException ex) {
             throw new OpenLumifyException("Could not evaluate JSON: " + result, ex);
         }
+        if (ontology != null) {
+            ontologyJsonCache.put(cacheKey, new OntologyJson(ontology, json));
+        }
+        return json;
     }
 
     protected String getConfigurationJson(Locale locale, String workspaceId) {
@@ -170,19 +254,41 @@ public class FormulaEvaluator {
     }
 
     private void evaluateFile(ScriptableObject scope, String filename) {
-        String transformed = RequireJsSupport.transformFilePath(filename);
+        Context context = Context.getCurrentContext();
+        try {
+            RequireJsSupport.getScript(context, filename).exec(context, scope);
+        } catch (JavaScriptException ex) {
+            throw new OpenLumifyException("JavaScript error in " + RequireJsSupport.transformFilePath(filename), ex);
+        }
+    }
 
-        try (InputStream is = FormulaEvaluator.class.getResourceAsStream(transformed)) {
-            if (is == null) {
-                throw new OpenLumifyException("File not found " + transformed);
-            }
+    private String callFormulaFunction(
+            Scriptable scope,
+            String fieldName,
+            String json,
+            String propertyKey,
+            String propertyName
+    ) {
+        Context context = Context.getCurrentContext();
+        Object func = scope.get("evaluate" + fieldName + "FormulaJson", scope);
 
-            Context.getCurrentContext().evaluateString(scope, IOUtils.toString(is), transformed, 0, null);
-        } catch (JavaScriptException ex) {
-            throw new OpenLumifyException("JavaScript error in " + transformed, ex);
-        } catch (IOException ex) {
-            throw new OpenLumifyException("Could not read file: " + transformed, ex);
+        if (func.equals(Scriptable.NOT_FOUND)) {
+            throw new OpenLumifyException("formula function not found");
+        }
+
+        if (func instanceof Function) {
+            Function function = (Function) func;
+            Object result = function.call(
+                    context,
+                    scope,
+                    scope,
+                    new Object[]{json, propertyKey, propertyName}
+            );
+
+            return (String) context.jsToJava(result, String.class);
         }
+
+        throw new OpenLumifyException("Unknown result from formula");
     }
 
     protected String toJson(VertexiumObject vertexiumObject, String workspaceId, Authorizations authorizations) {
@@ -220,6 +326,50 @@ public class FormulaEvaluator {
         }
     }
 
+    public static class FormulaResults {
+        private final String title;
+        private final String subtitle;
+        private final String time;
+
+        public FormulaResults(String title, String subtitle, String time) {
+            this.title = title;
+            this.subtitle = subtitle;
+            this.time = time;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getSubtitle() {
+            return subtitle;
+        }
+
+        public String getTime() {
+            return time;
+        }
+    }
+
+    private static class FormulaScope {
+        private final Scriptable scope;
+        private String ontologyJson;
+
+        FormulaScope(Scriptable scope, String ontologyJson) {
+            this.scope = scope;
+            this.ontologyJson = ontologyJson;
+        }
+    }
+
+    private static class OntologyJson {
+        private final WeakReference<Ontology> ontology;
+        private final String json;
+
+        OntologyJson(Ontology ontology, String json) {
+            this.ontology = new WeakReference<>(ontology);
+            this.json = json;
+        }
+    }
+
     private class FormulaEvaluatorCallable implements Callable<String> {
         private final String propertyKey;
         private final String propertyName;
@@ -247,27 +397,48 @@ public class FormulaEvaluator {
         @Override
         public String call() throws Exception {
             Scriptable scope = getScriptable(userContext);
-            Context context = Context.getCurrentContext();
             String json = toJson(vertexiumObject, userContext.getWorkspaceId(), authorizations);
-            Object func = scope.get("evaluate" + fieldName + "FormulaJson", scope);
+            return callFormulaFunction(scope, fieldName, json, propertyKey, propertyName);
+        }
+    }
 
-            if (func.equals(Scriptable.NOT_FOUND)) {
-                throw new OpenLumifyException("formula function not found");
-            }
+    private class FormulaEvaluatorBatchCallable implements Callable<List<FormulaResults>> {
+        private final List<? extends VertexiumObject> vertexiumObjects;
+        private final UserContext userContext;
+        private final Authorizations authorizations;
 
-            if (func instanceof Function) {
-                Function function = (Function) func;
-                Object result = function.call(
-                        context,
-                        scope,
-                        scope,
-                        new Object[]{json, propertyKey, propertyName}
-                );
+        public FormulaEvaluatorBatchCallable(
+                List<? extends VertexiumObject> vertexiumObjects,
+                UserContext userContext,
+                Authorizations authorizations
+        ) {
+            this.vertexiumObjects = vertexiumObjects;
+            this.userContext = userContext;
+            this.authorizations = authorizations;
+        }
 
-                return (String) context.jsToJava(result, String.class);
+        @Override
+        public List<FormulaResults> call() throws Exception {
+            Scriptable scope = getScriptable(userContext);
+            List<FormulaResults> results = new ArrayList<>(vertexiumObjects.size());
+            for (VertexiumObject vertexiumObject : vertexiumObjects) {
+                String json = toJson(vertexiumObject, userContext.getWorkspaceId(), authorizations);
+                results.add(new FormulaResults(
+                        evaluate(scope, "Title", json),
+                        evaluate(scope, "Subtitle", json),
+                        evaluate(scope, "Time", json)
+                ));
             }
+            return results;
+        }
 
-            throw new OpenLumifyException("Unknown result from formula");
+        private String evaluate(Scriptable scope, String fieldName, String json) {
+            try {
+                return callFormulaFunction(scope, fieldName, json, null, null);
+            } catch (Exception ex) {
+                LOGGER.error("Error encountered during " + fieldName + " evaluation", ex);
+                return getUnableToEvaluateMessage(fieldName);
+            }
         }
     }
 }
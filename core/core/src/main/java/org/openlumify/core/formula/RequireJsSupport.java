@@ -3,6 +3,7 @@ package org.openlumify.core.formula;
 import org.apache.commons.io.IOUtils;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.Function;
+import org.mozilla.javascript.Script;
 import org.mozilla.javascript.Scriptable;
 import org.mozilla.javascript.ScriptableObject;
 import org.openlumify.core.exception.OpenLumifyException;
@@ -12,11 +13,14 @@ import org.openlumify.core.util.OpenLumifyLoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @SuppressWarnings("unused")
 public class RequireJsSupport extends ScriptableObject {
     private static final long serialVersionUID = 1L;
     private static OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(RequireJsSupport.class);
+    private static final Map<String, Script> compiledScripts = new ConcurrentHashMap<>();
 
     @Override
     public String getClassName() {
@@ -49,9 +53,8 @@ public class RequireJsSupport extends ScriptableObject {
     }
 
     public static String readFully(Context cx, Scriptable thisObj, Object[] args, Function funObj) throws IOException {
-        RequireJsSupport shell = (RequireJsSupport) getTopLevelScope(thisObj);
         if (args.length == 1) {
-            return shell.getFileContents(Context.toString(args[0]));
+            return getFileContents(Context.toString(args[0]));
         }
         return null;
     }
@@ -61,11 +64,19 @@ public class RequireJsSupport extends ScriptableObject {
     }
 
     private void processSource(Context cx, String filename) throws IOException {
-        String fileContents = getFileContents(filename);
-        cx.evaluateString(this, fileContents, filename, 1, null);
+        getScript(cx, filename).exec(cx, this);
+    }
+
+    /**
+     * Compiled scripts do not hold on to a scope, so each file is compiled once and executed in every scope that
+     * loads it.
+     */
+    public static Script getScript(Context cx, String filename) {
+        String key = cx.getOptimizationLevel() + ":" + filename;
+        return compiledScripts.computeIfAbsent(key, k -> cx.compileString(getFileContents(filename), filename, 1, null));
     }
 
-    private String getFileContents(String file) {
+    private static String getFileContents(String file) {
         String transformed = transformFilePath(file);
         try (InputStream is = RequireJsSupport.class.getResourceAsStream(transformed)) {
             if (is == null) {
@@ -2,6 +2,7 @@ package org.openlumify.core.ingest;
 
 import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkData;
 import org.openlumify.core.ingest.graphProperty.GraphPropertyWorker;
+import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkerInterest;
 import org.openlumify.core.model.Description;
 import org.openlumify.core.model.Name;
 import org.openlumify.core.model.properties.OpenLumifyProperties;
@@ -89,6 +90,13 @@ public class MetadataGraphPropertyWorker extends GraphPropertyWorker {
         }
     }
 
+    @Override
+    public GraphPropertyWorkerInterest getInterest() {
+        // only the element messages, isHandled still checks for the metadata JSON property
+        return GraphPropertyWorkerInterest.forElements()
+                .setHandledChecked(true);
+    }
+
     @Override
     public boolean isHandled(Element element, Property property) {
         if (property != null) {
@@ -1,5 +1,8 @@
 package org.openlumify.core.ingest;
 
+import java.util.Collections;
+import java.util.List;
+
 public abstract class WorkerSpout {
     public void open() {
     }
@@ -16,6 +19,24 @@ public abstract class WorkerSpout {
 
     }
 
+    /**
+     * Acknowledges multiple tuples. Spouts that can acknowledge in bulk should override this method.
+     */
+    public void ack(List<WorkerTuple> workerTuples) {
+        for (WorkerTuple workerTuple : workerTuples) {
+            ack(workerTuple);
+        }
+    }
+
+    /**
+     * Fails multiple tuples. Spouts that can fail in bulk should override this method.
+     */
+    public void fail(List<WorkerTuple> workerTuples) {
+        for (WorkerTuple workerTuple : workerTuples) {
+            fail(workerTuple);
+        }
+    }
+
     /**
      * Get the next tuple from the queue. This method should poll and wait for a time period to
      * prevent spinning and causing high cpu load as the method calling this method will not sleep
@@ -25,4 +46,19 @@ public abstract class WorkerSpout {
      * @return null, if no tuple is available in the polling period.
      */
     public abstract WorkerTuple nextTuple() throws Exception;
+
+    /**
+     * Get up to maxCount tuples from the queue. Waits at most maxWaitMillis for the first tuple to become
+     * available and then returns whatever is available without waiting further. The default implementation
+     * returns at most one tuple from {@link #nextTuple()}, spouts that can dequeue in bulk should override it.
+     *
+     * @return an empty list, if no tuple is available in the polling period.
+     */
+    public List<WorkerTuple> nextTuples(int maxCount, long maxWaitMillis) throws Exception {
+        WorkerTuple tuple = nextTuple();
+        if (tuple == null) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(tuple);
+    }
 }
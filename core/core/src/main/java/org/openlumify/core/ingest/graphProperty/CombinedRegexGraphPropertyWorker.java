@@ -0,0 +1,90 @@
+package org.openlumify.core.ingest.graphProperty;
+
+import com.google.common.base.Charsets;
+import org.vertexium.Element;
+import org.vertexium.Property;
+import org.vertexium.Vertex;
+import org.openlumify.core.bootstrap.InjectHelper;
+import org.openlumify.core.config.Configuration;
+import org.openlumify.core.model.Description;
+import org.openlumify.core.model.Name;
+import org.openlumify.core.model.termMention.TermMentionBuilder;
+import org.openlumify.core.util.OpenLumifyLogger;
+import org.openlumify.core.util.OpenLumifyLoggerFactory;
+import org.openlumify.core.util.OpenLumifyPlugin;
+import org.openlumify.core.util.ServiceLoaderUtil;
+import org.openlumify.web.clientapi.model.VisibilityJson;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Runs every {@link RegexGraphPropertyWorker} in one pass over the text instead of one pass per worker, and saves
+ * all of their term mentions together. Enable it with disable.org.openlumify.core.ingest.graphProperty.CombinedRegexGraphPropertyWorker=false,
+ * the regular expression workers then leave their properties to it.
+ */
+@Name("Combined Regex Extractor")
+@Description("Extracts the term mentions of all regular expression extractors in a single pass over the text")
+@OpenLumifyPlugin(disabledByDefault = true)
+public class CombinedRegexGraphPropertyWorker extends GraphPropertyWorker {
+    private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(CombinedRegexGraphPropertyWorker.class);
+    private final List<RegexGraphPropertyWorker> workers = new ArrayList<>();
+    private final List<Pattern> patterns = new ArrayList<>();
+
+    public static boolean isEnabled(Configuration configuration) {
+        return !configuration.getBoolean(ServiceLoaderUtil.CONFIG_DISABLE_PREFIX + CombinedRegexGraphPropertyWorker.class.getName(), true);
+    }
+
+    @Override
+    public void prepare(GraphPropertyWorkerPrepareData workerPrepareData) throws Exception {
+        super.prepare(workerPrepareData);
+        for (RegexGraphPropertyWorker worker : loadRegexGraphPropertyWorkers()) {
+            worker.prepare(workerPrepareData);
+            workers.add(worker);
+            patterns.add(worker.getPattern());
+        }
+        LOGGER.info("Combined %d regular expression extractors", workers.size());
+    }
+
+    protected List<RegexGraphPropertyWorker> loadRegexGraphPropertyWorkers() {
+        List<RegexGraphPropertyWorker> regexWorkers = new ArrayList<>();
+        for (Class<? extends GraphPropertyWorker> workerClass : ServiceLoaderUtil.loadClasses(GraphPropertyWorker.class, getConfiguration())) {
+            if (RegexGraphPropertyWorker.class.isAssignableFrom(workerClass)) {
+                regexWorkers.add((RegexGraphPropertyWorker) InjectHelper.getInstance(workerClass));
+            }
+        }
+        return regexWorkers;
+    }
+
+    @Override
+    public void execute(InputStream in, GraphPropertyWorkData data) throws Exception {
+        Vertex outVertex = (Vertex) data.getElement();
+        VisibilityJson visibilityJson = VisibilityJson.updateVisibilitySourceAndAddWorkspaceId(null, null, data.getWorkspaceId());
+        List<TermMentionBuilder> termMentions = new ArrayList<>();
+        RegexGraphPropertyWorker.createScanner(getConfiguration(), patterns).scan(
+                new InputStreamReader(in, Charsets.UTF_8),
+                (patternIndex, start, end, text) -> termMentions.add(
+                        workers.get(patternIndex).createTermMention(outVertex, data, visibilityJson, start, end, text)
+                )
+        );
+        List<Vertex> termMentionVertices = TermMentionBuilder.save(termMentions, getGraph(), getVisibilityTranslator(), getUser(), getAuthorizations());
+        applyTermMentionFilters(outVertex, termMentionVertices);
+        pushTextUpdated(data);
+    }
+
+    @Override
+    public GraphPropertyWorkerInterest getInterest() {
+        if (workers.isEmpty()) {
+            return GraphPropertyWorkerInterest.forProperties();
+        }
+        return RegexGraphPropertyWorker.createTextPropertyInterest();
+    }
+
+    @Override
+    public boolean isHandled(Element element, Property property) {
+        return !workers.isEmpty() && RegexGraphPropertyWorker.isTextProperty(property);
+    }
+}
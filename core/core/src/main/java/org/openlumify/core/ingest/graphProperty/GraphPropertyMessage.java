@@ -139,7 +139,13 @@ public class GraphPropertyMessage {
         return this;
     }
 
+    /**
+     * Reads a message written by either {@link #toBytes()} or {@link #toBinaryBytes()}.
+     */
     public static GraphPropertyMessage create(byte[] data) {
+        if (GraphPropertyMessageBinaryFormat.isBinary(data)) {
+            return GraphPropertyMessageBinaryFormat.decode(data);
+        }
         try {
             GraphPropertyMessage message = mapper.readValue(data, GraphPropertyMessage.class);
             checkNotNull(message.getPriority(), "priority cannot be null");
@@ -167,6 +173,14 @@ public class GraphPropertyMessage {
         }
     }
 
+    /**
+     * Writes the message in the compact format of {@link GraphPropertyMessageBinaryFormat}. Only use this once
+     * every consumer of the queue can read it.
+     */
+    public byte[] toBinaryBytes() {
+        return GraphPropertyMessageBinaryFormat.encode(this);
+    }
+
     public static class Property {
         private String propertyKey;
         private String propertyName;
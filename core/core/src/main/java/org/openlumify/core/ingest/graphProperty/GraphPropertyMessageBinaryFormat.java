@@ -0,0 +1,311 @@
+package org.openlumify.core.ingest.graphProperty;
+
+import org.openlumify.core.exception.OpenLumifyException;
+import org.openlumify.core.model.workQueue.Priority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Compact binary wire format for {@link GraphPropertyMessage}.
+ *
+ * <pre>
+ * magic (1 byte, 0xFE - never the first byte of a JSON document)
+ * version (1 byte)
+ * field flags (varint)
+ * priority (1 byte)
+ * fields present in the flags, in flag order
+ * </pre>
+ *
+ * Strings are written as a varint byte length followed by UTF-8, string arrays as a varint count followed by the
+ * strings and timestamps as zig-zag varints. Statuses and priorities are written as their index in
+ * {@link #STATUSES} and {@link #PRIORITIES}, new values must only ever be appended to those arrays.
+ */
+public final class GraphPropertyMessageBinaryFormat {
+    public static final byte MAGIC = (byte) 0xFE;
+    public static final byte VERSION = 1;
+
+    private static final ElementOrPropertyStatus[] STATUSES = {
+            ElementOrPropertyStatus.HIDDEN,
+            ElementOrPropertyStatus.UNHIDDEN,
+            ElementOrPropertyStatus.DELETION,
+            ElementOrPropertyStatus.UPDATE
+    };
+    private static final Priority[] PRIORITIES = {Priority.LOW, Priority.NORMAL, Priority.HIGH};
+
+    private static final int FLAG_WORKSPACE_ID = 1;
+    private static final int FLAG_VISIBILITY_SOURCE = 1 << 1;
+    private static final int FLAG_TRACE_ENABLED = 1 << 2;
+    private static final int FLAG_PROPERTIES = 1 << 3;
+    private static final int FLAG_GRAPH_VERTEX_ID = 1 << 4;
+    private static final int FLAG_GRAPH_EDGE_ID = 1 << 5;
+    private static final int FLAG_PROPERTY_KEY = 1 << 6;
+    private static final int FLAG_PROPERTY_NAME = 1 << 7;
+    private static final int FLAG_STATUS = 1 << 8;
+    private static final int FLAG_BEFORE_ACTION_TIMESTAMP = 1 << 9;
+
+    private static final int PROPERTY_FLAG_KEY = 1;
+    private static final int PROPERTY_FLAG_NAME = 1 << 1;
+    private static final int PROPERTY_FLAG_STATUS = 1 << 2;
+    private static final int PROPERTY_FLAG_BEFORE_ACTION_TIMESTAMP = 1 << 3;
+
+    private GraphPropertyMessageBinaryFormat() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(GraphPropertyMessage message) {
+        checkNotNull(message.getPriority(), "priority cannot be null");
+        Writer writer = new Writer();
+        writer.writeByte(MAGIC);
+        writer.writeByte(VERSION);
+
+        int flags = 0;
+        flags |= message.getWorkspaceId() != null ? FLAG_WORKSPACE_ID : 0;
+        flags |= message.getVisibilitySource() != null ? FLAG_VISIBILITY_SOURCE : 0;
+        flags |= message.isTraceEnabled() ? FLAG_TRACE_ENABLED : 0;
+        flags |= message.getProperties() != null ? FLAG_PROPERTIES : 0;
+        flags |= message.getGraphVertexId() != null ? FLAG_GRAPH_VERTEX_ID : 0;
+        flags |= message.getGraphEdgeId() != null ? FLAG_GRAPH_EDGE_ID : 0;
+        flags |= message.getPropertyKey() != null ? FLAG_PROPERTY_KEY : 0;
+        flags |= message.getPropertyName() != null ? FLAG_PROPERTY_NAME : 0;
+        flags |= message.getStatus() != null ? FLAG_STATUS : 0;
+        flags |= message.getBeforeActionTimestamp() != null ? FLAG_BEFORE_ACTION_TIMESTAMP : 0;
+        writer.writeVarLong(flags);
+        writer.writeByte((byte) indexOf(PRIORITIES, message.getPriority()));
+
+        if ((flags & FLAG_WORKSPACE_ID) != 0) {
+            writer.writeString(message.getWorkspaceId());
+        }
+        if ((flags & FLAG_VISIBILITY_SOURCE) != 0) {
+            writer.writeString(message.getVisibilitySource());
+        }
+        if ((flags & FLAG_PROPERTIES) != 0) {
+            writer.writeVarLong(message.getProperties().length);
+            for (GraphPropertyMessage.Property property : message.getProperties()) {
+                writeProperty(writer, property);
+            }
+        }
+        if ((flags & FLAG_GRAPH_VERTEX_ID) != 0) {
+            writer.writeStrings(message.getGraphVertexId());
+        }
+        if ((flags & FLAG_GRAPH_EDGE_ID) != 0) {
+            writer.writeStrings(message.getGraphEdgeId());
+        }
+        if ((flags & FLAG_PROPERTY_KEY) != 0) {
+            writer.writeString(message.getPropertyKey());
+        }
+        if ((flags & FLAG_PROPERTY_NAME) != 0) {
+            writer.writeString(message.getPropertyName());
+        }
+        if ((flags & FLAG_STATUS) != 0) {
+            writer.writeByte((byte) indexOf(STATUSES, message.getStatus()));
+        }
+        if ((flags & FLAG_BEFORE_ACTION_TIMESTAMP) != 0) {
+            writer.writeZigZagLong(message.getBeforeActionTimestamp());
+        }
+        return writer.toByteArray();
+    }
+
+    private static void writeProperty(Writer writer, GraphPropertyMessage.Property property) {
+        int flags = 0;
+        flags |= property.getPropertyKey() != null ? PROPERTY_FLAG_KEY : 0;
+        flags |= property.getPropertyName() != null ? PROPERTY_FLAG_NAME : 0;
+        flags |= property.getStatus() != null ? PROPERTY_FLAG_STATUS : 0;
+        flags |= property.getBeforeActionTimestamp() != null ? PROPERTY_FLAG_BEFORE_ACTION_TIMESTAMP : 0;
+        writer.writeByte((byte) flags);
+        if ((flags & PROPERTY_FLAG_KEY) != 0) {
+            writer.writeString(property.getPropertyKey());
+        }
+        if ((flags & PROPERTY_FLAG_NAME) != 0) {
+            writer.writeString(property.getPropertyName());
+        }
+        if ((flags & PROPERTY_FLAG_STATUS) != 0) {
+            writer.writeByte((byte) indexOf(STATUSES, property.getStatus()));
+        }
+        if ((flags & PROPERTY_FLAG_BEFORE_ACTION_TIMESTAMP) != 0) {
+            writer.writeZigZagLong(property.getBeforeActionTimestamp());
+        }
+    }
+
+    public static GraphPropertyMessage decode(byte[] data) {
+        try {
+            Reader reader = new Reader(data);
+            if (reader.readByte() != MAGIC) {
+                throw new OpenLumifyException("Not a binary " + GraphPropertyMessage.class.getName());
+            }
+            byte version = reader.readByte();
+            if (version != VERSION) {
+                throw new OpenLumifyException("Unsupported " + GraphPropertyMessage.class.getName() + " version: " + version);
+            }
+
+            GraphPropertyMessage message = new GraphPropertyMessage();
+            long flags = reader.readVarLong();
+            message.setPriority(PRIORITIES[reader.readByte()]);
+            if ((flags & FLAG_WORKSPACE_ID) != 0) {
+                message.setWorkspaceId(reader.readString());
+            }
+            if ((flags & FLAG_VISIBILITY_SOURCE) != 0) {
+                message.setVisibilitySource(reader.readString());
+            }
+            if ((flags & FLAG_TRACE_ENABLED) != 0) {
+                message.setTraceEnabled(true);
+            }
+            if ((flags & FLAG_PROPERTIES) != 0) {
+                GraphPropertyMessage.Property[] properties = new GraphPropertyMessage.Property[(int) reader.readVarLong()];
+                for (int i = 0; i < properties.length; i++) {
+                    properties[i] = readProperty(reader);
+                }
+                message.setProperties(properties);
+            }
+            if ((flags & FLAG_GRAPH_VERTEX_ID) != 0) {
+                message.setGraphVertexId(reader.readStrings());
+            }
+            if ((flags & FLAG_GRAPH_EDGE_ID) != 0) {
+                message.setGraphEdgeId(reader.readStrings());
+            }
+            if ((flags & FLAG_PROPERTY_KEY) != 0) {
+                message.setPropertyKey(reader.readString());
+            }
+            if ((flags & FLAG_PROPERTY_NAME) != 0) {
+                message.setPropertyName(reader.readString());
+            }
+            if ((flags & FLAG_STATUS) != 0) {
+                message.setStatus(STATUSES[reader.readByte()]);
+            }
+            if ((flags & FLAG_BEFORE_ACTION_TIMESTAMP) != 0) {
+                message.setBeforeActionTimestamp(reader.readZigZagLong());
+            }
+            return message;
+        } catch (ArrayIndexOutOfBoundsException | NegativeArraySizeException ex) {
+            throw new OpenLumifyException("Could not create " + GraphPropertyMessage.class.getName() + " from binary data", ex);
+        }
+    }
+
+    private static GraphPropertyMessage.Property readProperty(Reader reader) {
+        GraphPropertyMessage.Property property = new GraphPropertyMessage.Property();
+        int flags = reader.readByte();
+        if ((flags & PROPERTY_FLAG_KEY) != 0) {
+            property.setPropertyKey(reader.readString());
+        }
+        if ((flags & PROPERTY_FLAG_NAME) != 0) {
+            property.setPropertyName(reader.readString());
+        }
+        if ((flags & PROPERTY_FLAG_STATUS) != 0) {
+            property.setStatus(STATUSES[reader.readByte()]);
+        }
+        if ((flags & PROPERTY_FLAG_BEFORE_ACTION_TIMESTAMP) != 0) {
+            property.setBeforeActionTimestamp(reader.readZigZagLong());
+        }
+        return property;
+    }
+
+    private static <T> int indexOf(T[] values, T value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        throw new OpenLumifyException("Unhandled value: " + value);
+    }
+
+    private static class Writer {
+        private byte[] buffer = new byte[128];
+        private int position;
+
+        void writeByte(byte b) {
+            ensureCapacity(1);
+            buffer[position++] = b;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeZigZagLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeStrings(String[] values) {
+            writeVarLong(values.length);
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        private void ensureCapacity(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        byte readByte() {
+            return data[position++];
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new OpenLumifyException("Malformed varint in " + GraphPropertyMessage.class.getName());
+        }
+
+        long readZigZagLong() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > data.length) {
+                throw new ArrayIndexOutOfBoundsException(position + length);
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        String[] readStrings() {
+            String[] values = new String[(int) readVarLong()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readString();
+            }
+            return values;
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package org.openlumify.core.ingest.graphProperty;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
-import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.vertexium.*;
 import org.vertexium.property.StreamingPropertyValue;
@@ -25,10 +26,10 @@ import org.openlumify.core.user.User;
 import org.openlumify.core.util.*;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.vertexium.util.IterableUtils.toList;
@@ -36,6 +37,14 @@ import static org.vertexium.util.IterableUtils.toList;
 // Unlike many other injected classes, this is not a singleton
 public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
     private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(GraphPropertyRunner.class);
+    public static final String CONFIGURATION_WORKER_CONCURRENCY_SUFFIX = ".concurrency";
+    public static final int DEFAULT_WORKER_CONCURRENCY = 1;
+    public static final String CONFIG_WORKER_THREAD_COUNT = GraphPropertyRunner.class.getName() + ".workerThreadCount";
+    private static final int WORKER_EXECUTOR_SHUTDOWN_TIMEOUT_SECONDS = 10;
+    public static final String CONFIG_ELEMENT_CACHE_EXPIRE_MILLIS = GraphPropertyRunner.class.getName() + ".elementCacheExpireMillis";
+    public static final long DEFAULT_ELEMENT_CACHE_EXPIRE_MILLIS = 0;
+    public static final String CONFIG_ELEMENT_CACHE_MAXIMUM_SIZE = GraphPropertyRunner.class.getName() + ".elementCacheMaximumSize";
+    public static final int DEFAULT_ELEMENT_CACHE_MAXIMUM_SIZE = 1000;
     private final AuthorizationRepository authorizationRepository;
     private Graph graph;
     private Authorizations authorizations;
@@ -45,9 +54,15 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
     private WorkQueueNames workQueueNames;
     private Configuration configuration;
     private VisibilityTranslator visibilityTranslator;
+    private StreamingPropertyValueFileCache streamingPropertyValueFileCache;
     private AtomicLong lastProcessedPropertyTime = new AtomicLong(0);
     private List<GraphPropertyWorker> graphPropertyWorkers = Lists.newArrayList();
     private boolean prepareWorkersCalled;
+    private ExecutorService workerExecutorService;
+    private EnumSet<FetchHint> fetchHints = FetchHint.ALL;
+    private Cache<String, CachedElement> elementCache;
+    private volatile GraphPropertyWorkerRoutingTable<GraphPropertyThreadedWrapper> wrapperRoutingTable = createWrapperRoutingTable();
+    private volatile GraphPropertyWorkerRoutingTable<GraphPropertyWorker> workerRoutingTable = createWorkerRoutingTable();
 
     @Inject
     protected GraphPropertyRunner(
@@ -62,8 +77,13 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
 
     @Override
     protected GraphPropertyWorkerItem tupleDataToWorkerItem(byte[] data) {
+        return tupleDataToWorkerItem(data, System.nanoTime());
+    }
+
+    @Override
+    protected GraphPropertyWorkerItem tupleDataToWorkerItem(byte[] data, long receivedNanos) {
         GraphPropertyMessage message = GraphPropertyMessage.create(data);
-        return new GraphPropertyWorkerItem(message, getElements(message));
+        return new GraphPropertyWorkerItem(message, getElements(message, receivedNanos));
     }
 
     @Override
@@ -78,6 +98,15 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
         }
     }
 
+    @Override
+    protected Collection<String> getOrderingKeys(GraphPropertyWorkerItem workerItem) {
+        List<String> orderingKeys = new ArrayList<>();
+        for (Element element : workerItem.getElements()) {
+            orderingKeys.add(element.getId());
+        }
+        return orderingKeys;
+    }
+
     public void prepare(User user) {
         prepare(user, new GraphPropertyWorkerInitializer());
     }
@@ -129,6 +158,8 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
 
         boolean failedToPrepareAtLeastOneGraphPropertyWorker = false;
         List<GraphPropertyThreadedWrapper> wrappers = Lists.newArrayList();
+        List<Integer> wrapperConcurrencies = Lists.newArrayList();
+        int totalConcurrency = 0;
         for (GraphPropertyWorker worker : workers) {
             try {
                 LOGGER.debug("preparing: %s", worker.getClass().getName());
@@ -141,14 +172,17 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
             GraphPropertyThreadedWrapper wrapper = new GraphPropertyThreadedWrapper(worker);
             InjectHelper.inject(wrapper);
             wrappers.add(wrapper);
-            Thread thread = new Thread(wrapper);
-            String workerName = worker.getClass().getName();
-            thread.setName("graphPropertyWorker-" + workerName);
-            thread.start();
+            int concurrency = getWorkerConcurrency(worker);
+            wrapperConcurrencies.add(concurrency);
+            totalConcurrency += concurrency;
         }
 
+        this.fetchHints = getFetchHints(workers);
+        initializeElementCache();
+        startGraphPropertyThreadedWrappers(wrappers, wrapperConcurrencies, totalConcurrency);
         this.addGraphPropertyThreadedWrappers(wrappers);
         this.graphPropertyWorkers.addAll(workers);
+        this.workerRoutingTable = createWorkerRoutingTable();
 
         if (failedToPrepareAtLeastOneGraphPropertyWorker) {
             throw new OpenLumifyException(
@@ -156,12 +190,107 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
         }
     }
 
+    /**
+     * The number of threads used to run a worker is configured with the worker's class name followed by
+     * {@link #CONFIGURATION_WORKER_CONCURRENCY_SUFFIX} (e.g. com.example.MyGraphPropertyWorker.concurrency=4).
+     * Only workers that are thread safe should be configured with a concurrency greater than 1.
+     */
+    private int getWorkerConcurrency(GraphPropertyWorker worker) {
+        String workerName = worker.getClass().getName();
+        int concurrency = configuration.getInt(
+                workerName + CONFIGURATION_WORKER_CONCURRENCY_SUFFIX,
+                DEFAULT_WORKER_CONCURRENCY
+        );
+        if (concurrency < 1) {
+            LOGGER.warn("Invalid concurrency %d for graph property worker %s, using 1", concurrency, workerName);
+            concurrency = 1;
+        }
+        return concurrency;
+    }
+
+    private EnumSet<FetchHint> getFetchHints(Collection<GraphPropertyWorker> workers) {
+        EnumSet<FetchHint> result = EnumSet.of(FetchHint.PROPERTIES, FetchHint.PROPERTY_METADATA);
+        for (GraphPropertyWorker worker : workers) {
+            EnumSet<FetchHint> workerFetchHints = worker.getFetchHints();
+            if (workerFetchHints != null) {
+                result.addAll(workerFetchHints);
+            }
+        }
+        LOGGER.debug("fetching elements with: %s", result);
+        return result;
+    }
+
+    /**
+     * Elements fetched for a message can be reused for up to {@link #CONFIG_ELEMENT_CACHE_EXPIRE_MILLIS} by
+     * messages for the same element that were received before the fetch, such as the other messages of a batch
+     * taken from the queue. Disabled by default.
+     */
+    void initializeElementCache() {
+        this.elementCache = createElementCache();
+    }
+
+    private Cache<String, CachedElement> createElementCache() {
+        long expireMillis = configuration.getLong(CONFIG_ELEMENT_CACHE_EXPIRE_MILLIS, DEFAULT_ELEMENT_CACHE_EXPIRE_MILLIS);
+        if (expireMillis <= 0) {
+            return null;
+        }
+        int maximumSize = configuration.getInt(CONFIG_ELEMENT_CACHE_MAXIMUM_SIZE, DEFAULT_ELEMENT_CACHE_MAXIMUM_SIZE);
+        return CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * All workers share one pool of {@link #CONFIG_WORKER_THREAD_COUNT} threads, by default enough for every
+     * worker to run at its configured concurrency. A smaller pool bounds the threads of the runner, the workers
+     * then take turns on them.
+     */
+    private void startGraphPropertyThreadedWrappers(
+            List<GraphPropertyThreadedWrapper> wrappers,
+            List<Integer> wrapperConcurrencies,
+            int totalConcurrency
+    ) {
+        if (totalConcurrency == 0) {
+            return;
+        }
+        int threadCount = configuration.getInt(CONFIG_WORKER_THREAD_COUNT, totalConcurrency);
+        if (threadCount < 1) {
+            LOGGER.warn("Invalid graph property worker thread count %d, using %d", threadCount, totalConcurrency);
+            threadCount = totalConcurrency;
+        }
+        LOGGER.debug("starting %d graph property worker thread(s)", threadCount);
+        workerExecutorService = Executors.newFixedThreadPool(
+                threadCount,
+                new ThreadFactoryBuilder().setNameFormat("graphPropertyWorker-%d").build()
+        );
+        for (int i = 0; i < wrappers.size(); i++) {
+            GraphPropertyThreadedWrapper wrapper = wrappers.get(i);
+            int concurrency = wrapperConcurrencies.get(i);
+            LOGGER.debug(
+                    "starting graph property worker %s with a concurrency of %d",
+                    wrapper.getWorker().getClass().getName(),
+                    concurrency
+            );
+            wrapper.start(workerExecutorService, concurrency);
+        }
+    }
+
     public void addGraphPropertyThreadedWrappers(List<GraphPropertyThreadedWrapper> wrappers) {
         this.workerWrappers.addAll(wrappers);
+        this.wrapperRoutingTable = createWrapperRoutingTable();
     }
 
     public void addGraphPropertyThreadedWrappers(GraphPropertyThreadedWrapper... wrappers) {
-        this.workerWrappers.addAll(Lists.newArrayList(wrappers));
+        addGraphPropertyThreadedWrappers(Lists.newArrayList(wrappers));
+    }
+
+    private GraphPropertyWorkerRoutingTable<GraphPropertyThreadedWrapper> createWrapperRoutingTable() {
+        return new GraphPropertyWorkerRoutingTable<>(Lists.newArrayList(workerWrappers), GraphPropertyThreadedWrapper::getWorker);
+    }
+
+    private GraphPropertyWorkerRoutingTable<GraphPropertyWorker> createWorkerRoutingTable() {
+        return new GraphPropertyWorkerRoutingTable<>(getAllGraphPropertyWorkers(), worker -> worker);
     }
 
     private List<TermMentionFilter> loadTermMentionFilters() {
@@ -202,47 +331,81 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
         }
     }
 
-    private ImmutableList<Element> getVerticesFromMessage(GraphPropertyMessage message) {
-        ImmutableList.Builder<Element> vertices = ImmutableList.builder();
-
-        for (String vertexId : message.getGraphVertexId()) {
-            Vertex vertex;
-            if (message.getStatus() == ElementOrPropertyStatus.DELETION || message.getStatus() == ElementOrPropertyStatus.HIDDEN) {
-                vertex = graph.getVertex(
-                        vertexId,
-                        FetchHint.ALL,
-                        message.getBeforeActionTimestamp(),
-                        this.authorizations
-                );
+    /**
+     * Fetches all the elements of a message in one call to the graph, returned in the order of the ids in the
+     * message. A cached element is only used if it was fetched after the message was received, the change the
+     * message is about was written before the message was queued so the cached element includes it.
+     */
+    private ImmutableList<Element> getElementsFromMessage(
+            GraphPropertyMessage message,
+            ElementType elementType,
+            String[] ids,
+            long receivedNanos
+    ) {
+        boolean beforeAction = message.getStatus() == ElementOrPropertyStatus.DELETION || message.getStatus() == ElementOrPropertyStatus.HIDDEN;
+        Cache<String, CachedElement> cache = beforeAction ? null : this.elementCache;
+
+        Map<String, Element> elementsById = new HashMap<>();
+        List<String> idsToFetch = new ArrayList<>();
+        for (String id : ids) {
+            CachedElement cachedElement = cache == null ? null : cache.getIfPresent(getElementCacheKey(elementType, id));
+            if (cachedElement != null
+                    && cachedElement.fetchStartNanos - receivedNanos >= 0
+                    && hasMessageProperties(cachedElement.element, message)) {
+                elementsById.put(id, cachedElement.element);
             } else {
-                vertex = graph.getVertex(vertexId, this.authorizations);
+                idsToFetch.add(id);
             }
-            if (doesExist(vertex)) {
-                vertices.add(vertex);
+        }
+
+        if (idsToFetch.size() > 0) {
+            Long endTime = beforeAction ? message.getBeforeActionTimestamp() : null;
+            long fetchStartNanos = System.nanoTime();
+            Iterable<? extends Element> fetchedElements = elementType == ElementType.VERTEX
+                    ? graph.getVertices(idsToFetch, fetchHints, endTime, this.authorizations)
+                    : graph.getEdges(idsToFetch, fetchHints, endTime, this.authorizations);
+            for (Element element : fetchedElements) {
+                elementsById.put(element.getId(), element);
+                if (cache != null) {
+                    cache.put(getElementCacheKey(elementType, element.getId()), new CachedElement(element, fetchStartNanos));
+                }
+            }
+        }
+
+        ImmutableList.Builder<Element> elements = ImmutableList.builder();
+        for (String id : ids) {
+            Element element = elementsById.get(id);
+            if (doesExist(element)) {
+                elements.add(element);
             } else {
-                LOGGER.warn("Could not find vertex with id %s", vertexId);
+                LOGGER.warn("Could not find %s with id %s", elementType == ElementType.VERTEX ? "vertex" : "edge", id);
             }
         }
-        return vertices.build();
+        return elements.build();
     }
 
-    private ImmutableList<Element> getEdgesFromMessage(GraphPropertyMessage message) {
-        ImmutableList.Builder<Element> edges = ImmutableList.builder();
+    private static String getElementCacheKey(ElementType elementType, String id) {
+        return elementType.name() + ":" + id;
+    }
 
-        for (String edgeId : message.getGraphEdgeId()) {
-            Edge edge;
-            if (message.getStatus() == ElementOrPropertyStatus.DELETION || message.getStatus() == ElementOrPropertyStatus.HIDDEN) {
-                edge = graph.getEdge(edgeId, FetchHint.ALL, message.getBeforeActionTimestamp(), this.authorizations);
-            } else {
-                edge = graph.getEdge(edgeId, this.authorizations);
-            }
-            if (doesExist(edge)) {
-                edges.add(edge);
-            } else {
-                LOGGER.warn("Could not find edge with id %s", edgeId);
+    private boolean hasMessageProperties(Element element, GraphPropertyMessage message) {
+        if (message.getProperties() != null) {
+            for (GraphPropertyMessage.Property property : message.getProperties()) {
+                if (!hasMessageProperty(element, property.getPropertyKey(), property.getPropertyName(), property.getStatus())) {
+                    return false;
+                }
             }
+            return true;
+        }
+        return hasMessageProperty(element, message.getPropertyKey(), message.getPropertyName(), message.getStatus());
+    }
+
+    private boolean hasMessageProperty(Element element, String propertyKey, String propertyName, ElementOrPropertyStatus status) {
+        if (propertyName == null || status == ElementOrPropertyStatus.DELETION || status == ElementOrPropertyStatus.HIDDEN) {
+            return true;
         }
-        return edges.build();
+        Property property = propertyKey == null ? element.getProperty(propertyName) : element.getProperty(propertyKey, propertyName);
+        return property != null;
     }
 
     private boolean doesExist(Element element) {
@@ -418,12 +581,13 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
             List<GraphPropertyThreadedWrapper> interestedWorkerWrappers,
             GraphPropertyWorkData workData
     ) throws Exception {
-        for (GraphPropertyThreadedWrapper interestedWorkerWrapper1 : interestedWorkerWrappers) {
-            interestedWorkerWrapper1.enqueueWork(null, workData);
+        List<GraphPropertyThreadedWrapper.Work> works = new ArrayList<>();
+        for (GraphPropertyThreadedWrapper interestedWorkerWrapper : interestedWorkerWrappers) {
+            works.add(interestedWorkerWrapper.enqueueWork(null, workData));
         }
 
-        for (GraphPropertyThreadedWrapper interestedWorkerWrapper : interestedWorkerWrappers) {
-            interestedWorkerWrapper.dequeueResult(true);
+        for (int i = 0; i < interestedWorkerWrappers.size(); i++) {
+            interestedWorkerWrappers.get(i).dequeueResult(works.get(i), true);
         }
     }
 
@@ -433,52 +597,50 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
             StreamingPropertyValue streamingPropertyValue
     ) throws Exception {
         String[] workerNames = graphPropertyThreadedWrapperToNames(interestedWorkerWrappers);
-        InputStream in = streamingPropertyValue.getInputStream();
-        File tempFile = null;
+        // When processing messages concurrently, workers can be busy with another message's tee which could
+        // stall the tee of this message. Giving each worker its own stream over the cached file avoids this.
+        boolean pipelined = getProcessThreadCount() > 1;
+        StreamingPropertyValueFileCache.CachedFile cachedFile = streamingPropertyValueFileCache.acquireIfPresent(
+                workData.getElement(),
+                workData.getProperty()
+        );
         try {
-            boolean requiresLocalFile = isLocalFileRequired(interestedWorkerWrappers);
-            if (requiresLocalFile) {
-                tempFile = copyToTempFile(in, workData);
-                in = new FileInputStream(tempFile);
+            if (cachedFile == null && (pipelined || isLocalFileRequired(interestedWorkerWrappers))) {
+                cachedFile = streamingPropertyValueFileCache.acquire(workData.getElement(), workData.getProperty());
+            }
+            if (cachedFile != null) {
+                workData.setLocalFile(cachedFile.getFile());
             }
 
+            if (pipelined) {
+                List<GraphPropertyThreadedWrapper.Work> works = new ArrayList<>();
+                for (GraphPropertyThreadedWrapper interestedWorkerWrapper : interestedWorkerWrappers) {
+                    works.add(interestedWorkerWrapper.enqueueWork(cachedFile.newInputStream(), workData));
+                }
+                for (int i = 0; i < interestedWorkerWrappers.size(); i++) {
+                    interestedWorkerWrappers.get(i).dequeueResult(works.get(i), true);
+                }
+                return;
+            }
+
+            InputStream in = cachedFile == null ? streamingPropertyValue.getInputStream() : cachedFile.newInputStream();
             try (TeeInputStream teeInputStream = new TeeInputStream(in, workerNames)) {
+                List<GraphPropertyThreadedWrapper.Work> works = new ArrayList<>();
                 for (int i = 0; i < interestedWorkerWrappers.size(); i++) {
-                    interestedWorkerWrappers.get(i).enqueueWork(teeInputStream.getTees()[i], workData);
+                    works.add(interestedWorkerWrappers.get(i).enqueueWork(teeInputStream.getTees()[i], workData));
                 }
                 teeInputStream.loopUntilTeesAreClosed();
-                for (GraphPropertyThreadedWrapper interestedWorkerWrapper : interestedWorkerWrappers) {
-                    interestedWorkerWrapper.dequeueResult(false);
+                for (int i = 0; i < interestedWorkerWrappers.size(); i++) {
+                    interestedWorkerWrappers.get(i).dequeueResult(works.get(i), false);
                 }
+            } finally {
+                in.close();
             }
         } finally {
-            if (tempFile != null) {
-                if (!tempFile.delete()) {
-                    LOGGER.warn("Could not delete temp file %s", tempFile.getAbsolutePath());
-                }
+            if (cachedFile != null) {
+                cachedFile.close();
             }
-            in.close();
-        }
-    }
-
-    private File copyToTempFile(InputStream in, GraphPropertyWorkData workData) throws IOException {
-        String fileExt = null;
-        String fileName = OpenLumifyProperties.FILE_NAME.getOnlyPropertyValue(workData.getElement());
-        if (fileName != null) {
-            fileExt = FilenameUtils.getExtension(fileName);
-        }
-        if (fileExt == null) {
-            fileExt = "data";
-        }
-        File tempFile = File.createTempFile("graphPropertyBolt", fileExt);
-        workData.setLocalFile(tempFile);
-        try (OutputStream tempFileOut = new FileOutputStream(tempFile)) {
-            IOUtils.copy(in, tempFileOut);
-        } finally {
-            in.close();
-
         }
-        return tempFile;
     }
 
     private boolean isLocalFileRequired(List<GraphPropertyThreadedWrapper> interestedWorkerWrappers) {
@@ -501,7 +663,8 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
                 element));
 
         List<GraphPropertyThreadedWrapper> interestedWorkers = new ArrayList<>();
-        for (GraphPropertyThreadedWrapper wrapper : workerWrappers) {
+        for (GraphPropertyWorkerRoutingTable.Route<GraphPropertyThreadedWrapper> route : wrapperRoutingTable.findRoutes(element, property, status)) {
+            GraphPropertyThreadedWrapper wrapper = route.getTarget();
             String graphPropertyWorkerName = wrapper.getWorker().getClass().getName();
             if (graphPropertyWorkerWhiteList.size() > 0 && !graphPropertyWorkerWhiteList.contains(
                     graphPropertyWorkerName)) {
@@ -511,7 +674,9 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
                 continue;
             }
             GraphPropertyWorker worker = wrapper.getWorker();
-            if (status == ElementOrPropertyStatus.DELETION) {
+            if (!route.isDynamic()) {
+                interestedWorkers.add(wrapper);
+            } else if (status == ElementOrPropertyStatus.DELETION) {
                 addDeletedWorkers(interestedWorkers, worker, wrapper, element, property);
             } else if (status == ElementOrPropertyStatus.HIDDEN) {
                 addHiddenWorkers(interestedWorkers, worker, wrapper, element, property);
@@ -569,13 +734,13 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
         return names;
     }
 
-    private ImmutableList<Element> getElements(GraphPropertyMessage message) {
+    private ImmutableList<Element> getElements(GraphPropertyMessage message, long receivedNanos) {
         ImmutableList.Builder<Element> results = ImmutableList.builder();
         if (message.getGraphVertexId() != null && message.getGraphVertexId().length > 0) {
-            results.addAll(getVerticesFromMessage(message));
+            results.addAll(getElementsFromMessage(message, ElementType.VERTEX, message.getGraphVertexId(), receivedNanos));
         }
         if (message.getGraphEdgeId() != null && message.getGraphEdgeId().length > 0) {
-            results.addAll(getEdgesFromMessage(message));
+            results.addAll(getElementsFromMessage(message, ElementType.EDGE, message.getGraphEdgeId(), receivedNanos));
         }
         return results.build();
     }
@@ -585,6 +750,17 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
             wrapper.stop();
         }
 
+        if (workerExecutorService != null) {
+            workerExecutorService.shutdown();
+            try {
+                if (!workerExecutorService.awaitTermination(WORKER_EXECUTOR_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    LOGGER.warn("Timed out waiting for graph property workers to stop");
+                }
+            } catch (InterruptedException ex) {
+                throw new OpenLumifyException("Interrupted waiting for graph property workers to stop", ex);
+            }
+        }
+
         super.stop();
     }
 
@@ -612,6 +788,11 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
         this.configuration = configuration;
     }
 
+    @Inject
+    public void setStreamingPropertyValueFileCache(StreamingPropertyValueFileCache streamingPropertyValueFileCache) {
+        this.streamingPropertyValueFileCache = streamingPropertyValueFileCache;
+    }
+
     @Inject
     public void setVisibilityTranslator(VisibilityTranslator visibilityTranslator) {
         this.visibilityTranslator = visibilityTranslator;
@@ -649,9 +830,12 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
             return true;
         }
 
-        for (GraphPropertyWorker worker : this.getAllGraphPropertyWorkers()) {
+        for (GraphPropertyWorkerRoutingTable.Route<GraphPropertyWorker> route : workerRoutingTable.findRoutes(element, property, status)) {
+            GraphPropertyWorker worker = route.getTarget();
             try {
-                if (status == ElementOrPropertyStatus.DELETION && worker.isDeleteHandled(element, property)) {
+                if (!route.isDynamic()) {
+                    return true;
+                } else if (status == ElementOrPropertyStatus.DELETION && worker.isDeleteHandled(element, property)) {
                     return true;
                 } else if (status == ElementOrPropertyStatus.HIDDEN && worker.isHiddenHandled(element, property)) {
                     return true;
@@ -697,49 +881,62 @@ public class GraphPropertyRunner extends WorkerBase<GraphPropertyWorkerItem> {
         return canHandle(element, property, status);
     }
 
-    private Collection<GraphPropertyWorker> getAllGraphPropertyWorkers() {
+    private List<GraphPropertyWorker> getAllGraphPropertyWorkers() {
         return Lists.newArrayList(this.graphPropertyWorkers);
     }
 
+    /**
+     * Starts a single GraphPropertyRunner which processes up to threadCount messages concurrently. Messages
+     * for the same element are still processed in the order they were received.
+     */
     public static List<StoppableRunnable> startThreaded(int threadCount, User user) {
         List<StoppableRunnable> stoppables = new ArrayList<>();
 
-        LOGGER.info("Starting GraphPropertyRunners on %d threads", threadCount);
-        for (int i = 0; i < threadCount; i++) {
-            StoppableRunnable stoppable = new StoppableRunnable() {
-                private GraphPropertyRunner graphPropertyRunner = null;
-
-                @Override
-                public void run() {
-                    try {
-                        graphPropertyRunner = InjectHelper.getInstance(GraphPropertyRunner.class);
-                        graphPropertyRunner.prepare(user);
-                        graphPropertyRunner.run();
-                    } catch (Exception ex) {
-                        LOGGER.error("Failed running GraphPropertyRunner", ex);
-                    }
+        LOGGER.info("Starting GraphPropertyRunner with %d process threads", threadCount);
+        StoppableRunnable stoppable = new StoppableRunnable() {
+            private GraphPropertyRunner graphPropertyRunner = null;
+
+            @Override
+            public void run() {
+                try {
+                    graphPropertyRunner = InjectHelper.getInstance(GraphPropertyRunner.class);
+                    graphPropertyRunner.setProcessThreadCount(threadCount);
+                    graphPropertyRunner.prepare(user);
+                    graphPropertyRunner.run();
+                } catch (Exception ex) {
+                    LOGGER.error("Failed running GraphPropertyRunner", ex);
                 }
+            }
 
-                @Override
-                public void stop() {
-                    try {
-                        if (graphPropertyRunner != null) {
-                            LOGGER.debug("Stopping GraphPropertyRunner");
-                            graphPropertyRunner.stop();
-                        }
-                    } catch (Exception ex) {
-                        LOGGER.error("Failed stopping GraphPropertyRunner", ex);
+            @Override
+            public void stop() {
+                try {
+                    if (graphPropertyRunner != null) {
+                        LOGGER.debug("Stopping GraphPropertyRunner");
+                        graphPropertyRunner.stop();
                     }
+                } catch (Exception ex) {
+                    LOGGER.error("Failed stopping GraphPropertyRunner", ex);
                 }
-            };
-            stoppables.add(stoppable);
-            Thread t = new Thread(stoppable);
-            t.setName("graph-property-runner-" + t.getId());
-            t.setDaemon(true);
-            LOGGER.debug("Starting GraphPropertyRunner thread: %s", t.getName());
-            t.start();
-        }
+            }
+        };
+        stoppables.add(stoppable);
+        Thread t = new Thread(stoppable);
+        t.setName("graph-property-runner-" + t.getId());
+        t.setDaemon(true);
+        LOGGER.debug("Starting GraphPropertyRunner thread: %s", t.getName());
+        t.start();
 
         return stoppables;
     }
+
+    private static class CachedElement {
+        private final Element element;
+        private final long fetchStartNanos;
+
+        CachedElement(Element element, long fetchStartNanos) {
+            this.element = element;
+            this.fetchStartNanos = fetchStartNanos;
+        }
+    }
 }
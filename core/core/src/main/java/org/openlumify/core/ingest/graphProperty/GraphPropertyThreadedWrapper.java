@@ -2,6 +2,7 @@ package org.openlumify.core.ingest.graphProperty;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.inject.Inject;
 import org.vertexium.Element;
 import org.openlumify.core.exception.OpenLumifyException;
@@ -16,6 +17,8 @@ import org.openlumify.core.util.OpenLumifyLoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 public class GraphPropertyThreadedWrapper implements Runnable {
     private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(GraphPropertyThreadedWrapper.class);
@@ -29,19 +32,40 @@ public class GraphPropertyThreadedWrapper implements Runnable {
     }
 
     private Counter totalProcessedCounter = null;
+    private Counter queueSizeCounter;
     private Counter processingCounter;
     private Counter totalErrorCounter;
     private Timer processingTimeTimer;
     private volatile boolean stopped;
     private final Queue<Work> workItems = new LinkedList<>();
-    private final Queue<WorkResult> workResults = new LinkedList<>();
     private MetricsManager metricsManager;
+    private Executor executor;
+    private int concurrency;
+    private int inFlightCount;
 
+    /**
+     * Runs the work of this worker on the given executor, which may be shared with other workers. At most
+     * concurrency work items of this worker run at the same time, a concurrency greater than 1 requires a thread
+     * safe worker. Work that is waiting for a free slot stays queued here, so a slow worker never takes more
+     * than its share of the executor's threads.
+     */
+    public void start(Executor executor, int concurrency) {
+        ensureMetricsInitialized();
+        synchronized (workItems) {
+            this.executor = executor;
+            this.concurrency = Math.max(1, concurrency);
+        }
+        submitWork();
+    }
+
+    /**
+     * Runs the work loop for this worker on the calling thread until {@link #stop()} is called, for wrappers
+     * that are not started on an executor.
+     */
     @Override
     public final void run() {
         ensureMetricsInitialized();
 
-        stopped = false;
         try {
             while (!stopped) {
                 Work work;
@@ -51,57 +75,86 @@ public class GraphPropertyThreadedWrapper implements Runnable {
                         continue;
                     }
                     work = workItems.remove();
+                    queueSizeCounter.dec();
                 }
-                InputStream in = work.getIn();
-                String workerClassName = this.worker.getClass().getName();
-                Element element = work.getData() == null ? null : work.getData().getElement();
-                String elementId = element == null ? null : element.getId();
+                doWork(work);
+            }
+        } catch (InterruptedException ex) {
+            LOGGER.error("thread was interrupted", ex);
+        }
+    }
+
+    private void submitWork() {
+        synchronized (workItems) {
+            while (executor != null && !stopped && inFlightCount < concurrency && workItems.size() > 0) {
+                Work work = workItems.remove();
+                queueSizeCounter.dec();
+                inFlightCount++;
                 try {
-                    LOGGER.debug("BEGIN doWork (%s): %s", workerClassName, elementId);
-                    PausableTimerContext timerContext = new PausableTimerContext(processingTimeTimer);
-                    if (in instanceof PausableTimerContextAware) {
-                        ((PausableTimerContextAware) in).setPausableTimerContext(timerContext);
-                    }
-                    processingCounter.inc();
-                    long startTime = System.currentTimeMillis();
-                    TraceSpan traceSpan = startTraceIfEnabled(work, elementId);
-                    try {
-                        this.worker.execute(in, work.getData());
-                    } finally {
-                        stopTraceIfEnabled(work, traceSpan);
-                        long endTime = System.currentTimeMillis();
-                        long time = endTime - startTime;
-                        LOGGER.debug("END doWork (%s): %s (%dms)", workerClassName, elementId, time);
-                        processingCounter.dec();
-                        totalProcessedCounter.inc();
-                        timerContext.stop();
-                    }
-                    synchronized (workResults) {
-                        workResults.add(new WorkResult(null));
-                        workResults.notifyAll();
-                    }
-                } catch (Throwable ex) {
-                    LOGGER.error("failed to complete work (%s): %s", workerClassName, elementId, ex);
-                    totalErrorCounter.inc();
-                    synchronized (workResults) {
-                        workResults.add(new WorkResult(ex));
-                        workResults.notifyAll();
-                    }
-                } finally {
-                    try {
-                        if (in != null) {
-                            in.close();
-                        }
-                    } catch (IOException ex) {
-                        synchronized (workResults) {
-                            workResults.add(new WorkResult(ex));
-                            workResults.notifyAll();
+                    executor.execute(() -> {
+                        try {
+                            doWork(work);
+                        } finally {
+                            synchronized (workItems) {
+                                inFlightCount--;
+                            }
+                            submitWork();
                         }
-                    }
+                    });
+                } catch (RejectedExecutionException ex) {
+                    inFlightCount--;
+                    work.addResult(new WorkResult(ex));
+                }
+            }
+        }
+    }
+
+    private void doWork(Work work) {
+        InputStream in = work.getIn();
+        String workerClassName = this.worker.getClass().getName();
+        Element element = work.getData() == null ? null : work.getData().getElement();
+        String elementId = element == null ? null : element.getId();
+        boolean resultAdded = false;
+        try {
+            LOGGER.debug("BEGIN doWork (%s): %s", workerClassName, elementId);
+            PausableTimerContext timerContext = new PausableTimerContext(processingTimeTimer);
+            if (in instanceof PausableTimerContextAware) {
+                ((PausableTimerContextAware) in).setPausableTimerContext(timerContext);
+            }
+            processingCounter.inc();
+            long startTime = System.currentTimeMillis();
+            TraceSpan traceSpan = startTraceIfEnabled(work, elementId);
+            try {
+                this.worker.execute(in, work.getData());
+            } finally {
+                stopTraceIfEnabled(work, traceSpan);
+                long endTime = System.currentTimeMillis();
+                long time = endTime - startTime;
+                LOGGER.debug("END doWork (%s): %s (%dms)", workerClassName, elementId, time);
+                processingCounter.dec();
+                totalProcessedCounter.inc();
+                timerContext.stop();
+            }
+            work.addResult(new WorkResult(null));
+            resultAdded = true;
+        } catch (Throwable ex) {
+            LOGGER.error("failed to complete work (%s): %s", workerClassName, elementId, ex);
+            totalErrorCounter.inc();
+            work.addResult(new WorkResult(ex));
+            resultAdded = true;
+        } finally {
+            try {
+                if (in != null) {
+                    in.close();
+                }
+            } catch (IOException ex) {
+                // each work item has exactly one result, a failure to close after it was reported is only logged
+                if (resultAdded) {
+                    LOGGER.warn("failed to close input (%s): %s", workerClassName, elementId, ex);
+                } else {
+                    work.addResult(new WorkResult(ex));
                 }
             }
-        } catch (InterruptedException ex) {
-            LOGGER.error("thread was interrupted", ex);
         }
     }
 
@@ -124,8 +177,9 @@ public class GraphPropertyThreadedWrapper implements Runnable {
         return traceSpan;
     }
 
-    private void ensureMetricsInitialized() {
+    private synchronized void ensureMetricsInitialized() {
         if (totalProcessedCounter == null) {
+            queueSizeCounter = metricsManager.counter(this.worker, "queue-size");
             totalProcessedCounter = metricsManager.counter(this.worker, "total-processed");
             processingCounter = metricsManager.counter(this.worker, "processing");
             totalErrorCounter = metricsManager.counter(this.worker, "total-errors");
@@ -133,14 +187,24 @@ public class GraphPropertyThreadedWrapper implements Runnable {
         }
     }
 
-    public void enqueueWork(InputStream in, GraphPropertyWorkData data) {
+    public Work enqueueWork(InputStream in, GraphPropertyWorkData data) {
+        ensureMetricsInitialized();
+        Work work = new Work(in, data);
         synchronized (workItems) {
-            workItems.add(new Work(in, data));
+            workItems.add(work);
+            queueSizeCounter.inc();
             workItems.notifyAll();
         }
+        submitWork();
+        return work;
     }
 
-    public WorkResult dequeueResult(boolean waitForever) {
+    /**
+     * Waits for the result of work previously returned by {@link #enqueueWork(InputStream, GraphPropertyWorkData)}.
+     * Results are tracked per work item so multiple threads can enqueue work on the same wrapper.
+     */
+    public WorkResult dequeueResult(Work work, boolean waitForever) {
+        Queue<WorkResult> workResults = work.getResults();
         synchronized (workResults) {
             if (workResults.size() == 0) {
                 Date startTime = new Date();
@@ -167,6 +231,9 @@ public class GraphPropertyThreadedWrapper implements Runnable {
                         throw new OpenLumifyException("Failed to wait for worker " + worker.getClass().getName(), ex);
                     }
                 }
+                if (workResults.size() == 0) {
+                    throw new OpenLumifyException("Timed out waiting for worker " + worker.getClass().getName());
+                }
             }
             return workResults.remove();
         }
@@ -184,15 +251,28 @@ public class GraphPropertyThreadedWrapper implements Runnable {
         return worker;
     }
 
-    private class Work {
+    public class Work {
         private final InputStream in;
         private final GraphPropertyWorkData data;
+        private final Queue<WorkResult> results = new LinkedList<>();
 
-        public Work(InputStream in, GraphPropertyWorkData data) {
+        private Work(InputStream in, GraphPropertyWorkData data) {
             this.in = in;
             this.data = data;
         }
 
+        private void addResult(WorkResult result) {
+            synchronized (results) {
+                results.add(result);
+                results.notifyAll();
+            }
+        }
+
+        @VisibleForTesting
+        Queue<WorkResult> getResults() {
+            return results;
+        }
+
         private InputStream getIn() {
             return in;
         }
@@ -78,6 +78,10 @@ public class GraphPropertyWorkData {
         this.localFile = localFile;
     }
 
+    /**
+     * The local copy of a streaming property value. This file is shared with other workers and messages so it
+     * must not be modified or deleted.
+     */
     public File getLocalFile() {
         return localFile;
     }
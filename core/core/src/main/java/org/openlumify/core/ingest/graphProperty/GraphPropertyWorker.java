@@ -23,6 +23,7 @@ import org.openlumify.core.util.OpenLumifyLoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.EnumSet;
 import java.util.List;
 
 public abstract class GraphPropertyWorker {
@@ -77,12 +78,30 @@ public abstract class GraphPropertyWorker {
         return false;
     }
 
+    /**
+     * Workers whose interest can be described statically (property names, concept types, mime types) should
+     * return it here. They are then found through a routing index and isHandled, isDeleteHandled,
+     * isHiddenHandled and isUnhiddenHandled are not called, unless the interest sets
+     * {@link GraphPropertyWorkerInterest#setHandledChecked(boolean)}. Returns null by default.
+     */
+    public GraphPropertyWorkerInterest getInterest() {
+        return null;
+    }
+
     public abstract void execute(InputStream in, GraphPropertyWorkData data) throws Exception;
 
     public boolean isLocalFileRequired() {
         return false;
     }
 
+    /**
+     * The parts of an element this worker reads. Elements are fetched once for all workers using the union of
+     * every worker's fetch hints, so workers that only need properties should narrow this.
+     */
+    public EnumSet<FetchHint> getFetchHints() {
+        return FetchHint.ALL;
+    }
+
     protected User getUser() {
         return this.workerPrepareData.getUser();
     }
@@ -0,0 +1,156 @@
+package org.openlumify.core.ingest.graphProperty;
+
+import org.vertexium.Element;
+import org.vertexium.Property;
+import org.openlumify.core.model.properties.OpenLumifyProperties;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A static description of the elements and properties a {@link GraphPropertyWorker} handles. Workers that return
+ * an interest from {@link GraphPropertyWorker#getInterest()} are routed by it alone, their isHandled methods are not
+ * called unless {@link #setHandledChecked(boolean)} is set.
+ *
+ * <pre>
+ * GraphPropertyWorkerInterest.forProperties(OpenLumifyProperties.TEXT.getPropertyName())
+ *         .setMimeTypePrefixes("text")
+ *         .setStatuses(ElementOrPropertyStatus.UPDATE, ElementOrPropertyStatus.DELETION);
+ * </pre>
+ */
+public class GraphPropertyWorkerInterest {
+    private final Set<String> propertyNames;
+    private boolean allPropertiesHandled;
+    private Set<String> excludedPropertyNames = Collections.emptySet();
+    private boolean elementHandled;
+    private boolean handledChecked;
+    private Set<String> conceptTypes = Collections.emptySet();
+    private String[] mimeTypePrefixes = new String[0];
+    private EnumSet<ElementOrPropertyStatus> statuses = EnumSet.of(ElementOrPropertyStatus.UPDATE);
+
+    private GraphPropertyWorkerInterest(Set<String> propertyNames) {
+        this.propertyNames = propertyNames;
+    }
+
+    public static GraphPropertyWorkerInterest forProperties(String... propertyNames) {
+        return new GraphPropertyWorkerInterest(new HashSet<>(Arrays.asList(propertyNames)));
+    }
+
+    /**
+     * An interest in every property, narrowed by {@link #setExcludedPropertyNames(String...)} and the mime type
+     * prefixes. These interests are checked for each property, so prefer {@link #forProperties(String...)}.
+     */
+    public static GraphPropertyWorkerInterest forAllProperties() {
+        GraphPropertyWorkerInterest interest = new GraphPropertyWorkerInterest(Collections.emptySet());
+        interest.allPropertiesHandled = true;
+        return interest;
+    }
+
+    /**
+     * An interest in the element itself (the message without a property) and none of its properties.
+     */
+    public static GraphPropertyWorkerInterest forElements() {
+        return new GraphPropertyWorkerInterest(Collections.emptySet()).setElementHandled(true);
+    }
+
+    public Set<String> getPropertyNames() {
+        return propertyNames;
+    }
+
+    public boolean isAllPropertiesHandled() {
+        return allPropertiesHandled;
+    }
+
+    /**
+     * Properties with these names are not handled, used with {@link #forAllProperties()}.
+     */
+    public GraphPropertyWorkerInterest setExcludedPropertyNames(String... excludedPropertyNames) {
+        this.excludedPropertyNames = new HashSet<>(Arrays.asList(excludedPropertyNames));
+        return this;
+    }
+
+    public boolean isElementHandled() {
+        return elementHandled;
+    }
+
+    public GraphPropertyWorkerInterest setElementHandled(boolean elementHandled) {
+        this.elementHandled = elementHandled;
+        return this;
+    }
+
+    /**
+     * Only elements with one of these concept types are handled. Empty means any concept type.
+     */
+    public GraphPropertyWorkerInterest setConceptTypes(String... conceptTypes) {
+        this.conceptTypes = new HashSet<>(Arrays.asList(conceptTypes));
+        return this;
+    }
+
+    /**
+     * Only properties with a mime type metadata value starting with one of these prefixes are handled. Empty
+     * means any property, with or without a mime type.
+     */
+    public GraphPropertyWorkerInterest setMimeTypePrefixes(String... mimeTypePrefixes) {
+        this.mimeTypePrefixes = mimeTypePrefixes;
+        return this;
+    }
+
+    /**
+     * The statuses handled, {@link ElementOrPropertyStatus#UPDATE} only by default. A null status is treated as
+     * an update.
+     */
+    public GraphPropertyWorkerInterest setStatuses(ElementOrPropertyStatus... statuses) {
+        this.statuses = EnumSet.noneOf(ElementOrPropertyStatus.class);
+        this.statuses.addAll(Arrays.asList(statuses));
+        return this;
+    }
+
+    public boolean isHandledChecked() {
+        return handledChecked;
+    }
+
+    /**
+     * For workers that decide on more than the interest can describe, for example the configuration or other
+     * properties of the element. The interest then only narrows the candidates and isHandled, isDeleteHandled,
+     * isHiddenHandled or isUnhiddenHandled is still called for the messages it matches.
+     */
+    public GraphPropertyWorkerInterest setHandledChecked(boolean handledChecked) {
+        this.handledChecked = handledChecked;
+        return this;
+    }
+
+    public boolean isStatusHandled(ElementOrPropertyStatus status) {
+        return statuses.contains(status == null ? ElementOrPropertyStatus.UPDATE : status);
+    }
+
+    /**
+     * Checks the parts of the interest not covered by the property name index.
+     */
+    boolean matches(Element element, Property property, ElementOrPropertyStatus status) {
+        if (!isStatusHandled(status)) {
+            return false;
+        }
+        if (property != null && excludedPropertyNames.contains(property.getName())) {
+            return false;
+        }
+        if (conceptTypes.size() > 0 && !conceptTypes.contains(OpenLumifyProperties.CONCEPT_TYPE.getPropertyValue(element))) {
+            return false;
+        }
+        if (property == null || mimeTypePrefixes.length == 0) {
+            return true;
+        }
+        String mimeType = OpenLumifyProperties.MIME_TYPE_METADATA.getMetadataValue(property.getMetadata(), null);
+        if (mimeType == null) {
+            return false;
+        }
+        for (String mimeTypePrefix : mimeTypePrefixes) {
+            if (mimeType.startsWith(mimeTypePrefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
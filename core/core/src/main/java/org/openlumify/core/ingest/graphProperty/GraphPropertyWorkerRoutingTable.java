@@ -0,0 +1,116 @@
+package org.openlumify.core.ingest.graphProperty;
+
+import org.vertexium.Element;
+import org.vertexium.Property;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Resolves the candidate workers for an element and property. Workers with a {@link GraphPropertyWorkerInterest}
+ * are indexed by property name and returned only if their interest matches, interests in all properties are
+ * checked for every property. Workers without one are always returned. Both those and the workers whose interest
+ * sets {@link GraphPropertyWorkerInterest#isHandledChecked()} are marked as dynamic, their isHandled methods still
+ * need to be called.
+ *
+ * @param <T> what is routed to, for example the worker itself or its {@link GraphPropertyThreadedWrapper}
+ */
+class GraphPropertyWorkerRoutingTable<T> {
+    private final Map<String, List<Route<T>>> routesByPropertyName = new HashMap<>();
+    private final List<Route<T>> allPropertiesRoutes = new ArrayList<>();
+    private final List<Route<T>> elementRoutes = new ArrayList<>();
+    private final List<Route<T>> dynamicRoutes = new ArrayList<>();
+
+    GraphPropertyWorkerRoutingTable(List<T> targets, Function<T, GraphPropertyWorker> getWorker) {
+        for (int i = 0; i < targets.size(); i++) {
+            T target = targets.get(i);
+            GraphPropertyWorker worker = getWorker.apply(target);
+            GraphPropertyWorkerInterest interest = worker.getInterest();
+            Route<T> route = new Route<>(i, target, worker, interest);
+            if (interest == null) {
+                dynamicRoutes.add(route);
+                continue;
+            }
+            if (interest.isElementHandled()) {
+                elementRoutes.add(route);
+            }
+            if (interest.isAllPropertiesHandled()) {
+                allPropertiesRoutes.add(route);
+            }
+            for (String propertyName : interest.getPropertyNames()) {
+                routesByPropertyName.computeIfAbsent(propertyName, k -> new ArrayList<>()).add(route);
+            }
+        }
+    }
+
+    /**
+     * @return the candidate routes in the order the targets were given.
+     */
+    List<Route<T>> findRoutes(Element element, Property property, ElementOrPropertyStatus status) {
+        List<Route<T>> indexedRoutes = property == null
+                ? elementRoutes
+                : routesByPropertyName.getOrDefault(property.getName(), Collections.emptyList());
+        if (indexedRoutes.size() == 0 && (property == null || allPropertiesRoutes.size() == 0)) {
+            return dynamicRoutes;
+        }
+
+        List<Route<T>> results = new ArrayList<>(indexedRoutes.size() + dynamicRoutes.size());
+        addMatchingRoutes(results, indexedRoutes, element, property, status);
+        if (property != null) {
+            addMatchingRoutes(results, allPropertiesRoutes, element, property, status);
+        }
+        if (results.size() == 0) {
+            return dynamicRoutes;
+        }
+        results.addAll(dynamicRoutes);
+        results.sort(Comparator.comparingInt(route -> route.index));
+        return results;
+    }
+
+    private static <T> void addMatchingRoutes(
+            List<Route<T>> results,
+            List<Route<T>> routes,
+            Element element,
+            Property property,
+            ElementOrPropertyStatus status
+    ) {
+        for (Route<T> route : routes) {
+            if (route.getInterest().matches(element, property, status)) {
+                results.add(route);
+            }
+        }
+    }
+
+    static class Route<T> {
+        private final int index;
+        private final T target;
+        private final GraphPropertyWorker worker;
+        private final GraphPropertyWorkerInterest interest;
+
+        private Route(int index, T target, GraphPropertyWorker worker, GraphPropertyWorkerInterest interest) {
+            this.index = index;
+            this.target = target;
+            this.worker = worker;
+            this.interest = interest;
+        }
+
+        T getTarget() {
+            return target;
+        }
+
+        GraphPropertyWorker getWorker() {
+            return worker;
+        }
+
+        GraphPropertyWorkerInterest getInterest() {
+            return interest;
+        }
+
+        /**
+         * @return true, if the worker's isHandled methods must be called to decide.
+         */
+        boolean isDynamic() {
+            return interest == null || interest.isHandledChecked();
+        }
+    }
+}
@@ -51,6 +51,13 @@ public abstract class MimeTypeGraphPropertyWorker extends GraphPropertyWorker {
         }
     }
 
+    @Override
+    public GraphPropertyWorkerInterest getInterest() {
+        // isHandled still checks that the property has no mime type yet
+        return GraphPropertyWorkerInterest.forProperties(configuration.getHandledPropertyNames().toArray(new String[0]))
+                .setHandledChecked(true);
+    }
+
     @Override
     public boolean isHandled(Element element, Property property) {
         if (property == null) {
@@ -27,6 +27,10 @@ public class MimeTypeGraphPropertyWorkerConfiguration {
         handledPropertyNames.add(OpenLumifyProperties.RAW.getPropertyName());
     }
 
+    public Set<String> getHandledPropertyNames() {
+        return handledPropertyNames;
+    }
+
     public boolean isHandled(Element element, Property property) {
         return handledPropertyNames.contains(property.getName());
     }
@@ -0,0 +1,101 @@
+package org.openlumify.core.ingest.graphProperty;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Finds the matches of several patterns in one pass over text that is read in chunks, so the text never has to be
+ * held in memory as a whole. Only the part of the text that a pending match could still start in is kept between
+ * chunks. A match must fit in maximumMatchLength characters, longer matches may be missed or cut short.
+ * Matches of each pattern are reported in order, with offsets into the whole text.
+ */
+public class MultiPatternScanner {
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAXIMUM_MATCH_LENGTH = 4 * 1024;
+    // kept in front of the next search position so word boundaries and short lookbehinds still see it
+    private static final int LOOKBEHIND_LENGTH = 16;
+    private final List<Pattern> patterns;
+    private final int chunkSize;
+    private final int maximumMatchLength;
+
+    public MultiPatternScanner(List<Pattern> patterns, int chunkSize, int maximumMatchLength) {
+        checkArgument(chunkSize > 0, "chunkSize must be greater than 0");
+        checkArgument(maximumMatchLength > 0, "maximumMatchLength must be greater than 0");
+        this.patterns = new ArrayList<>(patterns);
+        this.chunkSize = chunkSize;
+        this.maximumMatchLength = maximumMatchLength;
+    }
+
+    public void scan(Reader reader, MatchHandler handler) throws Exception {
+        StringBuilder window = new StringBuilder();
+        long windowOffset = 0;
+        int[] nextStart = new int[patterns.size()];
+        char[] buffer = new char[chunkSize];
+        boolean endOfText = false;
+        while (!endOfText) {
+            endOfText = !read(reader, buffer, window);
+            // a match starting before safeEnd is complete, one starting after it could continue in the next chunk
+            int safeEnd = endOfText ? window.length() : window.length() - maximumMatchLength;
+            if (!endOfText && safeEnd <= 0) {
+                continue;
+            }
+
+            int keepFrom = window.length();
+            for (int i = 0; i < patterns.size(); i++) {
+                Matcher matcher = patterns.get(i).matcher(window);
+                int position = nextStart[i];
+                boolean found = position <= window.length() && matcher.find(position);
+                while (found) {
+                    if (!endOfText && (matcher.start() >= safeEnd || matcher.hitEnd())) {
+                        position = matcher.start();
+                        break;
+                    }
+                    handler.match(i, windowOffset + matcher.start(), windowOffset + matcher.end(), matcher.group());
+                    position = matcher.end() > matcher.start() ? matcher.end() : matcher.end() + 1;
+                    found = matcher.find();
+                }
+                if (!found) {
+                    position = Math.max(position, safeEnd);
+                }
+                nextStart[i] = position;
+                keepFrom = Math.min(keepFrom, position);
+            }
+
+            int trim = Math.max(0, keepFrom - LOOKBEHIND_LENGTH);
+            if (!endOfText && trim > 0) {
+                window.delete(0, trim);
+                windowOffset += trim;
+                for (int i = 0; i < nextStart.length; i++) {
+                    nextStart[i] -= trim;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return false at the end of the text
+     */
+    private static boolean read(Reader reader, char[] buffer, StringBuilder window) throws IOException {
+        int read = reader.read(buffer);
+        if (read < 0) {
+            return false;
+        }
+        window.append(buffer, 0, read);
+        return true;
+    }
+
+    public interface MatchHandler {
+        /**
+         * @param patternIndex The index of the matching pattern in the list given to the scanner
+         * @param start        The offset in the whole text of the first character of the match
+         * @param end          The offset in the whole text after the last character of the match
+         */
+        void match(int patternIndex, long start, long end, String text) throws Exception;
+    }
+}
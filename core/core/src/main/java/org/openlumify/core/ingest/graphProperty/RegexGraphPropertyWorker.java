@@ -1,10 +1,10 @@
 package org.openlumify.core.ingest.graphProperty;
 
 import com.google.common.base.Charsets;
-import com.google.common.io.CharStreams;
 import org.vertexium.Element;
 import org.vertexium.Property;
 import org.vertexium.Vertex;
+import org.openlumify.core.config.Configuration;
 import org.openlumify.core.model.ontology.Concept;
 import org.openlumify.core.model.properties.OpenLumifyProperties;
 import org.openlumify.core.model.termMention.TermMentionBuilder;
@@ -15,13 +15,21 @@ import org.openlumify.web.clientapi.model.VisibilityJson;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Creates a term mention of {@link #getConcept()} for each match of a regular expression in the text properties.
+ * When {@link CombinedRegexGraphPropertyWorker} is enabled these workers are only used through it, which scans the
+ * text once for the patterns of all of them.
+ */
 public abstract class RegexGraphPropertyWorker extends GraphPropertyWorker {
     private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(RegexGraphPropertyWorker.class);
+    public static final String CONFIG_CHUNK_SIZE = RegexGraphPropertyWorker.class.getName() + ".chunkSize";
+    public static final String CONFIG_MAXIMUM_MATCH_LENGTH = RegexGraphPropertyWorker.class.getName() + ".maximumMatchLength";
     private final Pattern pattern;
+    private boolean combined;
 
     public RegexGraphPropertyWorker(String regEx) {
         this.pattern = Pattern.compile(regEx, Pattern.MULTILINE);
@@ -29,9 +37,14 @@ public abstract class RegexGraphPropertyWorker extends GraphPropertyWorker {
 
     protected abstract Concept getConcept();
 
+    Pattern getPattern() {
+        return pattern;
+    }
+
     @Override
     public void prepare(GraphPropertyWorkerPrepareData workerPrepareData) throws Exception {
         super.prepare(workerPrepareData);
+        combined = CombinedRegexGraphPropertyWorker.isEnabled(getConfiguration());
         LOGGER.debug("Extractor prepared for entity type [%s] with regular expression: %s", getConcept().getIRI(), this.pattern.toString());
     }
 
@@ -39,38 +52,67 @@ public abstract class RegexGraphPropertyWorker extends GraphPropertyWorker {
     public void execute(InputStream in, GraphPropertyWorkData data) throws Exception {
         LOGGER.debug("Extracting pattern [%s] from provided text", pattern);
 
-        final String text = CharStreams.toString(new InputStreamReader(in, Charsets.UTF_8));
+        Vertex outVertex = (Vertex) data.getElement();
+        VisibilityJson visibilityJson = VisibilityJson.updateVisibilitySourceAndAddWorkspaceId(null, null, data.getWorkspaceId());
+        List<TermMentionBuilder> termMentions = new ArrayList<>();
+        createScanner(getConfiguration(), Collections.singletonList(pattern)).scan(
+                new InputStreamReader(in, Charsets.UTF_8),
+                (patternIndex, start, end, text) -> termMentions.add(createTermMention(outVertex, data, visibilityJson, start, end, text))
+        );
+        List<Vertex> termMentionVertices = TermMentionBuilder.save(termMentions, getGraph(), getVisibilityTranslator(), getUser(), getAuthorizations());
+        applyTermMentionFilters(outVertex, termMentionVertices);
+        pushTextUpdated(data);
+    }
 
-        final Matcher matcher = pattern.matcher(text);
+    protected TermMentionBuilder createTermMention(
+            Vertex outVertex,
+            GraphPropertyWorkData data,
+            VisibilityJson visibilityJson,
+            long start,
+            long end,
+            String text
+    ) {
+        return new TermMentionBuilder()
+                .outVertex(outVertex)
+                .propertyKey(data.getProperty().getKey())
+                .propertyName(data.getProperty().getName())
+                .start(start)
+                .end(end)
+                .title(text)
+                .conceptIri(getConcept().getIRI())
+                .visibilityJson(visibilityJson)
+                .process(getClass().getName());
+    }
 
-        Vertex outVertex = (Vertex) data.getElement();
+    static MultiPatternScanner createScanner(Configuration configuration, List<Pattern> patterns) {
+        return new MultiPatternScanner(
+                patterns,
+                configuration.getInt(CONFIG_CHUNK_SIZE, MultiPatternScanner.DEFAULT_CHUNK_SIZE),
+                configuration.getInt(CONFIG_MAXIMUM_MATCH_LENGTH, MultiPatternScanner.DEFAULT_MAXIMUM_MATCH_LENGTH)
+        );
+    }
 
-        List<Vertex> termMentions = new ArrayList<>();
-        while (matcher.find()) {
-            final String patternGroup = matcher.group();
-            int start = matcher.start();
-            int end = matcher.end();
-
-            VisibilityJson visibilityJson = VisibilityJson.updateVisibilitySourceAndAddWorkspaceId(null, null, data.getWorkspaceId());
-            Vertex termMention = new TermMentionBuilder()
-                    .outVertex(outVertex)
-                    .propertyKey(data.getProperty().getKey())
-                    .propertyName(data.getProperty().getName())
-                    .start(start)
-                    .end(end)
-                    .title(patternGroup)
-                    .conceptIri(getConcept().getIRI())
-                    .visibilityJson(visibilityJson)
-                    .process(getClass().getName())
-                    .save(getGraph(), getVisibilityTranslator(), getUser(), getAuthorizations());
-            termMentions.add(termMention);
+    @Override
+    public GraphPropertyWorkerInterest getInterest() {
+        if (combined) {
+            // the properties are left to the CombinedRegexGraphPropertyWorker
+            return GraphPropertyWorkerInterest.forProperties();
         }
-        applyTermMentionFilters(outVertex, termMentions);
-        pushTextUpdated(data);
+        return createTextPropertyInterest();
     }
 
     @Override
     public boolean isHandled(Element element, Property property) {
+        return !combined && isTextProperty(property);
+    }
+
+    static GraphPropertyWorkerInterest createTextPropertyInterest() {
+        return GraphPropertyWorkerInterest.forAllProperties()
+                .setExcludedPropertyNames(OpenLumifyProperties.RAW.getPropertyName())
+                .setMimeTypePrefixes("text");
+    }
+
+    static boolean isTextProperty(Property property) {
         if (property == null) {
             return false;
         }
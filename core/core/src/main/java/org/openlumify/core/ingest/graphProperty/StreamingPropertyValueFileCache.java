@@ -0,0 +1,203 @@
+package org.openlumify.core.ingest.graphProperty;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.vertexium.Element;
+import org.vertexium.Property;
+import org.vertexium.property.StreamingPropertyValue;
+import org.openlumify.core.config.Configuration;
+import org.openlumify.core.exception.OpenLumifyException;
+import org.openlumify.core.model.properties.OpenLumifyProperties;
+import org.openlumify.core.util.OpenLumifyLogger;
+import org.openlumify.core.util.OpenLumifyLoggerFactory;
+import org.openlumify.core.util.ShutdownListener;
+import org.openlumify.core.util.ShutdownService;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Local disk cache of {@link StreamingPropertyValue} contents used by the {@link GraphPropertyRunner}. A value
+ * is copied from the graph once per element, property and property timestamp and all interested workers read
+ * the same local file. Files that are not in use are evicted in least recently used order once the total size
+ * of the cache exceeds the configured maximum.
+ */
+@Singleton
+public class StreamingPropertyValueFileCache implements ShutdownListener {
+    private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(StreamingPropertyValueFileCache.class);
+    public static final String CONFIG_DIRECTORY = StreamingPropertyValueFileCache.class.getName() + ".directory";
+    public static final String CONFIG_MAX_SIZE_BYTES = StreamingPropertyValueFileCache.class.getName() + ".maxSizeBytes";
+    public static final long DEFAULT_MAX_SIZE_BYTES = 2L * 1024 * 1024 * 1024;
+    private final Map<String, CachedFile> cachedFiles = new LinkedHashMap<>(16, 0.75f, true);
+    private final File cacheDir;
+    private final long maxSizeBytes;
+    private long totalSizeBytes;
+
+    @Inject
+    public StreamingPropertyValueFileCache(Configuration configuration, ShutdownService shutdownService) {
+        this(
+                new File(configuration.get(CONFIG_DIRECTORY, System.getProperty("java.io.tmpdir"))),
+                configuration.getLong(CONFIG_MAX_SIZE_BYTES, DEFAULT_MAX_SIZE_BYTES)
+        );
+        shutdownService.register(this);
+    }
+
+    public StreamingPropertyValueFileCache(File baseDir, long maxSizeBytes) {
+        this.maxSizeBytes = maxSizeBytes;
+        try {
+            if (!baseDir.exists() && !baseDir.mkdirs()) {
+                throw new OpenLumifyException("Could not make directory: " + baseDir.getAbsolutePath());
+            }
+            this.cacheDir = Files.createTempDirectory(baseDir.toPath(), "graphPropertyFileCache").toFile();
+        } catch (IOException ex) {
+            throw new OpenLumifyException("Could not create cache directory in: " + baseDir.getAbsolutePath(), ex);
+        }
+        LOGGER.info("Using streaming property value cache dir: %s (max size: %d bytes)", cacheDir.getAbsolutePath(), maxSizeBytes);
+    }
+
+    /**
+     * Gets the local copy of the property value, copying it from the graph if it is not already cached. The
+     * returned file must be closed when the caller is done with it so it can be evicted.
+     */
+    public CachedFile acquire(Element element, Property property) throws IOException {
+        String key = createKey(element, property);
+        CachedFile cachedFile;
+        synchronized (cachedFiles) {
+            cachedFile = cachedFiles.get(key);
+            if (cachedFile == null) {
+                cachedFile = new CachedFile(new File(cacheDir, DigestUtils.sha1Hex(key) + "." + getFileExtension(element)));
+                cachedFiles.put(key, cachedFile);
+            }
+            cachedFile.referenceCount++;
+        }
+        try {
+            cachedFile.ensureWritten((StreamingPropertyValue) property.getValue());
+        } catch (IOException | RuntimeException ex) {
+            cachedFile.close();
+            throw ex;
+        }
+        return cachedFile;
+    }
+
+    /**
+     * @return the local copy of the property value or null, if the value has not been cached.
+     */
+    public CachedFile acquireIfPresent(Element element, Property property) {
+        synchronized (cachedFiles) {
+            CachedFile cachedFile = cachedFiles.get(createKey(element, property));
+            if (cachedFile == null || !cachedFile.written) {
+                return null;
+            }
+            cachedFile.referenceCount++;
+            return cachedFile;
+        }
+    }
+
+    private String createKey(Element element, Property property) {
+        return element.getId() + "\u001f" + property.getKey() + "\u001f" + property.getName() + "\u001f" + property.getTimestamp();
+    }
+
+    private String getFileExtension(Element element) {
+        String fileName = OpenLumifyProperties.FILE_NAME.getOnlyPropertyValue(element);
+        String fileExt = fileName == null ? null : FilenameUtils.getExtension(fileName);
+        return fileExt == null || fileExt.isEmpty() ? "data" : fileExt;
+    }
+
+    private void release(CachedFile cachedFile, long addedSizeBytes) {
+        synchronized (cachedFiles) {
+            cachedFile.referenceCount--;
+            totalSizeBytes += addedSizeBytes;
+            evict();
+        }
+    }
+
+    private void evict() {
+        Iterator<CachedFile> it = cachedFiles.values().iterator();
+        while (totalSizeBytes > maxSizeBytes && it.hasNext()) {
+            CachedFile cachedFile = it.next();
+            if (cachedFile.referenceCount > 0) {
+                continue;
+            }
+            it.remove();
+            totalSizeBytes -= cachedFile.sizeBytes;
+            if (cachedFile.file.exists() && !cachedFile.file.delete()) {
+                LOGGER.warn("Could not delete cached file %s", cachedFile.file.getAbsolutePath());
+            }
+        }
+    }
+
+    public long getTotalSizeBytes() {
+        synchronized (cachedFiles) {
+            return totalSizeBytes;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        synchronized (cachedFiles) {
+            cachedFiles.clear();
+            totalSizeBytes = 0;
+        }
+        FileUtils.deleteQuietly(cacheDir);
+    }
+
+    public class CachedFile implements Closeable {
+        private final File file;
+        private int referenceCount;
+        private volatile boolean written;
+        private long sizeBytes;
+        private long pendingSizeBytes;
+
+        private CachedFile(File file) {
+            this.file = file;
+        }
+
+        private synchronized void ensureWritten(StreamingPropertyValue value) throws IOException {
+            if (written) {
+                return;
+            }
+            try (InputStream in = value.getInputStream(); OutputStream out = new FileOutputStream(file)) {
+                IOUtils.copy(in, out);
+            } catch (IOException | RuntimeException ex) {
+                if (file.exists() && !file.delete()) {
+                    LOGGER.warn("Could not delete partially written file %s", file.getAbsolutePath());
+                }
+                throw ex;
+            }
+            sizeBytes = file.length();
+            pendingSizeBytes = sizeBytes;
+            written = true;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * Opens a new independent stream over the cached file.
+         */
+        public InputStream newInputStream() throws IOException {
+            return Channels.newInputStream(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+        }
+
+        @Override
+        public void close() {
+            long addedSizeBytes;
+            synchronized (this) {
+                addedSizeBytes = pendingSizeBytes;
+                pendingSizeBytes = 0;
+            }
+            release(this, addedSizeBytes);
+        }
+    }
+}
@@ -11,8 +11,7 @@ import org.openlumify.core.status.MetricsManager;
 import org.openlumify.core.util.OpenLumifyLogger;
 import org.openlumify.core.util.OpenLumifyLoggerFactory;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.*;
 
 public abstract class WorkerBase<TWorkerItem extends WorkerItem> {
     private final boolean exitOnNextTupleFailure;
@@ -23,7 +22,15 @@ public abstract class WorkerBase<TWorkerItem extends WorkerItem> {
     private volatile boolean shouldRun;
     private final Queue<WorkerItemWrapper> tupleQueue = new LinkedList<>();
     private final int tupleQueueSize;
-    private Thread processThread;
+    private final int tupleBatchSize;
+    private final long tupleBatchMaxWaitMillis;
+    private final Set<Object> inProgressOrderingKeys = new HashSet<>();
+    private final Object ackLock = new Object();
+    private final List<WorkerTuple> ackedTuples = new ArrayList<>();
+    private final List<WorkerTuple> failedTuples = new ArrayList<>();
+    private final int ackBatchSize;
+    private int processThreadCount;
+    private final List<Thread> processThreads = new ArrayList<>();
 
     protected WorkerBase(
             WorkQueueRepository workQueueRepository,
@@ -34,6 +41,10 @@ public abstract class WorkerBase<TWorkerItem extends WorkerItem> {
         this.metricsManager = metricsManager;
         this.exitOnNextTupleFailure = configuration.getBoolean(getClass().getName() + ".exitOnNextTupleFailure", true);
         this.tupleQueueSize = configuration.getInt(getClass().getName() + ".tupleQueueSize", 10);
+        this.tupleBatchSize = Math.max(1, configuration.getInt(getClass().getName() + ".tupleBatchSize", 10));
+        this.tupleBatchMaxWaitMillis = configuration.getLong(getClass().getName() + ".tupleBatchMaxWaitMillis", 100L);
+        this.ackBatchSize = Math.max(1, configuration.getInt(getClass().getName() + ".ackBatchSize", tupleBatchSize));
+        setProcessThreadCount(configuration.getInt(getClass().getName() + ".processThreadCount", 1));
         this.queueSizeMetricName = metricsManager.createMetricName(this, "counter", "queue-size-" + Thread.currentThread().getId());
         this.queueSizeMetric = metricsManager.counter(queueSizeMetricName);
     }
@@ -50,88 +61,205 @@ public abstract class WorkerBase<TWorkerItem extends WorkerItem> {
         logger.debug("begin runner");
         WorkerSpout workerSpout = prepareWorkerSpout();
         shouldRun = true;
-        startProcessThread(logger, workerSpout);
+        startProcessThreads(logger, workerSpout);
         pollWorkerSpout(logger, workerSpout);
     }
 
-    private void startProcessThread(OpenLumifyLogger logger, WorkerSpout workerSpout) {
-        processThread = new Thread(() -> {
+    private void startProcessThreads(OpenLumifyLogger logger, WorkerSpout workerSpout) {
+        String threadNamePrefix = Thread.currentThread().getName() + "-process";
+        for (int i = 0; i < processThreadCount; i++) {
+            Thread processThread = new Thread(() -> processWorkerItems(logger, workerSpout));
+            processThread.setName(processThreadCount == 1 ? threadNamePrefix : threadNamePrefix + "-" + i);
+            processThreads.add(processThread);
+            processThread.start();
+        }
+    }
+
+    private void processWorkerItems(OpenLumifyLogger logger, WorkerSpout workerSpout) {
+        try {
             while (shouldRun) {
-                WorkerItemWrapper workerItemWrapper = null;
+                WorkerItemWrapper workerItemWrapper;
                 try {
-                    synchronized (tupleQueue) {
-                        do {
-                            while (shouldRun && tupleQueue.size() == 0) {
-                                tupleQueue.wait();
-                            }
-                            if (!shouldRun) {
-                                return;
-                            }
-                            if (tupleQueue.size() > 0) {
-                                workerItemWrapper = tupleQueue.remove();
-                                queueSizeMetric.dec();
-                                tupleQueue.notifyAll();
-                            }
-                        } while (shouldRun && workerItemWrapper == null);
-                    }
+                    workerItemWrapper = takeNextWorkerItem();
                 } catch (Exception ex) {
                     throw new OpenLumifyException("Could not get next workerItem", ex);
                 }
-                if (!shouldRun) {
+                if (!shouldRun || workerItemWrapper == null) {
                     return;
                 }
+                boolean success = false;
                 try {
                     logger.debug("start processing");
                     long startTime = System.currentTimeMillis();
                     process(workerItemWrapper.getWorkerItem());
                     long endTime = System.currentTimeMillis();
                     logger.debug("completed processing in (%dms)", endTime - startTime);
-                    workerSpout.ack(workerItemWrapper.getWorkerTuple());
+                    success = true;
                 } catch (Throwable ex) {
                     logger.error("Could not process tuple: %s", workerItemWrapper, ex);
-                    workerSpout.fail(workerItemWrapper.getWorkerTuple());
+                } finally {
+                    releaseOrderingKeys(workerItemWrapper);
                 }
+                completeTuple(workerSpout, workerItemWrapper.getWorkerTuple(), success, isTupleQueueEmpty());
             }
-        });
-        processThread.setName(Thread.currentThread().getName() + "-process");
-        processThread.start();
+        } finally {
+            flushCompletedTuples(workerSpout);
+        }
+    }
+
+    /**
+     * Collects the tuple to be acknowledged or failed together with others. The collected tuples are flushed to
+     * the spout once ackBatchSize of them are collected, when there is no more queued work and whenever a poll of
+     * the spout returns nothing, so tuples are not held while the worker waits for new ones.
+     */
+    private void completeTuple(WorkerSpout workerSpout, WorkerTuple workerTuple, boolean success, boolean flush) {
+        synchronized (ackLock) {
+            if (success) {
+                ackedTuples.add(workerTuple);
+            } else {
+                failedTuples.add(workerTuple);
+            }
+            if (flush || ackedTuples.size() + failedTuples.size() >= ackBatchSize) {
+                flushCompletedTuples(workerSpout);
+            }
+        }
+    }
+
+    private void flushCompletedTuples(WorkerSpout workerSpout) {
+        synchronized (ackLock) {
+            try {
+                if (ackedTuples.size() > 0) {
+                    workerSpout.ack(new ArrayList<>(ackedTuples));
+                }
+                if (failedTuples.size() > 0) {
+                    workerSpout.fail(new ArrayList<>(failedTuples));
+                }
+            } finally {
+                ackedTuples.clear();
+                failedTuples.clear();
+            }
+        }
+    }
+
+    private boolean isTupleQueueEmpty() {
+        synchronized (tupleQueue) {
+            return tupleQueue.isEmpty();
+        }
+    }
+
+    /**
+     * Removes the next item from the tuple queue that can be processed. An item can only be processed if
+     * none of its ordering keys are in progress on another process thread or belong to an item that was
+     * queued before it. This keeps items with the same ordering key in queue order.
+     *
+     * @return null, if the worker has been stopped.
+     */
+    private WorkerItemWrapper takeNextWorkerItem() throws InterruptedException {
+        synchronized (tupleQueue) {
+            while (shouldRun) {
+                Set<Object> blockedOrderingKeys = new HashSet<>(inProgressOrderingKeys);
+                Iterator<WorkerItemWrapper> it = tupleQueue.iterator();
+                while (it.hasNext()) {
+                    WorkerItemWrapper workerItemWrapper = it.next();
+                    Collection<?> orderingKeys = workerItemWrapper.getOrderingKeys();
+                    if (Collections.disjoint(blockedOrderingKeys, orderingKeys)) {
+                        it.remove();
+                        inProgressOrderingKeys.addAll(orderingKeys);
+                        queueSizeMetric.dec();
+                        tupleQueue.notifyAll();
+                        return workerItemWrapper;
+                    }
+                    blockedOrderingKeys.addAll(orderingKeys);
+                }
+                tupleQueue.wait();
+            }
+            return null;
+        }
+    }
+
+    private void releaseOrderingKeys(WorkerItemWrapper workerItemWrapper) {
+        if (workerItemWrapper.getOrderingKeys().isEmpty()) {
+            return;
+        }
+        synchronized (tupleQueue) {
+            inProgressOrderingKeys.removeAll(workerItemWrapper.getOrderingKeys());
+            tupleQueue.notifyAll();
+        }
     }
 
     private void pollWorkerSpout(OpenLumifyLogger logger, WorkerSpout workerSpout) throws InterruptedException {
+        try {
+            pollWorkerSpoutTuples(logger, workerSpout);
+        } finally {
+            flushCompletedTuples(workerSpout);
+        }
+    }
+
+    private void pollWorkerSpoutTuples(OpenLumifyLogger logger, WorkerSpout workerSpout) throws InterruptedException {
         while (shouldRun) {
-            WorkerItemWrapper workerItemWrapper;
-            WorkerTuple tuple = null;
+            List<WorkerTuple> tuples;
             try {
-                tuple = workerSpout.nextTuple();
-                if (tuple == null) {
-                    workerItemWrapper = null;
-                } else {
-                    TWorkerItem workerItem = tupleDataToWorkerItem(tuple.getData());
-                    workerItemWrapper = new WorkerItemWrapper(workerItem, tuple);
-                }
+                tuples = workerSpout.nextTuples(tupleBatchSize, tupleBatchMaxWaitMillis);
             } catch (InterruptedException ex) {
-                if (tuple != null) {
-                    workerSpout.fail(tuple);
-                }
                 throw ex;
             } catch (Exception ex) {
-                if (tuple != null) {
-                    workerSpout.fail(tuple);
-                }
                 handleNextTupleException(logger, ex);
                 continue;
             }
-            if (workerItemWrapper == null) {
+            if (tuples == null || tuples.size() == 0) {
+                flushCompletedTuples(workerSpout);
                 continue;
             }
-            synchronized (tupleQueue) {
-                tupleQueue.add(workerItemWrapper);
-                queueSizeMetric.inc();
-                tupleQueue.notifyAll();
-                while (shouldRun && tupleQueue.size() >= tupleQueueSize) {
-                    tupleQueue.wait();
+            long receivedNanos = System.nanoTime();
+
+            List<WorkerItemWrapper> workerItemWrappers = new ArrayList<>(tuples.size());
+            for (int i = 0; i < tuples.size(); i++) {
+                WorkerTuple tuple = tuples.get(i);
+                try {
+                    TWorkerItem workerItem = tupleDataToWorkerItem(tuple.getData(), receivedNanos);
+                    workerItemWrappers.add(new WorkerItemWrapper(workerItem, tuple, getOrderingKeys(workerItem)));
+                } catch (InterruptedException ex) {
+                    failUnqueuedTuples(workerSpout, workerItemWrappers, tuples.subList(i, tuples.size()));
+                    throw ex;
+                } catch (Exception ex) {
+                    completeTuple(workerSpout, tuple, false, false);
+                    try {
+                        handleNextTupleException(logger, ex);
+                    } catch (RuntimeException | InterruptedException handleEx) {
+                        failUnqueuedTuples(workerSpout, workerItemWrappers, tuples.subList(i + 1, tuples.size()));
+                        throw handleEx;
+                    }
                 }
             }
+            enqueueWorkerItems(workerItemWrappers);
+        }
+    }
+
+    private void failUnqueuedTuples(
+            WorkerSpout workerSpout,
+            List<WorkerItemWrapper> workerItemWrappers,
+            List<WorkerTuple> remainingTuples
+    ) {
+        synchronized (ackLock) {
+            failedTuples.addAll(remainingTuples);
+            for (WorkerItemWrapper workerItemWrapper : workerItemWrappers) {
+                failedTuples.add(workerItemWrapper.getWorkerTuple());
+            }
+            flushCompletedTuples(workerSpout);
+        }
+    }
+
+    private void enqueueWorkerItems(List<WorkerItemWrapper> workerItemWrappers) throws InterruptedException {
+        if (workerItemWrappers.size() == 0) {
+            return;
+        }
+        synchronized (tupleQueue) {
+            tupleQueue.addAll(workerItemWrappers);
+            queueSizeMetric.inc(workerItemWrappers.size());
+            tupleQueue.notifyAll();
+            while (shouldRun && tupleQueue.size() >= Math.max(tupleQueueSize, processThreadCount)) {
+                tupleQueue.wait();
+            }
         }
     }
 
@@ -146,23 +274,41 @@ public abstract class WorkerBase<TWorkerItem extends WorkerItem> {
 
     protected abstract void process(TWorkerItem workerItem) throws Exception;
 
+    /**
+     * Items sharing an ordering key are never processed concurrently and are processed in the order they
+     * were received. Only relevant when more than one process thread is configured.
+     *
+     * @return the ordering keys of the item, or an empty collection if the item can be processed in any order.
+     */
+    protected Collection<?> getOrderingKeys(TWorkerItem workerItem) {
+        return Collections.emptyList();
+    }
+
     /**
      * This method gets called in a different thread than {@link #process(WorkerItem)} this
      * allows an implementing class to prefetch data needed for processing.
      */
     protected abstract TWorkerItem tupleDataToWorkerItem(byte[] data) throws Exception;
 
+    /**
+     * Same as {@link #tupleDataToWorkerItem(byte[])}, receivedNanos is the {@link System#nanoTime()} at which the
+     * tuple was taken from the spout. Anything that happened before the tuple was queued happened before then.
+     */
+    protected TWorkerItem tupleDataToWorkerItem(byte[] data, long receivedNanos) throws Exception {
+        return tupleDataToWorkerItem(data);
+    }
+
     public void stop() {
         shouldRun = false;
         synchronized (tupleQueue) {
             tupleQueue.notifyAll();
         }
-        try {
-            if (processThread != null) {
+        for (Thread processThread : processThreads) {
+            try {
                 processThread.join(10000);
+            } catch (InterruptedException e) {
+                throw new OpenLumifyException("Could not stop process thread: " + processThread.getName());
             }
-        } catch (InterruptedException e) {
-            throw new OpenLumifyException("Could not stop process thread: " + processThread.getName());
         }
     }
 
@@ -182,13 +328,30 @@ public abstract class WorkerBase<TWorkerItem extends WorkerItem> {
         return shouldRun;
     }
 
+    public int getProcessThreadCount() {
+        return processThreadCount;
+    }
+
+    /**
+     * Sets the number of threads used to process items concurrently. Must be called before {@link #run()}.
+     */
+    public void setProcessThreadCount(int processThreadCount) {
+        this.processThreadCount = Math.max(1, processThreadCount);
+    }
+
     private class WorkerItemWrapper {
         private final TWorkerItem workerItem;
         private final WorkerTuple workerTuple;
+        private final Collection<?> orderingKeys;
 
-        public WorkerItemWrapper(TWorkerItem workerItem, WorkerTuple workerTuple) {
+        public WorkerItemWrapper(TWorkerItem workerItem, WorkerTuple workerTuple, Collection<?> orderingKeys) {
             this.workerItem = workerItem;
             this.workerTuple = workerTuple;
+            this.orderingKeys = orderingKeys == null ? Collections.emptyList() : orderingKeys;
+        }
+
+        public Collection<?> getOrderingKeys() {
+            return orderingKeys;
         }
 
         public WorkerTuple getWorkerTuple() {
@@ -11,6 +11,14 @@ public abstract class Lock {
 
     public abstract <T> T run(Callable<T> callable);
 
+    /**
+     * Runs the callable holding the lock in shared mode. Implementations that can not share a lock hold it
+     * exclusively.
+     */
+    public <T> T runShared(Callable<T> callable) {
+        return run(callable);
+    }
+
     public String getLockName() {
         return lockName;
     }
@@ -1,15 +1,38 @@
 package org.openlumify.core.model.lock;
 
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.inject.Inject;
+import org.openlumify.core.exception.OpenLumifyException;
+import org.openlumify.core.status.MetricsManager;
 import org.openlumify.core.util.OpenLumifyLogger;
 import org.openlumify.core.util.OpenLumifyLoggerFactory;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Runs code while holding a named lock. A lock is held either exclusively, see {@link #lock(String, Callable)}, or
+ * shared with other readers, see {@link #lockShared(String, Callable)}. Within a JVM the two modes are coordinated
+ * with a read/write lock per name, the {@link Lock} created by the implementation coordinates across JVMs.
+ * The read/write lock of a name is dropped once no thread holds or waits for it. The time spent waiting for and
+ * holding locks is exported through the {@link MetricsManager} per category, see {@link #getMetricsCategory(String)}.
+ */
 public abstract class LockRepository {
     private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(LockRepository.class);
     protected final Map<String, Object> synchronizationObjects = new HashMap<>();
+    private final Map<String, LockEntry> readWriteLocks = new ConcurrentHashMap<>();
+    private final Map<String, LockMetrics> lockMetrics = new ConcurrentHashMap<>();
+    private MetricsManager metricsManager;
+
+    @Inject
+    public void setMetricsManager(MetricsManager metricsManager) {
+        this.metricsManager = metricsManager;
+    }
 
     public void lock(String lockName, final Runnable runnable) {
         lock(lockName, () -> {
@@ -18,22 +41,107 @@ public abstract class LockRepository {
         });
     }
 
+    /**
+     * Runs the callable while no other thread holds the lock in either mode.
+     */
     public <T> T lock(String lockName, Callable<T> callable) {
-        LOGGER.debug("[thread: %s] acquiring lock: %s", Thread.currentThread().getName(), lockName);
+        return lock(lockName, false, callable);
+    }
+
+    public void lockShared(String lockName, final Runnable runnable) {
+        lockShared(lockName, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the callable while no other thread holds the lock exclusively. Use it for code that only reads what the
+     * exclusive holders write. A thread holding the exclusive lock may also take it shared, but a thread holding the
+     * shared lock can not upgrade to the exclusive lock of the same name, that would wait forever for its own
+     * shared lock and fails with an {@link OpenLumifyException} instead.
+     */
+    public <T> T lockShared(String lockName, Callable<T> callable) {
+        return lock(lockName, true, callable);
+    }
+
+    private <T> T lock(String lockName, boolean shared, Callable<T> callable) {
+        String mode = shared ? "shared" : "exclusive";
+        LOGGER.debug("[thread: %s] acquiring %s lock: %s", Thread.currentThread().getName(), mode, lockName);
+        ReentrantReadWriteLock readWriteLock = acquireReadWriteLock(lockName);
         try {
-            Object synchronizationObject = getSynchronizationObject(lockName);
-            //noinspection SynchronizationOnLocalVariableOrMethodParameter
-            synchronized (synchronizationObject) {
-                LOGGER.debug("[thread: %s] creating lock: %s", Thread.currentThread().getName(), lockName);
+            if (!shared && readWriteLock.getReadHoldCount() > 0) {
+                throw new OpenLumifyException("Cannot upgrade a shared lock to an exclusive lock: " + lockName);
+            }
+            java.util.concurrent.locks.Lock jvmLock = shared ? readWriteLock.readLock() : readWriteLock.writeLock();
+            long waitStartTime = System.nanoTime();
+            jvmLock.lock();
+            try {
+                long holdStartTime = System.nanoTime();
+                LOGGER.debug("[thread: %s] creating %s lock: %s", Thread.currentThread().getName(), mode, lockName);
                 Lock lock = createLock(lockName);
-                LOGGER.debug("[thread: %s] running lock: %s", Thread.currentThread().getName(), lockName);
-                return lock.run(callable);
+                LOGGER.debug("[thread: %s] running %s lock: %s", Thread.currentThread().getName(), mode, lockName);
+                try {
+                    return shared ? lock.runShared(callable) : lock.run(callable);
+                } finally {
+                    updateMetrics(lockName, holdStartTime - waitStartTime, System.nanoTime() - holdStartTime);
+                }
+            } finally {
+                jvmLock.unlock();
+                LOGGER.debug("[thread: %s] released %s lock: %s", Thread.currentThread().getName(), mode, lockName);
             }
         } finally {
-            LOGGER.debug("[thread: %s] released lock: %s", Thread.currentThread().getName(), lockName);
+            releaseReadWriteLock(lockName);
         }
     }
 
+    private ReentrantReadWriteLock acquireReadWriteLock(String lockName) {
+        return readWriteLocks.compute(lockName, (k, entry) -> {
+            if (entry == null) {
+                entry = new LockEntry();
+            }
+            entry.users++;
+            return entry;
+        }).readWriteLock;
+    }
+
+    private void releaseReadWriteLock(String lockName) {
+        readWriteLocks.computeIfPresent(lockName, (k, entry) -> --entry.users == 0 ? null : entry);
+    }
+
+    @VisibleForTesting
+    int getReadWriteLockCount() {
+        return readWriteLocks.size();
+    }
+
+    /**
+     * Lock names usually contain ids, so metrics are kept per category instead of per name. The default category is
+     * the leading letters of the name, e.g. "WORKSPACE" for "WORKSPACE_123".
+     */
+    protected String getMetricsCategory(String lockName) {
+        int end = 0;
+        while (end < lockName.length() && Character.isLetter(lockName.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? "other" : lockName.substring(0, end);
+    }
+
+    /**
+     * The hold time includes any time the {@link Lock} spends acquiring a lock shared with other JVMs.
+     */
+    private void updateMetrics(String lockName, long waitNanos, long holdNanos) {
+        if (metricsManager == null) {
+            return;
+        }
+        String category = getMetricsCategory(lockName);
+        LockMetrics metrics = lockMetrics.computeIfAbsent(category, k -> new LockMetrics(
+                metricsManager.timer(this, category + "-wait"),
+                metricsManager.timer(this, category + "-hold")
+        ));
+        metrics.waitTimer.update(waitNanos, TimeUnit.NANOSECONDS);
+        metrics.holdTimer.update(holdNanos, TimeUnit.NANOSECONDS);
+    }
+
     protected Object getSynchronizationObject(String lockName) {
         synchronized (synchronizationObjects) {
             Object synchronizationObject = synchronizationObjects.get(lockName);
@@ -48,4 +156,19 @@ public abstract class LockRepository {
     public abstract Lock createLock(String lockName);
 
     public abstract void leaderElection(String lockName, LeaderListener listener);
+
+    private static class LockEntry {
+        private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+        private int users;
+    }
+
+    private static class LockMetrics {
+        private final Timer waitTimer;
+        private final Timer holdTimer;
+
+        LockMetrics(Timer waitTimer, Timer holdTimer) {
+            this.waitTimer = waitTimer;
+            this.holdTimer = holdTimer;
+        }
+    }
 }
@@ -27,14 +27,13 @@ public class SingleJvmLockRepository extends LockRepository implements ShutdownL
 
     @Override
     public Lock createLock(String lockName) {
-        final Object synchronizationObject = getSynchronizationObject(lockName);
+        // LockRepository already keeps the holders of a lock name in this JVM apart, so no monitor per lock name is
+        // kept here; it would never be released for names that include ids
         return new Lock(lockName) {
             @Override
             public <T> T run(Callable<T> callable) {
                 try {
-                    synchronized (synchronizationObject) {
-                        return callable.call();
-                    }
+                    return callable.call();
                 } catch (Exception ex) {
                     throw new OpenLumifyException("Failed to run in lock", ex);
                 }
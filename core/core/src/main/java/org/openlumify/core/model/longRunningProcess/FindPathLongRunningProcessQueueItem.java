@@ -11,18 +11,39 @@ public class FindPathLongRunningProcessQueueItem {
     private int hops;
     private String workspaceId;
     private String[] authorizations;
+    private Integer maxPaths;
+    private Integer timeoutSeconds;
 
     public FindPathLongRunningProcessQueueItem() {
 
     }
 
     public FindPathLongRunningProcessQueueItem(String outVertexId, String inVertexId, String[] labels, int hops, String workspaceId, Authorizations authorizations) {
+        this(outVertexId, inVertexId, labels, hops, workspaceId, authorizations, null, null);
+    }
+
+    /**
+     * @param maxPaths       The most paths to store, or null for the worker default
+     * @param timeoutSeconds How long the search may run, or null for the worker default
+     */
+    public FindPathLongRunningProcessQueueItem(
+            String outVertexId,
+            String inVertexId,
+            String[] labels,
+            int hops,
+            String workspaceId,
+            Authorizations authorizations,
+            Integer maxPaths,
+            Integer timeoutSeconds
+    ) {
         this.outVertexId = outVertexId;
         this.inVertexId = inVertexId;
         this.labels = labels;
         this.hops = hops;
         this.workspaceId = workspaceId;
         this.authorizations = authorizations.getAuthorizations();
+        this.maxPaths = maxPaths;
+        this.timeoutSeconds = timeoutSeconds;
     }
 
     public String getOutVertexId() {
@@ -49,6 +70,14 @@ public class FindPathLongRunningProcessQueueItem {
         return authorizations;
     }
 
+    public Integer getMaxPaths() {
+        return maxPaths;
+    }
+
+    public Integer getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
     public String getType() {
         return "findPath";
     }
@@ -2,30 +2,55 @@ package org.openlumify.core.model.longRunningProcess;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.vertexium.*;
+import org.openlumify.core.config.Configuration;
+import org.openlumify.core.exception.OpenLumifyException;
 import org.openlumify.core.model.Description;
 import org.openlumify.core.model.Name;
 import org.openlumify.core.util.ClientApiConverter;
-import org.openlumify.web.clientapi.model.ClientApiVertexFindPathResponse;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Finds the paths between two vertices. The results store each vertex id once, under "vertexIds", and each path
+ * as indexes into it, under "paths". At most maxPaths paths are stored, "resultsTruncated" is set when more were
+ * found. A search still running after timeoutSeconds is stopped and the process fails. Both come from the request,
+ * so they are capped at the configured maxPaths and maxTimeoutSeconds, and values of zero or less are rejected.
+ */
 @Name("Find Path")
 @Description("Finds a path between two vertices")
 @Singleton
 public class FindPathLongRunningProcessWorker extends LongRunningProcessWorker {
+    public static final String CONFIG_DEFAULT_MAX_PATHS = FindPathLongRunningProcessWorker.class.getName() + ".defaultMaxPaths";
+    public static final int DEFAULT_MAX_PATHS = 1000;
+    public static final String CONFIG_DEFAULT_TIMEOUT_SECONDS = FindPathLongRunningProcessWorker.class.getName() + ".defaultTimeoutSeconds";
+    public static final int DEFAULT_TIMEOUT_SECONDS = 600;
+    public static final String CONFIG_MAX_PATHS = FindPathLongRunningProcessWorker.class.getName() + ".maxPaths";
+    public static final int DEFAULT_MAX_PATHS_LIMIT = 10000;
+    public static final String CONFIG_MAX_TIMEOUT_SECONDS = FindPathLongRunningProcessWorker.class.getName() + ".maxTimeoutSeconds";
+    public static final int DEFAULT_MAX_TIMEOUT_SECONDS = 3600;
     private final Graph graph;
     private final LongRunningProcessRepository longRunningProcessRepository;
+    private final int defaultMaxPaths;
+    private final int defaultTimeoutSeconds;
+    private final int maxPathsLimit;
+    private final int maxTimeoutSeconds;
 
     @Inject
     public FindPathLongRunningProcessWorker(
             Graph graph,
-            LongRunningProcessRepository longRunningProcessRepository
+            LongRunningProcessRepository longRunningProcessRepository,
+            Configuration configuration
     ) {
         this.graph = graph;
         this.longRunningProcessRepository = longRunningProcessRepository;
+        this.defaultMaxPaths = configuration.getInt(CONFIG_DEFAULT_MAX_PATHS, DEFAULT_MAX_PATHS);
+        this.defaultTimeoutSeconds = configuration.getInt(CONFIG_DEFAULT_TIMEOUT_SECONDS, DEFAULT_TIMEOUT_SECONDS);
+        this.maxPathsLimit = configuration.getInt(CONFIG_MAX_PATHS, DEFAULT_MAX_PATHS_LIMIT);
+        this.maxTimeoutSeconds = configuration.getInt(CONFIG_MAX_TIMEOUT_SECONDS, DEFAULT_MAX_TIMEOUT_SECONDS);
     }
 
     @Override
@@ -40,11 +65,17 @@ public class FindPathLongRunningProcessWorker extends LongRunningProcessWorker {
         Authorizations authorizations = getAuthorizations(findPath.getAuthorizations());
         String[] labels = findPath.getLabels();
         int hops = findPath.getHops();
+        int maxPaths = limit("maxPaths", findPath.getMaxPaths(), defaultMaxPaths, maxPathsLimit);
+        int timeoutSeconds = limit("timeoutSeconds", findPath.getTimeoutSeconds(), defaultTimeoutSeconds, maxTimeoutSeconds);
+        long deadline = System.currentTimeMillis() + timeoutSeconds * 1000L;
 
-        ClientApiVertexFindPathResponse results = new ClientApiVertexFindPathResponse();
         ProgressCallback progressCallback = new ProgressCallback() {
             @Override
             public void progress(double progressPercent, Step step, Integer edgeIndex, Integer vertexCount) {
+                // the search only returns once it is complete, so a timeout can only stop it from here
+                if (System.currentTimeMillis() > deadline) {
+                    throw new OpenLumifyException("Find path did not finish within " + timeoutSeconds + " seconds");
+                }
                 longRunningProcessRepository.reportProgress(longRunningProcessQueueItem, progressPercent, step.formatMessage(edgeIndex, vertexCount));
             }
         };
@@ -53,18 +84,45 @@ public class FindPathLongRunningProcessWorker extends LongRunningProcessWorker {
                 .setLabels(labels)
                 .setProgressCallback(progressCallback);
         Iterable<Path> paths = graph.findPaths(findPathOptions, authorizations);
+
+        Map<String, Integer> vertexIndexes = new HashMap<>();
+        JSONArray vertexIdsJson = new JSONArray();
+        JSONArray pathsJson = new JSONArray();
+        boolean truncated = false;
         for (Path path : paths) {
-            List<String> clientApiVertexPath = new ArrayList<>();
-            for (String s : path) {
-                clientApiVertexPath.add(s);
+            if (pathsJson.length() >= maxPaths) {
+                truncated = true;
+                break;
+            }
+            JSONArray pathJson = new JSONArray();
+            for (String vertexId : path) {
+                Integer vertexIndex = vertexIndexes.get(vertexId);
+                if (vertexIndex == null) {
+                    vertexIndex = vertexIdsJson.length();
+                    vertexIndexes.put(vertexId, vertexIndex);
+                    vertexIdsJson.put(vertexId);
+                }
+                pathJson.put(vertexIndex.intValue());
             }
-            results.getPaths().add(clientApiVertexPath);
+            pathsJson.put(pathJson);
         }
 
-        String resultsString = ClientApiConverter.clientApiToString(results);
-        JSONObject resultsJson = new JSONObject(resultsString);
+        JSONObject resultsJson = new JSONObject();
+        resultsJson.put("vertexIds", vertexIdsJson);
+        resultsJson.put("paths", pathsJson);
         longRunningProcessQueueItem.put("results", resultsJson);
-        longRunningProcessQueueItem.put("resultsCount", results.getPaths().size());
+        longRunningProcessQueueItem.put("resultsCount", pathsJson.length());
+        longRunningProcessQueueItem.put("resultsTruncated", truncated);
+    }
+
+    private static int limit(String name, Integer requested, int defaultValue, int maximum) {
+        if (requested == null) {
+            return Math.min(defaultValue, maximum);
+        }
+        if (requested <= 0) {
+            throw new OpenLumifyException(name + " must be greater than 0, was " + requested);
+        }
+        return Math.min(requested, maximum);
     }
 
     private Authorizations getAuthorizations(String[] authorizations) {
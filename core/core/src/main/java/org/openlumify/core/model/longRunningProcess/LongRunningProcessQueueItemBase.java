@@ -9,6 +9,14 @@ public abstract class LongRunningProcessQueueItemBase {
         return this.getClass().getName();
     }
 
+    /**
+     * Processes enqueued by the system user are only stored, and so can be checkpointed, cancelled and report
+     * progress, when resumable. The stored process is deleted when it completes.
+     */
+    public boolean isResumable() {
+        return false;
+    }
+
     public static boolean isA(JSONObject json, Class<? extends LongRunningProcessQueueItemBase> clazz) {
         String type = json.optString("type");
         if (type == null) {
@@ -9,6 +9,8 @@ import java.util.List;
 
 public abstract class LongRunningProcessRepository {
     public static final String VISIBILITY_STRING = "longRunningProcess";
+    public static final String CHECKPOINT = "checkpoint";
+    public static final String RESUMABLE = "resumable";
 
     public abstract String enqueue(JSONObject longRunningProcessQueueItem, User user, Authorizations authorizations);
 
@@ -43,5 +45,13 @@ public abstract class LongRunningProcessRepository {
 
     public abstract void reportProgress(String longRunningProcessId, double progressPercent, String message);
 
+    /**
+     * Stores what a worker needs to resume the process if it is run again, under {@link #CHECKPOINT} in the
+     * queue item. Implementations that store processes must persist it with the process.
+     */
+    public void checkpoint(JSONObject longRunningProcessQueueItem, JSONObject checkpoint) {
+        longRunningProcessQueueItem.put(CHECKPOINT, checkpoint);
+    }
+
     public abstract void delete(String longRunningProcessId, User authUser);
 }
@@ -27,6 +27,11 @@ public class ReindexLongRunningProcessQueueItem extends LongRunningProcessQueueI
         return isA(jsonObject, ReindexLongRunningProcessQueueItem.class);
     }
 
+    @Override
+    public boolean isResumable() {
+        return true;
+    }
+
     public ElementType getElementType() {
         return elementType;
     }
@@ -1,9 +1,11 @@
 package org.openlumify.core.model.longRunningProcess;
 
+import com.codahale.metrics.Meter;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.json.JSONObject;
 import org.vertexium.*;
+import org.openlumify.core.config.Configuration;
 import org.openlumify.core.exception.OpenLumifyException;
 import org.openlumify.core.model.Description;
 import org.openlumify.core.model.Name;
@@ -13,27 +15,61 @@ import org.openlumify.core.util.ClientApiConverter;
 import org.openlumify.core.util.OpenLumifyLogger;
 import org.openlumify.core.util.OpenLumifyLoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Reindexes a range of elements. While a batch is being indexed the next one is fetched, at most
+ * {@link #CONFIG_PIPELINE_DEPTH} batches are fetched ahead. The id of the last indexed element is checkpointed in the
+ * long running process so a range that failed or was interrupted resumes after it when run again.
+ */
 @Name("Reindex")
 @Description("Reindexes the specified elements")
 @Singleton
 public class ReindexLongRunningProcessWorker extends LongRunningProcessWorker {
     private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(ReindexLongRunningProcessWorker.class);
+    public static final String CONFIG_PIPELINE_DEPTH = ReindexLongRunningProcessWorker.class.getName() + ".pipelineDepth";
+    public static final int DEFAULT_PIPELINE_DEPTH = 2;
+    public static final String CONFIG_CHECKPOINT_INTERVAL_MILLIS = ReindexLongRunningProcessWorker.class.getName() + ".checkpointIntervalMillis";
+    public static final long DEFAULT_CHECKPOINT_INTERVAL_MILLIS = 10000;
+    private static final String CHECKPOINT_LAST_INDEXED_ID = "lastIndexedId";
+    private static final String CHECKPOINT_INDEXED_COUNT = "indexedCount";
     private static final EnumSet<FetchHint> FETCH_HINTS = FetchHint.ALL;
     private final Authorizations authorizations;
     private final Graph graph;
+    private final UserRepository userRepository;
+    private final LongRunningProcessRepository longRunningProcessRepository;
+    private final int pipelineDepth;
+    private final long checkpointIntervalMillis;
+    private Meter elementsIndexedMeter;
 
     @Inject
     public ReindexLongRunningProcessWorker(
             Graph graph,
             UserRepository userRepository,
-            AuthorizationRepository authorizationRepository
+            AuthorizationRepository authorizationRepository,
+            LongRunningProcessRepository longRunningProcessRepository,
+            Configuration configuration
     ) {
         this.graph = graph;
+        this.userRepository = userRepository;
+        this.longRunningProcessRepository = longRunningProcessRepository;
         this.authorizations = authorizationRepository.getGraphAuthorizations(userRepository.getSystemUser());
+        this.pipelineDepth = Math.max(1, configuration.getInt(CONFIG_PIPELINE_DEPTH, DEFAULT_PIPELINE_DEPTH));
+        this.checkpointIntervalMillis = configuration.getLong(CONFIG_CHECKPOINT_INTERVAL_MILLIS, DEFAULT_CHECKPOINT_INTERVAL_MILLIS);
+    }
+
+    @Override
+    public void prepare(LongRunningWorkerPrepareData workerPrepareData) {
+        super.prepare(workerPrepareData);
+        elementsIndexedMeter = getMetricsManager().meter(this, "elements-indexed");
     }
 
     @Override
@@ -48,43 +84,180 @@ public class ReindexLongRunningProcessWorker extends LongRunningProcessWorker {
                 ReindexLongRunningProcessQueueItem.class
         );
         int batchSize = queueItem.getBatchSize();
-        Range range = new Range(queueItem.getStartId(), queueItem.getEndId());
+        RangeProgress progress = new RangeProgress(longRunningProcessQueueItem, queueItem.getStartId(), queueItem.getEndId());
+        JSONObject checkpoint = findCheckpoint(longRunningProcessQueueItem);
+        String startId = queueItem.getStartId();
+        if (checkpoint != null && checkpoint.has(CHECKPOINT_LAST_INDEXED_ID)) {
+            // '\0' sorts directly after the id, the range restarts with the next element
+            String lastIndexedId = checkpoint.getString(CHECKPOINT_LAST_INDEXED_ID);
+            startId = lastIndexedId + '\0';
+            progress.resume(lastIndexedId, checkpoint.optLong(CHECKPOINT_INDEXED_COUNT, 0));
+            LOGGER.info("resuming reindex %s after %s", queueItem.getElementType(), lastIndexedId);
+        }
+        Range range = new Range(startId, queueItem.getEndId());
         LOGGER.info("reindex %s %s", range, queueItem.getElementType());
         if (queueItem.getElementType() == ElementType.VERTEX) {
-            reindexVertices(range, batchSize, authorizations);
+            reindexVertices(range, batchSize, authorizations, progress);
         } else if (queueItem.getElementType() == ElementType.EDGE) {
-            reindexEdges(range, batchSize, authorizations);
+            reindexEdges(range, batchSize, authorizations, progress);
         } else {
             throw new OpenLumifyException("Unhandled element type: " + queueItem.getElementType());
         }
+        progress.report(true);
     }
 
-    public void reindexVertices(Range range, int batchSize, Authorizations authorizations) {
+    private JSONObject findCheckpoint(JSONObject longRunningProcessQueueItem) {
+        JSONObject checkpoint = longRunningProcessQueueItem.optJSONObject(LongRunningProcessRepository.CHECKPOINT);
+        if (checkpoint != null) {
+            return checkpoint;
+        }
+        // A redelivered queue item does not carry the checkpoint, the stored process does
+        String longRunningProcessId = longRunningProcessQueueItem.optString("id", null);
+        if (longRunningProcessId == null) {
+            return null;
+        }
+        JSONObject storedQueueItem = longRunningProcessRepository.findById(longRunningProcessId, userRepository.getSystemUser());
+        return storedQueueItem == null ? null : storedQueueItem.optJSONObject(LongRunningProcessRepository.CHECKPOINT);
+    }
+
+    private void reindexVertices(Range range, int batchSize, Authorizations authorizations, RangeProgress progress) {
         Iterable<Vertex> vertices = graph.getVerticesInRange(range, FETCH_HINTS, authorizations);
-        reindexElements(vertices, batchSize, authorizations);
+        reindexElements(vertices, batchSize, authorizations, progress);
     }
 
-    public void reindexEdges(Range range, int batchSize, Authorizations authorizations) {
+    private void reindexEdges(Range range, int batchSize, Authorizations authorizations, RangeProgress progress) {
         Iterable<Edge> edges = graph.getEdgesInRange(range, FETCH_HINTS, authorizations);
-        reindexElements(edges, batchSize, authorizations);
+        reindexElements(edges, batchSize, authorizations, progress);
     }
 
     private void reindexElements(
             Iterable<? extends Element> elements,
             int batchSize,
-            Authorizations authorizations
+            Authorizations authorizations,
+            RangeProgress progress
     ) {
-        List<Element> batch = new ArrayList<>(batchSize);
-        for (Element element : elements) {
-            batch.add(element);
-            if (batch.size() == batchSize) {
-                ((GraphWithSearchIndex) graph).getSearchIndex().addElements(graph, batch, authorizations);
-                batch.clear();
+        ExecutorService indexExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "reindex-" + Thread.currentThread().getName());
+            t.setDaemon(true);
+            return t;
+        });
+        Deque<Future<List<Element>>> inFlight = new ArrayDeque<>();
+        try {
+            List<Element> batch = new ArrayList<>(batchSize);
+            for (Element element : elements) {
+                batch.add(element);
+                if (batch.size() == batchSize) {
+                    inFlight.add(submitBatch(indexExecutor, batch, authorizations));
+                    batch = new ArrayList<>(batchSize);
+                    while (inFlight.size() > pipelineDepth || (inFlight.size() > 0 && inFlight.peek().isDone())) {
+                        progress.indexed(waitForBatch(inFlight.remove()));
+                    }
+                }
+            }
+            if (batch.size() > 0) {
+                inFlight.add(submitBatch(indexExecutor, batch, authorizations));
             }
+            while (inFlight.size() > 0) {
+                progress.indexed(waitForBatch(inFlight.remove()));
+            }
+        } finally {
+            indexExecutor.shutdownNow();
         }
-        if (batch.size() > 0) {
+    }
+
+    private Future<List<Element>> submitBatch(ExecutorService indexExecutor, List<Element> batch, Authorizations authorizations) {
+        return indexExecutor.submit(() -> {
             ((GraphWithSearchIndex) graph).getSearchIndex().addElements(graph, batch, authorizations);
-            batch.clear();
+            return batch;
+        });
+    }
+
+    private List<Element> waitForBatch(Future<List<Element>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OpenLumifyException("Interrupted while reindexing", ex);
+        } catch (ExecutionException ex) {
+            throw new OpenLumifyException("Could not reindex elements", ex.getCause());
+        }
+    }
+
+    /**
+     * Checkpoints and reports the progress of a range. Batches are indexed in order, so everything up to the last
+     * indexed id is in the index. The percent done is estimated from where that id falls between the range bounds.
+     */
+    private class RangeProgress {
+        private final JSONObject longRunningProcessQueueItem;
+        private final double start;
+        private final double end;
+        private final long startTime = System.currentTimeMillis();
+        private long indexedCount;
+        private long indexedSinceStart;
+        private long lastReportTime = startTime;
+        private String lastIndexedId;
+        private double resumedProgressPercent;
+
+        RangeProgress(JSONObject longRunningProcessQueueItem, String startId, String endId) {
+            this.longRunningProcessQueueItem = longRunningProcessQueueItem;
+            this.start = startId == null ? 0.0 : idToFraction(startId);
+            this.end = endId == null ? 1.0 : idToFraction(endId);
+        }
+
+        void resume(String lastIndexedId, long indexedCount) {
+            this.lastIndexedId = lastIndexedId;
+            this.indexedCount = indexedCount;
+            this.resumedProgressPercent = getProgressPercent();
+        }
+
+        void indexed(List<Element> batch) {
+            elementsIndexedMeter.mark(batch.size());
+            indexedCount += batch.size();
+            indexedSinceStart += batch.size();
+            lastIndexedId = batch.get(batch.size() - 1).getId();
+            report(false);
+        }
+
+        void report(boolean done) {
+            long now = System.currentTimeMillis();
+            if (!done && now - lastReportTime < checkpointIntervalMillis) {
+                return;
+            }
+            lastReportTime = now;
+
+            if (!done && lastIndexedId != null) {
+                JSONObject checkpoint = new JSONObject();
+                checkpoint.put(CHECKPOINT_LAST_INDEXED_ID, lastIndexedId);
+                checkpoint.put(CHECKPOINT_INDEXED_COUNT, indexedCount);
+                longRunningProcessRepository.checkpoint(longRunningProcessQueueItem, checkpoint);
+            }
+
+            double elementsPerSecond = indexedSinceStart * 1000.0 / Math.max(1, now - startTime);
+            double progressPercent = done ? 1.0 : getProgressPercent();
+            String message = String.format("%,d indexed (%,.0f/sec)", indexedCount, elementsPerSecond);
+            if (!done && progressPercent > resumedProgressPercent) {
+                double progressSinceStart = progressPercent - resumedProgressPercent;
+                long etaSeconds = (long) ((now - startTime) / 1000.0 * (1.0 - progressPercent) / progressSinceStart);
+                message += String.format(", about %d:%02d remaining", etaSeconds / 60, etaSeconds % 60);
+            }
+            longRunningProcessRepository.reportProgress(longRunningProcessQueueItem, progressPercent, message);
+        }
+
+        private double getProgressPercent() {
+            if (lastIndexedId == null || end <= start) {
+                return 0.0;
+            }
+            return Math.min(1.0, Math.max(0.0, (idToFraction(lastIndexedId) - start) / (end - start)));
+        }
+
+        private double idToFraction(String id) {
+            double result = 0.0;
+            double scale = 1.0;
+            for (int i = 0; i < Math.min(4, id.length()); i++) {
+                scale /= 0x10000;
+                result += id.charAt(i) * scale;
+            }
+            return result;
         }
     }
 }
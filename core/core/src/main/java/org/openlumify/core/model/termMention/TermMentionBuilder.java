@@ -4,7 +4,6 @@ import com.google.common.base.Charsets;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 import org.vertexium.*;
-import org.vertexium.mutation.EdgeMutation;
 import org.openlumify.core.model.properties.OpenLumifyProperties;
 import org.openlumify.core.security.OpenLumifyVisibility;
 import org.openlumify.core.security.VisibilityTranslator;
@@ -14,10 +13,14 @@ import org.openlumify.core.util.OpenLumifyLogger;
 import org.openlumify.core.util.OpenLumifyLoggerFactory;
 import org.openlumify.web.clientapi.model.VisibilityJson;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.vertexium.util.IterableUtils.toList;
 
 public class TermMentionBuilder {
     private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(TermMentionBuilder.class);
@@ -197,6 +200,50 @@ public class TermMentionBuilder {
      * Vertex             Mention                    Vertex
      */
     public Vertex save(Graph graph, VisibilityTranslator visibilityTranslator, User user, Authorizations authorizations) {
+        validate();
+        Date now = new Date();
+        String vertexId = createVertexId();
+        Visibility visibility = getVisibility(visibilityTranslator);
+        Authorizations termMentionAuthorizations = graph.createAuthorizations(authorizations, TermMentionRepository.VISIBILITY_STRING);
+        Vertex termMentionVertex = prepareVertex(graph, vertexId, visibility).save(termMentionAuthorizations);
+        for (ElementBuilder<Edge> edgeBuilder : prepareEdges(graph, vertexId, visibility, visibilityTranslator, user, now)) {
+            edgeBuilder.save(authorizations);
+        }
+        return termMentionVertex;
+    }
+
+    /**
+     * Saves several term mentions to the graph, all vertices in one call and then all edges in one call. The
+     * resulting graph is the same as calling {@link #save(Graph, VisibilityTranslator, User, Authorizations)} on
+     * each term mention.
+     */
+    public static List<Vertex> save(
+            Collection<TermMentionBuilder> termMentions,
+            Graph graph,
+            VisibilityTranslator visibilityTranslator,
+            User user,
+            Authorizations authorizations
+    ) {
+        if (termMentions.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Date now = new Date();
+        List<ElementBuilder<Vertex>> vertexBuilders = new ArrayList<>(termMentions.size());
+        List<ElementBuilder<Edge>> edgeBuilders = new ArrayList<>(termMentions.size());
+        for (TermMentionBuilder termMention : termMentions) {
+            termMention.validate();
+            String vertexId = termMention.createVertexId();
+            Visibility visibility = termMention.getVisibility(visibilityTranslator);
+            vertexBuilders.add(termMention.prepareVertex(graph, vertexId, visibility));
+            edgeBuilders.addAll(termMention.prepareEdges(graph, vertexId, visibility, visibilityTranslator, user, now));
+        }
+        Authorizations termMentionAuthorizations = graph.createAuthorizations(authorizations, TermMentionRepository.VISIBILITY_STRING);
+        List<Vertex> termMentionVertices = toList(graph.addVertices(vertexBuilders, termMentionAuthorizations));
+        graph.addEdges(edgeBuilders, authorizations);
+        return termMentionVertices;
+    }
+
+    private void validate() {
         checkNotNull(outVertex, "outVertex cannot be null");
         checkNotNull(propertyKey, "propertyKey cannot be null");
         checkNotNull(title, "title cannot be null");
@@ -212,11 +259,13 @@ public class TermMentionBuilder {
         if (propertyName == null) {
             LOGGER.warn("Not setting a propertyName when building a term mention is deprecated");
         }
+    }
 
-        Date now = new Date();
-        String vertexId = createVertexId();
-        Visibility defaultVisibility = visibilityTranslator.getDefaultVisibility();
-        Visibility visibility = OpenLumifyVisibility.and(visibilityTranslator.toVisibility(this.visibilityJson).getVisibility(), TermMentionRepository.VISIBILITY_STRING);
+    private Visibility getVisibility(VisibilityTranslator visibilityTranslator) {
+        return OpenLumifyVisibility.and(visibilityTranslator.toVisibility(this.visibilityJson).getVisibility(), TermMentionRepository.VISIBILITY_STRING);
+    }
+
+    private VertexBuilder prepareVertex(Graph graph, String vertexId, Visibility visibility) {
         VertexBuilder vertexBuilder = graph.prepareVertex(vertexId, visibility);
         OpenLumifyProperties.TERM_MENTION_VISIBILITY_JSON.setProperty(vertexBuilder, this.visibilityJson, visibility);
         OpenLumifyProperties.TERM_MENTION_CONCEPT_TYPE.setProperty(vertexBuilder, this.conceptIri, visibility);
@@ -238,35 +287,49 @@ public class TermMentionBuilder {
             OpenLumifyProperties.TERM_MENTION_FOR_ELEMENT_ID.setProperty(vertexBuilder, resolvedToVertexId, visibility);
             OpenLumifyProperties.TERM_MENTION_FOR_TYPE.setProperty(vertexBuilder, TermMentionFor.VERTEX, visibility);
         }
+        return vertexBuilder;
+    }
 
-        Authorizations termMentionAuthorizations = graph.createAuthorizations(authorizations, TermMentionRepository.VISIBILITY_STRING);
-        Vertex termMentionVertex = vertexBuilder.save(termMentionAuthorizations);
-
+    private List<ElementBuilder<Edge>> prepareEdges(
+            Graph graph,
+            String vertexId,
+            Visibility visibility,
+            VisibilityTranslator visibilityTranslator,
+            User user,
+            Date now
+    ) {
+        List<ElementBuilder<Edge>> edgeBuilders = new ArrayList<>();
         String hasTermMentionId = vertexId + "_hasTermMention";
-        EdgeBuilder termMentionEdgeBuilder = graph.prepareEdge(hasTermMentionId, this.outVertex, termMentionVertex, OpenLumifyProperties.TERM_MENTION_LABEL_HAS_TERM_MENTION, visibility);
-        OpenLumifyProperties.TERM_MENTION_VISIBILITY_JSON.setProperty(termMentionEdgeBuilder, this.visibilityJson, visibility);
-        OpenLumifyProperties.MODIFIED_BY.setProperty(termMentionEdgeBuilder, user.getUserId(), defaultVisibility);
-        OpenLumifyProperties.MODIFIED_DATE.setProperty(termMentionEdgeBuilder, now, defaultVisibility);
-        termMentionEdgeBuilder.save(authorizations);
+        edgeBuilders.add(prepareEdge(graph, hasTermMentionId, this.outVertex.getId(), vertexId, OpenLumifyProperties.TERM_MENTION_LABEL_HAS_TERM_MENTION, visibility, visibilityTranslator, user, now));
         if (this.resolvedToVertexId != null) {
             String resolvedToId = vertexId + "_resolvedTo";
-            EdgeMutation resolvedToEdgeBuilder = graph.prepareEdge(resolvedToId, termMentionVertex.getId(), resolvedToVertexId, OpenLumifyProperties.TERM_MENTION_LABEL_RESOLVED_TO, visibility);
-            OpenLumifyProperties.TERM_MENTION_VISIBILITY_JSON.setProperty(resolvedToEdgeBuilder, this.visibilityJson, visibility);
-            OpenLumifyProperties.MODIFIED_BY.setProperty(resolvedToEdgeBuilder, user.getUserId(), defaultVisibility);
-            OpenLumifyProperties.MODIFIED_DATE.setProperty(resolvedToEdgeBuilder, now, defaultVisibility);
-            resolvedToEdgeBuilder.save(authorizations);
+            edgeBuilders.add(prepareEdge(graph, resolvedToId, vertexId, resolvedToVertexId, OpenLumifyProperties.TERM_MENTION_LABEL_RESOLVED_TO, visibility, visibilityTranslator, user, now));
 
             if (this.resolvedFromTermMention != null) {
                 String resolvedFromId = vertexId + "_resolvedFrom";
-                EdgeMutation resolvedFromEdgeBuilder = graph.prepareEdge(resolvedFromId, termMentionVertex.getId(), resolvedFromTermMention, OpenLumifyProperties.TERM_MENTION_RESOLVED_FROM, visibility);
-                OpenLumifyProperties.TERM_MENTION_VISIBILITY_JSON.setProperty(resolvedFromEdgeBuilder, this.visibilityJson, visibility);
-                OpenLumifyProperties.MODIFIED_BY.setProperty(resolvedFromEdgeBuilder, user.getUserId(), defaultVisibility);
-                OpenLumifyProperties.MODIFIED_DATE.setProperty(resolvedFromEdgeBuilder, now, defaultVisibility);
-                resolvedFromEdgeBuilder.save(authorizations);
+                edgeBuilders.add(prepareEdge(graph, resolvedFromId, vertexId, resolvedFromTermMention, OpenLumifyProperties.TERM_MENTION_RESOLVED_FROM, visibility, visibilityTranslator, user, now));
             }
         }
+        return edgeBuilders;
+    }
 
-        return termMentionVertex;
+    private EdgeBuilderByVertexId prepareEdge(
+            Graph graph,
+            String edgeId,
+            String outVertexId,
+            String inVertexId,
+            String label,
+            Visibility visibility,
+            VisibilityTranslator visibilityTranslator,
+            User user,
+            Date now
+    ) {
+        Visibility defaultVisibility = visibilityTranslator.getDefaultVisibility();
+        EdgeBuilderByVertexId edgeBuilder = graph.prepareEdge(edgeId, outVertexId, inVertexId, label, visibility);
+        OpenLumifyProperties.TERM_MENTION_VISIBILITY_JSON.setProperty(edgeBuilder, this.visibilityJson, visibility);
+        OpenLumifyProperties.MODIFIED_BY.setProperty(edgeBuilder, user.getUserId(), defaultVisibility);
+        OpenLumifyProperties.MODIFIED_DATE.setProperty(edgeBuilder, now, defaultVisibility);
+        return edgeBuilder;
     }
 
     private String createVertexId() {
@@ -0,0 +1,60 @@
+package org.openlumify.core.model.thumbnails;
+
+import com.google.inject.Inject;
+import org.vertexium.Element;
+import org.vertexium.Property;
+import org.vertexium.Vertex;
+import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkData;
+import org.openlumify.core.ingest.graphProperty.GraphPropertyWorker;
+import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkerInterest;
+import org.openlumify.core.model.Description;
+import org.openlumify.core.model.Name;
+import org.openlumify.core.model.properties.OpenLumifyProperties;
+import org.openlumify.core.util.OpenLumifyPlugin;
+
+import java.io.InputStream;
+
+@Name("Thumbnail")
+@Description("Generates the default thumbnail of raw images at ingest time")
+@OpenLumifyPlugin(disabledByDefault = true)
+public class ThumbnailGraphPropertyWorker extends GraphPropertyWorker {
+    private final ThumbnailService thumbnailService;
+
+    @Inject
+    public ThumbnailGraphPropertyWorker(ThumbnailService thumbnailService) {
+        this.thumbnailService = thumbnailService;
+    }
+
+    @Override
+    public void execute(InputStream in, GraphPropertyWorkData data) throws Exception {
+        int[] boundaryDims = new int[]{ThumbnailService.DEFAULT_THUMBNAIL_SIZE, ThumbnailService.DEFAULT_THUMBNAIL_SIZE};
+        thumbnailService.createThumbnail(
+                (Vertex) data.getElement(),
+                data.getProperty().getKey(),
+                ThumbnailService.THUMBNAIL_TYPE_RAW,
+                in,
+                boundaryDims,
+                getUser()
+        );
+    }
+
+    @Override
+    public GraphPropertyWorkerInterest getInterest() {
+        // edges can have raw images too, isHandled only accepts vertices
+        return GraphPropertyWorkerInterest.forProperties(OpenLumifyProperties.RAW.getPropertyName())
+                .setMimeTypePrefixes("image")
+                .setHandledChecked(true);
+    }
+
+    @Override
+    public boolean isHandled(Element element, Property property) {
+        if (!(element instanceof Vertex) || property == null) {
+            return false;
+        }
+        if (!property.getName().equals(OpenLumifyProperties.RAW.getPropertyName())) {
+            return false;
+        }
+        String mimeType = OpenLumifyProperties.MIME_TYPE_METADATA.getMetadataValue(property.getMetadata(), null);
+        return mimeType != null && mimeType.startsWith("image");
+    }
+}
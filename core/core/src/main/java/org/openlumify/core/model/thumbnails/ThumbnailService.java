@@ -0,0 +1,149 @@
+package org.openlumify.core.model.thumbnails;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.vertexium.Property;
+import org.vertexium.Vertex;
+import org.vertexium.property.StreamingPropertyValue;
+import org.openlumify.core.cache.CacheOptions;
+import org.openlumify.core.cache.CacheService;
+import org.openlumify.core.config.Configuration;
+import org.openlumify.core.exception.OpenLumifyException;
+import org.openlumify.core.exception.OpenLumifyResourceNotFoundException;
+import org.openlumify.core.model.properties.OpenLumifyProperties;
+import org.openlumify.core.user.User;
+import org.openlumify.core.util.OpenLumifyLogger;
+import org.openlumify.core.util.OpenLumifyLoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves thumbnails from an in-process cache in front of the {@link ThumbnailRepository}. Thumbnails missing from
+ * both are generated from the vertex's raw property on a bounded pool of threads, concurrent requests for the same
+ * vertex, type and size wait for a single generation.
+ */
+@Singleton
+public class ThumbnailService {
+    private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(ThumbnailService.class);
+    public static final String CONFIG_CACHE_MAXIMUM_BYTES = ThumbnailService.class.getName() + ".cacheMaximumBytes";
+    public static final long DEFAULT_CACHE_MAXIMUM_BYTES = 64 * 1024 * 1024;
+    public static final String CONFIG_GENERATION_THREAD_COUNT = ThumbnailService.class.getName() + ".generationThreadCount";
+    public static final int DEFAULT_GENERATION_THREAD_COUNT = 2;
+    public static final String CONFIG_GENERATION_QUEUE_SIZE = ThumbnailService.class.getName() + ".generationQueueSize";
+    public static final int DEFAULT_GENERATION_QUEUE_SIZE = 100;
+    public static final String THUMBNAIL_TYPE_RAW = "raw";
+    public static final int DEFAULT_THUMBNAIL_SIZE = 200;
+    private static final String CACHE_NAME = ThumbnailService.class.getName() + ".thumbnails";
+    private final ThumbnailRepository thumbnailRepository;
+    private final CacheService cacheService;
+    private final CacheOptions cacheOptions;
+    private final ExecutorService generationExecutor;
+    private final ConcurrentMap<String, CompletableFuture<Thumbnail>> generating = new ConcurrentHashMap<>();
+
+    @Inject
+    public ThumbnailService(
+            ThumbnailRepository thumbnailRepository,
+            CacheService cacheService,
+            Configuration configuration
+    ) {
+        this.thumbnailRepository = thumbnailRepository;
+        this.cacheService = cacheService;
+        this.cacheOptions = new CacheOptions()
+                .setMaximumWeight(
+                        configuration.getLong(CONFIG_CACHE_MAXIMUM_BYTES, DEFAULT_CACHE_MAXIMUM_BYTES),
+                        (String key, Thumbnail thumbnail) -> thumbnail.getData().length
+                );
+
+        int threadCount = Math.max(1, configuration.getInt(CONFIG_GENERATION_THREAD_COUNT, DEFAULT_GENERATION_THREAD_COUNT));
+        int queueSize = Math.max(1, configuration.getInt(CONFIG_GENERATION_QUEUE_SIZE, DEFAULT_GENERATION_QUEUE_SIZE));
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threadCount, threadCount,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                r -> {
+                    Thread t = new Thread(r, "thumbnail-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                // a full queue slows callers down to the rate thumbnails can be generated at
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        this.generationExecutor = executor;
+    }
+
+    /**
+     * Gets a thumbnail of the vertex's raw property, generating and storing it if it does not exist yet.
+     */
+    public Thumbnail getThumbnail(Vertex vertex, String thumbnailType, int[] boundaryDims, String workspaceId, User user) {
+        String key = Thumbnail.createId(vertex.getId(), thumbnailType, boundaryDims[0], boundaryDims[1]);
+        Thumbnail thumbnail = cacheService.getIfPresent(CACHE_NAME, key);
+        if (thumbnail != null) {
+            LOGGER.debug("Cache hit for: %s (%s) %d x %d", vertex.getId(), thumbnailType, boundaryDims[0], boundaryDims[1]);
+            return thumbnail;
+        }
+
+        thumbnail = thumbnailRepository.getThumbnail(vertex.getId(), thumbnailType, boundaryDims[0], boundaryDims[1], workspaceId, user);
+        if (thumbnail != null && thumbnail.getData() != null) {
+            LOGGER.debug("Repository hit for: %s (%s) %d x %d", vertex.getId(), thumbnailType, boundaryDims[0], boundaryDims[1]);
+            return cacheService.put(CACHE_NAME, key, thumbnail, cacheOptions);
+        }
+
+        CompletableFuture<Thumbnail> future = new CompletableFuture<>();
+        CompletableFuture<Thumbnail> existing = generating.putIfAbsent(key, future);
+        if (existing != null) {
+            LOGGER.debug("Waiting for generation of: %s (%s) %d x %d", vertex.getId(), thumbnailType, boundaryDims[0], boundaryDims[1]);
+            return waitForThumbnail(existing);
+        }
+
+        LOGGER.info("Cache miss for: %s (%s) %d x %d", vertex.getId(), thumbnailType, boundaryDims[0], boundaryDims[1]);
+        generationExecutor.execute(() -> {
+            try {
+                future.complete(generateFromRaw(vertex, thumbnailType, boundaryDims, user));
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            } finally {
+                generating.remove(key, future);
+            }
+        });
+        return waitForThumbnail(future);
+    }
+
+    /**
+     * Generates and stores a thumbnail, replacing a cached one. Used when the raw property is known to have changed.
+     */
+    public Thumbnail createThumbnail(Vertex vertex, String propertyKey, String thumbnailType, InputStream in, int[] boundaryDims, User user) {
+        Thumbnail thumbnail = thumbnailRepository.createThumbnail(vertex, propertyKey, thumbnailType, in, boundaryDims, user);
+        String key = Thumbnail.createId(vertex.getId(), thumbnailType, boundaryDims[0], boundaryDims[1]);
+        return cacheService.put(CACHE_NAME, key, thumbnail, cacheOptions);
+    }
+
+    private Thumbnail generateFromRaw(Vertex vertex, String thumbnailType, int[] boundaryDims, User user) throws IOException {
+        Property rawProperty = OpenLumifyProperties.RAW.getProperty(vertex);
+        StreamingPropertyValue rawPropertyValue = OpenLumifyProperties.RAW.getPropertyValue(vertex);
+        if (rawProperty == null || rawPropertyValue == null) {
+            throw new OpenLumifyResourceNotFoundException("Could not find raw property on vertex: " + vertex.getId());
+        }
+        try (InputStream in = rawPropertyValue.getInputStream()) {
+            return createThumbnail(vertex, rawProperty.getKey(), thumbnailType, in, boundaryDims, user);
+        }
+    }
+
+    private Thumbnail waitForThumbnail(CompletableFuture<Thumbnail> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OpenLumifyException("Interrupted while generating thumbnail", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new OpenLumifyException("Could not generate thumbnail", ex.getCause());
+        }
+    }
+}
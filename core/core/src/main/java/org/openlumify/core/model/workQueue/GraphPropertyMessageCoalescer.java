@@ -0,0 +1,269 @@
+package org.openlumify.core.model.workQueue;
+
+import org.openlumify.core.ingest.graphProperty.ElementOrPropertyStatus;
+import org.openlumify.core.ingest.graphProperty.GraphPropertyMessage;
+import org.openlumify.core.util.OpenLumifyLogger;
+import org.openlumify.core.util.OpenLumifyLoggerFactory;
+import org.openlumify.core.util.ShutdownListener;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Holds graph property messages for a short window and merges pending messages for the same element. Messages of
+ * an element are delivered in the order they arrived: consecutive property updates are merged into one message, and
+ * each deletion or hide is its own message between them. Only repeats of the same property and status are merged, so
+ * an unhide is still delivered as an unhide next to an update of the same property. A merged message has the highest
+ * priority of the messages it holds. Messages that are not for a single element and specific properties, or that
+ * have tracing enabled, are passed through immediately after the messages held for their elements.
+ * <p>
+ * Messages are handed to the sink in order by one thread at a time, outside the lock producers coalesce under, so a
+ * slow sink only holds up producers once too many messages are waiting for it.
+ */
+public class GraphPropertyMessageCoalescer implements ShutdownListener {
+    private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(GraphPropertyMessageCoalescer.class);
+    private final Consumer<GraphPropertyMessage> sink;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private static final int MAX_OUTGOING_MESSAGES = 10000;
+    private final Map<String, PendingElement> pendingElements = new LinkedHashMap<>();
+    private final Deque<GraphPropertyMessage> outgoingMessages = new ArrayDeque<>();
+    private final ReentrantLock sinkLock = new ReentrantLock();
+
+    public GraphPropertyMessageCoalescer(long windowMillis, Consumer<GraphPropertyMessage> sink) {
+        this.sink = sink;
+        this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "graphPropertyMessageCoalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduledExecutorService.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (Throwable ex) {
+                LOGGER.error("Could not flush coalesced graph property messages", ex);
+            }
+        }, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void push(GraphPropertyMessage message) {
+        coalesce(message);
+        sendOutgoingMessages(false);
+    }
+
+    // messages are queued for the sink while holding the lock so no message can overtake one held for its element
+    private synchronized void coalesce(GraphPropertyMessage message) {
+        List<String> elementIds = getElementIds(message);
+        if (elementIds.size() != 1 || !isCoalescable(message)) {
+            for (String elementId : elementIds) {
+                flush(elementId);
+            }
+            outgoingMessages.add(message);
+            return;
+        }
+
+        String elementId = elementIds.get(0);
+        PendingElement pendingElement = pendingElements.get(elementId);
+        if (pendingElement != null && !pendingElement.isSameContext(message)) {
+            flush(elementId);
+            pendingElement = null;
+        }
+        if (pendingElement == null) {
+            pendingElement = new PendingElement(message);
+            pendingElements.put(elementId, pendingElement);
+        }
+        pendingElement.add(message);
+    }
+
+    /**
+     * Passes every held message to the sink before returning.
+     */
+    public void flush() {
+        flushPendingElements();
+        sendOutgoingMessages(true);
+    }
+
+    private synchronized void flushPendingElements() {
+        for (PendingElement pendingElement : pendingElements.values()) {
+            outgoingMessages.addAll(pendingElement.toMessages());
+        }
+        pendingElements.clear();
+    }
+
+    private void flush(String elementId) {
+        PendingElement pendingElement = pendingElements.remove(elementId);
+        if (pendingElement != null) {
+            outgoingMessages.addAll(pendingElement.toMessages());
+        }
+    }
+
+    /**
+     * Without wait, a thread that finds another one sending leaves its messages to it, the sending thread checks for
+     * new messages before it lets go of the sink.
+     */
+    private void sendOutgoingMessages(boolean wait) {
+        while (hasOutgoingMessages()) {
+            if (wait || isOutgoingFull()) {
+                sinkLock.lock();
+            } else if (!sinkLock.tryLock()) {
+                return;
+            }
+            try {
+                GraphPropertyMessage message;
+                while ((message = pollOutgoingMessage()) != null) {
+                    sink.accept(message);
+                }
+            } finally {
+                sinkLock.unlock();
+            }
+        }
+    }
+
+    private synchronized boolean hasOutgoingMessages() {
+        return !outgoingMessages.isEmpty();
+    }
+
+    private synchronized boolean isOutgoingFull() {
+        return outgoingMessages.size() >= MAX_OUTGOING_MESSAGES;
+    }
+
+    private synchronized GraphPropertyMessage pollOutgoingMessage() {
+        return outgoingMessages.poll();
+    }
+
+    public void close() {
+        scheduledExecutorService.shutdown();
+        flush();
+    }
+
+    @Override
+    public void shutdown() {
+        close();
+    }
+
+    private static boolean isCoalescable(GraphPropertyMessage message) {
+        if (message.isTraceEnabled()) {
+            return false;
+        }
+        boolean hasProperties = message.getProperties() != null && message.getProperties().length > 0;
+        return hasProperties || message.getPropertyKey() != null || message.getPropertyName() != null;
+    }
+
+    private static List<String> getElementIds(GraphPropertyMessage message) {
+        List<String> elementIds = new ArrayList<>();
+        if (message.getGraphVertexId() != null) {
+            for (String vertexId : message.getGraphVertexId()) {
+                elementIds.add("v:" + vertexId);
+            }
+        }
+        if (message.getGraphEdgeId() != null) {
+            for (String edgeId : message.getGraphEdgeId()) {
+                elementIds.add("e:" + edgeId);
+            }
+        }
+        return elementIds;
+    }
+
+    private static class PendingElement {
+        private final GraphPropertyMessage template;
+        private final List<Segment> segments = new ArrayList<>();
+
+        PendingElement(GraphPropertyMessage template) {
+            this.template = template;
+        }
+
+        boolean isSameContext(GraphPropertyMessage message) {
+            return Objects.equals(template.getWorkspaceId(), message.getWorkspaceId())
+                    && Objects.equals(template.getVisibilitySource(), message.getVisibilitySource());
+        }
+
+        void add(GraphPropertyMessage message) {
+            Priority priority = message.getPriority() == null ? Priority.NORMAL : message.getPriority();
+            if (message.getProperties() != null && message.getProperties().length > 0) {
+                for (GraphPropertyMessage.Property property : message.getProperties()) {
+                    add(property, priority);
+                }
+            } else {
+                add(new GraphPropertyMessage.Property()
+                        .setPropertyKey(message.getPropertyKey())
+                        .setPropertyName(message.getPropertyName())
+                        .setStatus(message.getStatus())
+                        .setBeforeActionTimestamp(message.getBeforeActionTimestamp()), priority);
+            }
+        }
+
+        /**
+         * Updates are added to the trailing run of updates. Deletions and hides need the element as it was before
+         * the action so each starts a segment of its own, unless it repeats the segment before it.
+         */
+        private void add(GraphPropertyMessage.Property property, Priority priority) {
+            boolean update = isUpdate(property);
+            // a missing status is handled as an update
+            ElementOrPropertyStatus status = property.getStatus() == null ? ElementOrPropertyStatus.UPDATE : property.getStatus();
+            String key = property.getPropertyKey() + "\u001f" + property.getPropertyName() + "\u001f" + status;
+            Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            boolean sameKindAsLast = segment != null && (update ? segment.isUpdate() : segment.properties.containsKey(key));
+            if (!sameKindAsLast) {
+                segment = new Segment();
+                segments.add(segment);
+            }
+            segment.raisePriority(priority);
+            GraphPropertyMessage.Property existing = segment.properties.get(key);
+            if (existing == null) {
+                segment.properties.put(key, property);
+            } else if (property.getBeforeActionTimestamp() != null
+                    && (existing.getBeforeActionTimestamp() == null || property.getBeforeActionTimestamp() < existing.getBeforeActionTimestamp())) {
+                existing.setBeforeActionTimestamp(property.getBeforeActionTimestamp());
+            }
+        }
+
+        private static boolean isUpdate(GraphPropertyMessage.Property property) {
+            return property.getStatus() != ElementOrPropertyStatus.DELETION && property.getStatus() != ElementOrPropertyStatus.HIDDEN;
+        }
+
+        List<GraphPropertyMessage> toMessages() {
+            List<GraphPropertyMessage> messages = new ArrayList<>();
+            for (Segment segment : segments) {
+                messages.add(createMessage(new ArrayList<>(segment.properties.values()), segment.priority));
+            }
+            return messages;
+        }
+
+        private GraphPropertyMessage createMessage(List<GraphPropertyMessage.Property> messageProperties, Priority priority) {
+            GraphPropertyMessage message = new GraphPropertyMessage();
+            message.setPriority(priority);
+            message.setGraphVertexId(template.getGraphVertexId());
+            message.setGraphEdgeId(template.getGraphEdgeId());
+            message.setWorkspaceId(template.getWorkspaceId());
+            message.setVisibilitySource(template.getVisibilitySource());
+            if (messageProperties.size() == 1) {
+                GraphPropertyMessage.Property property = messageProperties.get(0);
+                message.setPropertyKey(property.getPropertyKey());
+                message.setPropertyName(property.getPropertyName());
+                message.setStatus(property.getStatus());
+                message.setBeforeActionTimestamp(property.getBeforeActionTimestamp());
+            } else {
+                message.setProperties(messageProperties.toArray(new GraphPropertyMessage.Property[messageProperties.size()]));
+            }
+            return message;
+        }
+    }
+
+    private static class Segment {
+        private final Map<String, GraphPropertyMessage.Property> properties = new LinkedHashMap<>();
+        private Priority priority;
+
+        boolean isUpdate() {
+            return PendingElement.isUpdate(properties.values().iterator().next());
+        }
+
+        void raisePriority(Priority messagePriority) {
+            if (priority == null || messagePriority.ordinal() > priority.ordinal()) {
+                priority = messagePriority;
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.openlumify.core.model.workQueue;
 
 import com.google.common.collect.Sets;
+import com.google.inject.Inject;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.vertexium.*;
@@ -31,6 +32,7 @@ import org.openlumify.core.user.User;
 import org.openlumify.core.util.ClientApiConverter;
 import org.openlumify.core.util.OpenLumifyLogger;
 import org.openlumify.core.util.OpenLumifyLoggerFactory;
+import org.openlumify.core.util.ShutdownService;
 import org.openlumify.web.clientapi.model.ClientApiWorkspace;
 
 import java.util.*;
@@ -39,6 +41,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 public abstract class WorkQueueRepository {
     protected static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(WorkQueueRepository.class);
+    public static final String CONFIG_COALESCE_WINDOW_MILLIS = WorkQueueRepository.class.getName() + ".coalesceWindowMillis";
+    public static final long DEFAULT_COALESCE_WINDOW_MILLIS = 0;
+    public static final String CONFIG_BINARY_GRAPH_PROPERTY_MESSAGES = WorkQueueRepository.class.getName() + ".binaryGraphPropertyMessages";
+    public static final boolean DEFAULT_BINARY_GRAPH_PROPERTY_MESSAGES = false;
     private final Configuration configuration;
     private final WorkQueueNames workQueueNames;
     private final Graph graph;
@@ -46,6 +52,8 @@ public abstract class WorkQueueRepository {
     private AuthorizationRepository authorizationRepository;
     private WorkspaceRepository workspaceRepository;
     private UserRepository userRepository;
+    private final GraphPropertyMessageCoalescer graphPropertyMessageCoalescer;
+    private final boolean binaryGraphPropertyMessages;
 
     protected WorkQueueRepository(
             Graph graph,
@@ -55,6 +63,16 @@ public abstract class WorkQueueRepository {
         this.graph = graph;
         this.workQueueNames = workQueueNames;
         this.configuration = configuration;
+        this.binaryGraphPropertyMessages = configuration.getBoolean(CONFIG_BINARY_GRAPH_PROPERTY_MESSAGES, DEFAULT_BINARY_GRAPH_PROPERTY_MESSAGES);
+        Long coalesceWindowMillis = configuration.getLong(CONFIG_COALESCE_WINDOW_MILLIS, DEFAULT_COALESCE_WINDOW_MILLIS);
+        if (coalesceWindowMillis != null && coalesceWindowMillis > 0) {
+            this.graphPropertyMessageCoalescer = new GraphPropertyMessageCoalescer(
+                    coalesceWindowMillis,
+                    message -> pushOnQueue(workQueueNames.getGraphPropertyQueueName(), toBytes(message), message.getPriority())
+            );
+        } else {
+            this.graphPropertyMessageCoalescer = null;
+        }
     }
 
     public void pushGraphPropertyQueue(Element element, Property property, Priority priority) {
@@ -126,7 +144,28 @@ public abstract class WorkQueueRepository {
             data.setVisibilitySource(visibilitySource);
         }
 
-        pushOnQueue(workQueueNames.getGraphPropertyQueueName(), data.toBytes(), priority);
+        pushGraphPropertyMessage(data, priority);
+    }
+
+    private void pushGraphPropertyMessage(GraphPropertyMessage data, Priority priority) {
+        if (graphPropertyMessageCoalescer == null) {
+            pushOnQueue(workQueueNames.getGraphPropertyQueueName(), toBytes(data), priority);
+        } else {
+            graphPropertyMessageCoalescer.push(data);
+        }
+    }
+
+    private byte[] toBytes(GraphPropertyMessage data) {
+        return binaryGraphPropertyMessages ? data.toBinaryBytes() : data.toBytes();
+    }
+
+    /**
+     * Pushes any graph property messages held back for coalescing onto the graph property queue.
+     */
+    public void flushCoalescedGraphPropertyMessages() {
+        if (graphPropertyMessageCoalescer != null) {
+            graphPropertyMessageCoalescer.flush();
+        }
     }
 
     private void addElementTypeToJson(GraphPropertyMessage data, Element element) {
@@ -361,7 +400,7 @@ public abstract class WorkQueueRepository {
         data.setGraphVertexId(vertices.toArray(new String[vertices.size()]));
         data.setGraphEdgeId(edges.toArray(new String[edges.size()]));
 
-        pushOnQueue(workQueueNames.getGraphPropertyQueueName(), data.toBytes(), priority);
+        pushGraphPropertyMessage(data, priority);
 
         for (Element element : elements) {
             if (shouldBroadcastGraphPropertyChange(element, propertyKey, propertyName, workspaceId, priority)) {
@@ -397,7 +436,7 @@ public abstract class WorkQueueRepository {
         addElementTypeToJson(data, element);
 
         if (canHandle(element, property, status)) {
-            pushOnQueue(workQueueNames.getGraphPropertyQueueName(), data.toBytes(), priority);
+            pushGraphPropertyMessage(data, priority);
         }
 
         if (shouldBroadcastGraphPropertyChange(element, propertyKey, propertyName, workspaceId, priority)) {
@@ -432,7 +471,7 @@ public abstract class WorkQueueRepository {
         addElementTypeToJson(data, element);
 
         if (canHandle(element, propertyKey, propertyName, status)) {
-            pushOnQueue(workQueueNames.getGraphPropertyQueueName(), data.toBytes(), priority);
+            pushGraphPropertyMessage(data, priority);
         }
 
         if (shouldBroadcastGraphPropertyChange(element, propertyKey, propertyName, workspaceId, priority)) {
@@ -507,7 +546,7 @@ public abstract class WorkQueueRepository {
         }
 
         if (canHandle(element, null, null)) {
-            pushOnQueue(workQueueNames.getGraphPropertyQueueName(), data.toBytes(), priority);
+            pushGraphPropertyMessage(data, priority);
         }
     }
 
@@ -521,7 +560,7 @@ public abstract class WorkQueueRepository {
         GraphPropertyMessage data = new GraphPropertyMessage();
         data.setPriority(priority);
         data.setGraphVertexId(new String[]{vertexId});
-        pushOnQueue(workQueueNames.getGraphPropertyQueueName(), data.toBytes(), priority);
+        pushGraphPropertyMessage(data, priority);
     }
 
     protected boolean shouldBroadcastGraphPropertyChange(
@@ -1307,6 +1346,16 @@ public abstract class WorkQueueRepository {
         return json;
     }
 
+    /**
+     * Registers for shutdown so graph property messages held back for coalescing are pushed before exiting.
+     */
+    @Inject
+    public void setShutdownService(ShutdownService shutdownService) {
+        if (graphPropertyMessageCoalescer != null) {
+            shutdownService.register(graphPropertyMessageCoalescer);
+        }
+    }
+
     public void setGraphPropertyRunner(GraphPropertyRunner graphPropertyRunner) {
         this.graphPropertyRunner = graphPropertyRunner;
     }
@@ -16,9 +16,8 @@ import org.openlumify.core.util.SandboxStatusUtil;
 import org.openlumify.web.clientapi.model.ClientApiWorkspaceDiff;
 import org.openlumify.web.clientapi.model.SandboxStatus;
 
-import java.util.ArrayList;
-import java.util.EnumSet;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.vertexium.util.IterableUtils.toList;
 
@@ -57,17 +56,17 @@ public class WorkspaceDiffHelper {
         );
 
         ClientApiWorkspaceDiff result = new ClientApiWorkspaceDiff();
+        List<Vertex> entityVertices = new ArrayList<>();
         for (WorkspaceEntity workspaceEntity : workspaceEntities) {
-            List<ClientApiWorkspaceDiff.Item> entityDiffs = diffWorkspaceEntity(
-                    workspace,
-                    workspaceEntity,
-                    userContext,
-                    authorizations
-            );
-            if (entityDiffs != null) {
-                result.addAll(entityDiffs);
+            Vertex entityVertex = getEntityVertex(workspaceEntity, authorizations);
+            if (entityVertex != null) {
+                entityVertices.add(entityVertex);
             }
         }
+        Map<String, String> deletedVertexTitles = evaluateDeletedVertexTitles(entityVertices, userContext, authorizations);
+        for (Vertex entityVertex : entityVertices) {
+            result.addAll(diffEntityVertex(workspace, entityVertex, deletedVertexTitles, authorizations));
+        }
 
         for (Edge workspaceEdge : workspaceEdges) {
             List<ClientApiWorkspaceDiff.Item> entityDiffs = diffEdge(workspace, workspaceEdge, authorizations);
@@ -140,18 +139,56 @@ public class WorkspaceDiffHelper {
             FormulaEvaluator.UserContext userContext,
             Authorizations authorizations
     ) {
-        List<ClientApiWorkspaceDiff.Item> result = new ArrayList<>();
+        Vertex entityVertex = getEntityVertex(workspaceEntity, authorizations);
+
+        // vertex can be null if the user doesn't have access to the entity
+        if (entityVertex == null) {
+            return null;
+        }
 
+        Map<String, String> deletedVertexTitles = evaluateDeletedVertexTitles(
+                Collections.singletonList(entityVertex),
+                userContext,
+                authorizations
+        );
+        return diffEntityVertex(workspace, entityVertex, deletedVertexTitles, authorizations);
+    }
+
+    private Vertex getEntityVertex(WorkspaceEntity workspaceEntity, Authorizations authorizations) {
         EnumSet<FetchHint> hints = EnumSet.of(FetchHint.PROPERTIES, FetchHint.PROPERTY_METADATA, FetchHint.INCLUDE_HIDDEN);
         // Workspace vertex will be null if deleted, so retrieve with hidden
-        Vertex entityVertex = workspaceEntity.getVertex() == null ?
+        return workspaceEntity.getVertex() == null ?
             this.graph.getVertex(workspaceEntity.getEntityVertexId(), hints, authorizations) :
             workspaceEntity.getVertex();
+    }
 
-        // vertex can be null if the user doesn't have access to the entity
-        if (entityVertex == null) {
-            return null;
+    /**
+     * Only deleted vertices are reported with a title. Their titles are evaluated in one batch so the formula
+     * evaluator is entered once per diff instead of once per deleted vertex.
+     */
+    private Map<String, String> evaluateDeletedVertexTitles(
+            List<Vertex> vertices,
+            FormulaEvaluator.UserContext userContext,
+            Authorizations authorizations
+    ) {
+        List<Vertex> deletedVertices = vertices.stream()
+                .filter(vertex -> WorkspaceDiffHelper.isPublicDelete(vertex, authorizations))
+                .collect(Collectors.toList());
+        List<FormulaEvaluator.FormulaResults> results = formulaEvaluator.evaluateBatch(deletedVertices, userContext, null);
+        Map<String, String> titles = new HashMap<>();
+        for (int i = 0; i < deletedVertices.size(); i++) {
+            titles.put(deletedVertices.get(i).getId(), results.get(i).getTitle());
         }
+        return titles;
+    }
+
+    private List<ClientApiWorkspaceDiff.Item> diffEntityVertex(
+            Workspace workspace,
+            Vertex entityVertex,
+            Map<String, String> deletedVertexTitles,
+            Authorizations authorizations
+    ) {
+        List<ClientApiWorkspaceDiff.Item> result = new ArrayList<>();
 
         SandboxStatus sandboxStatus = SandboxStatusUtil.getSandboxStatus(entityVertex, workspace.getWorkspaceId());
         boolean isPrivateChange = sandboxStatus != SandboxStatus.PUBLIC;
@@ -160,7 +197,7 @@ public class WorkspaceDiffHelper {
             result.add(createWorkspaceDiffVertexItem(
                     entityVertex,
                     sandboxStatus,
-                    userContext,
+                    isPublicDelete ? deletedVertexTitles.get(entityVertex.getId()) : null,
                     isPublicDelete
             ));
         }
@@ -176,11 +213,10 @@ public class WorkspaceDiffHelper {
     private ClientApiWorkspaceDiff.VertexItem createWorkspaceDiffVertexItem(
             Vertex vertex,
             SandboxStatus sandboxStatus,
-            FormulaEvaluator.UserContext userContext,
+            String title,
             boolean deleted
     ) {
         String vertexId = vertex.getId();
-        String title = deleted ? formulaEvaluator.evaluateTitleFormula(vertex, userContext, null) : null;
         String conceptType = OpenLumifyProperties.CONCEPT_TYPE.getPropertyValue(vertex);
         Property visibilityJsonProperty = OpenLumifyProperties.VISIBILITY_JSON.getProperty(vertex);
         JsonNode visibilityJson = visibilityJsonProperty == null ? null : JSONUtil.toJsonNode(JsonSerializer.toJsonProperty(
@@ -7,6 +7,7 @@ import org.vertexium.Property;
 import org.vertexium.Vertex;
 import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkData;
 import org.openlumify.core.ingest.graphProperty.GraphPropertyWorker;
+import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkerInterest;
 import org.openlumify.core.model.Description;
 import org.openlumify.core.model.Name;
 import org.openlumify.core.model.properties.OpenLumifyProperties;
@@ -30,6 +31,12 @@ public class PingGraphPropertyWorker extends GraphPropertyWorker {
         pingUtil.gpwUpdate(vertex, getGraph(), getAuthorizations());
     }
 
+    @Override
+    public GraphPropertyWorkerInterest getInterest() {
+        return GraphPropertyWorkerInterest.forElements()
+                .setConceptTypes(PingOntology.IRI_CONCEPT_PING);
+    }
+
     @Override
     public boolean isHandled(Element element, Property property) {
         return element instanceof Vertex
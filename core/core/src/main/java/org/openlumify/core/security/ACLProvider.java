@@ -14,6 +14,7 @@ import org.openlumify.core.util.OpenLumifyLoggerFactory;
 import org.openlumify.web.clientapi.model.*;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -217,7 +218,7 @@ public abstract class ACLProvider {
     public final ClientApiElementAcl elementACL(ClientApiElement clientApiElement, User user, String workspaceId) {
         Set<String> privileges = privilegeRepository.getPrivileges(user);
         OntologyElement ontologyElement = getOntologyElement(clientApiElement, workspaceId);
-        return elementACL(clientApiElement, ontologyElement, null, privileges, user, workspaceId);
+        return elementACL(clientApiElement, ontologyElement, null, privileges, user, workspaceId, new AclPlan());
     }
 
     private ClientApiElementAcl elementACL(
@@ -226,7 +227,8 @@ public abstract class ACLProvider {
             Ontology ontology,
             Set<String> privileges,
             User user,
-            String workspaceId
+            String workspaceId,
+            AclPlan plan
     ) {
         checkNotNull(clientApiElement, "clientApiElement is required");
         ClientApiElementAcl elementAcl = new ClientApiElementAcl();
@@ -243,7 +245,7 @@ public abstract class ACLProvider {
                     LOGGER.warn("Could not find concept: %s", iri);
                     break;
                 }
-                populatePropertyAcls(concept, clientApiElement, ontologyElement, ontology, privileges, user, workspaceId, propertyAcls);
+                populatePropertyAcls(concept, clientApiElement, ontologyElement, ontology, privileges, user, workspaceId, propertyAcls, plan);
                 iri = concept.getParentConceptIRI();
             }
         } else if (clientApiElement instanceof ClientApiEdge) {
@@ -254,7 +256,7 @@ public abstract class ACLProvider {
                     LOGGER.warn("Could not find relationship: %s", iri);
                     break;
                 }
-                populatePropertyAcls(relationship, clientApiElement, ontologyElement, ontology, privileges, user, workspaceId, propertyAcls);
+                populatePropertyAcls(relationship, clientApiElement, ontologyElement, ontology, privileges, user, workspaceId, propertyAcls, plan);
                 iri = relationship.getParentIRI();
             }
         } else {
@@ -269,31 +271,46 @@ public abstract class ACLProvider {
         }
         Set<String> privileges = privilegeRepository.getPrivileges(user);
         Ontology ontology = ontologyRepository.getOntology(workspaceId);
-        return appendACL(clientApiObject, ontology, privileges, user, workspaceId);
+        return appendACL(clientApiObject, ontology, privileges, user, workspaceId, new AclPlan());
+    }
+
+    /**
+     * Appends ACLs to the objects of a response that is written one object at a time, reusing results between them
+     * like {@link #appendACL(ClientApiObject, User, String)} does for the elements of a single object. Not thread safe.
+     */
+    public Consumer<ClientApiObject> createACLAppender(User user, String workspaceId) {
+        if (user == null) {
+            return clientApiObject -> {
+            };
+        }
+        Set<String> privileges = privilegeRepository.getPrivileges(user);
+        Ontology ontology = ontologyRepository.getOntology(workspaceId);
+        AclPlan plan = new AclPlan();
+        return clientApiObject -> appendACL(clientApiObject, ontology, privileges, user, workspaceId, plan);
     }
 
-    private ClientApiObject appendACL(ClientApiObject clientApiObject, Ontology ontology, Set<String> privileges, User user, String workspaceId) {
+    private ClientApiObject appendACL(ClientApiObject clientApiObject, Ontology ontology, Set<String> privileges, User user, String workspaceId, AclPlan plan) {
         if (clientApiObject instanceof ClientApiElement) {
-            appendACL((ClientApiElement) clientApiObject, ontology, privileges, user, workspaceId);
+            appendACL((ClientApiElement) clientApiObject, ontology, privileges, user, workspaceId, plan);
         } else if (clientApiObject instanceof ClientApiWorkspaceVertices) {
-            appendACL(((ClientApiWorkspaceVertices) clientApiObject).getVertices(), ontology, user, workspaceId);
+            appendACL(((ClientApiWorkspaceVertices) clientApiObject).getVertices(), ontology, privileges, user, workspaceId, plan);
         } else if (clientApiObject instanceof ClientApiVertexMultipleResponse) {
-            appendACL(((ClientApiVertexMultipleResponse) clientApiObject).getVertices(), ontology, user, workspaceId);
+            appendACL(((ClientApiVertexMultipleResponse) clientApiObject).getVertices(), ontology, privileges, user, workspaceId, plan);
         } else if (clientApiObject instanceof ClientApiEdgeMultipleResponse) {
-            appendACL(((ClientApiEdgeMultipleResponse) clientApiObject).getEdges(), ontology, user, workspaceId);
+            appendACL(((ClientApiEdgeMultipleResponse) clientApiObject).getEdges(), ontology, privileges, user, workspaceId, plan);
         } else if (clientApiObject instanceof ClientApiElementSearchResponse) {
-            appendACL(((ClientApiElementSearchResponse) clientApiObject).getElements(), ontology, user, workspaceId);
+            appendACL(((ClientApiElementSearchResponse) clientApiObject).getElements(), ontology, privileges, user, workspaceId, plan);
             List<ClientApiVertexiumObject> referencedElements = ((ClientApiElementSearchResponse) clientApiObject).getReferencedElements();
             if (referencedElements != null) {
-                appendACL(referencedElements, ontology, user, workspaceId);
+                appendACL(referencedElements, ontology, privileges, user, workspaceId, plan);
             }
         } else if (clientApiObject instanceof ClientApiEdgeSearchResponse) {
-            appendACL(((ClientApiEdgeSearchResponse) clientApiObject).getResults(), ontology, user, workspaceId);
+            appendACL(((ClientApiEdgeSearchResponse) clientApiObject).getResults(), ontology, privileges, user, workspaceId, plan);
         } else if (clientApiObject instanceof ClientApiVertexEdges) {
             ClientApiVertexEdges vertexEdges = (ClientApiVertexEdges) clientApiObject;
-            appendACL(vertexEdges, ontology, privileges, user, workspaceId);
+            appendACL(vertexEdges, ontology, privileges, user, workspaceId, plan);
         } else if (clientApiObject instanceof ClientApiElementFindRelatedResponse) {
-            appendACL(((ClientApiElementFindRelatedResponse) clientApiObject).getElements(), ontology, user, workspaceId);
+            appendACL(((ClientApiElementFindRelatedResponse) clientApiObject).getElements(), ontology, privileges, user, workspaceId, plan);
         }
 
         return clientApiObject;
@@ -337,17 +354,23 @@ public abstract class ACLProvider {
         return false;
     }
 
-    private void appendACL(Collection<? extends ClientApiObject> clientApiObject, Ontology ontology, User user, String workspaceId) {
-        Set<String> privileges = privilegeRepository.getPrivileges(user);
+    private void appendACL(
+            Collection<? extends ClientApiObject> clientApiObject,
+            Ontology ontology,
+            Set<String> privileges,
+            User user,
+            String workspaceId,
+            AclPlan plan
+    ) {
         for (ClientApiObject apiObject : clientApiObject) {
-            appendACL(apiObject, ontology, privileges, user, workspaceId);
+            appendACL(apiObject, ontology, privileges, user, workspaceId, plan);
         }
     }
 
-    private void appendACL(ClientApiElement clientApiElement, Ontology ontology, Set<String> privileges, User user, String workspaceId) {
+    private void appendACL(ClientApiElement clientApiElement, Ontology ontology, Set<String> privileges, User user, String workspaceId, AclPlan plan) {
         OntologyElement ontologyElement = getOntologyElement(clientApiElement, ontology, workspaceId);
 
-        appendACL(clientApiElement, ontologyElement, ontology, privileges, user, workspaceId);
+        appendACL(clientApiElement, ontologyElement, ontology, privileges, user, workspaceId, plan);
     }
 
     private void appendACL(
@@ -356,30 +379,38 @@ public abstract class ACLProvider {
             Ontology ontology,
             Set<String> privileges,
             User user,
-            String workspaceId
+            String workspaceId,
+            AclPlan plan
     ) {
         for (ClientApiProperty apiProperty : clientApiElement.getProperties()) {
             String key = apiProperty.getKey();
             String name = apiProperty.getName();
+            ClientApiPropertyAcl planAcl = getElementIndependentPropertyAcl(ontologyElement, name, ontology, privileges, user, workspaceId, plan);
+            if (planAcl != null) {
+                apiProperty.setUpdateable(planAcl.isUpdateable());
+                apiProperty.setDeleteable(planAcl.isDeleteable());
+                apiProperty.setAddable(planAcl.isAddable());
+                continue;
+            }
             apiProperty.setUpdateable(internalCanUpdateProperty(clientApiElement, ontologyElement, key, name, ontology, privileges, user, workspaceId));
             apiProperty.setDeleteable(internalCanDeleteProperty(clientApiElement, ontologyElement, key, name, ontology, privileges, user, workspaceId));
             apiProperty.setAddable(internalCanAddProperty(clientApiElement, ontologyElement, key, name, ontology, privileges, user, workspaceId));
         }
-        clientApiElement.setUpdateable(internalCanUpdateElement(clientApiElement, ontologyElement, ontology, privileges, user, workspaceId));
-        clientApiElement.setDeleteable(internalCanDeleteElement(clientApiElement, ontologyElement, ontology, privileges, user, workspaceId));
-
-        clientApiElement.setAcl(elementACL(clientApiElement, ontologyElement, ontology, privileges, user, workspaceId));
+        ClientApiElementAcl elementAcl = elementACL(clientApiElement, ontologyElement, ontology, privileges, user, workspaceId, plan);
+        clientApiElement.setUpdateable(elementAcl.isUpdateable());
+        clientApiElement.setDeleteable(elementAcl.isDeleteable());
+        clientApiElement.setAcl(elementAcl);
 
         if (clientApiElement instanceof ClientApiEdgeWithVertexData) {
-            appendACL(((ClientApiEdgeWithVertexData) clientApiElement).getSource(), ontology, privileges, user, workspaceId);
-            appendACL(((ClientApiEdgeWithVertexData) clientApiElement).getTarget(), ontology, privileges, user, workspaceId);
+            appendACL(((ClientApiEdgeWithVertexData) clientApiElement).getSource(), ontology, privileges, user, workspaceId, plan);
+            appendACL(((ClientApiEdgeWithVertexData) clientApiElement).getTarget(), ontology, privileges, user, workspaceId, plan);
         }
     }
 
-    private void appendACL(ClientApiVertexEdges edges, Ontology ontology, Set<String> privileges, User user, String workspaceId) {
+    private void appendACL(ClientApiVertexEdges edges, Ontology ontology, Set<String> privileges, User user, String workspaceId, AclPlan plan) {
         for (ClientApiVertexEdges.Edge vertexEdge : edges.getRelationships()) {
-            appendACL(vertexEdge.getRelationship(), ontology, privileges, user, workspaceId);
-            appendACL(vertexEdge.getVertex(), ontology, privileges, user, workspaceId);
+            appendACL(vertexEdge.getRelationship(), ontology, privileges, user, workspaceId, plan);
+            appendACL(vertexEdge.getVertex(), ontology, privileges, user, workspaceId, plan);
         }
     }
 
@@ -391,12 +422,18 @@ public abstract class ACLProvider {
             Set<String> privileges,
             User user,
             String workspaceId,
-            List<ClientApiPropertyAcl> propertyAcls
+            List<ClientApiPropertyAcl> propertyAcls,
+            AclPlan plan
     ) {
         Collection<OntologyProperty> ontologyProperties = hasOntologyProperties.getProperties();
         Set<String> addedPropertyNames = new HashSet<>();
         for (OntologyProperty ontologyProperty : ontologyProperties) {
             String propertyName = ontologyProperty.getTitle();
+            if (isPlannedPropertyAcl(ontologyElement, propertyName)) {
+                // the ACL of every property with this name is the default one, which the client already assumes
+                addedPropertyNames.add(propertyName);
+                continue;
+            }
             for (ClientApiProperty property : clientApiElement.getProperties(propertyName)) {
                 ClientApiPropertyAcl acl = newClientApiPropertyAcl(
                         clientApiElement,
@@ -408,15 +445,15 @@ public abstract class ACLProvider {
                         user,
                         workspaceId
                 );
-                ClientApiPropertyAcl defaultAcl = newClientApiPropertyAcl(
-                        null,
+                ClientApiPropertyAcl defaultAcl = getDefaultPropertyAcl(
                         ontologyElement,
                         property.getKey(),
                         propertyName,
                         ontology,
                         privileges,
                         user,
-                        workspaceId
+                        workspaceId,
+                        plan
                 );
                 if (!acl.equals(defaultAcl)) {
                     propertyAcls.add(acl);
@@ -441,15 +478,15 @@ public abstract class ACLProvider {
                                     user,
                                     workspaceId
                             );
-                            ClientApiPropertyAcl defaultAcl = newClientApiPropertyAcl(
-                                    null,
+                            ClientApiPropertyAcl defaultAcl = getDefaultPropertyAcl(
                                     ontologyElement,
                                     null,
                                     propertyName,
                                     ontology,
                                     privileges,
                                     user,
-                                    workspaceId
+                                    workspaceId,
+                                    plan
                             );
                             return acl.equals(defaultAcl) ? null : acl;
                         })
@@ -458,6 +495,74 @@ public abstract class ACLProvider {
         );
     }
 
+    /**
+     * Returns true when {@link #canUpdateProperty}, {@link #canDeleteProperty} and {@link #canAddProperty} give the
+     * same result for every element and property key with the given ontology element and property name. The results
+     * are then computed once per response instead of once per property of every element. Comments are always
+     * evaluated per element since their ACL depends on the author.
+     */
+    protected boolean isPropertyAclElementIndependent(OntologyElement ontologyElement, String propertyName) {
+        return false;
+    }
+
+    private boolean isPlannedPropertyAcl(OntologyElement ontologyElement, String propertyName) {
+        return !isComment(propertyName) && isPropertyAclElementIndependent(ontologyElement, propertyName);
+    }
+
+    /**
+     * @return the ACL shared by all properties with the given name, or null if it has to be computed per element.
+     */
+    private ClientApiPropertyAcl getElementIndependentPropertyAcl(
+            OntologyElement ontologyElement,
+            String name,
+            Ontology ontology,
+            Set<String> privileges,
+            User user,
+            String workspaceId,
+            AclPlan plan
+    ) {
+        if (!isPlannedPropertyAcl(ontologyElement, name)) {
+            return null;
+        }
+        String planKey = getOntologyElementPlanKey(ontologyElement) + "\u001f" + name;
+        return plan.elementIndependentPropertyAcls.computeIfAbsent(
+                planKey,
+                k -> newClientApiPropertyAcl(null, ontologyElement, null, name, ontology, privileges, user, workspaceId)
+        );
+    }
+
+    /**
+     * The ACL of a property when no element is given only depends on the ontology element, so it is computed once
+     * per response and shared by all of its elements.
+     */
+    private ClientApiPropertyAcl getDefaultPropertyAcl(
+            OntologyElement ontologyElement,
+            String key,
+            String name,
+            Ontology ontology,
+            Set<String> privileges,
+            User user,
+            String workspaceId,
+            AclPlan plan
+    ) {
+        String planKey = getOntologyElementPlanKey(ontologyElement) + "\u001f" + key + "\u001f" + name;
+        return plan.defaultPropertyAcls.computeIfAbsent(
+                planKey,
+                k -> newClientApiPropertyAcl(null, ontologyElement, key, name, ontology, privileges, user, workspaceId)
+        );
+    }
+
+    private static String getOntologyElementPlanKey(OntologyElement ontologyElement) {
+        if (ontologyElement instanceof Concept) {
+            return "c:" + ((Concept) ontologyElement).getIRI();
+        } else if (ontologyElement instanceof Relationship) {
+            return "r:" + ((Relationship) ontologyElement).getIRI();
+        } else if (ontologyElement == null) {
+            return "";
+        }
+        return ontologyElement.getClass().getName() + "@" + System.identityHashCode(ontologyElement);
+    }
+
     private ClientApiPropertyAcl newClientApiPropertyAcl(
             ClientApiElement clientApiElement,
             OntologyElement ontologyElement,
@@ -664,4 +769,13 @@ public abstract class ACLProvider {
         }
         return ontology == null ? ontologyRepository.getConceptByIRI(conceptType, workspaceId) : ontology.getConceptByIri(conceptType);
     }
+
+    /**
+     * ACL results that are the same for every element of a response with the same user, privileges, workspace and
+     * ontology element.
+     */
+    private static class AclPlan {
+        private final Map<String, ClientApiPropertyAcl> defaultPropertyAcls = new HashMap<>();
+        private final Map<String, ClientApiPropertyAcl> elementIndependentPropertyAcls = new HashMap<>();
+    }
 }
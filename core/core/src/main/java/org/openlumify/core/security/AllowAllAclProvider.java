@@ -73,4 +73,9 @@ public class AllowAllAclProvider extends ACLProvider {
     public boolean canAddProperty(ClientApiElement clientApiElement, OntologyElement ontologyElement, String propertyKey, String propertyName, Ontology ontology, User user, String workspaceId) {
         return true;
     }
+
+    @Override
+    protected boolean isPropertyAclElementIndependent(OntologyElement ontologyElement, String propertyName) {
+        return true;
+    }
 }
@@ -63,6 +63,17 @@ public class JmxMetricsManager implements MetricsManager {
         return meter(createMetricName(source, "meter", name));
     }
 
+    @Override
+    public <T> Gauge<T> gauge(String name, Gauge<T> gauge) {
+        REGISTRY.remove(name);
+        return REGISTRY.register(name, gauge);
+    }
+
+    @Override
+    public <T> Gauge<T> gauge(Object source, String name, Gauge<T> gauge) {
+        return gauge(createMetricName(source, "gauge", name), gauge);
+    }
+
     @Override
     public void removeMetric(String metricName) {
         REGISTRY.remove(metricName);
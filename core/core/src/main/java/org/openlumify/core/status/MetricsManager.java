@@ -1,6 +1,7 @@
 package org.openlumify.core.status;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
 
@@ -18,6 +19,13 @@ public interface MetricsManager {
 
     Meter meter(Object source, String name);
 
+    /**
+     * Registers a gauge, replacing any gauge previously registered with the same name.
+     */
+    <T> Gauge<T> gauge(String metricName, Gauge<T> gauge);
+
+    <T> Gauge<T> gauge(Object source, String name, Gauge<T> gauge);
+
     void removeMetric(String metricName);
 
     String createMetricName(Object source, String type, String name);
@@ -0,0 +1,82 @@
+package org.openlumify.core.util;
+
+import org.vertexium.ElementType;
+import org.vertexium.Graph;
+import org.vertexium.Range;
+import org.vertexium.accumulo.AccumuloGraph;
+import org.openlumify.core.exception.OpenLumifyException;
+import org.openlumify.core.model.graph.ProxyGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Divides the vertices or edges of a graph into ranges that tools can work through independently. An Accumulo graph
+ * is split on its table splits, any other graph on the printable ASCII characters.
+ */
+public class GraphSplitsUtil {
+    /**
+     * @return the ranges covering every element of the type, the first starts and the last ends unbounded
+     */
+    public static List<Range> getRanges(Graph graph, ElementType elementType) {
+        List<Range> ranges = new ArrayList<>();
+        String lastSplit = null;
+        for (String split : getSplits(graph, elementType)) {
+            ranges.add(new Range(lastSplit, split));
+            lastSplit = split;
+        }
+        ranges.add(new Range(lastSplit, null));
+        return ranges;
+    }
+
+    public static List<String> getSplits(Graph graph, ElementType elementType) {
+        List<String> splits;
+
+        try {
+            splits = getSplitsFromAccumuloGraph(graph, elementType);
+            if (splits != null) {
+                return splits;
+            }
+        } catch (NoClassDefFoundError ex) {
+            // This can be ignored, this can only happen if AccumuloGraph is not being used, not found on class path
+        }
+
+        splits = new ArrayList<>();
+        for (char c = ' '; c < '~'; c++) {
+            splits.add(Character.toString(c));
+        }
+        return splits;
+    }
+
+    private static List<String> getSplitsFromAccumuloGraph(Graph graph, ElementType elementType) {
+        while (graph instanceof ProxyGraph) {
+            graph = ((ProxyGraph) graph).getProxiedGraph();
+        }
+
+        if (!(graph instanceof AccumuloGraph)) {
+            return null;
+        }
+        AccumuloGraph accumuloGraph = (AccumuloGraph) graph;
+        Iterable<Range> splits;
+        switch (elementType) {
+            case VERTEX:
+                splits = accumuloGraph.listVerticesTableSplits();
+                break;
+            case EDGE:
+                splits = accumuloGraph.listEdgesTableSplits();
+                break;
+            default:
+                throw new OpenLumifyException("Unhandled element type: " + elementType);
+        }
+
+        List<String> result = new ArrayList<>();
+        boolean first = true;
+        for (Range split : splits) {
+            if (!first) {
+                result.add(split.getInclusiveStart());
+            }
+            first = false;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,127 @@
+package org.openlumify.model.queue.inmemory;
+
+import org.openlumify.core.exception.OpenLumifyException;
+import org.openlumify.core.model.workQueue.Priority;
+import org.openlumify.core.util.OpenLumifyLogger;
+import org.openlumify.core.util.OpenLumifyLoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A queue with one FIFO per {@link Priority}. Pushes are lock-free, consumers wait on a semaphore and take the
+ * item under a short lock. Higher priorities are always dequeued first. When a
+ * capacity is set, producers wait for space before pushing (up to pushTimeoutMillis, after which the item is
+ * queued anyway so a worker pushing onto its own queue can not deadlock).
+ */
+class InMemoryQueue {
+    private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(InMemoryQueue.class);
+    private static final Priority[] PRIORITIES_IN_DEQUEUE_ORDER = {Priority.HIGH, Priority.NORMAL, Priority.LOW};
+    private final String name;
+    private final int capacity;
+    private final long pushTimeoutMillis;
+    private final Queue<byte[]>[] queues;
+    private final Semaphore available = new Semaphore(0);
+    private final AtomicInteger size = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+
+    @SuppressWarnings("unchecked")
+    InMemoryQueue(String name, int capacity, long pushTimeoutMillis) {
+        this.name = name;
+        this.capacity = capacity;
+        this.pushTimeoutMillis = pushTimeoutMillis;
+        this.queues = new Queue[Priority.values().length];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    public void push(byte[] data, Priority priority) throws InterruptedException {
+        if (capacity > 0 && size.get() >= capacity) {
+            waitForSpace();
+        }
+        queues[(priority == null ? Priority.NORMAL : priority).ordinal()].add(data);
+        size.incrementAndGet();
+        available.release();
+    }
+
+    private void waitForSpace() throws InterruptedException {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(pushTimeoutMillis);
+        lock.lock();
+        try {
+            while (size.get() >= capacity) {
+                if (remainingNanos <= 0) {
+                    LOGGER.warn("Queue %s is still full (size: %d) after %dms, pushing anyway", name, size.get(), pushTimeoutMillis);
+                    return;
+                }
+                remainingNanos = notFull.awaitNanos(remainingNanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return null, if nothing was queued within maxWaitMillis.
+     */
+    public byte[] poll(long maxWaitMillis) throws InterruptedException {
+        if (!available.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+            return null;
+        }
+        return remove();
+    }
+
+    /**
+     * Waits at most maxWaitMillis for the first item and then removes up to maxCount items without waiting.
+     */
+    public List<byte[]> poll(int maxCount, long maxWaitMillis) throws InterruptedException {
+        List<byte[]> results = new ArrayList<>();
+        if (!available.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+            return results;
+        }
+        results.add(remove());
+        while (results.size() < maxCount && available.tryAcquire()) {
+            results.add(remove());
+        }
+        return results;
+    }
+
+    /**
+     * Must only be called after acquiring a permit from {@link #available}. Items are queued before their permit is
+     * released and are only removed here under the lock, so a full scan always finds one.
+     */
+    private byte[] remove() {
+        lock.lock();
+        try {
+            for (Priority priority : PRIORITIES_IN_DEQUEUE_ORDER) {
+                byte[] data = queues[priority.ordinal()].poll();
+                if (data != null) {
+                    int newSize = size.decrementAndGet();
+                    if (capacity > 0 && newSize < capacity) {
+                        notFull.signal();
+                    }
+                    return data;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        throw new OpenLumifyException("Queue " + name + " had a permit but no item");
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+}
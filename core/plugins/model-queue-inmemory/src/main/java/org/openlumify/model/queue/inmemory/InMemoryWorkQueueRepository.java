@@ -1,30 +1,48 @@
 package org.openlumify.model.queue.inmemory;
 
+import com.codahale.metrics.Gauge;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.json.JSONObject;
 import org.vertexium.Graph;
 import org.openlumify.core.config.Configuration;
+import org.openlumify.core.exception.OpenLumifyException;
 import org.openlumify.core.ingest.WorkerSpout;
 import org.openlumify.core.ingest.WorkerTuple;
 import org.openlumify.core.model.WorkQueueNames;
 import org.openlumify.core.model.workQueue.Priority;
 import org.openlumify.core.model.workQueue.WorkQueueRepository;
+import org.openlumify.core.status.MetricsManager;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Singleton
 public class InMemoryWorkQueueRepository extends WorkQueueRepository {
-    private static Map<String, List<byte[]>> queues = new HashMap<>();
-    private List<BroadcastConsumer> broadcastConsumers = new ArrayList<>();
+    public static final String CONFIG_QUEUE_CAPACITY = InMemoryWorkQueueRepository.class.getName() + ".queueCapacity";
+    public static final int DEFAULT_QUEUE_CAPACITY = 0;
+    public static final String CONFIG_PUSH_TIMEOUT_MILLIS = InMemoryWorkQueueRepository.class.getName() + ".pushTimeoutMillis";
+    public static final long DEFAULT_PUSH_TIMEOUT_MILLIS = 10 * 1000;
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static Map<String, InMemoryQueue> queues = new ConcurrentHashMap<>();
+    private final List<BroadcastConsumer> broadcastConsumers = new CopyOnWriteArrayList<>();
+    private final MetricsManager metricsManager;
+    private final Map<String, String> queueDepthMetricNames = new ConcurrentHashMap<>();
+    private final int queueCapacity;
+    private final long pushTimeoutMillis;
 
     @Inject
     public InMemoryWorkQueueRepository(
             Graph graph,
             WorkQueueNames workQueueNames,
-            Configuration configuration
+            Configuration configuration,
+            MetricsManager metricsManager
     ) {
         super(graph, workQueueNames, configuration);
+        this.metricsManager = metricsManager;
+        this.queueCapacity = configuration.getInt(CONFIG_QUEUE_CAPACITY, DEFAULT_QUEUE_CAPACITY);
+        this.pushTimeoutMillis = configuration.getLong(CONFIG_PUSH_TIMEOUT_MILLIS, DEFAULT_PUSH_TIMEOUT_MILLIS);
     }
 
     @Override
@@ -46,23 +64,21 @@ public class InMemoryWorkQueueRepository extends WorkQueueRepository {
         addToQueue(String.format("%s.deadletter", queueName), data, Priority.NORMAL);
     }
 
+    /**
+     * Adds the data to the queue. If the queue is at capacity this waits for consumers to make space.
+     */
     public void addToQueue(String queueName, byte[] data, Priority priority) {
-        final List<byte[]> queue = getQueue(queueName);
-        // getQueue - only returns static variables
-        //noinspection SynchronizationOnLocalVariableOrMethodParameter
-        synchronized (queue) {
-            if (priority == Priority.HIGH) {
-                queue.add(0, data);
-            } else {
-                queue.add(data);
-            }
-            queue.notifyAll();
+        try {
+            getQueue(queueName).push(data, priority);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OpenLumifyException("Interrupted waiting for space on queue: " + queueName, ex);
         }
     }
 
     @Override
     public void flush() {
-
+        flushCoalescedGraphPropertyMessages();
     }
 
     @Override
@@ -82,22 +98,33 @@ public class InMemoryWorkQueueRepository extends WorkQueueRepository {
 
     @Override
     public WorkerSpout createWorkerSpout(String queueName) {
-        final List<byte[]> queue = getQueue(queueName);
+        final InMemoryQueue queue = getQueue(queueName);
         return new WorkerSpout() {
             @Override
             public WorkerTuple nextTuple() throws Exception {
-                synchronized (queue) {
-                    if (queue.size() == 0) {
-                        Thread.sleep(100);
-                        return null;
-                    }
-                    byte[] entry = queue.remove(0);
-                    if (entry == null) {
-                        Thread.sleep(100);
-                        return null;
-                    }
-                    return new WorkerTuple("", entry);
+                byte[] entry = queue.poll(POLL_TIMEOUT_MILLIS);
+                if (entry == null) {
+                    return null;
                 }
+                return new WorkerTuple("", entry);
+            }
+
+            @Override
+            public List<WorkerTuple> nextTuples(int maxCount, long maxWaitMillis) throws Exception {
+                List<WorkerTuple> tuples = new ArrayList<>();
+                for (byte[] entry : queue.poll(maxCount, maxWaitMillis)) {
+                    tuples.add(new WorkerTuple("", entry));
+                }
+                return tuples;
+            }
+
+            // entries leave the queue when they are polled, so there is nothing to acknowledge or return
+            @Override
+            public void ack(List<WorkerTuple> workerTuples) {
+            }
+
+            @Override
+            public void fail(List<WorkerTuple> workerTuples) {
             }
         };
     }
@@ -111,7 +138,21 @@ public class InMemoryWorkQueueRepository extends WorkQueueRepository {
         queues.remove(queueName);
     }
 
-    public static List<byte[]> getQueue(String queueName) {
-        return queues.computeIfAbsent(queueName, k -> new LinkedList<>());
+    public static int getQueueSize(String queueName) {
+        InMemoryQueue queue = queues.get(queueName);
+        return queue == null ? 0 : queue.size();
+    }
+
+    private InMemoryQueue getQueue(String queueName) {
+        InMemoryQueue queue = queues.computeIfAbsent(
+                queueName,
+                k -> new InMemoryQueue(queueName, queueCapacity, pushTimeoutMillis)
+        );
+        queueDepthMetricNames.computeIfAbsent(queueName, k -> {
+            String metricName = metricsManager.createMetricName(this, "gauge", "queue-depth-" + queueName);
+            metricsManager.gauge(metricName, (Gauge<Integer>) () -> getQueueSize(queueName));
+            return metricName;
+        });
+        return queue;
     }
 }
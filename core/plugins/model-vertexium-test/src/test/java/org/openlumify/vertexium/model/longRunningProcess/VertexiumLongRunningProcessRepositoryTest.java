@@ -1,7 +1,16 @@
 package org.openlumify.vertexium.model.longRunningProcess;
 
+import org.json.JSONObject;
+import org.junit.Test;
+import org.openlumify.core.exception.OpenLumifyException;
 import org.openlumify.core.model.longRunningProcess.LongRunningProcessRepository;
 import org.openlumify.core.model.longRunningProcess.LongRunningProcessRepositoryTestBase;
+import org.openlumify.core.user.User;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 public class VertexiumLongRunningProcessRepositoryTest extends LongRunningProcessRepositoryTestBase {
     @Override
@@ -12,7 +21,52 @@ public class VertexiumLongRunningProcessRepositoryTest extends LongRunningProces
                 getUserRepository(),
                 getWorkQueueRepository(),
                 getGraph(),
-                getAuthorizationRepository()
+                getAuthorizationRepository(),
+                getConfiguration()
         );
     }
-}
\ No newline at end of file
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Map getConfigurationMap() {
+        Map configurationMap = super.getConfigurationMap();
+        configurationMap.put(VertexiumLongRunningProcessRepository.CONFIG_PROGRESS_INTERVAL_MILLIS, "3600000");
+        configurationMap.put(VertexiumLongRunningProcessRepository.CONFIG_PROGRESS_DELTA, "0.1");
+        return configurationMap;
+    }
+
+    @Test
+    public void testReportProgressIsThrottled() {
+        User user = getUserRepository().findOrAddUser("user2", "user2", "user2@user.com", "none");
+        LongRunningProcessRepository repository = getLongRunningProcessRepository();
+        String id = repository.enqueue(new JSONObject(), user, getGraphAuthorizations(user));
+
+        repository.reportProgress(id, 0.1, "first");
+        repository.reportProgress(id, 0.15, "skipped");
+        assertEquals("first", repository.findById(id, user).getString("progressMessage"));
+
+        repository.reportProgress(id, 0.2, "moved far enough");
+        assertEquals("moved far enough", repository.findById(id, user).getString("progressMessage"));
+
+        repository.reportProgress(id, 1.0, "done");
+        JSONObject json = repository.findById(id, user);
+        assertEquals("done", json.getString("progressMessage"));
+        assertEquals(1.0, json.getDouble("progress"), 0.0);
+    }
+
+    @Test
+    public void testReportProgressAfterCancel() {
+        User user = getUserRepository().findOrAddUser("user2", "user2", "user2@user.com", "none");
+        LongRunningProcessRepository repository = getLongRunningProcessRepository();
+        String id = repository.enqueue(new JSONObject(), user, getGraphAuthorizations(user));
+
+        repository.reportProgress(id, 0.1, "first");
+        repository.cancel(id, user);
+        try {
+            repository.reportProgress(id, 0.15, "skipped");
+            fail("progress of a cancelled process should not be reported");
+        } catch (OpenLumifyException ex) {
+            // expected
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.google.inject.Singleton;
 import org.json.JSONObject;
 import org.vertexium.*;
 import org.vertexium.util.ConvertingIterable;
+import org.openlumify.core.config.Configuration;
 import org.openlumify.core.exception.OpenLumifyException;
 import org.openlumify.core.model.graph.GraphRepository;
 import org.openlumify.core.model.graph.GraphUpdateContext;
@@ -22,17 +23,35 @@ import org.openlumify.core.user.User;
 import org.openlumify.web.clientapi.model.VisibilityJson;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.vertexium.util.IterableUtils.toList;
 
+/**
+ * Stores long running processes as vertices. Progress reports are coalesced per process: a report is only written
+ * and broadcast when the progress interval has passed since the last write or the progress moved by at least the
+ * progress delta. The first and the completing report of a process are always written, and ack and nak store the
+ * final state. Skipped reports check cancellation against the flag seen at the last write.
+ * <p>
+ * Processes enqueued by the system user are not stored unless their queue item is resumable. Those are stored
+ * without a link to a user, and deleted when they are acked.
+ */
 @Singleton
 public class VertexiumLongRunningProcessRepository extends LongRunningProcessRepository {
+    public static final String CONFIG_PROGRESS_INTERVAL_MILLIS = VertexiumLongRunningProcessRepository.class.getName() + ".progressIntervalMillis";
+    public static final long DEFAULT_PROGRESS_INTERVAL_MILLIS = 1000;
+    public static final String CONFIG_PROGRESS_DELTA = VertexiumLongRunningProcessRepository.class.getName() + ".progressDelta";
+    public static final double DEFAULT_PROGRESS_DELTA = 0.05;
     private final WorkQueueRepository workQueueRepository;
     private final GraphRepository graphRepository;
     private final UserRepository userRepository;
     private final Graph graph;
     private final AuthorizationRepository authorizationRepository;
+    private final long progressIntervalMillis;
+    private final double progressDelta;
+    private final Map<String, ProgressState> progressStates = new ConcurrentHashMap<>();
 
     @Inject
     public VertexiumLongRunningProcessRepository(
@@ -41,13 +60,16 @@ public class VertexiumLongRunningProcessRepository extends LongRunningProcessRep
             UserRepository userRepository,
             WorkQueueRepository workQueueRepository,
             Graph graph,
-            AuthorizationRepository authorizationRepository
+            AuthorizationRepository authorizationRepository,
+            Configuration configuration
     ) {
         this.graphRepository = graphRepository;
         this.userRepository = userRepository;
         this.workQueueRepository = workQueueRepository;
         this.graph = graph;
         this.authorizationRepository = authorizationRepository;
+        this.progressIntervalMillis = configuration.getLong(CONFIG_PROGRESS_INTERVAL_MILLIS, DEFAULT_PROGRESS_INTERVAL_MILLIS);
+        this.progressDelta = Double.parseDouble(configuration.get(CONFIG_PROGRESS_DELTA, Double.toString(DEFAULT_PROGRESS_DELTA)));
 
         graphAuthorizationRepository.addAuthorizationToGraph(VISIBILITY_STRING);
     }
@@ -66,11 +88,16 @@ public class VertexiumLongRunningProcessRepository extends LongRunningProcessRep
         Authorizations authorizations = getAuthorizations(user);
 
         String longRunningProcessId;
-        if (user instanceof SystemUser) {
+        boolean systemUser = user instanceof SystemUser;
+        if (systemUser && !longRunningProcessQueueItem.optBoolean(RESUMABLE, false)) {
             longRunningProcessId = null;
         } else {
-            Vertex userVertex = graph.getVertex(user.getUserId(), authorizations);
-            checkNotNull(userVertex, "Could not find user with id: " + user.getUserId());
+            // resumable processes of the system user are stored so they can be checkpointed, but belong to no user
+            Vertex userVertex = null;
+            if (!systemUser) {
+                userVertex = graph.getVertex(user.getUserId(), authorizations);
+                checkNotNull(userVertex, "Could not find user with id: " + user.getUserId());
+            }
             Visibility visibility = getVisibility();
 
             try (GraphUpdateContext ctx = graphRepository.beginGraphUpdate(Priority.LOW, user, authorizations)) {
@@ -84,15 +111,17 @@ public class VertexiumLongRunningProcessRepository extends LongRunningProcessRep
                     LongRunningProcessProperties.QUEUE_ITEM_JSON_PROPERTY.updateProperty(elemCtx, longRunningProcessQueueItem, metadata);
                 }).get().getId();
 
-                ctx.getOrCreateEdgeAndUpdate(
-                        null,
-                        userVertex.getId(),
-                        longRunningProcessId,
-                        LongRunningProcessProperties.LONG_RUNNING_PROCESS_TO_USER_EDGE_IRI,
-                        visibility,
-                        elemCtx -> {
-                        }
-                );
+                if (userVertex != null) {
+                    ctx.getOrCreateEdgeAndUpdate(
+                            null,
+                            userVertex.getId(),
+                            longRunningProcessId,
+                            LongRunningProcessProperties.LONG_RUNNING_PROCESS_TO_USER_EDGE_IRI,
+                            visibility,
+                            elemCtx -> {
+                            }
+                    );
+                }
             } catch (Exception ex) {
                 throw new OpenLumifyException("Could not create long running process vertex", ex);
             }
@@ -121,19 +150,39 @@ public class VertexiumLongRunningProcessRepository extends LongRunningProcessRep
     @Override
     public void beginWork(JSONObject longRunningProcessQueueItem) {
         super.beginWork(longRunningProcessQueueItem);
+        removeProgressState(longRunningProcessQueueItem);
         updateVertexWithJson(longRunningProcessQueueItem);
     }
 
     @Override
     public void ack(JSONObject longRunningProcessQueueItem) {
+        removeProgressState(longRunningProcessQueueItem);
+        if (isStoredForSystemUser(longRunningProcessQueueItem)) {
+            // nobody can list a process of the system user, once complete there is nothing left to resume
+            delete(longRunningProcessQueueItem.getString("id"), userRepository.getSystemUser());
+            return;
+        }
         updateVertexWithJson(longRunningProcessQueueItem);
     }
 
+    private boolean isStoredForSystemUser(JSONObject longRunningProcessQueueItem) {
+        return longRunningProcessQueueItem.has("id")
+                && userRepository.getSystemUser().getUserId().equals(longRunningProcessQueueItem.optString("userId", null));
+    }
+
     @Override
     public void nak(JSONObject longRunningProcessQueueItem, Throwable ex) {
+        removeProgressState(longRunningProcessQueueItem);
         updateVertexWithJson(longRunningProcessQueueItem);
     }
 
+    private void removeProgressState(JSONObject longRunningProcessQueueItem) {
+        String longRunningProcessId = longRunningProcessQueueItem.optString("id", null);
+        if (longRunningProcessId != null) {
+            progressStates.remove(longRunningProcessId);
+        }
+    }
+
     public void updateVertexWithJson(JSONObject longRunningProcessQueueItem) {
         String longRunningProcessGraphVertexId = longRunningProcessQueueItem.optString("id", null);
         if (longRunningProcessGraphVertexId == null) {
@@ -214,11 +263,62 @@ public class VertexiumLongRunningProcessRepository extends LongRunningProcessRep
             });
         }
 
+        ProgressState progressState = progressStates.get(longRunningProcessId);
+        if (progressState != null) {
+            progressState.canceled = true;
+        }
+
         workQueueRepository.broadcastLongRunningProcessChange(json);
     }
 
     @Override
     public void reportProgress(String longRunningProcessId, double progressPercent, String message) {
+        if (longRunningProcessId == null) {
+            return;
+        }
+        ProgressState progressState = progressStates.computeIfAbsent(longRunningProcessId, id -> new ProgressState());
+        JSONObject json;
+        synchronized (progressState) {
+            if (progressState.canceled) {
+                throw new OpenLumifyException("Unable to update progress of cancelled process");
+            }
+            long now = System.currentTimeMillis();
+            if (!progressState.isWriteNeeded(progressPercent, now)) {
+                return;
+            }
+
+            Authorizations authorizations = getAuthorizations(userRepository.getSystemUser());
+            Vertex vertex = this.graph.getVertex(longRunningProcessId, authorizations);
+            checkNotNull(vertex, "Could not find long running process vertex: " + longRunningProcessId);
+
+            json = LongRunningProcessProperties.QUEUE_ITEM_JSON_PROPERTY.getPropertyValue(vertex);
+            if (json.optBoolean("canceled", false)) {
+                progressState.canceled = true;
+                throw new OpenLumifyException("Unable to update progress of cancelled process");
+            }
+
+            json.put("progress", progressPercent);
+            json.put("progressMessage", message);
+            json.put("id", longRunningProcessId);
+
+            VertexBuilder vb = graph.prepareVertex(longRunningProcessId, vertex.getVisibility());
+            LongRunningProcessProperties.QUEUE_ITEM_JSON_PROPERTY.setProperty(
+                    vb,
+                    json,
+                    getVisibility()
+            );
+            vb.save(authorizations);
+            this.graph.flush();
+            progressState.written(progressPercent, now);
+        }
+
+        workQueueRepository.broadcastLongRunningProcessChange(json);
+    }
+
+    @Override
+    public void checkpoint(JSONObject longRunningProcessQueueItem, JSONObject checkpoint) {
+        super.checkpoint(longRunningProcessQueueItem, checkpoint);
+        String longRunningProcessId = longRunningProcessQueueItem.optString("id", null);
         if (longRunningProcessId == null) {
             return;
         }
@@ -226,15 +326,8 @@ public class VertexiumLongRunningProcessRepository extends LongRunningProcessRep
         Vertex vertex = this.graph.getVertex(longRunningProcessId, authorizations);
         checkNotNull(vertex, "Could not find long running process vertex: " + longRunningProcessId);
 
-        JSONObject object = LongRunningProcessProperties.QUEUE_ITEM_JSON_PROPERTY.getPropertyValue(vertex);
-        if (object.optBoolean("canceled", false)) {
-            throw new OpenLumifyException("Unable to update progress of cancelled process");
-        }
-
         JSONObject json = LongRunningProcessProperties.QUEUE_ITEM_JSON_PROPERTY.getPropertyValue(vertex);
-        json.put("progress", progressPercent);
-        json.put("progressMessage", message);
-        json.put("id", longRunningProcessId);
+        json.put(CHECKPOINT, checkpoint);
 
         VertexBuilder vb = graph.prepareVertex(longRunningProcessId, vertex.getVisibility());
         LongRunningProcessProperties.QUEUE_ITEM_JSON_PROPERTY.setProperty(
@@ -244,8 +337,6 @@ public class VertexiumLongRunningProcessRepository extends LongRunningProcessRep
         );
         vb.save(authorizations);
         this.graph.flush();
-
-        workQueueRepository.broadcastLongRunningProcessChange(json);
     }
 
     @Override
@@ -253,6 +344,7 @@ public class VertexiumLongRunningProcessRepository extends LongRunningProcessRep
         if (longRunningProcessId == null) {
             return;
         }
+        progressStates.remove(longRunningProcessId);
         Authorizations authorizations = getAuthorizations(authUser);
         Vertex vertex = this.graph.getVertex(longRunningProcessId, authorizations);
         JSONObject json = null;
@@ -270,4 +362,24 @@ public class VertexiumLongRunningProcessRepository extends LongRunningProcessRep
     private Visibility getVisibility() {
         return new OpenLumifyVisibility(VISIBILITY_STRING).getVisibility();
     }
+
+    private class ProgressState {
+        private volatile boolean canceled;
+        private boolean hasWritten;
+        private long lastWriteTime;
+        private double lastWrittenProgressPercent;
+
+        boolean isWriteNeeded(double progressPercent, long now) {
+            return !hasWritten
+                    || progressPercent >= 1.0
+                    || now - lastWriteTime >= progressIntervalMillis
+                    || Math.abs(progressPercent - lastWrittenProgressPercent) >= progressDelta;
+        }
+
+        void written(double progressPercent, long now) {
+            hasWritten = true;
+            lastWriteTime = now;
+            lastWrittenProgressPercent = progressPercent;
+        }
+    }
 }
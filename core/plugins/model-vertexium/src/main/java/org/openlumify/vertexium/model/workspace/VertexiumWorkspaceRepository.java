@@ -448,7 +448,7 @@ public class VertexiumWorkspaceRepository extends WorkspaceRepository {
             );
         }
 
-        return lockRepository.lock(
+        return lockRepository.lockShared(
                 getLockName(workspace),
                 () -> findEntitiesNoLock(workspace, false, fetchVertices, user)
         );
@@ -1609,7 +1609,7 @@ public class VertexiumWorkspaceRepository extends WorkspaceRepository {
             );
         }
 
-        return lockRepository.lock(getLockName(workspace), () -> {
+        return lockRepository.lockShared(getLockName(workspace), () -> {
             List<WorkspaceEntity> workspaceEntities = findEntitiesNoLock(workspace, true, true, user);
             Iterable<Edge> workspaceEdges = findModifiedEdges(workspace, workspaceEntities, true, user);
             return workspaceDiff.diff(workspace, workspaceEntities, workspaceEdges, userContext, user);
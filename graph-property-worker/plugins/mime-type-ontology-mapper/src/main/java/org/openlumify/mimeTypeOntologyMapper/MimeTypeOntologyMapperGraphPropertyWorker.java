@@ -7,6 +7,7 @@ import org.vertexium.mutation.ExistingElementMutation;
 import org.openlumify.core.exception.OpenLumifyException;
 import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkData;
 import org.openlumify.core.ingest.graphProperty.GraphPropertyWorker;
+import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkerInterest;
 import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkerPrepareData;
 import org.openlumify.core.model.Description;
 import org.openlumify.core.model.Name;
@@ -123,6 +124,13 @@ public class MimeTypeOntologyMapperGraphPropertyWorker extends GraphPropertyWork
         );
     }
 
+    @Override
+    public GraphPropertyWorkerInterest getInterest() {
+        // isHandled still checks that the element has a mime type and no concept type yet
+        return GraphPropertyWorkerInterest.forProperties(OpenLumifyProperties.RAW.getPropertyName())
+                .setHandledChecked(true);
+    }
+
     @Override
     public boolean isHandled(Element element, Property property) {
         if (property == null) {
@@ -9,6 +9,7 @@ import org.vertexium.Property;
 import org.vertexium.Vertex;
 import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkData;
 import org.openlumify.core.ingest.graphProperty.GraphPropertyWorker;
+import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkerInterest;
 import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkerPrepareData;
 import org.openlumify.core.model.Description;
 import org.openlumify.core.model.Name;
@@ -85,6 +86,13 @@ public class PhoneNumberGraphPropertyWorker extends GraphPropertyWorker {
         LOGGER.debug("Number of phone numbers extracted: %d", count(phoneNumbers));
     }
 
+    @Override
+    public GraphPropertyWorkerInterest getInterest() {
+        return GraphPropertyWorkerInterest.forAllProperties()
+                .setExcludedPropertyNames(OpenLumifyProperties.RAW.getPropertyName())
+                .setMimeTypePrefixes("text");
+    }
+
     @Override
     public boolean isHandled(Element element, Property property) {
         if (property == null) {
@@ -28,6 +28,7 @@ import org.vertexium.mutation.ExistingElementMutation;
 import org.vertexium.property.StreamingPropertyValue;
 import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkData;
 import org.openlumify.core.ingest.graphProperty.GraphPropertyWorker;
+import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkerInterest;
 import org.openlumify.core.ingest.graphProperty.GraphPropertyWorkerPrepareData;
 import org.openlumify.core.model.Description;
 import org.openlumify.core.model.Name;
@@ -402,6 +403,13 @@ public class TikaTextExtractorGraphPropertyWorker extends GraphPropertyWorker {
                 .replaceAll("[ ]+", " ");
     }
 
+    @Override
+    public GraphPropertyWorkerInterest getInterest() {
+        // isHandled still excludes the media and geo mime types
+        return GraphPropertyWorkerInterest.forProperties(configuration.getRawPropertyNames().toArray(new String[0]))
+                .setHandledChecked(true);
+    }
+
     @Override
     public boolean isHandled(Element element, Property property) {
         if (property == null) {
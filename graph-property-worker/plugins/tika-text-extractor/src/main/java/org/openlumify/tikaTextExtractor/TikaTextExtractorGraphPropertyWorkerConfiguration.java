@@ -8,7 +8,9 @@ import org.openlumify.core.config.Configurable;
 import org.openlumify.core.config.Configuration;
 import org.openlumify.core.model.properties.OpenLumifyProperties;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 @Singleton
 public class TikaTextExtractorGraphPropertyWorkerConfiguration {
@@ -31,6 +33,14 @@ public class TikaTextExtractorGraphPropertyWorkerConfiguration {
         }
     }
 
+    Set<String> getRawPropertyNames() {
+        Set<String> rawPropertyNames = new HashSet<>();
+        for (TextExtractMapping textExtractMapping : this.textExtractMappings.values()) {
+            rawPropertyNames.add(textExtractMapping.rawPropertyName);
+        }
+        return rawPropertyNames;
+    }
+
     boolean isHandled(Element element, Property property) {
         for (TextExtractMapping textExtractMapping : this.textExtractMappings.values()) {
             if (textExtractMapping.rawPropertyName.equals(property.getName())) {
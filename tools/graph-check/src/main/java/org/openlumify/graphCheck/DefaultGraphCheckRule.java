@@ -2,7 +2,14 @@ package org.openlumify.graphCheck;
 
 import org.vertexium.*;
 
+import java.util.EnumSet;
+
 public class DefaultGraphCheckRule implements GraphCheckRule {
+    @Override
+    public EnumSet<FetchHint> getFetchHints() {
+        return FetchHint.ALL_INCLUDING_HIDDEN;
+    }
+
     @Override
     public void visitElement(GraphCheckContext ctx, Element element) {
 
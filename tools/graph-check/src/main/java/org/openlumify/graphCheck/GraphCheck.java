@@ -1,36 +1,104 @@
 package org.openlumify.graphCheck;
 
+import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 import com.google.inject.Inject;
 import org.vertexium.*;
 import org.openlumify.core.cmdline.CommandLineTool;
+import org.openlumify.core.exception.OpenLumifyException;
 import org.openlumify.core.model.user.GraphAuthorizationRepository;
+import org.openlumify.core.util.GraphSplitsUtil;
+import org.openlumify.core.util.OpenLumifyLogger;
+import org.openlumify.core.util.OpenLumifyLoggerFactory;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Parameters(commandDescription = "Checks the graph for common errors")
 public class GraphCheck extends CommandLineTool {
+    private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(GraphCheck.class);
     private GraphAuthorizationRepository graphAuthorizationRepository;
     private Authorizations authorizations;
 
+    @Parameter(names = {"--threads", "-t"}, description = "Number of ranges of elements checked at a time")
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+
+    @Parameter(names = {"--report", "-r"}, description = "File to write errors and warnings to, one JSON object per line")
+    private File reportFile = null;
+
     public static void main(String[] args) throws Exception {
         CommandLineTool.main(new GraphCheck(), args);
     }
 
     @Override
     protected int run() throws Exception {
-        GraphCheckContext ctx = new GraphCheckContext(getAuthorizations());
-        GraphCheckVertexiumObjectVisitor visitor = new GraphCheckVertexiumObjectVisitor(ctx, getConfiguration());
+        try (Writer reportWriter = reportFile == null ? null : new BufferedWriter(new OutputStreamWriter(new FileOutputStream(reportFile), StandardCharsets.UTF_8))) {
+            Authorizations authorizations = getAuthorizations();
+            GraphCheckContext ctx = new GraphCheckContext(authorizations, reportWriter);
+            GraphCheckVertexiumObjectVisitor visitor = new GraphCheckVertexiumObjectVisitor(ctx, getConfiguration());
+            EnumSet<FetchHint> fetchHints = visitor.getFetchHints();
 
-        Iterable<Vertex> vertices = getGraph().getVertices(FetchHint.ALL_INCLUDING_HIDDEN, getAuthorizations());
-        getGraph().visit(vertices, visitor);
-
-        Iterable<Edge> edges = getGraph().getEdges(FetchHint.ALL_INCLUDING_HIDDEN, getAuthorizations());
-        getGraph().visit(edges, visitor);
+            check(getGraph(), visitor, fetchHints, authorizations, threadCount);
 
+            LOGGER.info("Graph check found %d errors and %d warnings", ctx.getErrorCount(), ctx.getWarningCount());
+        }
         return 0;
     }
 
+    /**
+     * Visits every vertex and edge of the graph, one range of ids per task.
+     */
+    static void check(
+            Graph graph,
+            GraphVisitor visitor,
+            EnumSet<FetchHint> fetchHints,
+            Authorizations authorizations,
+            int threadCount
+    ) {
+        List<Range> vertexRanges = GraphSplitsUtil.getRanges(graph, ElementType.VERTEX);
+        List<Range> edgeRanges = GraphSplitsUtil.getRanges(graph, ElementType.EDGE);
+        int rangeCount = vertexRanges.size() + edgeRanges.size();
+        AtomicInteger completedRangeCount = new AtomicInteger();
+        LOGGER.info("Checking %d ranges on %d threads with fetch hints %s", rangeCount, threadCount, fetchHints);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threadCount));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Range range : vertexRanges) {
+                futures.add(executor.submit(() -> {
+                    graph.visit(graph.getVerticesInRange(range, fetchHints, authorizations), visitor);
+                    LOGGER.info("Checked vertices %s (%d/%d)", range, completedRangeCount.incrementAndGet(), rangeCount);
+                }));
+            }
+            for (Range range : edgeRanges) {
+                futures.add(executor.submit(() -> {
+                    graph.visit(graph.getEdgesInRange(range, fetchHints, authorizations), visitor);
+                    LOGGER.info("Checked edges %s (%d/%d)", range, completedRangeCount.incrementAndGet(), rangeCount);
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new OpenLumifyException("Interrupted checking graph", ex);
+                } catch (ExecutionException ex) {
+                    throw new OpenLumifyException("Could not check graph", ex.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Override
     protected Authorizations getAuthorizations() {
         if (authorizations == null) {
@@ -1,40 +1,99 @@
 package org.openlumify.graphCheck;
 
+import org.json.JSONObject;
 import org.vertexium.*;
 import org.openlumify.core.exception.OpenLumifyException;
 import org.openlumify.core.util.OpenLumifyLogger;
 import org.openlumify.core.util.OpenLumifyLoggerFactory;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports problems found by the rules. Rules are run on many threads at once, so reports may come from any thread.
+ */
 public class GraphCheckContext {
     private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(GraphCheckContext.class);
     private final Authorizations authorizations;
+    private final Writer reportWriter;
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong warningCount = new AtomicLong();
 
     public GraphCheckContext(Authorizations authorizations) {
+        this(authorizations, null);
+    }
+
+    /**
+     * @param reportWriter if not null, every error and warning is also written to it as one JSON object per line
+     */
+    public GraphCheckContext(Authorizations authorizations, Writer reportWriter) {
         this.authorizations = authorizations;
+        this.reportWriter = reportWriter;
     }
 
     public Authorizations getAuthorizations() {
         return authorizations;
     }
 
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    public long getWarningCount() {
+        return warningCount.get();
+    }
+
     public void reportError(GraphCheckRule rule, VertexiumObject object, String messageFormat, Object... messageParams) {
         Object[] params = getMessageParams(rule, object, messageParams);
         LOGGER.error("%s: " + messageFormat, params);
+        errorCount.incrementAndGet();
+        writeReport("error", rule, object, null, messageFormat, messageParams);
     }
 
     public void reportWarning(GraphCheckRule rule, VertexiumObject object, String messageFormat, Object... messageParams) {
         Object[] params = getMessageParams(rule, object, messageParams);
         LOGGER.warn("%s: " + messageFormat, params);
+        warningCount.incrementAndGet();
+        writeReport("warning", rule, object, null, messageFormat, messageParams);
     }
 
     public void reportError(GraphCheckRule rule, VertexiumObject object, Property property, String messageFormat, Object... messageParams) {
         Object[] params = getMessageParams(rule, object, property, messageParams);
         LOGGER.error("%s: " + messageFormat, params);
+        errorCount.incrementAndGet();
+        writeReport("error", rule, object, property, messageFormat, messageParams);
     }
 
     public void reportWarning(GraphCheckRule rule, VertexiumObject object, Property property, String messageFormat, Object... messageParams) {
         Object[] params = getMessageParams(rule, object, property, messageParams);
         LOGGER.warn("%s: " + messageFormat, params);
+        warningCount.incrementAndGet();
+        writeReport("warning", rule, object, property, messageFormat, messageParams);
+    }
+
+    private void writeReport(String level, GraphCheckRule rule, VertexiumObject object, Property property, String messageFormat, Object... messageParams) {
+        if (reportWriter == null) {
+            return;
+        }
+        JSONObject json = new JSONObject();
+        json.put("level", level);
+        json.put("rule", rule.getClass().getSimpleName());
+        json.put("type", getVertexiumObjectTypeAsString(object));
+        json.put("id", String.valueOf(object.getId()));
+        if (property != null) {
+            json.put("propertyKey", property.getKey());
+            json.put("propertyName", property.getName());
+        }
+        json.put("message", String.format(messageFormat, messageParams));
+        String line = json.toString() + "\n";
+        try {
+            synchronized (reportWriter) {
+                reportWriter.write(line);
+            }
+        } catch (IOException ex) {
+            throw new OpenLumifyException("Could not write graph check report", ex);
+        }
     }
 
     private Object[] getMessageParams(GraphCheckRule rule, VertexiumObject object, Object... messageParams) {
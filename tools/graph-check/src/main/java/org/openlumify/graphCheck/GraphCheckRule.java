@@ -2,7 +2,17 @@ package org.openlumify.graphCheck;
 
 import org.vertexium.*;
 
+import java.util.EnumSet;
+
 public interface GraphCheckRule {
+    /**
+     * The data the rule looks at. Elements are fetched with the union of the fetch hints of all rules, rules that
+     * need less than all the visible data should narrow this.
+     */
+    default EnumSet<FetchHint> getFetchHints() {
+        return FetchHint.ALL;
+    }
+
     void visitElement(GraphCheckContext ctx, Element element);
 
     void visitVertex(GraphCheckContext ctx, Vertex vertex);
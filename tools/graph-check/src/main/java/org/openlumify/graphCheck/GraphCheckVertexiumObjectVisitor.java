@@ -5,14 +5,27 @@ import org.openlumify.core.bootstrap.InjectHelper;
 import org.openlumify.core.config.Configuration;
 
 import java.util.Collection;
+import java.util.EnumSet;
 
 public class GraphCheckVertexiumObjectVisitor implements GraphVisitor {
     private final GraphCheckContext ctx;
     private final Collection<GraphCheckRule> rules;
 
     public GraphCheckVertexiumObjectVisitor(GraphCheckContext ctx, Configuration configuration) {
+        this(ctx, InjectHelper.getInjectedServices(GraphCheckRule.class, configuration));
+    }
+
+    GraphCheckVertexiumObjectVisitor(GraphCheckContext ctx, Collection<GraphCheckRule> rules) {
         this.ctx = ctx;
-        this.rules = InjectHelper.getInjectedServices(GraphCheckRule.class, configuration);
+        this.rules = rules;
+    }
+
+    public EnumSet<FetchHint> getFetchHints() {
+        EnumSet<FetchHint> fetchHints = EnumSet.noneOf(FetchHint.class);
+        for (GraphCheckRule rule : this.rules) {
+            fetchHints.addAll(rule.getFetchHints());
+        }
+        return fetchHints;
     }
 
     @Override
@@ -2,12 +2,20 @@ package org.openlumify.graphCheck.rules;
 
 import org.vertexium.Edge;
 import org.vertexium.Element;
+import org.vertexium.FetchHint;
 import org.vertexium.Vertex;
 import org.openlumify.core.model.properties.OpenLumifyProperties;
 import org.openlumify.graphCheck.DefaultGraphCheckRule;
 import org.openlumify.graphCheck.GraphCheckContext;
 
+import java.util.EnumSet;
+
 public class HasConceptTypeGraphCheckRule extends DefaultGraphCheckRule {
+    @Override
+    public EnumSet<FetchHint> getFetchHints() {
+        return EnumSet.of(FetchHint.PROPERTIES, FetchHint.INCLUDE_HIDDEN);
+    }
+
     @Override
     public void visitVertex(GraphCheckContext ctx, Vertex vertex) {
         hasConceptType(ctx, vertex);
@@ -1,12 +1,20 @@
 package org.openlumify.graphCheck.rules;
 
 import org.vertexium.Element;
+import org.vertexium.FetchHint;
 import org.vertexium.Property;
 import org.openlumify.core.model.properties.OpenLumifyProperties;
 import org.openlumify.graphCheck.DefaultGraphCheckRule;
 import org.openlumify.graphCheck.GraphCheckContext;
 
+import java.util.EnumSet;
+
 public class HasRequiredMetadataGraphCheckRule extends DefaultGraphCheckRule {
+    @Override
+    public EnumSet<FetchHint> getFetchHints() {
+        return EnumSet.of(FetchHint.PROPERTIES, FetchHint.PROPERTY_METADATA, FetchHint.INCLUDE_HIDDEN);
+    }
+
     @Override
     public void visitElement(GraphCheckContext ctx, Element element) {
         checkElementHasProperty(ctx, element, OpenLumifyProperties.MODIFIED_BY.getPropertyName());
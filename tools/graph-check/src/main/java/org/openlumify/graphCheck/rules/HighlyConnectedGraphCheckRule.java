@@ -2,12 +2,15 @@ package org.openlumify.graphCheck.rules;
 
 import com.google.inject.Inject;
 import org.vertexium.Direction;
+import org.vertexium.FetchHint;
 import org.vertexium.Vertex;
 import org.openlumify.core.config.Configurable;
 import org.openlumify.core.config.Configuration;
 import org.openlumify.graphCheck.DefaultGraphCheckRule;
 import org.openlumify.graphCheck.GraphCheckContext;
 
+import java.util.EnumSet;
+
 import static org.vertexium.util.IterableUtils.count;
 
 public class HighlyConnectedGraphCheckRule extends DefaultGraphCheckRule {
@@ -19,6 +22,11 @@ public class HighlyConnectedGraphCheckRule extends DefaultGraphCheckRule {
         config = configuration.setConfigurables(new Config(), CONFIGURATION_PROPERTY_PREFIX);
     }
 
+    @Override
+    public EnumSet<FetchHint> getFetchHints() {
+        return EnumSet.of(FetchHint.IN_EDGE_REFS, FetchHint.OUT_EDGE_REFS, FetchHint.INCLUDE_HIDDEN);
+    }
+
     @Override
     public void visitVertex(GraphCheckContext ctx, Vertex vertex) {
         int edgeCount = count(vertex.getEdgeIds(Direction.BOTH, ctx.getAuthorizations()));
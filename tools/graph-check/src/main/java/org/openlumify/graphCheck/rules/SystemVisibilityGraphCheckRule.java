@@ -2,13 +2,21 @@ package org.openlumify.graphCheck.rules;
 
 import org.vertexium.Element;
 import org.vertexium.ExtendedDataRow;
+import org.vertexium.FetchHint;
 import org.vertexium.Property;
 import org.vertexium.Visibility;
 import org.openlumify.core.security.OpenLumifyVisibility;
 import org.openlumify.graphCheck.DefaultGraphCheckRule;
 import org.openlumify.graphCheck.GraphCheckContext;
 
+import java.util.EnumSet;
+
 public class SystemVisibilityGraphCheckRule extends DefaultGraphCheckRule {
+    @Override
+    public EnumSet<FetchHint> getFetchHints() {
+        return EnumSet.of(FetchHint.PROPERTIES, FetchHint.EXTENDED_DATA_TABLE_NAMES, FetchHint.INCLUDE_HIDDEN);
+    }
+
     @Override
     public void visitElement(GraphCheckContext ctx, Element element) {
         Visibility visibility = element.getVisibility();
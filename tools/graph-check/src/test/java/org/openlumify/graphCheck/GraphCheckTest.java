@@ -0,0 +1,141 @@
+package org.openlumify.graphCheck;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.vertexium.*;
+import org.vertexium.inmemory.InMemoryGraph;
+import org.openlumify.core.model.properties.OpenLumifyProperties;
+import org.openlumify.graphCheck.rules.HasConceptTypeGraphCheckRule;
+
+import java.io.StringWriter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class GraphCheckTest {
+    // ids before the first split, between splits and after the last split
+    private static final List<String> VERTEX_IDS = Arrays.asList("\u0001v", " v", "Av", "av", "mv", "}v", "~v", "\u00e9v");
+    private static final List<String> EDGE_IDS = Arrays.asList("\u0001e", "Ee", "ee", "~e");
+    private Graph graph;
+    private Authorizations authorizations;
+
+    @Before
+    public void before() {
+        graph = InMemoryGraph.create();
+        authorizations = graph.createAuthorizations();
+        Visibility visibility = new Visibility("");
+        for (int i = 0; i < VERTEX_IDS.size(); i++) {
+            ElementBuilder<Vertex> m = graph.prepareVertex(VERTEX_IDS.get(i), visibility);
+            // every other vertex is missing its concept type
+            if (i % 2 == 0) {
+                OpenLumifyProperties.CONCEPT_TYPE.setProperty(m, "http://openlumify.org/test#person", visibility);
+            }
+            m.save(authorizations);
+        }
+        for (int i = 0; i < EDGE_IDS.size(); i++) {
+            ElementBuilder<Edge> m = graph.prepareEdge(EDGE_IDS.get(i), VERTEX_IDS.get(i), VERTEX_IDS.get(i + 1), "label", visibility)
+                    .addPropertyValue("k1", "bad", "value", visibility);
+            m.save(authorizations);
+        }
+        graph.flush();
+    }
+
+    @Test
+    public void testEveryElementIsCheckedOnceAcrossRanges() {
+        CountingGraphCheckRule countingRule = new CountingGraphCheckRule();
+        GraphCheckContext ctx = new GraphCheckContext(authorizations);
+        GraphCheckVertexiumObjectVisitor visitor = new GraphCheckVertexiumObjectVisitor(ctx, Collections.singletonList(countingRule));
+
+        GraphCheck.check(graph, visitor, visitor.getFetchHints(), authorizations, 4);
+
+        assertEquals(new HashSet<>(VERTEX_IDS), countingRule.vertexVisits.keySet());
+        assertEquals(new HashSet<>(EDGE_IDS), countingRule.edgeVisits.keySet());
+        for (AtomicInteger visits : countingRule.vertexVisits.values()) {
+            assertEquals(1, visits.get());
+        }
+        for (AtomicInteger visits : countingRule.edgeVisits.values()) {
+            assertEquals(1, visits.get());
+        }
+        assertFalse("ranges should be checked by the worker threads", countingRule.threadNames.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    public void testReportIsOneJsonObjectPerLine() {
+        StringWriter reportWriter = new StringWriter();
+        GraphCheckContext ctx = new GraphCheckContext(authorizations, reportWriter);
+        GraphCheckVertexiumObjectVisitor visitor = new GraphCheckVertexiumObjectVisitor(
+                ctx,
+                Arrays.asList(new HasConceptTypeGraphCheckRule(), new BadPropertyGraphCheckRule())
+        );
+
+        GraphCheck.check(graph, visitor, visitor.getFetchHints(), authorizations, 2);
+
+        String[] lines = reportWriter.toString().split("\n");
+        // half the vertices and all edges miss a concept type, every edge has a bad property
+        int expectedErrors = VERTEX_IDS.size() / 2 + EDGE_IDS.size();
+        int expectedWarnings = EDGE_IDS.size();
+        assertEquals(expectedErrors + expectedWarnings, lines.length);
+        assertEquals(expectedErrors, ctx.getErrorCount());
+        assertEquals(expectedWarnings, ctx.getWarningCount());
+
+        Set<String> missingConceptTypeIds = new HashSet<>();
+        Set<String> badPropertyIds = new HashSet<>();
+        for (String line : lines) {
+            JSONObject json = new JSONObject(line);
+            if (json.getString("level").equals("error")) {
+                assertEquals(HasConceptTypeGraphCheckRule.class.getSimpleName(), json.getString("rule"));
+                assertEquals("Missing \"" + OpenLumifyProperties.CONCEPT_TYPE.getPropertyName() + "\"", json.getString("message"));
+                assertFalse(json.has("propertyName"));
+                missingConceptTypeIds.add(json.getString("type") + ":" + json.getString("id"));
+            } else {
+                assertEquals("warning", json.getString("level"));
+                assertEquals(BadPropertyGraphCheckRule.class.getSimpleName(), json.getString("rule"));
+                assertEquals("edge", json.getString("type"));
+                assertEquals("k1", json.getString("propertyKey"));
+                assertEquals("bad", json.getString("propertyName"));
+                assertEquals("Bad value: value", json.getString("message"));
+                badPropertyIds.add(json.getString("id"));
+            }
+        }
+
+        Set<String> expectedMissingConceptTypeIds = new HashSet<>();
+        for (int i = 1; i < VERTEX_IDS.size(); i += 2) {
+            expectedMissingConceptTypeIds.add("vertex:" + VERTEX_IDS.get(i));
+        }
+        for (String edgeId : EDGE_IDS) {
+            expectedMissingConceptTypeIds.add("edge:" + edgeId);
+        }
+        assertEquals(expectedMissingConceptTypeIds, missingConceptTypeIds);
+        assertEquals(new HashSet<>(EDGE_IDS), badPropertyIds);
+    }
+
+    private static class CountingGraphCheckRule extends DefaultGraphCheckRule {
+        private final Map<String, AtomicInteger> vertexVisits = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> edgeVisits = new ConcurrentHashMap<>();
+        private final Set<String> threadNames = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        @Override
+        public void visitVertex(GraphCheckContext ctx, Vertex vertex) {
+            vertexVisits.computeIfAbsent(vertex.getId(), k -> new AtomicInteger()).incrementAndGet();
+            threadNames.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public void visitEdge(GraphCheckContext ctx, Edge edge) {
+            edgeVisits.computeIfAbsent(edge.getId(), k -> new AtomicInteger()).incrementAndGet();
+            threadNames.add(Thread.currentThread().getName());
+        }
+    }
+
+    private static class BadPropertyGraphCheckRule extends DefaultGraphCheckRule {
+        @Override
+        public void visitProperty(GraphCheckContext ctx, Element element, Property property) {
+            if (property.getName().equals("bad")) {
+                ctx.reportWarning(this, element, property, "Bad value: %s", property.getValue());
+            }
+        }
+    }
+}
@@ -4,19 +4,14 @@ import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 import com.google.inject.Inject;
 import org.vertexium.ElementType;
-import org.vertexium.Graph;
 import org.vertexium.GraphWithSearchIndex;
-import org.vertexium.Range;
-import org.vertexium.accumulo.AccumuloGraph;
 import org.openlumify.core.cmdline.CommandLineTool;
-import org.openlumify.core.exception.OpenLumifyException;
-import org.openlumify.core.model.graph.ProxyGraph;
 import org.openlumify.core.model.longRunningProcess.LongRunningProcessRepository;
 import org.openlumify.core.model.longRunningProcess.ReindexLongRunningProcessQueueItem;
+import org.openlumify.core.util.GraphSplitsUtil;
 import org.openlumify.core.util.OpenLumifyLogger;
 import org.openlumify.core.util.OpenLumifyLoggerFactory;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Parameters(commandDescription = "Reindex elements by enqueueing long running process items to reindex")
@@ -72,7 +67,7 @@ public class Reindex extends CommandLineTool {
     }
 
     private void enqueueElementsForReindex(ElementType elementType, Integer batchSize) {
-        List<String> splits = getSplits(elementType);
+        List<String> splits = GraphSplitsUtil.getSplits(getGraph(), elementType);
         if (splits.size() <= 1) {
             ReindexLongRunningProcessQueueItem reindexQueueItem = new ReindexLongRunningProcessQueueItem(
                     elementType,
@@ -104,58 +99,6 @@ public class Reindex extends CommandLineTool {
         longRunningProcessRepository.enqueue(reindexQueueItem, getUser(), getAuthorizations());
     }
 
-    private List<String> getSplits(ElementType elementType) {
-        List<String> splits;
-
-        try {
-            splits = getSplitsFromAccumuloGraph(elementType);
-            if (splits != null) {
-                return splits;
-            }
-        } catch (NoClassDefFoundError ex) {
-            // This can be ignored, this can only happen if AccumuloGraph is not being used, not found on class path
-        }
-
-        splits = new ArrayList<>();
-        for (char c = ' '; c < '~'; c++) {
-            splits.add(Character.toString(c));
-        }
-        return splits;
-    }
-
-    private List<String> getSplitsFromAccumuloGraph(ElementType elementType) {
-        Graph graph = getGraph();
-        while (graph instanceof ProxyGraph) {
-            graph = ((ProxyGraph) graph).getProxiedGraph();
-        }
-
-        if (!(graph instanceof AccumuloGraph)) {
-            return null;
-        }
-        AccumuloGraph accumuloGraph = (AccumuloGraph) graph;
-        Iterable<Range> splits;
-        switch (elementType) {
-            case VERTEX:
-                splits = accumuloGraph.listVerticesTableSplits();
-                break;
-            case EDGE:
-                splits = accumuloGraph.listEdgesTableSplits();
-                break;
-            default:
-                throw new OpenLumifyException("Unhandled element type: " + elementType);
-        }
-
-        List<String> result = new ArrayList<>();
-        boolean first = true;
-        for (Range split : splits) {
-            if (!first) {
-                result.add(split.getInclusiveStart());
-            }
-            first = false;
-        }
-        return result;
-    }
-
     @Inject
     public void setLongRunningProcessRepository(LongRunningProcessRepository longRunningProcessRepository) {
         this.longRunningProcessRepository = longRunningProcessRepository;
@@ -11,6 +11,7 @@ import org.vertexium.Authorizations;
 import org.vertexium.Graph;
 import org.vertexium.Vertex;
 import org.vertexium.property.StreamingPropertyValue;
+import org.openlumify.core.config.Configuration;
 import org.openlumify.core.exception.OpenLumifyException;
 import org.openlumify.core.exception.OpenLumifyResourceNotFoundException;
 import org.openlumify.core.model.longRunningProcess.LongRunningProcessRepository;
@@ -54,6 +55,7 @@ public class Ingest implements ParameterizedHandler {
     private final WorkQueueRepository workQueueRepository;
     private final Graph graph;
     private final StructuredIngestParserFactory structuredIngestParserFactory;
+    private final Configuration configuration;
 
     @Inject
     public Ingest(
@@ -65,7 +67,8 @@ public class Ingest implements ParameterizedHandler {
         StructuredIngestParserFactory structuredIngestParserFactory,
         WorkQueueRepository workQueueRepository,
         VisibilityTranslator visibilityTranslator,
-        Graph graph
+        Graph graph,
+        Configuration configuration
     ) {
         this.longRunningProcessRepository = longRunningProcessRepository;
         this.ontologyRepository = ontologyRepository;
@@ -76,6 +79,7 @@ public class Ingest implements ParameterizedHandler {
         this.structuredIngestParserFactory = structuredIngestParserFactory;
         this.workQueueRepository = workQueueRepository;
         this.graph = graph;
+        this.configuration = configuration;
     }
 
     @Handle
@@ -133,6 +137,7 @@ public class Ingest implements ParameterizedHandler {
                     long total = Math.min(GraphBuilderParserHandler.MAX_DRY_RUN_ROWS, totalRows);
                     data.put("row", row);
                     data.put("total", total);
+                    data.put("rowsPerSecond", getRowsPerSecond(row));
 
                     // Broadcast when we get this change in percent
                     int percent = (int) ((double)total * 0.01);
@@ -159,9 +164,16 @@ public class Ingest implements ParameterizedHandler {
                 reporter);
 
         parserHandler.dryRun = true;
+        parserHandler.batchSize = configuration.getInt(GraphBuilderParserHandler.CONFIG_BATCH_SIZE, GraphBuilderParserHandler.DEFAULT_BATCH_SIZE);
+        parserHandler.mappingThreadCount = configuration.getInt(GraphBuilderParserHandler.CONFIG_MAPPING_THREAD_COUNT, GraphBuilderParserHandler.DEFAULT_MAPPING_THREAD_COUNT);
         ParseOptions parseOptions = new ParseOptions(optionsJson);
 
-        parse(vertex, rawPropertyValue, parseOptions, parserHandler);
+        try {
+            parse(vertex, rawPropertyValue, parseOptions, parserHandler);
+            parserHandler.flush();
+        } finally {
+            parserHandler.close();
+        }
 
         if (parserHandler.hasErrors()) {
             return parserHandler.parseErrors;
@@ -1,7 +1,6 @@
 package org.openlumify.web.structuredingest.core.util;
 
 import com.google.common.base.Charsets;
-import com.google.common.collect.Lists;
 import com.google.common.hash.HashCode;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hasher;
@@ -34,16 +33,18 @@ import org.openlumify.web.structuredingest.core.util.mapping.ParseMapping;
 import org.openlumify.web.structuredingest.core.util.mapping.PropertyMapping;
 import org.openlumify.web.structuredingest.core.util.mapping.VertexMapping;
 
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
 
 import static org.openlumify.core.model.properties.OpenLumifyProperties.VISIBILITY_JSON_METADATA;
 
-public class GraphBuilderParserHandler extends BaseStructuredFileParserHandler {
+public class GraphBuilderParserHandler extends BaseStructuredFileParserHandler implements AutoCloseable {
     private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(GraphBuilderParserHandler.class);
     public static final Long MAX_DRY_RUN_ROWS = 50000L;
+    public static final String CONFIG_BATCH_SIZE = GraphBuilderParserHandler.class.getName() + ".batchSize";
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final String CONFIG_MAPPING_THREAD_COUNT = GraphBuilderParserHandler.class.getName() + ".mappingThreadCount";
+    public static final int DEFAULT_MAPPING_THREAD_COUNT = Runtime.getRuntime().availableProcessors();
     private static final String MULTI_KEY = "SFIMPORT:";
     private static final String SKIPPED_VERTEX_ID = "SKIPPED_VERTEX";
 
@@ -69,8 +70,30 @@ public class GraphBuilderParserHandler extends BaseStructuredFileParserHandler {
     public boolean dryRun = true;
     public ClientApiParseErrors parseErrors = new ClientApiParseErrors();
     public ClientApiIngestPreview clientApiIngestPreview;
-    public List<String> createdVertexIds;
-    public List<String> createdEdgeIds;
+    public Set<String> createdVertexIds;
+    public Set<String> createdEdgeIds;
+
+    /**
+     * The number of rows saved together, with one graph flush, one workspace update and one bulk existence lookup
+     * per batch. Rows are only guaranteed to be in the graph, and counted in the preview, after {@link #flush()}.
+     */
+    public int batchSize = 1;
+
+    /**
+     * The number of threads decoding property values and generating ids while rows are read. Rows are still
+     * committed in row order. With more than one thread parse errors are only recorded when the row's batch is
+     * flushed, so a preview may read up to a batch past {@link #maxParseErrors}.
+     */
+    public int mappingThreadCount = 1;
+    private ExecutorService mappingExecutor;
+    private final List<Future<MappedRow>> pendingRows = new ArrayList<>();
+    private int committedRowCount;
+    private final List<VertexBuilder> pendingVertexBuilders = new ArrayList<>();
+    private final List<EdgeBuilderByVertexId> pendingEdgeBuilders = new ArrayList<>();
+    private final Set<String> pendingWorkspaceUpdates = new LinkedHashSet<>();
+    private final Map<String, VertexMapping> pendingNewVertexMappings = new LinkedHashMap<>();
+    private final Map<String, EdgeMapping> pendingNewEdgeMappings = new LinkedHashMap<>();
+    private final Map<String, String> resolvedVertexIds = new ConcurrentHashMap<>();
 
     public GraphBuilderParserHandler(
             Graph graph,
@@ -106,8 +129,8 @@ public class GraphBuilderParserHandler extends BaseStructuredFileParserHandler {
         }
 
         clientApiIngestPreview = new ClientApiIngestPreview();
-        createdVertexIds = Lists.newArrayList();
-        createdEdgeIds = Lists.newArrayList();
+        createdVertexIds = new LinkedHashSet<>();
+        createdEdgeIds = new LinkedHashSet<>();
         visibilityJson = new VisibilityJson(visibilityTranslator.getDefaultVisibility().getVisibilityString());
 
         if (this.publish) {
@@ -136,6 +159,8 @@ public class GraphBuilderParserHandler extends BaseStructuredFileParserHandler {
         clientApiIngestPreview = new ClientApiIngestPreview();
         createdVertexIds.clear();
         createdEdgeIds.clear();
+        clearPending();
+        resolvedVertexIds.clear();
     }
 
     public boolean hasErrors() {
@@ -159,88 +184,187 @@ public class GraphBuilderParserHandler extends BaseStructuredFileParserHandler {
         }
         clientApiIngestPreview.processedRows = rowCount;
 
-        Visibility defaultVisibility = visibilityTranslator.getDefaultVisibility();
 
         // Since we only handle the first sheet currently, bail if this isn't it.
         if (sheetNumber != 0) {
             return false;
         }
 
+        if (mappingThreadCount > 1) {
+            if (mappingExecutor == null) {
+                mappingExecutor = Executors.newFixedThreadPool(mappingThreadCount);
+            }
+            int currentSheetNumber = sheetNumber;
+            pendingRows.add(mappingExecutor.submit(() -> mapRow(row, rowNum, currentSheetNumber)));
+        } else {
+            pendingRows.add(CompletableFuture.completedFuture(mapRow(row, rowNum, sheetNumber)));
+            commitRows();
+        }
+
+        if (pendingRows.size() >= Math.max(1, batchSize)) {
+            flush();
+        }
+
+        if (progressReporter != null) {
+            progressReporter.finishedRow(rowNum, getTotalRows());
+        }
+
+        return !dryRun || maxParseErrors <= 0 || parseErrors.errors.size() < maxParseErrors;
+    }
+
+    private MappedRow mapRow(Map<String, Object> row, long rowNum, int sheetNumber) {
+        MappedRow mappedRow = new MappedRow();
         try {
             List<String> newVertexIds = new ArrayList<>();
-            List<VertexBuilder> vertexBuilders = new ArrayList<>();
-            List<String> workspaceUpdates = new ArrayList<>();
             long vertexNum = 0;
             for (VertexMapping vertexMapping : parseMapping.vertexMappings) {
-                VertexBuilder vertexBuilder = createVertex(vertexMapping, row, rowNum, vertexNum);
+                VertexBuilder vertexBuilder = createVertex(vertexMapping, row, rowNum, vertexNum, sheetNumber, mappedRow.parseErrors);
                 if (vertexBuilder != null) {
-                    boolean alreadyCreated = createdVertexIds.contains(vertexBuilder.getVertexId());
-                    vertexBuilders.add(vertexBuilder);
+                    mappedRow.vertexBuilders.add(vertexBuilder);
+                    mappedRow.vertexMappings.add(vertexMapping);
                     newVertexIds.add(vertexBuilder.getVertexId());
-                    createdVertexIds.add(vertexBuilder.getVertexId());
-                    workspaceUpdates.add(vertexBuilder.getVertexId());
-                    if (!alreadyCreated) {
-                        incrementConcept(vertexMapping, !graph.doesVertexExist(vertexBuilder.getVertexId(), authorizations));
-                    }
                 } else {
                     newVertexIds.add(SKIPPED_VERTEX_ID);
                 }
                 vertexNum++;
             }
 
-            List<EdgeBuilderByVertexId> edgeBuilders = new ArrayList<>();
             for (EdgeMapping edgeMapping : parseMapping.edgeMappings) {
                 EdgeBuilderByVertexId edgeBuilder = createEdge(edgeMapping, newVertexIds);
                 if (edgeBuilder != null) {
-                    boolean alreadyCreated = createdEdgeIds.contains(edgeBuilder.getEdgeId());
-                    createdEdgeIds.add(edgeBuilder.getEdgeId());
-                    edgeBuilders.add(edgeBuilder);
-                    if (!alreadyCreated) {
-                        incrementEdges(edgeMapping, !graph.doesEdgeExist(edgeBuilder.getEdgeId(), authorizations));
-                    }
+                    mappedRow.edgeBuilders.add(edgeBuilder);
+                    mappedRow.edgeMappings.add(edgeMapping);
                 }
             }
+        } catch (SkipRowException sre) {
+            // Skip the row and keep going
+            mappedRow.skipped = true;
+        }
+        return mappedRow;
+    }
 
-            if (!dryRun) {
-                HashFunction hash = Hashing.sha1();
-                for (VertexBuilder vertexBuilder : vertexBuilders) {
-                    Vertex newVertex = vertexBuilder.save(authorizations);
-                    EdgeBuilder hasSourceEdgeBuilder = graph.prepareEdge(
-                            hash.newHasher()
-                                    .putString(newVertex.getId())
-                                    .putString(structuredFileVertex.getId())
-                                    .hash()
-                                    .toString(),
-                            newVertex,
-                            structuredFileVertex,
-                            StructuredIngestOntology.ELEMENT_HAS_SOURCE_IRI,
-                            visibility
-                    );
-                    OpenLumifyProperties.VISIBILITY_JSON.setProperty(hasSourceEdgeBuilder, visibilityJson, defaultVisibility);
-                    OpenLumifyProperties.MODIFIED_BY.setProperty(hasSourceEdgeBuilder, user.getUserId(), defaultVisibility);
-                    OpenLumifyProperties.MODIFIED_DATE.setProperty(hasSourceEdgeBuilder, new Date(), defaultVisibility);
-                    hasSourceEdgeBuilder.save(authorizations);
-                }
+    /**
+     * Records the mapped rows, in row order, that have not been committed yet.
+     */
+    private void commitRows() {
+        for (; committedRowCount < pendingRows.size(); committedRowCount++) {
+            MappedRow mappedRow = getMappedRow(pendingRows.get(committedRowCount));
+            parseErrors.errors.addAll(mappedRow.parseErrors);
+            if (mappedRow.skipped) {
+                continue;
+            }
 
-                for (EdgeBuilderByVertexId edgeBuilder : edgeBuilders) {
-                    edgeBuilder.save(authorizations);
+            for (int i = 0; i < mappedRow.vertexBuilders.size(); i++) {
+                String vertexId = mappedRow.vertexBuilders.get(i).getVertexId();
+                if (createdVertexIds.add(vertexId)) {
+                    pendingNewVertexMappings.put(vertexId, mappedRow.vertexMappings.get(i));
                 }
+                pendingWorkspaceUpdates.add(vertexId);
+            }
+            for (int i = 0; i < mappedRow.edgeBuilders.size(); i++) {
+                String edgeId = mappedRow.edgeBuilders.get(i).getEdgeId();
+                if (createdEdgeIds.add(edgeId)) {
+                    pendingNewEdgeMappings.put(edgeId, mappedRow.edgeMappings.get(i));
+                }
+            }
+            if (!dryRun) {
+                pendingVertexBuilders.addAll(mappedRow.vertexBuilders);
+                pendingEdgeBuilders.addAll(mappedRow.edgeBuilders);
+            }
+        }
+    }
 
-                graph.flush();
+    private MappedRow getMappedRow(Future<MappedRow> pendingRow) {
+        try {
+            return pendingRow.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenLumifyException("Interrupted while mapping rows", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new OpenLumifyException("Could not map row", e.getCause());
+        }
+    }
 
-                if (!this.publish && workspaceUpdates.size() > 0) {
-                    workspaceRepository.updateEntitiesOnWorkspace(workspace, workspaceUpdates, user);
-                }
+    /**
+     * Saves the buffered rows and counts their new vertices and edges. Must be called once parsing is done.
+     */
+    public void flush() {
+        if (pendingRows.size() == 0) {
+            return;
+        }
+        commitRows();
+
+        if (pendingNewVertexMappings.size() > 0) {
+            Map<String, Boolean> existingVertices = graph.doVerticesExist(new ArrayList<>(pendingNewVertexMappings.keySet()), authorizations);
+            for (Map.Entry<String, VertexMapping> entry : pendingNewVertexMappings.entrySet()) {
+                incrementConcept(entry.getValue(), !Boolean.TRUE.equals(existingVertices.get(entry.getKey())));
+            }
+        }
+        if (pendingNewEdgeMappings.size() > 0) {
+            Map<String, Boolean> existingEdges = graph.doEdgesExist(new ArrayList<>(pendingNewEdgeMappings.keySet()), authorizations);
+            for (Map.Entry<String, EdgeMapping> entry : pendingNewEdgeMappings.entrySet()) {
+                incrementEdges(entry.getValue(), !Boolean.TRUE.equals(existingEdges.get(entry.getKey())));
             }
-        } catch (SkipRowException sre) {
-            // Skip the row and keep going
         }
 
-        if (progressReporter != null) {
-            progressReporter.finishedRow(rowNum, getTotalRows());
+        if (!dryRun) {
+            Visibility defaultVisibility = visibilityTranslator.getDefaultVisibility();
+            HashFunction hash = Hashing.sha1();
+            for (VertexBuilder vertexBuilder : pendingVertexBuilders) {
+                Vertex newVertex = vertexBuilder.save(authorizations);
+                EdgeBuilder hasSourceEdgeBuilder = graph.prepareEdge(
+                        hash.newHasher()
+                                .putString(newVertex.getId())
+                                .putString(structuredFileVertex.getId())
+                                .hash()
+                                .toString(),
+                        newVertex,
+                        structuredFileVertex,
+                        StructuredIngestOntology.ELEMENT_HAS_SOURCE_IRI,
+                        visibility
+                );
+                OpenLumifyProperties.VISIBILITY_JSON.setProperty(hasSourceEdgeBuilder, visibilityJson, defaultVisibility);
+                OpenLumifyProperties.MODIFIED_BY.setProperty(hasSourceEdgeBuilder, user.getUserId(), defaultVisibility);
+                OpenLumifyProperties.MODIFIED_DATE.setProperty(hasSourceEdgeBuilder, new Date(), defaultVisibility);
+                hasSourceEdgeBuilder.save(authorizations);
+            }
+
+            for (EdgeBuilderByVertexId edgeBuilder : pendingEdgeBuilders) {
+                edgeBuilder.save(authorizations);
+            }
+
+            graph.flush();
+
+            if (!this.publish && pendingWorkspaceUpdates.size() > 0) {
+                workspaceRepository.updateEntitiesOnWorkspace(workspace, pendingWorkspaceUpdates, user);
+            }
         }
 
-        return !dryRun || maxParseErrors <= 0 || parseErrors.errors.size() < maxParseErrors;
+        clearPending();
+    }
+
+    /**
+     * Stops the mapping threads. Rows that were not flushed are discarded.
+     */
+    @Override
+    public void close() {
+        if (mappingExecutor != null) {
+            mappingExecutor.shutdownNow();
+            mappingExecutor = null;
+        }
+    }
+
+    private void clearPending() {
+        pendingRows.clear();
+        committedRowCount = 0;
+        pendingVertexBuilders.clear();
+        pendingEdgeBuilders.clear();
+        pendingWorkspaceUpdates.clear();
+        pendingNewVertexMappings.clear();
+        pendingNewEdgeMappings.clear();
     }
 
     private void incrementConcept(VertexMapping vertexMapping, boolean isNew) {
@@ -303,7 +427,14 @@ public class GraphBuilderParserHandler extends BaseStructuredFileParserHandler {
         return m;
     }
 
-    private VertexBuilder createVertex(VertexMapping vertexMapping, Map<String, Object> row, long rowNum, long vertexNum) {
+    private VertexBuilder createVertex(
+            VertexMapping vertexMapping,
+            Map<String, Object> row,
+            long rowNum,
+            long vertexNum,
+            int sheetNumber,
+            List<ClientApiParseErrors.ParseError> rowParseErrors
+    ) {
         VisibilityJson vertexVisibilityJson = visibilityJson;
         Visibility vertexVisibility = visibility;
         if (vertexMapping.visibilityJson != null) {
@@ -383,7 +514,7 @@ public class GraphBuilderParserHandler extends BaseStructuredFileParserHandler {
                             throw new OpenLumifyException("Unhandled mapping error. Please provide a strategy.");
                         }
                     } else if (propertyMapping.errorHandlingStrategy == null) {
-                        parseErrors.errors.add(pe);
+                        rowParseErrors.add(pe);
                     }
                 }
             }
@@ -435,17 +566,22 @@ public class GraphBuilderParserHandler extends BaseStructuredFileParserHandler {
 
 
         HashCode hash = hasher.hash();
-        String vertexId = hash.toString();
+        if (identifierParts.isEmpty()) {
+            return addWorkspaceToIdIfNeeded(hash.toString());
+        }
+        // Identified vertices repeat across rows, only look each one up once
+        return resolvedVertexIds.computeIfAbsent(hash.toString(), this::addWorkspaceToIdIfNeeded);
+    }
 
+    private String addWorkspaceToIdIfNeeded(String vertexId) {
         // We might need to also hash the workspace if this vertex exists in the system but not visible to user.
         if (shouldAddWorkspaceToId(vertexId)) {
-            vertexId = sha1.newHasher()
+            return Hashing.sha1().newHasher()
                     .putString(vertexId)
                     .putString(workspace.getWorkspaceId())
                     .hash()
                     .toString();
         }
-
         return vertexId;
     }
 
@@ -492,4 +628,13 @@ public class GraphBuilderParserHandler extends BaseStructuredFileParserHandler {
             m.addPropertyValue(MULTI_KEY + keySuffix, propertyMapping.name, propertyValue, metadata, propertyVisibility);
         }
     }
+
+    private static class MappedRow {
+        private final List<VertexBuilder> vertexBuilders = new ArrayList<>();
+        private final List<VertexMapping> vertexMappings = new ArrayList<>();
+        private final List<EdgeBuilderByVertexId> edgeBuilders = new ArrayList<>();
+        private final List<EdgeMapping> edgeMappings = new ArrayList<>();
+        private final List<ClientApiParseErrors.ParseError> parseErrors = new ArrayList<>();
+        private boolean skipped;
+    }
 }
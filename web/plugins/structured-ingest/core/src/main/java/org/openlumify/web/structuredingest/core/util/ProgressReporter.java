@@ -1,5 +1,15 @@
 package org.openlumify.web.structuredingest.core.util;
 
 public abstract class ProgressReporter {
+    private final long startTime = System.currentTimeMillis();
+
     public abstract void finishedRow(long row, long totalRows);
+
+    /**
+     * @return the average number of rows finished per second since this reporter was created
+     */
+    protected long getRowsPerSecond(long row) {
+        long elapsedMillis = Math.max(1, System.currentTimeMillis() - startTime);
+        return (row + 1) * 1000 / elapsedMillis;
+    }
 }
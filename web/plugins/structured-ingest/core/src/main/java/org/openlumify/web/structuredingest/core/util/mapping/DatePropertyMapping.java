@@ -14,6 +14,8 @@ public class DatePropertyMapping extends PropertyMapping {
     public static final String PROPERTY_MAPPING_DATE_TIMEZONE_KEY = "timezone";
 
     public SimpleDateFormat dateFormat;
+    // SimpleDateFormat is not thread safe, rows may be decoded concurrently
+    private final ThreadLocal<SimpleDateFormat> threadDateFormat = ThreadLocal.withInitial(() -> (SimpleDateFormat) dateFormat.clone());
 
     public DatePropertyMapping(VisibilityTranslator visibilityTranslator, String workspaceId, JSONObject propertyMapping) {
         super(visibilityTranslator, workspaceId, propertyMapping);
@@ -39,7 +41,7 @@ public class DatePropertyMapping extends PropertyMapping {
                 return null;
             } else {
                 try {
-                    return dateFormat.parse(strPropertyValue);
+                    return threadDateFormat.get().parse(strPropertyValue);
                 } catch (ParseException pe) {
                     throw new OpenLumifyException("Unrecognized date value: " + rawPropertyValue, pe);
                 }
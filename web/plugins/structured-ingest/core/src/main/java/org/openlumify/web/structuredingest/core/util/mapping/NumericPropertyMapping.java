@@ -12,6 +12,8 @@ import java.text.ParseException;
 
 public class NumericPropertyMapping extends PropertyMapping {
     private NumberFormat numberFormat;
+    // NumberFormat is not thread safe, rows may be decoded concurrently
+    private final ThreadLocal<NumberFormat> threadNumberFormat = ThreadLocal.withInitial(() -> (NumberFormat) numberFormat.clone());
 
     public NumericPropertyMapping(
             OntologyProperty ontologyProperty, VisibilityTranslator visibilityTranslator, String workspaceId, JSONObject propertyMapping) {
@@ -34,7 +36,7 @@ public class NumericPropertyMapping extends PropertyMapping {
             String value = (String) rawPropertyValue;
             if (rawPropertyValue != null && !StringUtils.isBlank(value.replaceAll("\\D", ""))) {
                 try {
-                    return numberFormat.parse(value.replaceAll("[^\\d\\.,\\-]", "").replaceAll("(?<!^)\\-", ""));
+                    return threadNumberFormat.get().parse(value.replaceAll("[^\\d\\.,\\-]", "").replaceAll("(?<!^)\\-", ""));
                 } catch (ParseException pe) {
                     throw new OpenLumifyException("Unrecognized number format: " + rawPropertyValue, pe);
                 }
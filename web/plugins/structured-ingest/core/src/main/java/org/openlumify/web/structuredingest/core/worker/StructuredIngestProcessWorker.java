@@ -67,7 +67,8 @@ public class StructuredIngestProcessWorker extends LongRunningProcessWorker {
                     longRunningProcessRepository.reportProgress(
                             longRunningProcessQueueItem,
                             ((float)row) / ((float) totalRows),
-                            "Row " + numberFormat.format(row) + " of " + numberFormat.format(totalRows));
+                            "Row " + numberFormat.format(row) + " of " + numberFormat.format(totalRows)
+                                    + " (" + numberFormat.format(getRowsPerSecond(row)) + " rows/sec)");
                 }
             }
         };
@@ -90,11 +91,16 @@ public class StructuredIngestProcessWorker extends LongRunningProcessWorker {
         parserHandler.cleanUpExistingImport();
 
         parserHandler.dryRun = false;
+        parserHandler.batchSize = configuration.getInt(GraphBuilderParserHandler.CONFIG_BATCH_SIZE, GraphBuilderParserHandler.DEFAULT_BATCH_SIZE);
+        parserHandler.mappingThreadCount = configuration.getInt(GraphBuilderParserHandler.CONFIG_MAPPING_THREAD_COUNT, GraphBuilderParserHandler.DEFAULT_MAPPING_THREAD_COUNT);
         parserHandler.reset();
         try {
             parse(vertex, rawPropertyValue, parserHandler, structuredIngestQueueItem);
+            parserHandler.flush();
         } catch (Exception e) {
             throw new OpenLumifyException("Unable to ingest vertex: " + vertex, e);
+        } finally {
+            parserHandler.close();
         }
     }
 
@@ -179,6 +179,45 @@ public class GraphBuilderParserHandlerTest extends OpenLumifyInMemoryTestBase {
         assertTrue("All have one concept type after reimport", getGenerated().stream().allMatch(hasOneConceptType));
     }
 
+    @Test
+    public void testAddRowsInBatches() throws Exception {
+        parserHandler.dryRun = false;
+        parserHandler.batchSize = 2;
+
+        assertTrue(parserHandler.addRow(createIndexedMap(new String[]{"John Smith", "3/13/2015", "yes"}), 0));
+        assertEquals("Expected the row to be buffered", 1, Iterables.size(getGraph().getVertices(authorizations)));
+
+        assertTrue(parserHandler.addRow(createIndexedMap(new String[]{"Jane Smith", "3/14/2015", "no"}), 1));
+        assertEquals("Expected the batch to be saved", 5, Iterables.size(getGraph().getVertices(authorizations)));
+
+        assertTrue(parserHandler.addRow(createIndexedMap(new String[]{"Joe Smith", "3/15/2015", "yes"}), 2));
+        assertEquals("Expected the row to be buffered", 5, Iterables.size(getGraph().getVertices(authorizations)));
+
+        parserHandler.flush();
+        assertEquals("Expected the partial batch to be saved", 7, Iterables.size(getGraph().getVertices(authorizations)));
+        assertEquals("Should have created 6 entities", 6, getGenerated().size());
+    }
+
+    @Test
+    public void testAddRowsWithMappingThreads() throws Exception {
+        parserHandler.dryRun = false;
+        parserHandler.batchSize = 10;
+        parserHandler.mappingThreadCount = 4;
+        try {
+            for (int i = 0; i < 25; i++) {
+                Map<String, Object> row = createIndexedMap(new String[]{"Person " + i, "3/" + (i + 1) + "/2015", "yes"});
+                assertTrue(parserHandler.addRow(row, i));
+            }
+            parserHandler.flush();
+        } finally {
+            parserHandler.close();
+        }
+
+        assertEquals("Should have created 50 entities", 50, getGenerated().size());
+        assertEquals(50, parserHandler.createdVertexIds.size());
+        assertEquals(25, parserHandler.createdEdgeIds.size());
+    }
+
         @Test
     public void testAddRowDryRun() throws Exception {
         doParse(true, true, 0, new String[]{"John Smith", "3/13/2015", "yes"});
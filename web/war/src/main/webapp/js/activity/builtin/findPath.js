@@ -47,6 +47,8 @@ define([
 
             $button.attr('title', onDifferentWorkspace ?
                 i18n('popovers.find_path.wrong_workspace') :
+                self.attr.process.resultsTruncated ?
+                i18n('popovers.find_path.paths.truncated.title') :
                 i18n('popovers.find_path.show_path'));
         };
 
@@ -56,10 +58,11 @@ define([
 
         this.loadDefaultContent = function() {
             var count = this.attr.process.resultsCount || 0,
+                truncated = Boolean(this.attr.process.resultsTruncated),
                 $button = $('<button>').addClass('found-paths btn btn-mini')
                     .text(
                         i18n('popovers.find_path.paths.' + (
-                             count === 0 ? 'none' : count === 1 ? 'one' : 'some'
+                             truncated ? 'truncated' : count === 0 ? 'none' : count === 1 ? 'one' : 'some'
                         ), F.number.pretty(count))
                     );
 
@@ -89,7 +92,12 @@ define([
 
             this.dataRequest('longRunningProcess', 'get', this.attr.process.id)
                 .done(function(process) {
-                    var paths = process.results && process.results.paths || [],
+                    var results = process.results || {},
+                        vertexIds = results.vertexIds,
+                        paths = _.map(results.paths || [], function(path) {
+                            // paths are stored as indexes into vertexIds
+                            return vertexIds ? _.map(path, function(index) { return vertexIds[index]; }) : path;
+                        }),
                         vertices = _.chain(paths).flatten().uniq().value();
 
                     self.trigger('focusPaths', {
@@ -24,6 +24,8 @@ import org.openlumify.vertexium.model.user.InMemoryUser;
 import org.openlumify.web.CurrentUser;
 import org.openlumify.web.clientapi.model.WorkspaceAccess;
 
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.ByteArrayOutputStream;
@@ -118,6 +120,21 @@ public abstract class RouteTestBase {
 
         responseByteArrayOutputStream = new ByteArrayOutputStream();
         when(response.getWriter()).thenReturn(new PrintWriter(responseByteArrayOutputStream));
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                responseByteArrayOutputStream.write(b);
+            }
+        });
 
         when(request.getParameterNames()).thenAnswer(
                 invocationOnMock -> Collections.enumeration(requestParameters.keySet())
@@ -0,0 +1,107 @@
+package org.openlumify.web;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.visallo.webster.HandlerChain;
+import org.visallo.webster.RequestResponseHandler;
+import org.openlumify.core.config.Configuration;
+import org.openlumify.core.config.HashMapConfigurationLoader;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+@RunWith(JUnit4.class)
+public class RateLimitFilterTest {
+    private Map<String, String> config;
+    private HttpServletResponse response;
+
+    @Before
+    public void before() {
+        config = new HashMap<>();
+        response = mock(HttpServletResponse.class);
+    }
+
+    @Test
+    public void testRejectsOverLimitWithoutWaiting() throws Exception {
+        RateLimitFilter filter = createFilter();
+        HttpServletRequest request = createRequest("/ping", "10.0.0.1");
+
+        assertTrue(handle(filter, request));
+        assertFalse(handle(filter, request));
+        verify(response).sendError(eq(429), anyString());
+    }
+
+    @Test
+    public void testLimitsEachCallerAndRouteSeparately() throws Exception {
+        RateLimitFilter filter = createFilter();
+
+        assertTrue(handle(filter, createRequest("/ping", "10.0.0.1")));
+        assertTrue(handle(filter, createRequest("/ping", "10.0.0.2")));
+        assertTrue(handle(filter, createRequest("/other", "10.0.0.1")));
+    }
+
+    @Test
+    public void testRoutePermits() throws Exception {
+        config.put(RateLimitFilter.CONFIG_ROUTE_PERMITS_PER_SECOND_PREFIX + "./ping", "1000");
+        RateLimitFilter filter = createFilter();
+        HttpServletRequest request = createRequest("/ping", "10.0.0.1");
+
+        assertTrue(handle(filter, request));
+        assertTrue(handle(filter, request));
+    }
+
+    @Test
+    public void testForwardedForIsIgnoredFromUntrustedAddresses() throws Exception {
+        RateLimitFilter filter = createFilter();
+        HttpServletRequest request = createRequest("/ping", "10.0.0.1");
+        when(request.getHeader("X-Forwarded-For")).thenReturn("192.168.0.1");
+        HttpServletRequest spoofedRequest = createRequest("/ping", "10.0.0.1");
+        when(spoofedRequest.getHeader("X-Forwarded-For")).thenReturn("192.168.0.2");
+
+        assertTrue(handle(filter, request));
+        assertFalse(handle(filter, spoofedRequest));
+    }
+
+    @Test
+    public void testForwardedForIsHonoredFromTrustedProxies() throws Exception {
+        config.put(RateLimitFilter.CONFIG_TRUSTED_PROXIES, "10.0.0.1, 10.0.0.2");
+        RateLimitFilter filter = createFilter();
+        HttpServletRequest request = createRequest("/ping", "10.0.0.1");
+        when(request.getHeader("X-Forwarded-For")).thenReturn("192.168.0.1, 10.0.0.2");
+        HttpServletRequest otherCallerRequest = createRequest("/ping", "10.0.0.1");
+        when(otherCallerRequest.getHeader("X-Forwarded-For")).thenReturn("192.168.0.1, 192.168.0.2");
+        HttpServletRequest spoofedRequest = createRequest("/ping", "10.0.0.1");
+        when(spoofedRequest.getHeader("X-Forwarded-For")).thenReturn("192.168.0.9, 192.168.0.1");
+
+        assertTrue(handle(filter, request));
+        assertTrue(handle(filter, otherCallerRequest));
+        assertFalse(handle(filter, spoofedRequest));
+    }
+
+    private boolean handle(RateLimitFilter filter, HttpServletRequest request) throws Exception {
+        boolean[] passed = new boolean[1];
+        RequestResponseHandler next = (req, res, chain) -> passed[0] = true;
+        filter.handle(request, response, new HandlerChain(new RequestResponseHandler[]{next}));
+        return passed[0];
+    }
+
+    private RateLimitFilter createFilter() {
+        return new RateLimitFilter(new Configuration(new HashMapConfigurationLoader(new HashMap()), config));
+    }
+
+    private HttpServletRequest createRequest(String uri, String remoteAddr) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getRequestURI()).thenReturn(uri);
+        when(request.getContextPath()).thenReturn("");
+        when(request.getRemoteAddr()).thenReturn(remoteAddr);
+        return request;
+    }
+}
@@ -1,5 +1,7 @@
 package org.openlumify.web.routes.edge;
 
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -7,15 +9,22 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.vertexium.Authorizations;
 import org.vertexium.Edge;
+import org.openlumify.core.config.Configuration;
 import org.openlumify.core.model.user.AuthorizationRepository;
+import org.openlumify.core.security.ACLProvider;
 import org.openlumify.web.clientapi.model.*;
 import org.openlumify.web.routes.RouteTestBase;
 
+import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -28,8 +37,12 @@ public class EdgeMultipleTest  extends RouteTestBase {
     @Mock
     private AuthorizationRepository authorizationRepository;
 
+    @Mock
+    private ACLProvider aclProvider;
+
     private Edge publicEdge;
     private Edge sandboxedEdge;
+    private Edge otherPublicEdge;
 
     @Before
     public void before() throws IOException {
@@ -43,15 +56,17 @@ public class EdgeMultipleTest  extends RouteTestBase {
         VisibilityJson visibilityJson = new VisibilityJson();
         visibilityJson.addWorkspace(WORKSPACE_ID);
         sandboxedEdge = graph.addEdge("e2", "v1", "v2", visibilityTranslator.toVisibility(visibilityJson).getVisibility(), workspaceAuthorizations);
+        otherPublicEdge = graph.addEdge("e3", "v2", "v1", visibilityTranslator.getDefaultVisibility(), userAuthorizations);
 
-        route = new EdgeMultiple(graph, authorizationRepository);
+        configuration.set(EdgeMultiple.CONFIG_STREAMING, false);
+        route = new EdgeMultiple(graph, workspaceRepository, authorizationRepository, aclProvider, configuration);
     }
 
     @Test
     public void testGetEdgesWithNoneFound() throws Exception {
         when(authorizationRepository.getGraphAuthorizations(user)).thenReturn(userAuthorizations);
 
-        ClientApiEdgeMultipleResponse response = route.handle(new String[]{"no-edge-id"}, null, request, user);
+        ClientApiEdgeMultipleResponse response = route.handle(new String[]{"no-edge-id"}, null, request, this.response, user);
 
         assertEquals(0, response.getEdges().size());
     }
@@ -60,7 +75,7 @@ public class EdgeMultipleTest  extends RouteTestBase {
     public void testGetEdgesWithNoneSpecfied() throws Exception {
         when(authorizationRepository.getGraphAuthorizations(user)).thenReturn(userAuthorizations);
 
-        ClientApiEdgeMultipleResponse response = route.handle(new String[]{}, null, request, user);
+        ClientApiEdgeMultipleResponse response = route.handle(new String[]{}, null, request, this.response, user);
 
         assertEquals(0, response.getEdges().size());
     }
@@ -69,7 +84,7 @@ public class EdgeMultipleTest  extends RouteTestBase {
     public void testGetEdgesWithNoWorkspaceId() throws Exception {
         when(authorizationRepository.getGraphAuthorizations(user)).thenReturn(userAuthorizations);
 
-        ClientApiEdgeMultipleResponse response = route.handle(new String[]{publicEdge.getId()}, null, request, user);
+        ClientApiEdgeMultipleResponse response = route.handle(new String[]{publicEdge.getId()}, null, request, this.response, user);
 
         assertEquals(1, response.getEdges().size());
         assertEquals(publicEdge.getId(), response.getEdges().get(0).getId());
@@ -79,10 +94,73 @@ public class EdgeMultipleTest  extends RouteTestBase {
     public void testGetEdges() throws Exception {
         when(authorizationRepository.getGraphAuthorizations(user, WORKSPACE_ID)).thenReturn(workspaceAuthorizations);
 
-        ClientApiEdgeMultipleResponse response = route.handle(new String[]{publicEdge.getId(), sandboxedEdge.getId()}, WORKSPACE_ID, request, user);
+        ClientApiEdgeMultipleResponse response = route.handle(new String[]{publicEdge.getId(), sandboxedEdge.getId()}, WORKSPACE_ID, request, this.response, user);
 
         assertEquals(2, response.getEdges().size());
         assertTrue(response.getEdges().stream().map(ClientApiEdge::getId).collect(Collectors.toList()).contains(publicEdge.getId()));
         assertTrue(response.getEdges().stream().map(ClientApiEdge::getId).collect(Collectors.toList()).contains(sandboxedEdge.getId()));
     }
+
+    @Test
+    public void testStreamedEdges() throws Exception {
+        when(authorizationRepository.getGraphAuthorizations(user, WORKSPACE_ID)).thenReturn(workspaceAuthorizations);
+        when(aclProvider.createACLAppender(user, WORKSPACE_ID)).thenReturn(
+                clientApiObject -> ((ClientApiElement) clientApiObject).setUpdateable(true)
+        );
+        EdgeMultiple streamingRoute = createStreamingRoute();
+
+        String[] edgeIds = new String[]{
+                otherPublicEdge.getId(), publicEdge.getId(), otherPublicEdge.getId(), "no-edge-id", sandboxedEdge.getId()
+        };
+        assertNull(streamingRoute.handle(edgeIds, WORKSPACE_ID, request, this.response, user));
+
+        JSONObject json = new JSONObject(new String(getResponse(), StandardCharsets.UTF_8));
+        assertEquals(1, json.length());
+        JSONArray edges = json.getJSONArray("edges");
+        assertEquals(3, edges.length());
+        assertEquals(otherPublicEdge.getId(), edges.getJSONObject(0).getString("id"));
+        assertEquals(publicEdge.getId(), edges.getJSONObject(1).getString("id"));
+        assertEquals(sandboxedEdge.getId(), edges.getJSONObject(2).getString("id"));
+        for (int i = 0; i < edges.length(); i++) {
+            assertTrue("ACLs should be appended", edges.getJSONObject(i).getBoolean("updateable"));
+        }
+        verify(this.response).addHeader("X-Frame-Options", "DENY");
+    }
+
+    @Test
+    public void testStreamedEdgesWithNoneFound() throws Exception {
+        when(authorizationRepository.getGraphAuthorizations(user)).thenReturn(userAuthorizations);
+        EdgeMultiple streamingRoute = createStreamingRoute();
+
+        assertNull(streamingRoute.handle(new String[]{"no-edge-id"}, null, request, this.response, user));
+
+        JSONObject json = new JSONObject(new String(getResponse(), StandardCharsets.UTF_8));
+        assertEquals(0, json.getJSONArray("edges").length());
+    }
+
+    @Test
+    public void testSubclassesAreNotStreamedUnlessTheyOptIn() throws Exception {
+        when(authorizationRepository.getGraphAuthorizations(user, WORKSPACE_ID)).thenReturn(workspaceAuthorizations);
+        configuration.set(EdgeMultiple.CONFIG_STREAMING, true);
+        EdgeMultiple pluginRoute = new EdgeMultiple(graph, workspaceRepository, authorizationRepository, aclProvider, configuration) {
+            @Override
+            protected ClientApiEdgeMultipleResponse getEdges(HttpServletRequest request, String workspaceId, Iterable<String> edgeIds, Authorizations authorizations) {
+                ClientApiEdgeMultipleResponse response = super.getEdges(request, workspaceId, edgeIds, authorizations);
+                response.getEdges().clear();
+                return response;
+            }
+        };
+
+        ClientApiEdgeMultipleResponse response = pluginRoute.handle(new String[]{publicEdge.getId()}, WORKSPACE_ID, request, this.response, user);
+
+        assertNotNull(response);
+        assertEquals(0, response.getEdges().size());
+    }
+
+    private EdgeMultiple createStreamingRoute() {
+        configuration.set(EdgeMultiple.CONFIG_STREAMING, true);
+        configuration.set(EdgeMultiple.CONFIG_FETCH_BATCH_SIZE, 1);
+        configuration.set(Configuration.WEB_RESPONSE_HEADER_X_FRAME_OPTIONS, "DENY");
+        return new EdgeMultiple(graph, workspaceRepository, authorizationRepository, aclProvider, configuration);
+    }
 }
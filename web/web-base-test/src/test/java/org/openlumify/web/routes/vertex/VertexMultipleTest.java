@@ -1,5 +1,7 @@
 package org.openlumify.web.routes.vertex;
 
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -7,18 +9,23 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.vertexium.Authorizations;
 import org.vertexium.Vertex;
+import org.openlumify.core.config.Configuration;
 import org.openlumify.core.exception.OpenLumifyAccessDeniedException;
 import org.openlumify.core.model.user.AuthorizationRepository;
+import org.openlumify.core.security.ACLProvider;
+import org.openlumify.web.clientapi.model.ClientApiElement;
 import org.openlumify.web.clientapi.model.ClientApiVertex;
 import org.openlumify.web.clientapi.model.ClientApiVertexMultipleResponse;
 import org.openlumify.web.clientapi.model.VisibilityJson;
 import org.openlumify.web.routes.RouteTestBase;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.openlumify.web.parameterProviders.OpenLumifyBaseParameterProvider.WORKSPACE_ID_ATTRIBUTE_NAME;
 
@@ -32,8 +39,12 @@ public class VertexMultipleTest extends RouteTestBase {
     @Mock
     private AuthorizationRepository authorizationRepository;
 
+    @Mock
+    private ACLProvider aclProvider;
+
     private Vertex publicVertex;
     private Vertex sandboxedVertex;
+    private Vertex otherPublicVertex;
 
     @Before
     public void before() throws IOException {
@@ -47,8 +58,10 @@ public class VertexMultipleTest extends RouteTestBase {
         VisibilityJson visibilityJson = new VisibilityJson();
         visibilityJson.addWorkspace(WORKSPACE_ID);
         sandboxedVertex = graph.addVertex("v2", visibilityTranslator.toVisibility(visibilityJson).getVisibility(), workspaceAuthorizations);
+        otherPublicVertex = graph.addVertex("v3", visibilityTranslator.getDefaultVisibility(), userAuthorizations);
 
-        route = new VertexMultiple(graph, workspaceRepository, authorizationRepository);
+        configuration.set(VertexMultiple.CONFIG_STREAMING, false);
+        route = new VertexMultiple(graph, workspaceRepository, authorizationRepository, aclProvider, configuration);
     }
 
     @Test
@@ -56,7 +69,7 @@ public class VertexMultipleTest extends RouteTestBase {
         when(authorizationRepository.getGraphAuthorizations(user)).thenReturn(userAuthorizations);
         when(request.getAttribute(eq(WORKSPACE_ID_ATTRIBUTE_NAME))).thenReturn(null);
 
-        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{publicVertex.getId()}, true, false, user);
+        ClientApiVertexMultipleResponse response = route.handle(request, this.response, new String[]{publicVertex.getId()}, true, false, user);
 
         assertFalse(response.isRequiredFallback());
         assertEquals(1, response.getVertices().size());
@@ -68,7 +81,7 @@ public class VertexMultipleTest extends RouteTestBase {
         when(authorizationRepository.getGraphAuthorizations(user)).thenReturn(userAuthorizations);
         when(workspaceRepository.hasReadPermissions(WORKSPACE_ID, user)).thenReturn(false);
 
-        route.handle(request, new String[]{publicVertex.getId()}, false, false, user);
+        route.handle(request, this.response, new String[]{publicVertex.getId()}, false, false, user);
     }
 
     @Test
@@ -76,7 +89,7 @@ public class VertexMultipleTest extends RouteTestBase {
         when(authorizationRepository.getGraphAuthorizations(user)).thenReturn(userAuthorizations);
         when(workspaceRepository.hasReadPermissions(WORKSPACE_ID, user)).thenReturn(false);
 
-        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{publicVertex.getId(), sandboxedVertex.getId()}, true, false, user);
+        ClientApiVertexMultipleResponse response = route.handle(request, this.response, new String[]{publicVertex.getId(), sandboxedVertex.getId()}, true, false, user);
 
         assertTrue(response.isRequiredFallback());
         assertEquals(1, response.getVertices().size());
@@ -88,7 +101,7 @@ public class VertexMultipleTest extends RouteTestBase {
         when(authorizationRepository.getGraphAuthorizations(user, WORKSPACE_ID)).thenReturn(workspaceAuthorizations);
         when(workspaceRepository.hasReadPermissions(WORKSPACE_ID, user)).thenReturn(true);
 
-        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{publicVertex.getId(), sandboxedVertex.getId()}, true, false, user);
+        ClientApiVertexMultipleResponse response = route.handle(request, this.response, new String[]{publicVertex.getId(), sandboxedVertex.getId()}, true, false, user);
 
         assertFalse(response.isRequiredFallback());
         assertEquals(2, response.getVertices().size());
@@ -101,7 +114,7 @@ public class VertexMultipleTest extends RouteTestBase {
         when(authorizationRepository.getGraphAuthorizations(user, WORKSPACE_ID)).thenReturn(workspaceAuthorizations);
         when(workspaceRepository.hasReadPermissions(WORKSPACE_ID, user)).thenReturn(true);
 
-        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{"no-vertex-id"}, true, false, user);
+        ClientApiVertexMultipleResponse response = route.handle(request, this.response, new String[]{"no-vertex-id"}, true, false, user);
 
         assertFalse(response.isRequiredFallback());
         assertEquals(0, response.getVertices().size());
@@ -111,9 +124,63 @@ public class VertexMultipleTest extends RouteTestBase {
         when(authorizationRepository.getGraphAuthorizations(user, WORKSPACE_ID)).thenReturn(workspaceAuthorizations);
         when(workspaceRepository.hasReadPermissions(WORKSPACE_ID, user)).thenReturn(true);
 
-        ClientApiVertexMultipleResponse response = route.handle(request, new String[]{}, true, false, user);
+        ClientApiVertexMultipleResponse response = route.handle(request, this.response, new String[]{}, true, false, user);
 
         assertFalse(response.isRequiredFallback());
         assertEquals(0, response.getVertices().size());
     }
+
+    @Test
+    public void testStreamedVertices() throws Exception {
+        when(authorizationRepository.getGraphAuthorizations(user, WORKSPACE_ID)).thenReturn(workspaceAuthorizations);
+        when(workspaceRepository.hasReadPermissions(WORKSPACE_ID, user)).thenReturn(true);
+        when(aclProvider.createACLAppender(user, WORKSPACE_ID)).thenReturn(
+                clientApiObject -> ((ClientApiElement) clientApiObject).setUpdateable(true)
+        );
+        VertexMultiple streamingRoute = createStreamingRoute();
+
+        String[] vertexIds = new String[]{
+                otherPublicVertex.getId(), publicVertex.getId(), otherPublicVertex.getId(), "no-vertex-id", sandboxedVertex.getId()
+        };
+        assertNull(streamingRoute.handle(request, this.response, vertexIds, true, false, user));
+
+        JSONObject json = new JSONObject(new String(getResponse(), StandardCharsets.UTF_8));
+        assertEquals(2, json.length());
+        assertFalse(json.getBoolean("requiredFallback"));
+        JSONArray vertices = json.getJSONArray("vertices");
+        assertEquals(3, vertices.length());
+        assertEquals(otherPublicVertex.getId(), vertices.getJSONObject(0).getString("id"));
+        assertEquals(publicVertex.getId(), vertices.getJSONObject(1).getString("id"));
+        assertEquals(sandboxedVertex.getId(), vertices.getJSONObject(2).getString("id"));
+        for (int i = 0; i < vertices.length(); i++) {
+            assertTrue("ACLs should be appended", vertices.getJSONObject(i).getBoolean("updateable"));
+        }
+        verify(this.response).addHeader("X-Frame-Options", "DENY");
+    }
+
+    @Test
+    public void testStreamedVerticesWithFallbackToPublic() throws Exception {
+        when(authorizationRepository.getGraphAuthorizations(user)).thenReturn(userAuthorizations);
+        when(workspaceRepository.hasReadPermissions(WORKSPACE_ID, user)).thenReturn(false);
+        when(aclProvider.createACLAppender(user, null)).thenReturn(
+                clientApiObject -> ((ClientApiElement) clientApiObject).setUpdateable(false)
+        );
+        VertexMultiple streamingRoute = createStreamingRoute();
+
+        assertNull(streamingRoute.handle(request, this.response, new String[]{publicVertex.getId(), sandboxedVertex.getId()}, true, false, user));
+
+        JSONObject json = new JSONObject(new String(getResponse(), StandardCharsets.UTF_8));
+        assertTrue(json.getBoolean("requiredFallback"));
+        JSONArray vertices = json.getJSONArray("vertices");
+        assertEquals(1, vertices.length());
+        assertEquals(publicVertex.getId(), vertices.getJSONObject(0).getString("id"));
+        assertFalse(vertices.getJSONObject(0).getBoolean("updateable"));
+    }
+
+    private VertexMultiple createStreamingRoute() {
+        configuration.set(VertexMultiple.CONFIG_STREAMING, true);
+        configuration.set(VertexMultiple.CONFIG_FETCH_BATCH_SIZE, 1);
+        configuration.set(Configuration.WEB_RESPONSE_HEADER_X_FRAME_OPTIONS, "DENY");
+        return new VertexMultiple(graph, workspaceRepository, authorizationRepository, aclProvider, configuration);
+    }
 }
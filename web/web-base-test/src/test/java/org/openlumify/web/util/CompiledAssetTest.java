@@ -0,0 +1,80 @@
+package org.openlumify.web.util;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+@RunWith(JUnit4.class)
+public class CompiledAssetTest {
+    private static final String CONTENT = "var a = 1;\n" + new String(new char[2000]).replace('\0', 'x');
+    private CompiledAsset asset;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private ByteArrayOutputStream body;
+
+    @Before
+    public void setup() throws Exception {
+        asset = new CompiledAsset(CONTENT, "application/javascript");
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+    }
+
+    @Test
+    public void testWritesUncompressed() throws Exception {
+        asset.write(request, response);
+
+        verify(response).setHeader("ETag", "\"" + asset.getHash() + "\"");
+        verify(response, never()).setHeader(eq("Content-Encoding"), anyString());
+        assertEquals(CONTENT, new String(body.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWritesGzipWhenAccepted() throws Exception {
+        when(request.getHeader("Accept-Encoding")).thenReturn("deflate, gzip;q=0.8");
+        asset.write(request, response);
+
+        verify(response).setHeader("Content-Encoding", "gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            assertEquals(CONTENT, IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testNotModified() throws Exception {
+        when(request.getHeader("If-None-Match")).thenReturn("\"other\", \"" + asset.getHash() + "\"");
+        asset.write(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertEquals(0, body.size());
+    }
+}
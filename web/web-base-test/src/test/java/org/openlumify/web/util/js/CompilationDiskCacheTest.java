@@ -0,0 +1,97 @@
+package org.openlumify.web.util.js;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class CompilationDiskCacheTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private CompilationDiskCache cache;
+
+    @Before
+    public void before() throws Exception {
+        cache = new CompilationDiskCache(temporaryFolder.newFolder());
+    }
+
+    @Test
+    public void testReadWrittenCompilation() {
+        String key = cache.getKey("var a = 1;", "compiler", "/a.js");
+        CachedCompilation compilation = new CachedCompilation();
+        compilation.setOutput("var a=1;");
+        compilation.setSourceMap("{}");
+        cache.write(key, compilation);
+
+        CachedCompilation read = new CachedCompilation();
+        assertTrue(cache.read(key, read));
+        assertEquals("var a=1;", read.getOutput());
+        assertEquals("{}", read.getSourceMap());
+    }
+
+    @Test
+    public void testKeyDependsOnInputAndOptions() {
+        String key = cache.getKey("var a = 1;", "compiler", "/a.js");
+        assertEquals(key, cache.getKey("var a = 1;", "compiler", "/a.js"));
+        assertNotEquals(key, cache.getKey("var a = 2;", "compiler", "/a.js"));
+        assertNotEquals(key, cache.getKey("var a = 1;", "compiler", "/b.js"));
+        assertNotEquals(key, cache.getKey("var a = 1;", "other compiler", "/a.js"));
+    }
+
+    @Test
+    public void testFailedCompilationIsNotCached() {
+        String key = cache.getKey("var a = ;", "compiler");
+        cache.write(key, new CachedCompilation());
+        assertFalse(cache.read(key, new CachedCompilation()));
+    }
+
+    @Test
+    public void testCreatedDirectoryIsOwnerOnly() throws Exception {
+        Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        File directory = new File(temporaryFolder.getRoot(), "created");
+        cache = new CompilationDiskCache(directory);
+        CachedCompilation compilation = new CachedCompilation();
+        compilation.setOutput("var a=1;");
+        cache.write(cache.getKey("var a = 1;"), compilation);
+
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(directory.toPath())));
+        assertTrue(cache.read(cache.getKey("var a = 1;"), new CachedCompilation()));
+    }
+
+    @Test
+    public void testDirectoryWritableByOthersIsNotUsed() throws Exception {
+        Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        File directory = temporaryFolder.newFolder("shared");
+        cache = new CompilationDiskCache(directory);
+        String key = cache.getKey("var a = 1;");
+        CachedCompilation compilation = new CachedCompilation();
+        compilation.setOutput("var a=1;");
+        cache.write(key, compilation);
+
+        Files.setPosixFilePermissions(directory.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+        assertFalse(cache.read(key, new CachedCompilation()));
+    }
+
+    @Test
+    public void testSymbolicLinkIsNotRead() throws Exception {
+        File directory = temporaryFolder.newFolder("links");
+        cache = new CompilationDiskCache(directory);
+        String key = cache.getKey("var a = 1;");
+        File target = temporaryFolder.newFile("elsewhere.json");
+        Files.write(target.toPath(), "{\"output\":\"alert(1)\"}".getBytes("UTF-8"));
+        Files.createSymbolicLink(new File(directory, key + ".json").toPath(), target.toPath());
+
+        assertFalse(cache.read(key, new CachedCompilation()));
+    }
+}
@@ -9,17 +9,19 @@ import org.openlumify.core.util.OpenLumifyLogger;
 import org.openlumify.core.util.OpenLumifyLoggerFactory;
 import org.visallo.web.closurecompiler.com.google.javascript.jscomp.*;
 import org.visallo.web.closurecompiler.com.google.javascript.jscomp.Compiler;
+import org.openlumify.web.util.CompiledAsset;
 import org.openlumify.web.util.js.CachedCompilation;
+import org.openlumify.web.util.js.CompilationDiskCache;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.*;
@@ -29,7 +31,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 
 public class JavascriptResourceHandler implements RequestResponseHandler {
-    private static final int EXECUTOR_CONCURRENT = 3;
+    private static final int EXECUTOR_CONCURRENT = Math.max(3, Runtime.getRuntime().availableProcessors());
     private static final long EXECUTOR_IDLE_THREAD_RELEASE_SECONDS = 5;
     private static final ThreadPoolExecutor compilationExecutor = new ThreadPoolExecutor(
             EXECUTOR_CONCURRENT,
@@ -39,6 +41,9 @@ public class JavascriptResourceHandler implements RequestResponseHandler {
             new LinkedBlockingQueue<>()
     );
 
+    // compilations cached by an older compiler are not reused
+    private static final String CLOSURE_COMPILER_ID = getClosureCompilerId();
+
     static {
         compilationExecutor.allowCoreThreadTimeOut(true);
     }
@@ -47,6 +52,7 @@ public class JavascriptResourceHandler implements RequestResponseHandler {
     private String jsResourcePath;
     private boolean enableSourceMaps;
     private String closureExternResourcePath;
+    private CompilationDiskCache compilationDiskCache;
     private Future<CachedCompilation> compilationTask;
     private volatile CachedCompilation previousCompilation;
 
@@ -55,10 +61,24 @@ public class JavascriptResourceHandler implements RequestResponseHandler {
     }
 
     public JavascriptResourceHandler(final String jsResourceName, final String jsResourcePath, boolean enableSourceMaps, String closureExternResourcePath) {
+        this(jsResourceName, jsResourcePath, enableSourceMaps, closureExternResourcePath, null);
+    }
+
+    /**
+     * @param compilationDiskCache Reuses compilations from earlier runs, null to always compile
+     */
+    public JavascriptResourceHandler(
+            final String jsResourceName,
+            final String jsResourcePath,
+            boolean enableSourceMaps,
+            String closureExternResourcePath,
+            CompilationDiskCache compilationDiskCache
+    ) {
         this.jsResourceName = jsResourceName;
         this.jsResourcePath = jsResourcePath;
         this.enableSourceMaps = enableSourceMaps;
         this.closureExternResourcePath = closureExternResourcePath;
+        this.compilationDiskCache = compilationDiskCache;
 
         compilationTask = compilationExecutor.submit(() -> compileIfNecessary(null));
     }
@@ -68,14 +88,14 @@ public class JavascriptResourceHandler implements RequestResponseHandler {
         CachedCompilation cache = getCache();
 
         if (request.getRequestURI().endsWith(".map")) {
-            write(response, "application/json", cache.getSourceMap());
+            write(request, response, cache.getSourceMapAsset());
         } else if (request.getRequestURI().endsWith(".src")) {
-            write(response, "application/javascript", cache.getInput());
+            write(request, response, cache.getInputAsset());
         } else {
             if (this.enableSourceMaps && cache.getSourceMap() != null) {
                 response.setHeader("X-SourceMap", request.getRequestURI() + ".map");
             }
-            write(response, "application/javascript", cache.getOutput());
+            write(request, response, cache.getOutputAsset());
         }
     }
 
@@ -96,12 +116,9 @@ public class JavascriptResourceHandler implements RequestResponseHandler {
         return cache;
     }
 
-    private void write(HttpServletResponse response, String contentType, String output) throws IOException {
-        if (output != null) {
-            try (PrintWriter outWriter = response.getWriter()) {
-                response.setContentType(contentType);
-                outWriter.println(output);
-            }
+    private void write(HttpServletRequest request, HttpServletResponse response, CompiledAsset asset) throws IOException {
+        if (asset != null) {
+            asset.write(request, response);
         } else {
             throw new OpenLumifyException("Errors during minify: " + jsResourceName);
         }
@@ -124,8 +141,24 @@ public class JavascriptResourceHandler implements RequestResponseHandler {
                     IOUtils.copy(in, writer, StandardCharsets.UTF_8);
                     String inputJavascript = writer.toString();
                     newCache.setInput(inputJavascript);
-
-                    runClosureCompilation(newCache);
+                    newCache.setResourcePath(jsResourceName);
+
+                    if (compilationDiskCache == null) {
+                        runClosureCompilation(newCache);
+                    } else {
+                        String key = compilationDiskCache.getKey(
+                                inputJavascript,
+                                CLOSURE_COMPILER_ID,
+                                jsResourcePath,
+                                Boolean.toString(enableSourceMaps),
+                                readResource("openlumify-externs.js"),
+                                closureExternResourcePath == null ? null : readResource(closureExternResourcePath)
+                        );
+                        if (!compilationDiskCache.read(key, newCache)) {
+                            runClosureCompilation(newCache);
+                            compilationDiskCache.write(key, newCache);
+                        }
+                    }
                 }
             }
             return newCache;
@@ -134,6 +167,18 @@ public class JavascriptResourceHandler implements RequestResponseHandler {
         return previousCompilation;
     }
 
+    private String readResource(String resourceName) throws IOException {
+        try (InputStream in = JavascriptResourceHandler.class.getResourceAsStream(resourceName)) {
+            checkNotNull(in, "Could not find resource: " + resourceName);
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String getClosureCompilerId() {
+        CodeSource codeSource = Compiler.class.getProtectionDomain().getCodeSource();
+        return "closure:" + (codeSource == null || codeSource.getLocation() == null ? "" : codeSource.getLocation());
+    }
+
     private CachedCompilation runClosureCompilation(CachedCompilation cachedCompilation) throws IOException {
         Compiler.setLoggingLevel(Level.INFO);
         Compiler compiler = new Compiler(new JavascriptResourceHandlerErrorManager());
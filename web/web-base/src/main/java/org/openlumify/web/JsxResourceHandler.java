@@ -8,7 +8,9 @@ import org.openlumify.core.exception.OpenLumifyException;
 import org.openlumify.core.util.OpenLumifyLogger;
 import org.openlumify.core.util.OpenLumifyLoggerFactory;
 import org.openlumify.web.util.js.BabelExecutor;
+import org.openlumify.web.util.CompiledAsset;
 import org.openlumify.web.util.js.CachedCompilation;
+import org.openlumify.web.util.js.CompilationDiskCache;
 import org.openlumify.web.util.js.SourceMapType;
 
 import javax.script.ScriptException;
@@ -16,10 +18,10 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -34,6 +36,7 @@ public class JsxResourceHandler implements RequestResponseHandler {
     private String jsResourcePath;
     private String toJsResourcePath;
     private SourceMapType sourceMapType;
+    private CompilationDiskCache compilationDiskCache;
     private Future<CachedCompilation> compilationTask;
     private volatile CachedCompilation previousCompilation;
 
@@ -42,12 +45,32 @@ public class JsxResourceHandler implements RequestResponseHandler {
     }
 
     public JsxResourceHandler(final String jsResourceName, final String jsResourcePath, final String toJsResourcePath, SourceMapType sourceMapType) {
+        this(jsResourceName, jsResourcePath, toJsResourcePath, sourceMapType, null);
+    }
+
+    /**
+     * @param compilationDiskCache Reuses compilations from earlier runs, null to always compile
+     */
+    public JsxResourceHandler(
+            final String jsResourceName,
+            final String jsResourcePath,
+            final String toJsResourcePath,
+            SourceMapType sourceMapType,
+            CompilationDiskCache compilationDiskCache
+    ) {
         this.jsResourceName = jsResourceName;
         this.jsResourcePath = jsResourcePath;
         this.toJsResourcePath = toJsResourcePath;
         this.sourceMapType = sourceMapType;
+        this.compilationDiskCache = compilationDiskCache;
 
-        compilationTask = babelExecutor.submit(() -> compileIfNecessary(null));
+        // a cached compilation does not need to wait for babel to initialize
+        CachedCompilation cachedCompilation = readFromDiskCache();
+        if (cachedCompilation != null) {
+            compilationTask = CompletableFuture.completedFuture(cachedCompilation);
+        } else {
+            compilationTask = babelExecutor.submit(() -> compileIfNecessary(null));
+        }
     }
 
     @Override
@@ -55,14 +78,14 @@ public class JsxResourceHandler implements RequestResponseHandler {
         CachedCompilation cache = getCache();
 
         if (request.getRequestURI().endsWith(".map")) {
-            write(response, "application/json", cache.getSourceMap());
+            write(request, response, cache.getSourceMapAsset());
         } else if (request.getRequestURI().endsWith(".src")) {
-            write(response, "application/javascript", cache.getInput());
+            write(request, response, cache.getInputAsset());
         } else {
             if (this.sourceMapType == SourceMapType.EXTERNAL && cache.getSourceMap() != null) {
                 response.setHeader("X-SourceMap", request.getRequestURI() + ".map");
             }
-            write(response, "application/javascript", cache.getOutput());
+            write(request, response, cache.getOutputAsset());
         }
     }
 
@@ -87,12 +110,9 @@ public class JsxResourceHandler implements RequestResponseHandler {
         return cache;
     }
 
-    private void write(HttpServletResponse response, String contentType, String output) throws IOException {
-        if (output != null) {
-            try (PrintWriter outWriter = response.getWriter()) {
-                response.setContentType(contentType);
-                outWriter.println(output);
-            }
+    private void write(HttpServletRequest request, HttpServletResponse response, CompiledAsset asset) throws IOException {
+        if (asset != null) {
+            asset.write(request, response);
         } else {
             throw new OpenLumifyException("Errors during compilation: " + jsResourceName);
         }
@@ -101,21 +121,17 @@ public class JsxResourceHandler implements RequestResponseHandler {
 
     private CachedCompilation compileIfNecessary(CachedCompilation previousCompilation) {
         try {
-            URL url = this.getClass().getResource(jsResourceName);
-            long lastModified = url.openConnection().getLastModified();
+            long lastModified = getLastModified();
 
             if (previousCompilation == null || previousCompilation.isNecessary(lastModified)) {
-                CachedCompilation newCache = new CachedCompilation();
-                newCache.setLastModified(lastModified);
-                try (InputStream in = this.getClass().getResourceAsStream(jsResourceName)) {
-                    checkNotNull(in, "Could not find resource: " + jsResourceName);
-                    try (StringWriter writer = new StringWriter()) {
-                        IOUtils.copy(in, writer, StandardCharsets.UTF_8);
-                        String inputJavascript = writer.toString();
-                        newCache.setInput(inputJavascript);
-                        newCache.setPath(toJsResourcePath);
-                        newCache.setResourcePath(jsResourceName);
+                CachedCompilation newCache = readInput(lastModified);
+                if (compilationDiskCache == null) {
+                    babelExecutor.compileWithSharedEngine(newCache, sourceMapType);
+                } else {
+                    String key = getDiskCacheKey(newCache);
+                    if (!compilationDiskCache.read(key, newCache)) {
                         babelExecutor.compileWithSharedEngine(newCache, sourceMapType);
+                        compilationDiskCache.write(key, newCache);
                     }
                 }
                 return newCache;
@@ -129,5 +145,49 @@ public class JsxResourceHandler implements RequestResponseHandler {
         return previousCompilation;
     }
 
+    private CachedCompilation readFromDiskCache() {
+        if (compilationDiskCache == null) {
+            return null;
+        }
+        try {
+            CachedCompilation newCache = readInput(getLastModified());
+            return compilationDiskCache.read(getDiskCacheKey(newCache), newCache) ? newCache : null;
+        } catch (IOException e) {
+            LOGGER.warn("Could not read %s, compiling it in the background", jsResourceName, e);
+            return null;
+        }
+    }
+
+    private String getDiskCacheKey(CachedCompilation compilation) {
+        return compilationDiskCache.getKey(
+                compilation.getInput(),
+                babelExecutor.getCompilerId(),
+                compilation.getPath(),
+                compilation.getResourcePath(),
+                sourceMapType.name()
+        );
+    }
+
+    private long getLastModified() throws IOException {
+        URL url = this.getClass().getResource(jsResourceName);
+        checkNotNull(url, "Could not find resource: " + jsResourceName);
+        return url.openConnection().getLastModified();
+    }
+
+    private CachedCompilation readInput(long lastModified) throws IOException {
+        CachedCompilation newCache = new CachedCompilation();
+        newCache.setLastModified(lastModified);
+        try (InputStream in = this.getClass().getResourceAsStream(jsResourceName)) {
+            checkNotNull(in, "Could not find resource: " + jsResourceName);
+            try (StringWriter writer = new StringWriter()) {
+                IOUtils.copy(in, writer, StandardCharsets.UTF_8);
+                newCache.setInput(writer.toString());
+                newCache.setPath(toJsResourcePath);
+                newCache.setResourcePath(jsResourceName);
+            }
+        }
+        return newCache;
+    }
+
 }
 
@@ -0,0 +1,63 @@
+package org.openlumify.web;
+
+import com.asual.lesscss.LessEngine;
+import com.asual.lesscss.LessOptions;
+import org.apache.commons.io.IOUtils;
+
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Compiles less resources on a pool of threads so plugin styles are compiled in parallel when they are registered.
+ * Each thread has its own engine, a LessEngine is not safe to share between threads.
+ */
+class LessCompiler {
+    private static final long EXECUTOR_IDLE_THREAD_RELEASE_SECONDS = 5;
+    private static final ThreadPoolExecutor compilationExecutor;
+    private static final ThreadLocal<LessEngine> lessEngine = ThreadLocal.withInitial(() -> {
+        LessOptions options = new LessOptions();
+        options.setCompress(true);
+        options.setCharset("UTF-8");
+        return new LessEngine(options);
+    });
+
+    static {
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        compilationExecutor = new ThreadPoolExecutor(
+                threadCount,
+                threadCount,
+                EXECUTOR_IDLE_THREAD_RELEASE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "less-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+        );
+        compilationExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    private LessCompiler() {
+    }
+
+    static Future<String> submit(String lessResourceName) {
+        return compilationExecutor.submit(() -> compile(lessResourceName));
+    }
+
+    static String compile(String lessResourceName) throws Exception {
+        try (InputStream in = LessCompiler.class.getResourceAsStream(lessResourceName)) {
+            checkNotNull(in, "Could not find resource: " + lessResourceName);
+            try (StringWriter writer = new StringWriter()) {
+                IOUtils.copy(in, writer, StandardCharsets.UTF_8);
+                return lessEngine.get().compile(writer.toString());
+            }
+        }
+    }
+}
@@ -1,64 +1,58 @@
 package org.openlumify.web;
 
-import com.asual.lesscss.LessEngine;
-import com.asual.lesscss.LessOptions;
 import org.visallo.webster.HandlerChain;
 import org.visallo.webster.RequestResponseHandler;
-import org.apache.commons.io.IOUtils;
 import org.openlumify.core.exception.OpenLumifyException;
+import org.openlumify.web.util.CompiledAsset;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
-
-import static com.google.common.base.Preconditions.checkNotNull;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 
 public class LessResourceHandler implements RequestResponseHandler {
-    private static LessEngine lessCompiler;
-
     private String lessResourceName;
     private boolean checkLastModified;
+    private Future<String> compilationTask;
     private LessCache cache;
 
     public LessResourceHandler(String lessResourceName, boolean checkLastModified) {
           this.lessResourceName = lessResourceName;
           this.checkLastModified = checkLastModified;
+          this.compilationTask = LessCompiler.submit(lessResourceName);
     }
 
     @Override
     public void handle(HttpServletRequest request, HttpServletResponse response, HandlerChain chain) throws Exception {
-        response.setContentType("text/css");
-
+        LessCache cache;
         synchronized (lessResourceName.intern()) {
-            if (cache == null) {
-                cache = new LessCache(getCompiled(), checkLastModified ? getLastModified() : 0l);
+            if (this.cache == null) {
+                this.cache = new LessCache(getCompiledAtStartup(), checkLastModified ? getLastModified() : 0l);
             } else if (checkLastModified) {
                 long newLastModified = getLastModified();
-                if (cache.lastModified != newLastModified) {
-                    cache = new LessCache(getCompiled(), newLastModified);
+                if (this.cache.lastModified != newLastModified) {
+                    this.cache = new LessCache(LessCompiler.compile(lessResourceName), newLastModified);
                 }
             }
+            cache = this.cache;
         }
 
-        try (PrintWriter outWriter = response.getWriter()) {
-            outWriter.println(cache.getOutput());
-        }
+        cache.getOutput().write(request, response);
     }
 
-    private String getCompiled() throws Exception {
-        try (InputStream in = this.getClass().getResourceAsStream(lessResourceName)) {
-            checkNotNull(in, "Could not find resource: " + lessResourceName);
-            try (StringWriter writer = new StringWriter()) {
-                IOUtils.copy(in, writer, StandardCharsets.UTF_8);
-                String inputLess = writer.toString();
-                return lessCompiler().compile(inputLess);
-            }
+    private String getCompiledAtStartup() throws Exception {
+        Future<String> task = compilationTask;
+        compilationTask = null;
+        if (task == null) {
+            return LessCompiler.compile(lessResourceName);
+        }
+        try {
+            return task.get();
+        } catch (ExecutionException ex) {
+            throw new OpenLumifyException("Could not compile less resource: " + lessResourceName, ex.getCause());
         }
     }
 
@@ -71,31 +65,20 @@ public class LessResourceHandler implements RequestResponseHandler {
         }
     }
 
-    private synchronized LessEngine lessCompiler() {
-        if (lessCompiler == null) {
-            lessCompiler = new LessEngine();
-            LessOptions options = new LessOptions();
-            options.setCompress(true);
-            options.setCharset("UTF-8");
-            lessCompiler = new LessEngine(options);
-        }
-        return lessCompiler;
-    }
-
     class LessCache {
         private long lastModified;
-        private String output;
+        private CompiledAsset output;
 
         LessCache(String output, long lastModified) {
             this.lastModified = lastModified;
-            this.output = output;
+            this.output = new CompiledAsset(output, "text/css");
         }
 
         public long getLastModified() {
             return lastModified;
         }
 
-        public String getOutput() {
+        public CompiledAsset getOutput() {
             return output;
         }
     }
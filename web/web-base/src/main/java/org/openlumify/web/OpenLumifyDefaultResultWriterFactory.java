@@ -4,7 +4,6 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang.StringUtils;
 import org.json.JSONObject;
 import org.openlumify.core.config.Configuration;
 import org.openlumify.core.exception.OpenLumifyException;
@@ -17,6 +16,7 @@ import org.openlumify.web.clientapi.model.ClientApiObject;
 import org.openlumify.web.clientapi.model.ClientApiWorkspace;
 import org.openlumify.web.clientapi.util.ObjectMapperFactory;
 import org.openlumify.web.parameterProviders.OpenLumifyBaseParameterProvider;
+import org.openlumify.web.util.ResponseHeaderUtil;
 import org.visallo.webster.resultWriters.ResultWriter;
 import org.visallo.webster.resultWriters.ResultWriterBase;
 import org.visallo.webster.resultWriters.ResultWriterFactory;
@@ -70,17 +70,10 @@ public class OpenLumifyDefaultResultWriterFactory implements ResultWriterFactory
             protected void writeResult(HttpServletRequest request, HttpServletResponse response, Object result)
                     throws IOException {
                 if (result != null) {
-                    if (!response.containsHeader("X-Frame-Options")) {
-                        response.addHeader("X-Frame-Options", responseHeaderXFrameOptions);
-                    }
-                    if (!response.containsHeader("X-Content-Type-Options")) {
-                        response.addHeader("X-Content-Type-Options", "nosniff");
-                    }
+                    ResponseHeaderUtil.addSecurityHeaders(response, responseHeaderXFrameOptions);
                     response.setCharacterEncoding("UTF-8");
                     if (resultIsClientApiObject || result instanceof JSONObject) {
-                        response.addHeader("Cache-Control", "no-cache, no-store, must-revalidate");
-                        response.addHeader("Pragma", "no-cache");
-                        response.addHeader("Expires", "0");
+                        ResponseHeaderUtil.addNoCacheHeaders(response);
                     }
                     if (resultIsClientApiObject) {
                         ClientApiObject clientApiObject = (ClientApiObject) result;
@@ -91,10 +84,7 @@ public class OpenLumifyDefaultResultWriterFactory implements ResultWriterFactory
                                 if (clientApiObject instanceof ClientApiWorkspace) {
                                     workspaceId = ((ClientApiWorkspace)clientApiObject).getWorkspaceId();
                                 } else {
-                                    workspaceId = OpenLumifyBaseParameterProvider.getActiveWorkspaceIdOrDefault(request, workspaceRepository);
-                                }
-                                if (StringUtils.isEmpty(workspaceId)) {
-                                    workspaceId = user == null ? null : user.getCurrentWorkspaceId();
+                                    workspaceId = OpenLumifyBaseParameterProvider.getAclWorkspaceId(request, workspaceRepository);
                                 }
                                 clientApiObject = aclProvider.appendACL(clientApiObject, user, workspaceId);
                             }
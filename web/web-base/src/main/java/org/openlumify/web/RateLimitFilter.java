@@ -1,37 +1,145 @@
 package org.openlumify.web;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.util.concurrent.RateLimiter;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
 import org.visallo.webster.HandlerChain;
 import org.visallo.webster.RequestResponseHandler;
+import org.openlumify.core.config.Configuration;
+import org.openlumify.core.user.User;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Limits how often each user, or each remote address before authentication, may call a route. Requests over the
+ * limit are rejected immediately with a 429. Routes take their parameters in the query string, so the request path
+ * identifies the route.
+ * <p>
+ * Anonymous callers are identified by the address of the connection. X-Forwarded-For is only honored on connections
+ * from the configured trustedProxies, anyone else could pick a new address for every request.
+ */
+@Singleton
 public class RateLimitFilter implements RequestResponseHandler {
-    private static final Map<String, RateLimiter> rateLimiters = new HashMap<>();
-    public static final int PERMITS_PER_SECOND = 1;
+    public static final String CONFIG_PERMITS_PER_SECOND = RateLimitFilter.class.getName() + ".permitsPerSecond";
+    public static final double DEFAULT_PERMITS_PER_SECOND = 1;
+    public static final String CONFIG_ROUTE_PERMITS_PER_SECOND_PREFIX = RateLimitFilter.class.getName() + ".route";
+    public static final String CONFIG_MAXIMUM_LIMITERS = RateLimitFilter.class.getName() + ".maximumLimiters";
+    public static final long DEFAULT_MAXIMUM_LIMITERS = 10000;
+    public static final String CONFIG_IDLE_EXPIRE_SECONDS = RateLimitFilter.class.getName() + ".idleExpireSeconds";
+    public static final long DEFAULT_IDLE_EXPIRE_SECONDS = 600;
+    public static final String CONFIG_TRUSTED_PROXIES = RateLimitFilter.class.getName() + ".trustedProxies";
     private static final int TOO_MANY_REQUESTS = 429;
+    private final double permitsPerSecond;
+    private final Map<String, Double> routePermitsPerSecond = new HashMap<>();
+    private final Set<String> trustedProxies = new HashSet<>();
+    private final LoadingCache<RateLimiterKey, RateLimiter> rateLimiters;
+
+    @Inject
+    public RateLimitFilter(Configuration configuration) {
+        this.permitsPerSecond = Double.parseDouble(configuration.get(
+                CONFIG_PERMITS_PER_SECOND,
+                Double.toString(DEFAULT_PERMITS_PER_SECOND)
+        ));
+        for (Map.Entry<String, String> entry : configuration.getSubset(CONFIG_ROUTE_PERMITS_PER_SECOND_PREFIX).entrySet()) {
+            routePermitsPerSecond.put(entry.getKey(), Double.parseDouble(entry.getValue()));
+        }
+        for (String trustedProxy : configuration.get(CONFIG_TRUSTED_PROXIES, "").split(",")) {
+            if (!trustedProxy.trim().isEmpty()) {
+                trustedProxies.add(trustedProxy.trim());
+            }
+        }
+        this.rateLimiters = CacheBuilder.newBuilder()
+                .maximumSize(configuration.getLong(CONFIG_MAXIMUM_LIMITERS, DEFAULT_MAXIMUM_LIMITERS))
+                .expireAfterAccess(configuration.getLong(CONFIG_IDLE_EXPIRE_SECONDS, DEFAULT_IDLE_EXPIRE_SECONDS), TimeUnit.SECONDS)
+                .build(new CacheLoader<RateLimiterKey, RateLimiter>() {
+                    @Override
+                    public RateLimiter load(RateLimiterKey key) {
+                        return RateLimiter.create(routePermitsPerSecond.getOrDefault(key.route, permitsPerSecond));
+                    }
+                });
+    }
 
     @Override
     public void handle(HttpServletRequest request, HttpServletResponse response, HandlerChain chain) throws Exception {
-        String url = request.getRequestURI();
-        RateLimiter rateLimiter = getRateLimiterForUri(url);
-        if (rateLimiter.tryAcquire(1, TimeUnit.SECONDS)) {
+        RateLimiter rateLimiter = rateLimiters.getUnchecked(new RateLimiterKey(getRoute(request), getCaller(request)));
+        if (rateLimiter.tryAcquire()) {
             chain.next(request, response);
             return;
         }
         response.sendError(TOO_MANY_REQUESTS, "Rate limit reached");
     }
 
-    private RateLimiter getRateLimiterForUri(String url) {
-        RateLimiter rateLimiter = rateLimiters.get(url);
-        if (rateLimiter == null) {
-            rateLimiter = RateLimiter.create(PERMITS_PER_SECOND);
-            rateLimiters.put(url, rateLimiter);
+    private String getRoute(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        if (contextPath != null && uri.startsWith(contextPath)) {
+            uri = uri.substring(contextPath.length());
+        }
+        return uri;
+    }
+
+    private String getCaller(HttpServletRequest request) {
+        User user = CurrentUser.get(request);
+        return user == null ? "addr:" + getRemoteAddress(request) : "user:" + user.getUserId();
+    }
+
+    private String getRemoteAddress(HttpServletRequest request) {
+        String remoteAddress = request.getRemoteAddr();
+        if (!trustedProxies.contains(remoteAddress)) {
+            return remoteAddress;
+        }
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null) {
+            return remoteAddress;
+        }
+        // each proxy appends the address it received the request from, the first untrusted one from the right is the caller
+        String[] forwardedAddresses = forwardedFor.split(",");
+        for (int i = forwardedAddresses.length - 1; i >= 0; i--) {
+            String forwardedAddress = forwardedAddresses[i].trim();
+            if (forwardedAddress.isEmpty()) {
+                continue;
+            }
+            remoteAddress = forwardedAddress;
+            if (!trustedProxies.contains(forwardedAddress)) {
+                break;
+            }
+        }
+        return remoteAddress;
+    }
+
+    private static class RateLimiterKey {
+        private final String route;
+        private final String caller;
+
+        RateLimiterKey(String route, String caller) {
+            this.route = route;
+            this.caller = caller;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            RateLimiterKey that = (RateLimiterKey) o;
+            return route.equals(that.route) && caller.equals(that.caller);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * route.hashCode() + caller.hashCode();
         }
-        return rateLimiter;
     }
 }
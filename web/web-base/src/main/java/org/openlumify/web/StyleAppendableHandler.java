@@ -1,68 +1,69 @@
 package org.openlumify.web;
 
-import com.asual.lesscss.LessEngine;
-import com.asual.lesscss.LessOptions;
 import org.visallo.webster.HandlerChain;
 import org.visallo.webster.RequestResponseHandler;
 import org.apache.commons.io.IOUtils;
 import org.openlumify.core.exception.OpenLumifyException;
+import org.openlumify.web.util.CompiledAsset;
 
-import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 public class StyleAppendableHandler implements RequestResponseHandler {
-    private LessEngine lessCompiler;
-    private String css = "";
+    private final List<Future<String>> parts = new ArrayList<>();
+    private final List<String> partNames = new ArrayList<>();
+    private CompiledAsset css;
 
     @Override
     public void handle(HttpServletRequest request, HttpServletResponse response, HandlerChain chain) throws Exception {
-        response.setContentType("text/css");
-        try (ServletOutputStream out = response.getOutputStream()) {
-            out.write(css.getBytes());
-        }
+        getCss().write(request, response);
     }
 
-    public void appendLessResource(String pathInfo) {
-        try (InputStream in = this.getClass().getResourceAsStream(pathInfo)) {
-            checkNotNull(in, "Could not find resource: " + pathInfo);
-            try (StringWriter writer = new StringWriter()) {
-                IOUtils.copy(in, writer, StandardCharsets.UTF_8);
-                String inputLess = writer.toString();
-                String output = lessCompiler().compile(inputLess);
-                appendCss(output);
+    private synchronized CompiledAsset getCss() throws InterruptedException {
+        if (css == null) {
+            StringBuilder output = new StringBuilder();
+            for (int i = 0; i < parts.size(); i++) {
+                try {
+                    output.append(parts.get(i).get()).append("\n");
+                } catch (ExecutionException ex) {
+                    throw new OpenLumifyException("Could not append less resource: " + partNames.get(i), ex.getCause());
+                }
             }
-        } catch (Exception ex) {
-            throw new OpenLumifyException("Could not append less resource: " + pathInfo, ex);
+            css = new CompiledAsset(output.toString(), "text/css");
         }
+        return css;
+    }
+
+    /**
+     * Starts compiling the less resource in the background, the compiled css is appended in registration order.
+     */
+    public synchronized void appendLessResource(String pathInfo) {
+        checkNotNull(this.getClass().getResource(pathInfo), "Could not find resource: " + pathInfo);
+        append(pathInfo, LessCompiler.submit(pathInfo));
     }
 
-    public void appendCssResource(String pathInfo) {
+    public synchronized void appendCssResource(String pathInfo) {
         try (InputStream in = this.getClass().getResourceAsStream(pathInfo)) {
             checkNotNull(in, "Could not find resource: " + pathInfo);
-            appendCss(IOUtils.toString(in));
+            append(pathInfo, CompletableFuture.completedFuture(IOUtils.toString(in, StandardCharsets.UTF_8)));
         } catch (IOException ex) {
             throw new OpenLumifyException("Could not append css resource: " + pathInfo, ex);
         }
     }
 
-    private void appendCss(String output) {
-        css += output + "\n";
-    }
-
-    private synchronized LessEngine lessCompiler() {
-        if (lessCompiler == null) {
-            LessOptions options = new LessOptions();
-            options.setCompress(true);
-            options.setCharset("UTF-8");
-            lessCompiler = new LessEngine(options);
-        }
-        return lessCompiler;
+    private void append(String pathInfo, Future<String> part) {
+        parts.add(part);
+        partNames.add(pathInfo);
+        css = null;
     }
 }
@@ -19,11 +19,13 @@ import org.openlumify.web.parameterProviders.*;
 import org.openlumify.web.parameterValueConverters.ElementTypeParameterValueConverter;
 import org.openlumify.web.parameterValueConverters.JSONObjectParameterValueConverter;
 import org.openlumify.web.routes.notification.SystemNotificationSeverityValueConverter;
+import org.openlumify.web.util.js.CompilationDiskCache;
 import org.openlumify.web.util.js.SourceMapType;
 
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Method;
@@ -49,6 +51,7 @@ public class WebApp extends App {
     private final StyleAppendableHandler pluginsCssResourceHandler = new StyleAppendableHandler();
     private final List<String> pluginsCssResources = new ArrayList<>();
     private final OpenLumifyResourceBundleManager openlumifyResourceBundleManager;
+    private final CompilationDiskCache compilationDiskCache;
     private OpenLumifyDefaultResultWriterFactory openlumifyDefaultResultWriterFactory;
 
     public WebApp(final ServletContext servletContext, final Injector injector) {
@@ -82,6 +85,8 @@ public class WebApp extends App {
         this.devMode = config.getBoolean(Configuration.DEV_MODE, Configuration.DEV_MODE_DEFAULT);
 
         openlumifyResourceBundleManager = new OpenLumifyResourceBundleManager(config);
+        String compilationCacheDirectory = config.get(CompilationDiskCache.CONFIG_DIRECTORY, CompilationDiskCache.DEFAULT_DIRECTORY);
+        compilationDiskCache = compilationCacheDirectory.trim().isEmpty() ? null : new CompilationDiskCache(new File(compilationCacheDirectory));
         
         if (!isDevModeEnabled()) {
             String pluginsCssRoute = "plugins.css";
@@ -128,7 +133,7 @@ public class WebApp extends App {
         String resourcePath = "/" + (pathPrefix + name).replaceAll("^/", "");
         if (type.equals("application/javascript") && !skipCompile) {
             boolean enableSourceMaps = isDevModeEnabled();
-            JavascriptResourceHandler handler = new JavascriptResourceHandler(name, resourcePath, enableSourceMaps, closureExternResourcePath);
+            JavascriptResourceHandler handler = new JavascriptResourceHandler(name, resourcePath, enableSourceMaps, closureExternResourcePath, compilationDiskCache);
             get(resourcePath, handler);
             if (enableSourceMaps) {
                 get(resourcePath + ".map", handler);
@@ -241,7 +246,7 @@ public class WebApp extends App {
             String resourcePath = "/" + ("jsc" + scriptResourceName).replaceAll("^/", "");
             String toResourcePath = resourcePath.replaceAll("jsx$", "js");
             SourceMapType map = SourceMapType.EXTERNAL;
-            JsxResourceHandler handler = new JsxResourceHandler(scriptResourceName, resourcePath, toResourcePath, map);
+            JsxResourceHandler handler = new JsxResourceHandler(scriptResourceName, resourcePath, toResourcePath, map, compilationDiskCache);
             get(toResourcePath, handler);
             if (map == SourceMapType.EXTERNAL) {
                 get(toResourcePath + ".map", handler);
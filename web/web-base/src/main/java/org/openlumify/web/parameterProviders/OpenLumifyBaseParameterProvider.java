@@ -70,6 +70,27 @@ public abstract class OpenLumifyBaseParameterProvider<T> extends ParameterProvid
         return workspaceId;
     }
 
+    /**
+     * The workspace ACLs in a response are computed for: the active workspace, or the user's current workspace when
+     * none is given or the user can not read it.
+     */
+    public static String getAclWorkspaceId(
+            final HttpServletRequest request,
+            final WorkspaceRepository workspaceRepository
+    ) {
+        String workspaceId;
+        try {
+            workspaceId = getActiveWorkspaceIdOrDefault(request, workspaceRepository);
+        } catch (OpenLumifyAccessDeniedException ex) {
+            workspaceId = null;
+        }
+        if (workspaceId == null || workspaceId.trim().length() == 0) {
+            User user = CurrentUser.get(request);
+            workspaceId = user == null ? null : user.getCurrentWorkspaceId();
+        }
+        return workspaceId;
+    }
+
     protected static String getActiveWorkspaceId(
             final HttpServletRequest request,
             final WorkspaceRepository workspaceRepository
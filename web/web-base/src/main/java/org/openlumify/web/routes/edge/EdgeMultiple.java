@@ -1,5 +1,6 @@
 package org.openlumify.web.routes.edge;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -10,27 +11,60 @@ import org.vertexium.Authorizations;
 import org.vertexium.Edge;
 import org.vertexium.FetchHint;
 import org.vertexium.Graph;
+import org.openlumify.core.config.Configuration;
 import org.openlumify.core.model.user.AuthorizationRepository;
+import org.openlumify.core.model.workspace.WorkspaceRepository;
+import org.openlumify.core.security.ACLProvider;
 import org.openlumify.core.user.User;
 import org.openlumify.core.util.ClientApiConverter;
 import org.openlumify.web.clientapi.model.ClientApiEdge;
 import org.openlumify.web.clientapi.model.ClientApiEdgeMultipleResponse;
 import org.openlumify.web.parameterProviders.ActiveWorkspaceId;
+import org.openlumify.web.parameterProviders.OpenLumifyBaseParameterProvider;
+import org.openlumify.web.util.ClientApiStreamWriter;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
+/**
+ * With {@link #CONFIG_STREAMING} enabled the edges are fetched {@link #CONFIG_FETCH_BATCH_SIZE} at a time and each
+ * one is written to the response as soon as it is converted. Streaming is off by default, and subclasses, which may
+ * override {@link #getEdges(HttpServletRequest, String, Iterable, Authorizations)}, only stream if they override
+ * {@link #isStreamingSupported()} as well.
+ */
 @Singleton
 public class EdgeMultiple implements ParameterizedHandler {
+    public static final String CONFIG_STREAMING = EdgeMultiple.class.getName() + ".streaming";
+    public static final boolean DEFAULT_STREAMING = false;
+    public static final String CONFIG_FETCH_BATCH_SIZE = EdgeMultiple.class.getName() + ".fetchBatchSize";
+    public static final int DEFAULT_FETCH_BATCH_SIZE = 500;
     private final Graph graph;
+    private final WorkspaceRepository workspaceRepository;
     private final AuthorizationRepository authorizationRepository;
+    private final ACLProvider aclProvider;
+    private final boolean streaming;
+    private final int fetchBatchSize;
+    private final String responseHeaderXFrameOptions;
 
     @Inject
     public EdgeMultiple(
             Graph graph,
-            AuthorizationRepository authorizationRepository
+            WorkspaceRepository workspaceRepository,
+            AuthorizationRepository authorizationRepository,
+            ACLProvider aclProvider,
+            Configuration configuration
     ) {
         this.graph = graph;
+        this.workspaceRepository = workspaceRepository;
         this.authorizationRepository = authorizationRepository;
+        this.aclProvider = aclProvider;
+        this.streaming = configuration.getBoolean(CONFIG_STREAMING, DEFAULT_STREAMING);
+        this.fetchBatchSize = Math.max(1, configuration.getInt(CONFIG_FETCH_BATCH_SIZE, DEFAULT_FETCH_BATCH_SIZE));
+        this.responseHeaderXFrameOptions = configuration.get(Configuration.WEB_RESPONSE_HEADER_X_FRAME_OPTIONS, null);
     }
 
     @Handle
@@ -38,17 +72,31 @@ public class EdgeMultiple implements ParameterizedHandler {
             @Required(name = "edgeIds[]") String[] edgeIdsParameter,
             @ActiveWorkspaceId(required = false) String workspaceId,
             HttpServletRequest request,
+            HttpServletResponse response,
             User user
     ) throws Exception {
         Authorizations authorizations = workspaceId != null ?
                 authorizationRepository.getGraphAuthorizations(user, workspaceId) :
                 authorizationRepository.getGraphAuthorizations(user);
 
-        return getEdges(request, workspaceId, Sets.newHashSet(edgeIdsParameter), authorizations);
+        Set<String> edgeIds = Sets.newLinkedHashSet(Arrays.asList(edgeIdsParameter));
+        if (streaming && isStreamingSupported()) {
+            writeEdges(request, response, workspaceId, edgeIds, authorizations, user);
+            return null;
+        }
+        return getEdges(request, workspaceId, edgeIds, authorizations);
+    }
+
+    /**
+     * Web plugins that override {@link #getEdges(HttpServletRequest, String, Iterable, Authorizations)} keep the
+     * default, the edges are then always returned by it instead of being streamed.
+     */
+    protected boolean isStreamingSupported() {
+        return getClass() == EdgeMultiple.class;
     }
 
     /**
-     * This is overridable so web plugins can modify the resulting set of edges.
+     * This is overridable so web plugins can modify the resulting set of edges, see {@link #isStreamingSupported()}.
      */
     @SuppressWarnings("UnusedParameters")
     protected ClientApiEdgeMultipleResponse getEdges(
@@ -67,4 +115,27 @@ public class EdgeMultiple implements ParameterizedHandler {
 
         return edgeResult;
     }
+
+    private void writeEdges(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            String workspaceId,
+            Set<String> edgeIds,
+            Authorizations authorizations,
+            User user
+    ) throws IOException {
+        // the same workspace the buffered response's ACLs are computed for
+        String aclWorkspaceId = OpenLumifyBaseParameterProvider.getAclWorkspaceId(request, workspaceRepository);
+        try (ClientApiStreamWriter writer = new ClientApiStreamWriter(response, responseHeaderXFrameOptions, aclProvider.createACLAppender(user, aclWorkspaceId))) {
+            writer.startArray("edges");
+            for (List<String> batch : Iterables.partition(edgeIds, fetchBatchSize)) {
+                Iterable<Edge> edges = graph.getEdges(batch, FetchHint.ALL, authorizations);
+                for (Edge e : edges) {
+                    writer.write(ClientApiConverter.toClientApiEdge(e, workspaceId));
+                }
+            }
+            writer.endArray();
+            writer.finish();
+        }
+    }
 }
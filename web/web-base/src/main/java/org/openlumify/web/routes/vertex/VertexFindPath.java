@@ -13,6 +13,7 @@ import org.openlumify.core.exception.OpenLumifyResourceNotFoundException;
 import org.openlumify.core.model.longRunningProcess.FindPathLongRunningProcessQueueItem;
 import org.openlumify.core.model.longRunningProcess.LongRunningProcessRepository;
 import org.openlumify.core.user.User;
+import org.openlumify.web.BadRequestException;
 import org.openlumify.web.OpenLumifyResponse;
 import org.openlumify.web.clientapi.model.ClientApiLongRunningProcessSubmitResponse;
 import org.openlumify.web.parameterProviders.ActiveWorkspaceId;
@@ -39,6 +40,8 @@ public class VertexFindPath implements ParameterizedHandler {
             @Required(name = "inVertexId") String inVertexId,
             @Required(name = "hops") int hops,
             @Optional(name = "edgeLabels[]") String[] edgeLabels,
+            @Optional(name = "maxPaths") Integer maxPaths,
+            @Optional(name = "timeoutSeconds") Integer timeoutSeconds,
             Authorizations authorizations,
             OpenLumifyResponse response
     ) throws Exception {
@@ -52,7 +55,24 @@ public class VertexFindPath implements ParameterizedHandler {
             throw new OpenLumifyResourceNotFoundException("Destination vertex not found");
         }
 
-        FindPathLongRunningProcessQueueItem findPathQueueItem = new FindPathLongRunningProcessQueueItem(outVertex.getId(), inVertex.getId(), edgeLabels, hops, workspaceId, authorizations);
+        // the worker caps both at its configured maximums
+        if (maxPaths != null && maxPaths <= 0) {
+            throw new BadRequestException("maxPaths", "maxPaths must be greater than 0");
+        }
+        if (timeoutSeconds != null && timeoutSeconds <= 0) {
+            throw new BadRequestException("timeoutSeconds", "timeoutSeconds must be greater than 0");
+        }
+
+        FindPathLongRunningProcessQueueItem findPathQueueItem = new FindPathLongRunningProcessQueueItem(
+                outVertex.getId(),
+                inVertex.getId(),
+                edgeLabels,
+                hops,
+                workspaceId,
+                authorizations,
+                maxPaths,
+                timeoutSeconds
+        );
         String id = this.longRunningProcessRepository.enqueue(findPathQueueItem.toJson(), user, authorizations);
 
         return new ClientApiLongRunningProcessSubmitResponse(id);
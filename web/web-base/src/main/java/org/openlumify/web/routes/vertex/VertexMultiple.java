@@ -1,48 +1,76 @@
 package org.openlumify.web.routes.vertex;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.vertexium.Authorizations;
 import org.vertexium.Graph;
 import org.vertexium.Vertex;
+import org.openlumify.core.config.Configuration;
 import org.openlumify.core.exception.OpenLumifyAccessDeniedException;
 import org.openlumify.core.model.user.AuthorizationRepository;
 import org.openlumify.core.model.workspace.WorkspaceRepository;
+import org.openlumify.core.security.ACLProvider;
 import org.openlumify.core.user.User;
 import org.openlumify.core.util.ClientApiConverter;
 import org.openlumify.web.clientapi.model.ClientApiVertex;
 import org.openlumify.web.clientapi.model.ClientApiVertexMultipleResponse;
 import org.openlumify.web.parameterProviders.OpenLumifyBaseParameterProvider;
+import org.openlumify.web.util.ClientApiStreamWriter;
 import org.visallo.webster.ParameterizedHandler;
 import org.visallo.webster.annotations.Handle;
 import org.visallo.webster.annotations.Optional;
 import org.visallo.webster.annotations.Required;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * With {@link #CONFIG_STREAMING} enabled the vertices are fetched {@link #CONFIG_FETCH_BATCH_SIZE} at a time and each
+ * one is written to the response as soon as it is converted, memory use no longer grows with the number requested.
+ * Streaming is off by default.
+ */
 @Singleton
 public class VertexMultiple implements ParameterizedHandler {
+    public static final String CONFIG_STREAMING = VertexMultiple.class.getName() + ".streaming";
+    public static final boolean DEFAULT_STREAMING = false;
+    public static final String CONFIG_FETCH_BATCH_SIZE = VertexMultiple.class.getName() + ".fetchBatchSize";
+    public static final int DEFAULT_FETCH_BATCH_SIZE = 500;
     private final Graph graph;
     private final WorkspaceRepository workspaceRepository;
     private final AuthorizationRepository authorizationRepository;
+    private final ACLProvider aclProvider;
+    private final boolean streaming;
+    private final int fetchBatchSize;
+    private final String responseHeaderXFrameOptions;
 
     @Inject
     public VertexMultiple(
             Graph graph,
             WorkspaceRepository workspaceRepository,
-            AuthorizationRepository authorizationRepository
+            AuthorizationRepository authorizationRepository,
+            ACLProvider aclProvider,
+            Configuration configuration
     ) {
         this.graph = graph;
         this.workspaceRepository = workspaceRepository;
         this.authorizationRepository = authorizationRepository;
+        this.aclProvider = aclProvider;
+        this.streaming = configuration.getBoolean(CONFIG_STREAMING, DEFAULT_STREAMING);
+        this.fetchBatchSize = Math.max(1, configuration.getInt(CONFIG_FETCH_BATCH_SIZE, DEFAULT_FETCH_BATCH_SIZE));
+        this.responseHeaderXFrameOptions = configuration.get(Configuration.WEB_RESPONSE_HEADER_X_FRAME_OPTIONS, null);
     }
 
     @Handle
     public ClientApiVertexMultipleResponse handle(
             HttpServletRequest request,
+            HttpServletResponse response,
             @Required(name = "vertexIds[]") String[] vertexIdsParam,
             @Optional(name = "fallbackToPublic", defaultValue = "false") boolean fallbackToPublic,
             @Optional(name = "includeAncillary", defaultValue = "false") boolean includeAncillary,
@@ -72,8 +100,14 @@ public class VertexMultiple implements ParameterizedHandler {
 
         Authorizations authorizations = authorizationRepository.getGraphAuthorizations(user, auths.toArray(new String[]{}));
 
+        Set<String> vertexIds = Sets.newLinkedHashSet(Arrays.asList(vertexIdsParam));
+        if (streaming) {
+            writeVertices(request, response, result.isRequiredFallback(), vertexIds, workspaceId, authorizations, user);
+            return null;
+        }
+
         Iterable<Vertex> graphVertices = graph.getVertices(
-                Sets.newHashSet(vertexIdsParam),
+                vertexIds,
                 ClientApiConverter.SEARCH_FETCH_HINTS,
                 authorizations
         );
@@ -90,4 +124,29 @@ public class VertexMultiple implements ParameterizedHandler {
 
         return result;
     }
+
+    private void writeVertices(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            boolean requiredFallback,
+            Set<String> vertexIds,
+            String workspaceId,
+            Authorizations authorizations,
+            User user
+    ) throws IOException {
+        // the same workspace the buffered response's ACLs are computed for
+        String aclWorkspaceId = OpenLumifyBaseParameterProvider.getAclWorkspaceId(request, workspaceRepository);
+        try (ClientApiStreamWriter writer = new ClientApiStreamWriter(response, responseHeaderXFrameOptions, aclProvider.createACLAppender(user, aclWorkspaceId))) {
+            writer.getGenerator().writeBooleanField("requiredFallback", requiredFallback);
+            writer.startArray("vertices");
+            for (List<String> batch : Iterables.partition(vertexIds, fetchBatchSize)) {
+                Iterable<Vertex> vertices = graph.getVertices(batch, ClientApiConverter.SEARCH_FETCH_HINTS, authorizations);
+                for (Vertex v : vertices) {
+                    writer.write(ClientApiConverter.toClientApiVertex(v, workspaceId, authorizations));
+                }
+            }
+            writer.endArray();
+            writer.finish();
+        }
+    }
 }
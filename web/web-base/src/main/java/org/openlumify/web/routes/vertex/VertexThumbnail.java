@@ -8,35 +8,27 @@ import org.visallo.webster.annotations.Optional;
 import org.visallo.webster.annotations.Required;
 import org.vertexium.Authorizations;
 import org.vertexium.Graph;
-import org.vertexium.Property;
 import org.vertexium.Vertex;
-import org.vertexium.property.StreamingPropertyValue;
 import org.openlumify.core.exception.OpenLumifyResourceNotFoundException;
-import org.openlumify.core.model.properties.OpenLumifyProperties;
 import org.openlumify.core.model.thumbnails.Thumbnail;
-import org.openlumify.core.model.thumbnails.ThumbnailRepository;
+import org.openlumify.core.model.thumbnails.ThumbnailService;
 import org.openlumify.core.user.User;
-import org.openlumify.core.util.OpenLumifyLogger;
-import org.openlumify.core.util.OpenLumifyLoggerFactory;
 import org.openlumify.web.OpenLumifyResponse;
 import org.openlumify.web.parameterProviders.ActiveWorkspaceId;
 
-import java.io.InputStream;
 import java.io.OutputStream;
 
 @Singleton
 public class VertexThumbnail implements ParameterizedHandler {
-    private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(VertexThumbnail.class);
-
-    private final ThumbnailRepository thumbnailRepository;
+    private final ThumbnailService thumbnailService;
     private final Graph graph;
 
     @Inject
     public VertexThumbnail(
-            final ThumbnailRepository thumbnailRepository,
+            final ThumbnailService thumbnailService,
             final Graph graph
     ) {
-        this.thumbnailRepository = thumbnailRepository;
+        this.thumbnailService = thumbnailService;
         this.graph = graph;
     }
 
@@ -54,53 +46,24 @@ public class VertexThumbnail implements ParameterizedHandler {
             throw new OpenLumifyResourceNotFoundException("Could not find vertex with id: " + graphVertexId);
         }
 
-        int[] boundaryDims = new int[]{200, 200};
+        int[] boundaryDims = new int[]{ThumbnailService.DEFAULT_THUMBNAIL_SIZE, ThumbnailService.DEFAULT_THUMBNAIL_SIZE};
         if (width != null) {
             boundaryDims[0] = boundaryDims[1] = width;
         }
 
-        byte[] thumbnailData;
-        Thumbnail thumbnail = thumbnailRepository.getThumbnail(
-                artifactVertex.getId(),
-                "raw",
-                boundaryDims[0], boundaryDims[1],
+        Thumbnail thumbnail = thumbnailService.getThumbnail(
+                artifactVertex,
+                ThumbnailService.THUMBNAIL_TYPE_RAW,
+                boundaryDims,
                 workspaceId,
-                user);
-        if (thumbnail != null) {
-            String format = thumbnail.getFormat();
-            response.setContentType("image/" + format);
-            response.addHeader("Content-Disposition", "inline; filename=thumbnail" + boundaryDims[0] + "." + format);
-            response.setMaxAge(OpenLumifyResponse.EXPIRES_1_HOUR);
-
-            thumbnailData = thumbnail.getData();
-            if (thumbnailData != null) {
-                LOGGER.debug("Cache hit for: %s (raw) %d x %d", artifactVertex.getId(), boundaryDims[0], boundaryDims[1]);
-                try (OutputStream out = response.getOutputStream()) {
-                    out.write(thumbnailData);
-                }
-                return;
-            }
-        }
-
-        LOGGER.info("Cache miss for: %s (raw) %d x %d", artifactVertex.getId(), boundaryDims[0], boundaryDims[1]);
-        Property rawProperty = OpenLumifyProperties.RAW.getProperty(artifactVertex);
-        StreamingPropertyValue rawPropertyValue = OpenLumifyProperties.RAW.getPropertyValue(artifactVertex);
-        if (rawPropertyValue == null) {
-            throw new OpenLumifyResourceNotFoundException("Could not find raw property on vertex: " + artifactVertex.getId());
-        }
-
-        try (InputStream in = rawPropertyValue.getInputStream()) {
-            thumbnail = thumbnailRepository.createThumbnail(artifactVertex, rawProperty.getKey(), "raw", in, boundaryDims, user);
-
-            String format = thumbnail.getFormat();
-            response.setContentType("image/" + format);
-            response.addHeader("Content-Disposition", "inline; filename=thumbnail" + boundaryDims[0] + "." + format);
-            response.setMaxAge(OpenLumifyResponse.EXPIRES_1_HOUR);
-
-            thumbnailData = thumbnail.getData();
-        }
+                user
+        );
+        String format = thumbnail.getFormat();
+        response.setContentType("image/" + format);
+        response.addHeader("Content-Disposition", "inline; filename=thumbnail" + boundaryDims[0] + "." + format);
+        response.setMaxAge(OpenLumifyResponse.EXPIRES_1_HOUR);
         try (OutputStream out = response.getOutputStream()) {
-            out.write(thumbnailData);
+            out.write(thumbnail.getData());
         }
     }
 }
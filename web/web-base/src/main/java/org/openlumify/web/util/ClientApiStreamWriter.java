@@ -0,0 +1,75 @@
+package org.openlumify.web.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.openlumify.web.clientapi.model.ClientApiObject;
+import org.openlumify.web.clientapi.util.ObjectMapperFactory;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes a JSON response object whose array of client api objects is written as the objects are converted, so
+ * the whole response never has to be held in memory. A response that is not finished is left incomplete, so a
+ * failure part way through is not mistaken for a complete response.
+ *
+ * <pre>
+ * try (ClientApiStreamWriter writer = new ClientApiStreamWriter(response, xFrameOptions, aclAppender)) {
+ *     writer.getGenerator().writeBooleanField("requiredFallback", false);
+ *     writer.startArray("vertices");
+ *     writer.write(clientApiVertex);
+ *     writer.endArray();
+ *     writer.finish();
+ * }
+ * </pre>
+ */
+public class ClientApiStreamWriter implements Closeable {
+    private final JsonGenerator generator;
+    private final Consumer<ClientApiObject> aclAppender;
+
+    /**
+     * @param xFrameOptions The configured X-Frame-Options header, see Configuration.WEB_RESPONSE_HEADER_X_FRAME_OPTIONS
+     * @param aclAppender   Appends ACLs to each object before it is written, see ACLProvider.createACLAppender
+     */
+    public ClientApiStreamWriter(
+            HttpServletResponse response,
+            String xFrameOptions,
+            Consumer<ClientApiObject> aclAppender
+    ) throws IOException {
+        this.aclAppender = aclAppender;
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        ResponseHeaderUtil.addSecurityHeaders(response, xFrameOptions);
+        ResponseHeaderUtil.addNoCacheHeaders(response);
+        this.generator = ObjectMapperFactory.getInstance().getFactory().createGenerator(response.getOutputStream());
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        this.generator.writeStartObject();
+    }
+
+    public JsonGenerator getGenerator() {
+        return generator;
+    }
+
+    public void startArray(String fieldName) throws IOException {
+        generator.writeArrayFieldStart(fieldName);
+    }
+
+    public void write(ClientApiObject clientApiObject) throws IOException {
+        aclAppender.accept(clientApiObject);
+        generator.writeObject(clientApiObject);
+    }
+
+    public void endArray() throws IOException {
+        generator.writeEndArray();
+    }
+
+    public void finish() throws IOException {
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,117 @@
+package org.openlumify.web.util;
+
+import com.google.common.hash.Hashing;
+import org.openlumify.core.exception.OpenLumifyException;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The output of a compiled web resource, encoded once when it is compiled. Requests are answered with a 304 when
+ * their If-None-Match matches the content hash and with the gzipped bytes when the client accepts them.
+ */
+public class CompiledAsset {
+    private static final String GZIP_ETAG_SUFFIX = "-gz";
+    private final String contentType;
+    private final byte[] data;
+    private final byte[] gzipData;
+    private final String hash;
+
+    public CompiledAsset(String content, String contentType) {
+        this.contentType = contentType;
+        this.data = content.getBytes(StandardCharsets.UTF_8);
+        this.hash = Hashing.sha1().hashBytes(data).toString();
+        byte[] gzipped = gzip(data);
+        // small outputs can grow when compressed
+        this.gzipData = gzipped.length < data.length ? gzipped : null;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean gzip = gzipData != null && acceptsGzip(request);
+        String etag = "\"" + hash + (gzip ? GZIP_ETAG_SUFFIX : "") + "\"";
+        response.setHeader("ETag", etag);
+        response.setHeader("Vary", "Accept-Encoding");
+        response.setContentType(contentType);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        if (matchesIfNoneMatch(request.getHeader("If-None-Match"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = gzip ? gzipData : data;
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        response.setContentLength(body.length);
+        try (ServletOutputStream out = response.getOutputStream()) {
+            out.write(body);
+        }
+    }
+
+    private boolean matchesIfNoneMatch(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*")
+                    || tag.equals("\"" + hash + "\"")
+                    || tag.equals("\"" + hash + GZIP_ETAG_SUFFIX + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.equals("q=0") || param.matches("q=0\\.0*")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(data);
+        } catch (IOException ex) {
+            throw new OpenLumifyException("Could not compress asset", ex);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,23 @@
+package org.openlumify.web.util;
+
+import javax.servlet.http.HttpServletResponse;
+
+public class ResponseHeaderUtil {
+    /**
+     * @param xFrameOptions The value of {@link org.openlumify.core.config.Configuration#WEB_RESPONSE_HEADER_X_FRAME_OPTIONS}
+     */
+    public static void addSecurityHeaders(HttpServletResponse response, String xFrameOptions) {
+        if (!response.containsHeader("X-Frame-Options")) {
+            response.addHeader("X-Frame-Options", xFrameOptions);
+        }
+        if (!response.containsHeader("X-Content-Type-Options")) {
+            response.addHeader("X-Content-Type-Options", "nosniff");
+        }
+    }
+
+    public static void addNoCacheHeaders(HttpServletResponse response) {
+        response.addHeader("Cache-Control", "no-cache, no-store, must-revalidate");
+        response.addHeader("Pragma", "no-cache");
+        response.addHeader("Expires", "0");
+    }
+}
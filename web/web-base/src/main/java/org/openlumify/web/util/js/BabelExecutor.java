@@ -1,5 +1,7 @@
 package org.openlumify.web.util.js;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import org.apache.commons.io.IOUtils;
 import org.openlumify.core.exception.OpenLumifyException;
 import org.openlumify.core.util.OpenLumifyLogger;
@@ -7,6 +9,7 @@ import org.openlumify.core.util.OpenLumifyLoggerFactory;
 
 import javax.script.*;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
@@ -19,6 +22,7 @@ public class BabelExecutor {
     private Bindings bindings;
     private Future babelFuture;
     private ExecutorService executorService;
+    private final String compilerId;
 
     public BabelExecutor() {
         this.executorService = Executors.newSingleThreadExecutor(new ThreadFactory() {
@@ -30,6 +34,7 @@ public class BabelExecutor {
             }
         });
         this.babelFuture = this.executorService.submit(() -> initializeBabel());
+        this.compilerId = createCompilerId();
     }
 
     public <T> Future<T> submit(Callable<T> task) {
@@ -39,6 +44,13 @@ public class BabelExecutor {
         });
     }
 
+    /**
+     * Identifies the babel version and transform, compilations cached by another compiler are not reused.
+     */
+    public String getCompilerId() {
+        return compilerId;
+    }
+
     public synchronized void compileWithSharedEngine(CachedCompilation cachedCompilation, SourceMapType sourceMapType) throws ScriptException {
         ScriptEngine engine = this.engine;
         Bindings bindings = this.bindings;
@@ -87,6 +99,21 @@ public class BabelExecutor {
         }
     }
 
+    private String createCompilerId() {
+        Hasher hasher = Hashing.sha1().newHasher();
+        for (String resourceName : new String[]{"babel.js", "babel-transform.js"}) {
+            try (InputStream in = getClass().getResourceAsStream(resourceName)) {
+                if (in == null) {
+                    throw new OpenLumifyException("Could not find resource: " + resourceName);
+                }
+                hasher.putBytes(IOUtils.toByteArray(in));
+            } catch (IOException e) {
+                throw new OpenLumifyException("Unable to read " + resourceName, e);
+            }
+        }
+        return "babel:" + hasher.hash().toString();
+    }
+
     private void initializeBabel() {
         try {
             long start = System.nanoTime();
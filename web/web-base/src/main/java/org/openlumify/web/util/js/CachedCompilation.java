@@ -1,5 +1,7 @@
 package org.openlumify.web.util.js;
 
+import org.openlumify.web.util.CompiledAsset;
+
 public class CachedCompilation {
     private String sourceMap;
     private String path;
@@ -7,6 +9,9 @@ public class CachedCompilation {
     private String input;
     private String output;
     private Long lastModified;
+    private volatile CompiledAsset sourceMapAsset;
+    private volatile CompiledAsset inputAsset;
+    private volatile CompiledAsset outputAsset;
 
     public String getResourcePath() {
         return resourcePath;
@@ -30,6 +35,7 @@ public class CachedCompilation {
 
     public void setSourceMap(String sourceMap) {
         this.sourceMap = sourceMap;
+        this.sourceMapAsset = null;
     }
 
     public String getInput() {
@@ -38,6 +44,7 @@ public class CachedCompilation {
 
     public void setInput(String input) {
         this.input = input;
+        this.inputAsset = null;
     }
 
     public String getOutput() {
@@ -46,6 +53,28 @@ public class CachedCompilation {
 
     public void setOutput(String output) {
         this.output = output;
+        this.outputAsset = null;
+    }
+
+    public CompiledAsset getSourceMapAsset() {
+        if (sourceMapAsset == null && sourceMap != null) {
+            sourceMapAsset = new CompiledAsset(sourceMap, "application/json");
+        }
+        return sourceMapAsset;
+    }
+
+    public CompiledAsset getInputAsset() {
+        if (inputAsset == null && input != null) {
+            inputAsset = new CompiledAsset(input, "application/javascript");
+        }
+        return inputAsset;
+    }
+
+    public CompiledAsset getOutputAsset() {
+        if (outputAsset == null && output != null) {
+            outputAsset = new CompiledAsset(output, "application/javascript");
+        }
+        return outputAsset;
     }
 
     public Long getLastModified() {
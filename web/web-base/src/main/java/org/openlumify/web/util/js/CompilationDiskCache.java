@@ -0,0 +1,156 @@
+package org.openlumify.web.util.js;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.commons.io.FileUtils;
+import org.json.JSONObject;
+import org.openlumify.core.util.OpenLumifyLogger;
+import org.openlumify.core.util.OpenLumifyLoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Keeps compiled JavaScript in a local directory so a restarted web server does not compile its plugins again.
+ * Entries are keyed by a hash of the input and everything that affects the compiler output, a changed resource
+ * or compiler gets a new entry. Nothing is ever evicted, old entries are small and can be deleted at any time.
+ * <p>
+ * The cache is disabled unless a directory is configured. Cached output is served to browsers, so the directory
+ * is created readable by its owner only, and a directory or file that is not owned by the user running the web
+ * server, is a symbolic link, or is writable by others is never used.
+ */
+public class CompilationDiskCache {
+    private static final OpenLumifyLogger LOGGER = OpenLumifyLoggerFactory.getLogger(CompilationDiskCache.class);
+    public static final String CONFIG_DIRECTORY = CompilationDiskCache.class.getName() + ".directory";
+    public static final String DEFAULT_DIRECTORY = "";
+    private static final Set<PosixFilePermission> DIRECTORY_PERMISSIONS = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> WRITABLE_BY_OTHERS = EnumSet.of(PosixFilePermission.GROUP_WRITE, PosixFilePermission.OTHERS_WRITE);
+    private static final String FORMAT_VERSION = "1";
+    private final File directory;
+
+    public CompilationDiskCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param input           The source being compiled
+     * @param compilerOptions Everything else the output depends on, such as the compiler, its options and externs
+     */
+    public String getKey(String input, String... compilerOptions) {
+        Hasher hasher = Hashing.sha1().newHasher();
+        hasher.putString(FORMAT_VERSION, StandardCharsets.UTF_8);
+        for (String compilerOption : compilerOptions) {
+            hasher.putChar('\0');
+            hasher.putString(compilerOption == null ? "" : compilerOption, StandardCharsets.UTF_8);
+        }
+        hasher.putChar('\0');
+        hasher.putString(input, StandardCharsets.UTF_8);
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Sets the output and source map of the compilation from the cache.
+     *
+     * @return false if the cache has no entry for the key
+     */
+    public boolean read(String key, CachedCompilation cachedCompilation) {
+        File file = getFile(key);
+        if (!Files.isRegularFile(file.toPath(), LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+        try {
+            checkDirectory();
+            checkTrusted(file.toPath());
+            JSONObject json = new JSONObject(FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+            cachedCompilation.setOutput(json.getString("output"));
+            cachedCompilation.setSourceMap(json.optString("sourceMap", null));
+            LOGGER.debug("Read compilation of %s from %s", cachedCompilation.getResourcePath(), file);
+            return true;
+        } catch (Exception ex) {
+            LOGGER.warn("Could not read compilation cache file %s, compiling again", file, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Stores a successful compilation, failures are compiled again next time.
+     */
+    public void write(String key, CachedCompilation cachedCompilation) {
+        if (cachedCompilation.getOutput() == null) {
+            return;
+        }
+        File file = getFile(key);
+        File tempFile = null;
+        try {
+            createDirectory();
+            checkDirectory();
+            JSONObject json = new JSONObject();
+            json.put("resourcePath", cachedCompilation.getResourcePath());
+            json.put("output", cachedCompilation.getOutput());
+            if (cachedCompilation.getSourceMap() != null) {
+                json.put("sourceMap", cachedCompilation.getSourceMap());
+            }
+            // web servers sharing the directory only ever see complete files
+            // created readable by the owner only
+            tempFile = Files.createTempFile(directory.toPath(), key, ".tmp").toFile();
+            FileUtils.writeStringToFile(tempFile, json.toString(), StandardCharsets.UTF_8);
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception ex) {
+            LOGGER.warn("Could not write compilation cache file %s", file, ex);
+            FileUtils.deleteQuietly(tempFile);
+        }
+    }
+
+    private void createDirectory() throws IOException {
+        Path path = directory.toPath();
+        if (Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        if (isPosix(path)) {
+            Files.createDirectories(path, PosixFilePermissions.asFileAttribute(DIRECTORY_PERMISSIONS));
+        } else {
+            Files.createDirectories(path);
+        }
+    }
+
+    private void checkDirectory() throws IOException {
+        Path path = directory.toPath();
+        if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException("Not a directory: " + directory);
+        }
+        checkTrusted(path);
+    }
+
+    private void checkTrusted(Path path) throws IOException {
+        UserPrincipal owner = Files.getOwner(path, LinkOption.NOFOLLOW_LINKS);
+        UserPrincipal processUser = path.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!owner.equals(processUser)) {
+            throw new IOException("Refusing to use " + path + " owned by " + owner.getName() + " instead of " + processUser.getName());
+        }
+        if (isPosix(path)) {
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path, LinkOption.NOFOLLOW_LINKS);
+            if (permissions.stream().anyMatch(WRITABLE_BY_OTHERS::contains)) {
+                throw new IOException("Refusing to use " + path + " writable by other users: " + PosixFilePermissions.toString(permissions));
+            }
+        }
+    }
+
+    private static boolean isPosix(Path path) {
+        return path.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    private File getFile(String key) {
+        return new File(directory, key + ".json");
+    }
+}